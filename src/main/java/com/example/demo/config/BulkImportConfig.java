@@ -0,0 +1,42 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Giới hạn multipart của servlet là chung cho mọi endpoint, nên trần được nâng lên bằng giới hạn file import
+ * và MultipartSizeLimitFilter giữ các endpoint còn lại ở mức spring.servlet.multipart.max-request-size.
+ */
+@Configuration
+@EnableConfigurationProperties({BulkImportProperties.class, MultipartProperties.class})
+public class BulkImportConfig {
+
+    public static final String IMPORT_PATH = "/api/v1/admin/import/";
+
+    @Bean
+    public MultipartConfigElement multipartConfigElement(MultipartProperties multipartProperties,
+                                                         BulkImportProperties bulkImportProperties) {
+        MultipartConfigElement general = multipartProperties.createMultipartConfig();
+        long importMax = bulkImportProperties.getMaxFileSize().toBytes();
+        return new MultipartConfigElement(general.getLocation(),
+                Math.max(general.getMaxFileSize(), importMax),
+                Math.max(general.getMaxRequestSize(), importMax),
+                general.getFileSizeThreshold());
+    }
+
+    // Chạy trước mọi filter khác để từ chối sớm, trước khi body được đọc
+    @Bean
+    public FilterRegistrationBean<MultipartSizeLimitFilter> multipartSizeLimitFilter(
+            MultipartProperties multipartProperties, ObjectMapper objectMapper) {
+        FilterRegistrationBean<MultipartSizeLimitFilter> registration = new FilterRegistrationBean<>(
+                new MultipartSizeLimitFilter(multipartProperties.getMaxRequestSize().toBytes(), IMPORT_PATH, objectMapper));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "app.bulk-import")
+@Data
+public class BulkImportProperties {
+
+    // Giới hạn file upload riêng cho /api/v1/admin/import, các endpoint khác vẫn theo spring.servlet.multipart.*
+    private DataSize maxFileSize = DataSize.ofMegabytes(200);
+}
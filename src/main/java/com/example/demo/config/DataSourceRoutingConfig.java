@@ -0,0 +1,68 @@
+package com.example.demo.config;
+
+import com.example.demo.datasource.ReadWriteRoutingDataSource;
+import com.example.demo.datasource.ReadYourWritesTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chỉ bật khi app.datasource.routing.enabled=true, mặc định ứng dụng vẫn dùng một DataSource như cũ.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                                 DataSourceRoutingProperties routingProperties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < routingProperties.getReplicas().size(); i++) {
+            DataSourceRoutingProperties.Replica replica = routingProperties.getReplicas().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + (i + 1));
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null
+                    ? replica.getUsername() : dataSourceProperties.determineUsername());
+            dataSource.setPassword(replica.getPassword() != null
+                    ? replica.getPassword() : dataSourceProperties.determinePassword());
+            dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            replicas.add(dataSource);
+        }
+
+        return new ReadWriteRoutingDataSource(primary, replicas,
+                new ReadYourWritesTracker(routingProperties.getReadYourWritesWindow()));
+    }
+
+    /**
+     * DataSource mà JPA dùng. Lazy proxy hoãn việc lấy connection thật tới câu lệnh đầu tiên,
+     * lúc đó cờ readOnly của transaction đã được set nên routing mới chọn đúng replica/primary.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+        // Khai báo sẵn để proxy không phải mở connection chỉ để đọc giá trị mặc định
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        return proxy;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cấu hình tách đọc/ghi: transaction readOnly đi sang replica, còn lại đi primary (spring.datasource.*).
+ * VD:
+ * app.datasource.routing.enabled=true
+ * app.datasource.routing.replicas[0].url=jdbc:mysql://replica-1:3306/hotelbookingsystem
+ */
+@ConfigurationProperties(prefix = "app.datasource.routing")
+@Data
+public class DataSourceRoutingProperties {
+
+    private boolean enabled = false;
+
+    // Trong khoảng này sau khi user ghi, các lần đọc của user đó vẫn đi primary (replica có thể chưa kịp đồng bộ)
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        // Bỏ trống thì dùng username/password của primary
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bật @Timed trên các bean service (createBooking, payDeposit, filterHotels, gọi MoMo...).
+ * Số liệu được xuất dạng Prometheus tại /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.config;
+
+import com.example.demo.response.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Từ chối request multipart lớn hơn maxRequestSize theo Content-Length, trừ các đường dẫn bắt đầu bằng exemptPath.
+ * Request multipart không khai báo Content-Length (chunked) cũng bị từ chối vì không kiểm tra được trước khi đọc.
+ */
+public class MultipartSizeLimitFilter extends OncePerRequestFilter {
+
+    private final long maxRequestSize;
+    private final String exemptPath;
+    private final ObjectMapper objectMapper;
+
+    public MultipartSizeLimitFilter(long maxRequestSize, String exemptPath, ObjectMapper objectMapper) {
+        this.maxRequestSize = maxRequestSize;
+        this.exemptPath = exemptPath;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        if (contentType == null || !contentType.toLowerCase().startsWith("multipart/")) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith(exemptPath);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long length = request.getContentLengthLong();
+        if (length < 0) {
+            reject(response, HttpStatus.LENGTH_REQUIRED, "Upload phải có Content-Length");
+            return;
+        }
+        if (length > maxRequestSize) {
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "File upload vượt quá " + maxRequestSize / (1024 * 1024) + "MB");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        ApiResponse<String> apiResponse = new ApiResponse<>();
+        apiResponse.setCode(status.value());
+        apiResponse.setMessage(message);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), apiResponse);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.pricing")
+@Data
+public class PricingProperties {
+
+    // Khóa HMAC ký quote token; bỏ trống thì sinh ngẫu nhiên mỗi lần khởi động (token không dùng được giữa các node)
+    private String quoteSecret;
+
+    // Thời gian sống của báo giá
+    private Duration quoteTtl = Duration.ofMinutes(15);
+}
@@ -0,0 +1,17 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.promotion")
+@Data
+public class PromotionProperties {
+
+    // Số lượt mỗi node giữ trước của một mã trong một lần UPDATE (càng lớn càng ít chạm dòng promotion_codes)
+    private int leaseBlockSize = 50;
+
+    // Lượt đã giữ mà không dùng trong khoảng này thì trả lại DB cho node khác
+    private Duration idleRelease = Duration.ofMinutes(1);
+}
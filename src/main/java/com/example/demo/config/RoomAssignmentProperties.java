@@ -0,0 +1,15 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.room-assignment")
+@Data
+public class RoomAssignmentProperties {
+
+    // Số ngày tính từ hôm nay mà bộ xếp phòng nạp lịch booking đã gán để chấm điểm
+    private int horizonDays = 365;
+
+    // Khe trống ngắn hơn số đêm này giữa hai booking coi như không bán được (đêm lẻ)
+    private int minSellableGapNights = 2;
+}
@@ -31,6 +31,8 @@ public class SecurityConfig {
             "/api/v1/categories/public/**",
             "/api/v1/voucher/public/**",
             "api/v1/room/**",
+            "/api/v1/suggest",
+            "/api/v1/search",
             "/api/v1/payments/health",
             "/api/v1/payments/*/status",
             "/api/v1/payments/*/check-momo",
@@ -94,6 +96,9 @@ public class SecurityConfig {
                         .requestMatchers(PUBLIC_IMAGE_ENDPOINT).permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/v1/users/**").permitAll()
                         .requestMatchers("/uploads/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        // Metrics lộ số booking/thanh toán nên chỉ ADMIN được scrape, ở mọi profile
+                        .requestMatchers(HttpMethod.GET, "/actuator/prometheus").hasRole("ADMIN")
 
                         // ✅ BOOKINGS ENDPOINTS - Granular permissions
                         .requestMatchers(HttpMethod.GET, "/api/v1/bookings/pending").authenticated()       // USER can view their pending bookings
@@ -0,0 +1,47 @@
+package com.example.demo.config;
+
+import com.example.demo.monitoring.JdbcMonitoringProxy;
+import com.example.demo.monitoring.SqlMetricsRegistry;
+import com.example.demo.monitoring.SqlMonitorFilter;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Bật mặc định; app.sql-monitor.enabled=false để bỏ hẳn proxy JDBC và filter.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sql-monitor", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(SqlMonitorProperties.class)
+public class SqlMonitorConfig {
+
+    // Chỉ bọc bean "dataSource" mà JPA/JdbcTemplate dùng; các pool con của routing đứng sau nó nên không bị đếm hai lần
+    @Bean
+    public static BeanPostProcessor sqlMonitorDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                    return JdbcMonitoringProxy.wrap(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Chạy trước Spring Security để tính cả truy vấn nạp user theo JWT
+    @Bean
+    public FilterRegistrationBean<SqlMonitorFilter> sqlMonitorFilter(SqlMonitorProperties properties,
+                                                                     SqlMetricsRegistry metricsRegistry) {
+        FilterRegistrationBean<SqlMonitorFilter> registration =
+                new FilterRegistrationBean<>(new SqlMonitorFilter(properties, metricsRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
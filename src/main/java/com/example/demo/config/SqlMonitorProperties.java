@@ -0,0 +1,21 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Đếm câu SQL theo từng HTTP request (số câu, số dòng, thời gian) và cảnh báo N+1.
+ */
+@ConfigurationProperties(prefix = "app.sql-monitor")
+@Data
+public class SqlMonitorProperties {
+
+    // Tắt thì không bọc DataSource, không tốn chi phí gì
+    private boolean enabled = true;
+
+    // Trả header X-SQL-* trong response, tắt ở profile prod
+    private boolean debugHeader = true;
+
+    // Cùng một dạng câu lệnh chạy từ ngần này lần trở lên trong một request thì coi là nghi N+1
+    private int repeatedStatementThreshold = 5;
+}
@@ -1,10 +1,19 @@
 package com.example.demo.controller;
 
+import com.example.demo.datasource.ReadWriteRoutingDataSource;
+import com.example.demo.dto.datasource.DataSourceRoutingStatsResponse;
+import com.example.demo.dto.monitoring.SqlEndpointStatsResponse;
 import com.example.demo.dto.notification.AdminNotificationResponse;
+import com.example.demo.dto.room_assignment.RoomAssignmentReport;
+import com.example.demo.monitoring.SqlMetricsRegistry;
 import com.example.demo.response.ApiResponse;
+import com.example.demo.service.booking_document.BookingDocumentService;
 import com.example.demo.service.notification.AdminNotificationService;
+import com.example.demo.service.room_assignment.RoomAssignmentService;
+import com.example.demo.service.search.FullTextIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,6 +30,11 @@ import java.util.List;
 public class AdminController {
 
     private final AdminNotificationService adminNotificationService;
+    private final FullTextIndex fullTextIndex;
+    private final ObjectProvider<ReadWriteRoutingDataSource> routingDataSource;
+    private final SqlMetricsRegistry sqlMetricsRegistry;
+    private final RoomAssignmentService roomAssignmentService;
+    private final BookingDocumentService bookingDocumentService;
 
     /**
      * Lấy tất cả notifications
@@ -104,4 +118,99 @@ public class AdminController {
 
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Dựng lại index tìm kiếm full-text từ DB
+     */
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<ApiResponse<Integer>> rebuildSearchIndex() {
+        log.info("Rebuilding full-text search index");
+
+        int documentCount = fullTextIndex.rebuild();
+
+        ApiResponse<Integer> response = new ApiResponse<>();
+        response.setResult(documentCount);
+        response.setCode(HttpStatus.OK.value());
+        response.setMessage("Dựng lại index tìm kiếm thành công");
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Thống kê pool primary/replica khi bật tách đọc/ghi (app.datasource.routing.enabled)
+     */
+    @GetMapping("/datasource/pools")
+    public ResponseEntity<ApiResponse<DataSourceRoutingStatsResponse>> getDataSourcePools() {
+        ReadWriteRoutingDataSource dataSource = routingDataSource.getIfAvailable();
+
+        ApiResponse<DataSourceRoutingStatsResponse> response = new ApiResponse<>();
+        response.setCode(HttpStatus.OK.value());
+        if (dataSource == null) {
+            response.setMessage("Chưa bật tách đọc/ghi, mọi truy vấn đều dùng datasource chính");
+            return ResponseEntity.ok(response);
+        }
+        response.setResult(dataSource.getStats());
+        response.setMessage("Lấy thống kê datasource thành công");
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Số câu SQL theo endpoint (histogram, nghi N+1), sắp theo tổng số câu lệnh giảm dần
+     */
+    @GetMapping("/sql-stats")
+    public ResponseEntity<ApiResponse<List<SqlEndpointStatsResponse>>> getSqlStats() {
+        ApiResponse<List<SqlEndpointStatsResponse>> response = new ApiResponse<>();
+        response.setResult(sqlMetricsRegistry.snapshot());
+        response.setCode(HttpStatus.OK.value());
+        response.setMessage("Lấy thống kê SQL thành công");
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Xếp lại phòng cho booking đã xác nhận nhưng chưa gán phòng, kèm báo cáo so với cách gán phòng đầu tiên
+     */
+    @PostMapping("/room-assignment/repack")
+    public ResponseEntity<ApiResponse<RoomAssignmentReport>> repackRoomAssignments() {
+        log.info("Repacking unassigned bookings");
+
+        RoomAssignmentReport report = roomAssignmentService.repackUnassigned();
+
+        ApiResponse<RoomAssignmentReport> response = new ApiResponse<>();
+        response.setResult(report);
+        response.setCode(HttpStatus.OK.value());
+        response.setMessage("Xếp lại phòng thành công");
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Chiếu lại read model của mọi booking (backfill sau khi triển khai, hoặc sau khi sửa dữ liệu trực tiếp trong DB)
+     */
+    @PostMapping("/booking-documents/rebuild")
+    public ResponseEntity<ApiResponse<Integer>> rebuildBookingDocuments() {
+        log.info("Rebuilding booking documents");
+
+        int projected = bookingDocumentService.rebuildAll();
+
+        ApiResponse<Integer> response = new ApiResponse<>();
+        response.setResult(projected);
+        response.setCode(HttpStatus.OK.value());
+        response.setMessage("Đã chiếu lại " + projected + " booking");
+
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/sql-stats")
+    public ResponseEntity<ApiResponse<String>> resetSqlStats() {
+        sqlMetricsRegistry.reset();
+
+        ApiResponse<String> response = new ApiResponse<>();
+        response.setResult("OK");
+        response.setCode(HttpStatus.OK.value());
+        response.setMessage("Đã xóa thống kê SQL");
+
+        return ResponseEntity.ok(response);
+    }
+}
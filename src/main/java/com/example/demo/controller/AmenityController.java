@@ -4,10 +4,13 @@ import com.example.demo.dto.amenity.AmenityRequest;
 import com.example.demo.dto.amenity.AmenityResponse;
 import com.example.demo.response.ApiResponse;
 import com.example.demo.service.amenity.AmenityService;
+import com.example.demo.service.catalog.CatalogVersionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,6 +20,7 @@ import java.util.List;
 public class AmenityController {
 
     private final AmenityService amenityService;
+    private final CatalogVersionService catalogVersionService;
 
     @PostMapping("/create")
     public ResponseEntity<?> createAmenity(@RequestBody AmenityRequest request) {
@@ -60,11 +64,16 @@ public class AmenityController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<?> getAllAmenities() {
+    public ResponseEntity<?> getAllAmenities(WebRequest webRequest) {
+        CatalogVersionService.VersionTag tag = catalogVersionService.amenitiesTag();
+        if (webRequest.checkNotModified(tag.etag(), tag.lastModified())) {
+            return null;
+        }
+
         List<AmenityResponse> amenities = amenityService.getAllAmenities();
         ApiResponse<List<AmenityResponse>> response = new ApiResponse<>();
         response.setResult(amenities);
         response.setCode(HttpStatus.OK.value());
-        return ResponseEntity.status(HttpStatus.OK).body(response);
+        return ResponseEntity.status(HttpStatus.OK).cacheControl(CacheControl.noCache()).body(response);
     }
 }
@@ -3,17 +3,24 @@ package com.example.demo.controller;
 import com.example.demo.dto.booking.BookingRequest;
 import com.example.demo.dto.booking.BookingResponse;
 import com.example.demo.dto.booking.BookingStatsResponse;
+import com.example.demo.dto.pricing.PriceQuoteRequest;
+import com.example.demo.dto.pricing.PriceQuoteResponse;
 import com.example.demo.dto.report.HotelStatsResponse;
 import com.example.demo.dto.room.RoomResponse;
 import com.example.demo.response.ApiResponse;
+import com.example.demo.response.StreamingApiResponse;
 import com.example.demo.service.booking.BookingService;
+import com.example.demo.service.pricing.PriceQuoteService;
 import com.example.demo.service.room.RoomService;
+import com.example.demo.utils.FieldSelection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 
@@ -30,7 +37,22 @@ public class BookingController {
 
     private final BookingService bookingService;
     private final RoomService roomService;
+    private final PriceQuoteService priceQuoteService;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * Báo giá trước khi đặt: giá từng đêm, khuyến mãi, tiền cọc và quote token gửi lại khi tạo booking
+     */
+    @PostMapping("/quote")
+    public ResponseEntity<ApiResponse<PriceQuoteResponse>> createQuote(@Valid @RequestBody PriceQuoteRequest request) {
+        PriceQuoteResponse quote = priceQuoteService.createQuote(request);
+
+        ApiResponse<PriceQuoteResponse> response = new ApiResponse<>();
+        response.setResult(quote);
+        response.setCode(HttpStatus.OK.value());
+
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
 
     /**
      * Tạo booking mới
@@ -65,14 +87,16 @@ public class BookingController {
     }
 
     /**
-     * Lấy danh sách booking của user hiện tại
+     * Lấy danh sách booking của user hiện tại.
+     * fields (tùy chọn): chỉ trả các trường này, VD fields=id,status,checkInDate,hotelName
      */
     @GetMapping("/my-bookings")
-    public ResponseEntity<ApiResponse<List<BookingResponse>>> getCurrentUserBookings() {
-        List<BookingResponse> bookings = bookingService.getCurrentUserBookings();
+    public ResponseEntity<?> getCurrentUserBookings(@RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields);
+        List<BookingResponse> bookings = bookingService.getCurrentUserBookings(selection);
 
-        ApiResponse<List<BookingResponse>> response = new ApiResponse<>();
-        response.setResult(bookings);
+        ApiResponse<Object> response = new ApiResponse<>();
+        response.setResult(selection.project(objectMapper, bookings));
         response.setCode(HttpStatus.OK.value());
         response.setMessage("Lấy danh sách booking thành công");
 
@@ -205,19 +229,32 @@ public class BookingController {
 
     @GetMapping("/admin/pending-confirmation")
     @PreAuthorize("hasRole('ADMIN') or hasRole('STAFF')")
-    public ResponseEntity<ApiResponse<List<BookingResponse>>> getPendingBookings() {
-        log.info("Getting all pending confirmation bookings");
+    public ResponseEntity<?> getPendingBookings(@RequestParam(required = false) String fields) {
+        log.info("Getting all pending confirmation bookings, fields: {}", fields);
+        FieldSelection selection = FieldSelection.parse(fields);
 
-        List<BookingResponse> bookings = bookingService.getPendingBookings();
+        List<BookingResponse> bookings = bookingService.getPendingBookings(selection);
 
-        ApiResponse<List<BookingResponse>> response = new ApiResponse<>();
-        response.setResult(bookings);
+        ApiResponse<Object> response = new ApiResponse<>();
+        response.setResult(selection.project(objectMapper, bookings));
         response.setCode(HttpStatus.OK.value());
         response.setMessage("Lấy danh sách booking chờ xác nhận thành công");
 
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/admin/pending-confirmation", params = "stream=true")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('STAFF')")
+    public ResponseEntity<StreamingResponseBody> streamPendingBookings(@RequestParam(required = false) String fields) {
+        log.info("Streaming all pending confirmation bookings, fields: {}", fields);
+        FieldSelection selection = FieldSelection.parse(fields);
+
+        return StreamingApiResponse.<Object>ok(objectMapper,
+                "Lấy danh sách booking chờ xác nhận thành công",
+                consumer -> bookingService.streamPendingBookings(selection,
+                        booking -> consumer.accept(selection.project(objectMapper, booking))));
+    }
+
     @GetMapping("/pending")
     public ResponseEntity<?> getMyPendingBookings() {
         List<BookingResponse> pendingBookings = bookingService.getCurrentUserPendingBookings();
@@ -304,22 +341,40 @@ public class BookingController {
      */
     @GetMapping("/hotel/{hotelId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('HOTEL_STAFF')")
-    public ResponseEntity<ApiResponse<List<BookingResponse>>> getBookingsByHotel(
+    public ResponseEntity<?> getBookingsByHotel(
             @PathVariable Long hotelId,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String fields) {
 
-        log.info("Getting bookings for hotel: {}, status: {}", hotelId, status);
+        log.info("Getting bookings for hotel: {}, status: {}, fields: {}", hotelId, status, fields);
+        FieldSelection selection = FieldSelection.parse(fields);
 
-        List<BookingResponse> bookings = bookingService.getBookingsByHotel(hotelId, status);
+        List<BookingResponse> bookings = bookingService.getBookingsByHotel(hotelId, status, selection);
 
-        ApiResponse<List<BookingResponse>> response = new ApiResponse<>();
-        response.setResult(bookings);
+        ApiResponse<Object> response = new ApiResponse<>();
+        response.setResult(selection.project(objectMapper, bookings));
         response.setCode(HttpStatus.OK.value());
         response.setMessage("Lấy danh sách booking của khách sạn thành công");
 
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/hotel/{hotelId}", params = "stream=true")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('HOTEL_STAFF')")
+    public ResponseEntity<StreamingResponseBody> streamBookingsByHotel(
+            @PathVariable Long hotelId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String fields) {
+
+        log.info("Streaming bookings for hotel: {}, status: {}, fields: {}", hotelId, status, fields);
+        FieldSelection selection = FieldSelection.parse(fields);
+
+        return StreamingApiResponse.<Object>ok(objectMapper,
+                "Lấy danh sách booking của khách sạn thành công",
+                consumer -> bookingService.streamBookingsByHotel(hotelId, status, selection,
+                        booking -> consumer.accept(selection.project(objectMapper, booking))));
+    }
+
     /**
      * Lấy doanh thu theo tháng của khách sạn
      */
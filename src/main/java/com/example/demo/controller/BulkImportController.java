@@ -0,0 +1,64 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.bulk_import.BulkImportStatusResponse;
+import com.example.demo.response.ApiResponse;
+import com.example.demo.service.bulk_import.BulkImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/import")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class BulkImportController {
+
+    private final BulkImportService bulkImportService;
+
+    /**
+     * Upload file CSV/NDJSON khách sạn + loại phòng + phòng, import chạy nền.
+     * format (tùy chọn): NDJSON hoặc CSV, mặc định đoán theo đuôi file.
+     */
+    @PostMapping(value = "/hotels", consumes = "multipart/form-data")
+    public ResponseEntity<?> importHotels(@RequestParam("file") MultipartFile file,
+                                          @RequestParam(required = false) String format) {
+        BulkImportStatusResponse job = bulkImportService.startHotelImport(file, format);
+
+        ApiResponse<BulkImportStatusResponse> response = new ApiResponse<>();
+        response.setResult(job);
+        response.setCode(HttpStatus.ACCEPTED.value());
+        response.setMessage("Đã nhận file, đang import");
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    /**
+     * Tiến độ và lỗi của một lần import
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getImportStatus(@PathVariable String jobId) {
+        BulkImportStatusResponse job = bulkImportService.getStatus(jobId);
+
+        ApiResponse<BulkImportStatusResponse> response = new ApiResponse<>();
+        response.setResult(job);
+        response.setCode(HttpStatus.OK.value());
+
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getRecentImports() {
+        List<BulkImportStatusResponse> jobs = bulkImportService.getRecentJobs();
+
+        ApiResponse<List<BulkImportStatusResponse>> response = new ApiResponse<>();
+        response.setResult(jobs);
+        response.setCode(HttpStatus.OK.value());
+
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+}
@@ -1,15 +1,26 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.availability.AvailabilityCalendarResponse;
 import com.example.demo.dto.hotel.HotelRequest;
 import com.example.demo.dto.hotel.HotelResponse;
 import com.example.demo.entity.Hotel;
 import com.example.demo.response.ApiResponse;
+import com.example.demo.response.StreamingApiResponse;
+import com.example.demo.service.availability.AvailabilityCalendarService;
+import com.example.demo.service.catalog.CatalogVersionService;
 import com.example.demo.service.hotel.HotelService;
+import com.example.demo.utils.FieldSelection;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -18,6 +29,9 @@ import java.util.List;
 public class HotelController {
 
     private final HotelService hotelService;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersionService catalogVersionService;
+    private final AvailabilityCalendarService availabilityCalendarService;
 
     @PostMapping("/create")
     public ResponseEntity<?> createHotel(@RequestBody HotelRequest request) {
@@ -52,28 +66,76 @@ public class HotelController {
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
+    /**
+     * Lấy chi tiết nhiều khách sạn trong một request (yêu thích, đã xem, lịch sử đặt phòng), VD ?ids=1,5,9
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<?> getHotelsByIds(@RequestParam List<Long> ids) {
+        List<HotelResponse> hotels = hotelService.getHotelsByIds(ids);
+
+        ApiResponse<List<HotelResponse>> response = new ApiResponse<>();
+        response.setResult(hotels);
+        response.setCode(HttpStatus.OK.value());
+
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<?> getHotelById(@PathVariable Long id) {
+    public ResponseEntity<?> getHotelById(@PathVariable Long id, WebRequest webRequest) {
+        // ✅ Client gửi If-None-Match/If-Modified-Since còn khớp phiên bản thì trả 304, không cần nạp khách sạn
+        CatalogVersionService.VersionTag tag = catalogVersionService.hotelTag(id);
+        if (webRequest.checkNotModified(tag.etag(), tag.lastModified())) {
+            return null;
+        }
+
         HotelResponse hotel = hotelService.getHotelById(id);
 
         ApiResponse<HotelResponse> response = new ApiResponse<>();
         response.setResult(hotel);
         response.setCode(HttpStatus.OK.value());
 
+        return ResponseEntity.status(HttpStatus.OK).cacheControl(CacheControl.noCache()).body(response);
+    }
+
+    /**
+     * Lịch phòng trống của mọi loại phòng trong khách sạn: số phòng trống và giá từng đêm trong [from, to)
+     */
+    @GetMapping("/{id}/calendar")
+    public ResponseEntity<?> getAvailabilityCalendar(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<AvailabilityCalendarResponse> calendars = availabilityCalendarService.getHotelCalendar(id, from, to);
+
+        ApiResponse<List<AvailabilityCalendarResponse>> response = new ApiResponse<>();
+        response.setResult(calendars);
+        response.setCode(HttpStatus.OK.value());
+
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
+    // fields (tùy chọn): chỉ trả các trường này, VD fields=id,hotelName,starRating (bỏ images để không nạp ảnh)
     @GetMapping("/getBasic")
-    public ResponseEntity<?> getAllHotelsBasic() {
-        List<HotelResponse> hotels = hotelService.getAllHotelsBasic();
+    public ResponseEntity<?> getAllHotelsBasic(@RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields);
+        List<HotelResponse> hotels = hotelService.getAllHotelsBasic(selection);
 
-        ApiResponse<List<HotelResponse>> response = new ApiResponse<>();
-        response.setResult(hotels);
+        ApiResponse<Object> response = new ApiResponse<>();
+        response.setResult(selection.project(objectMapper, hotels));
         response.setCode(HttpStatus.OK.value());
 
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
+    // stream=true: kiểu trả về phải khai báo StreamingResponseBody thì Spring mới ghi body theo kiểu async
+    @GetMapping(value = "/getBasic", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllHotelsBasic(@RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldSelection.parse(fields);
+        return StreamingApiResponse.<Object>ok(objectMapper, null,
+                consumer -> hotelService.streamAllHotelsBasic(selection,
+                        hotel -> consumer.accept(selection.project(objectMapper, hotel))));
+    }
+
     @GetMapping("/search")
     public ResponseEntity<?> filterHotels(
             @RequestParam(required = false) String cityName,
@@ -81,9 +143,37 @@ public class HotelController {
             @RequestParam(required = false) Double maxPrice,
             @RequestParam(required = false) Double minRating,
             @RequestParam(required = false) List<Long> amenityIds,
-            @RequestParam(required = false) Integer numberOfGuests) {
+            @RequestParam(required = false) Integer numberOfGuests,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate) {
+
+        List<HotelResponse> hotels = hotelService.filterHotels(cityName, minPrice, maxPrice, minRating, amenityIds, numberOfGuests,
+                checkInDate, checkOutDate);
+
+        ApiResponse<List<HotelResponse>> response = new ApiResponse<>();
+        response.setResult(hotels);
+        response.setCode(HttpStatus.OK.value());
+
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<?> findNearbyHotels(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") double radius,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cityName,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) List<Long> amenityIds,
+            @RequestParam(required = false) Integer numberOfGuests,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate) {
 
-        List<HotelResponse> hotels = hotelService.filterHotels(cityName, minPrice, maxPrice, minRating, amenityIds,numberOfGuests);
+        List<HotelResponse> hotels = hotelService.findNearbyHotels(lat, lng, radius, limit,
+                cityName, minPrice, maxPrice, minRating, amenityIds, numberOfGuests, checkInDate, checkOutDate);
 
         ApiResponse<List<HotelResponse>> response = new ApiResponse<>();
         response.setResult(hotels);
@@ -4,11 +4,14 @@ import com.example.demo.dto.location.LocationRequest;
 import com.example.demo.dto.location.LocationResponse;
 import com.example.demo.entity.Location;
 import com.example.demo.response.ApiResponse;
+import com.example.demo.service.catalog.CatalogVersionService;
 import com.example.demo.service.location.LocationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -18,6 +21,7 @@ import java.util.List;
 public class LocationController {
 
     private final LocationService locationService;
+    private final CatalogVersionService catalogVersionService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<Location>> createLocation(@RequestBody LocationRequest request) {
@@ -31,14 +35,19 @@ public class LocationController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<LocationResponse>>> getAllLocations() {
+    public ResponseEntity<?> getAllLocations(WebRequest webRequest) {
+        CatalogVersionService.VersionTag tag = catalogVersionService.locationsTag();
+        if (webRequest.checkNotModified(tag.etag(), tag.lastModified())) {
+            return null;
+        }
+
         List<LocationResponse> locations = locationService.getAllLocations();
 
         ApiResponse<List<LocationResponse>> response = new ApiResponse<>();
         response.setCode(HttpStatus.OK.value());
         response.setResult(locations);
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,82 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.report.ReportExportResponse;
+import com.example.demo.response.ApiResponse;
+import com.example.demo.service.report_export.ReportDownload;
+import com.example.demo.service.report_export.ReportExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/v1/admin/reports/export")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class ReportExportController {
+
+    private final ReportExportService reportExportService;
+
+    /**
+     * Bắt đầu xuất báo cáo chạy nền, trả token để hỏi trạng thái và tải file.
+     * type: BOOKINGS (theo ngày nhận phòng) hoặc PAYMENTS (theo ngày thanh toán); format: CSV (mặc định) hoặc XLSX
+     */
+    @PostMapping
+    public ResponseEntity<?> startExport(
+            @RequestParam String type,
+            @RequestParam(required = false) String format,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long hotelId) {
+        ReportExportResponse export = reportExportService.startExport(type, format, from, to, hotelId);
+
+        ApiResponse<ReportExportResponse> response = new ApiResponse<>();
+        response.setResult(export);
+        response.setCode(HttpStatus.ACCEPTED.value());
+        response.setMessage("Đang xuất báo cáo");
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @GetMapping("/{token}")
+    public ResponseEntity<?> getExport(@PathVariable String token) {
+        ReportExportResponse export = reportExportService.getExport(token);
+
+        ApiResponse<ReportExportResponse> response = new ApiResponse<>();
+        response.setResult(export);
+        response.setCode(HttpStatus.OK.value());
+
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+
+    @GetMapping("/{token}/download")
+    public ResponseEntity<Resource> download(@PathVariable String token,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                             String acceptEncoding) {
+        boolean acceptsGzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        ReportDownload download = reportExportService.openDownload(token, acceptsGzip);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(download.contentType()));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(download.fileName(), StandardCharsets.UTF_8)
+                .build());
+        if (download.gzipEncoded()) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        if (download.contentLength() != null) {
+            headers.setContentLength(download.contentLength());
+        }
+
+        return ResponseEntity.ok().headers(headers).body(download.resource());
+    }
+}
@@ -3,12 +3,15 @@ package com.example.demo.controller;
 import com.example.demo.dto.review.ReviewRequest;
 import com.example.demo.dto.review.ReviewResponse;
 import com.example.demo.response.ApiResponse;
+import com.example.demo.response.StreamingApiResponse;
 import com.example.demo.service.review.ReviewService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -19,6 +22,7 @@ import java.util.Map;
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/create")
     public ResponseEntity<?> createReview(@RequestBody ReviewRequest request) {
@@ -116,6 +120,11 @@ public class ReviewController {
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllReviews() {
+        return StreamingApiResponse.<ReviewResponse>ok(objectMapper, null, reviewService::streamAllReviews);
+    }
+
     @GetMapping("/hotel/{hotelId}")
     public ResponseEntity<?> getReviewsByHotelId(@PathVariable Long hotelId) {
         List<ReviewResponse> reviews = reviewService.getReviewsByHotelId(hotelId);
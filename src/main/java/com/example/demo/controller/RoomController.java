@@ -4,13 +4,16 @@ import com.example.demo.dto.room.RoomInvalidRequest;
 import com.example.demo.dto.room.RoomRequest;
 import com.example.demo.dto.room.RoomResponse;
 import com.example.demo.response.ApiResponse;
+import com.example.demo.response.StreamingApiResponse;
 import com.example.demo.service.booking.BookingAvailabilityService;
 import com.example.demo.service.room.RoomService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -22,6 +25,7 @@ public class RoomController {
 
     private final RoomService roomService;
     private final BookingAvailabilityService bookingAvailabilityService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/create")
     public ResponseEntity<?> createRoom(@RequestBody RoomRequest request) {
@@ -83,6 +87,12 @@ public class RoomController {
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
+    @GetMapping(value = "/all", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllRooms() {
+        return StreamingApiResponse.<RoomResponse>ok(objectMapper,
+                "Lấy danh sách phòng thành công", roomService::streamAllRooms);
+    }
+
     // API mới - Lấy phòng theo room type ID
     @GetMapping("/room-type/{roomTypeId}")
     public ResponseEntity<?> getRoomsByRoomTypeId(@PathVariable Long roomTypeId) {
@@ -114,6 +124,21 @@ public class RoomController {
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
+    // Tìm phòng theo một phần số phòng trong khách sạn (ô chọn phòng của admin)
+    @GetMapping("/search")
+    public ResponseEntity<?> searchRoomsByNumber(@RequestParam Long hotelId,
+                                                 @RequestParam("q") String query,
+                                                 @RequestParam(defaultValue = "20") int limit) {
+        List<RoomResponse> rooms = roomService.searchRoomsByNumber(hotelId, query, limit);
+
+        ApiResponse<List<RoomResponse>> response = new ApiResponse<>();
+        response.setResult(rooms);
+        response.setMessage("Tìm phòng theo số phòng thành công");
+        response.setCode(HttpStatus.OK.value());
+
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+
     @PostMapping("/roomInvalid")
     public ResponseEntity<?> checkRoomsInvalid(@RequestBody RoomInvalidRequest request) {
         boolean isAvailable = bookingAvailabilityService
@@ -1,15 +1,22 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.availability.AvailabilityCalendarResponse;
 import com.example.demo.dto.room_type.RoomTypeRequest;
 import com.example.demo.dto.room_type.RoomTypeResponse;
 import com.example.demo.entity.RoomType;
 import com.example.demo.response.ApiResponse;
+import com.example.demo.service.availability.AvailabilityCalendarService;
+import com.example.demo.service.catalog.CatalogVersionService;
 import com.example.demo.service.room_type.RoomTypeService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -18,6 +25,8 @@ import java.util.List;
 public class RoomTypeController {
 
     private final RoomTypeService roomTypeService;
+    private final CatalogVersionService catalogVersionService;
+    private final AvailabilityCalendarService availabilityCalendarService;
 
     @PostMapping("/create")
     public ResponseEntity<?> createRoomType(@RequestBody RoomTypeRequest request) {
@@ -31,8 +40,26 @@ public class RoomTypeController {
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
+    // Lấy nhiều loại phòng trong một request, VD ?ids=3,4,7
+    @GetMapping("/batch")
+    public ResponseEntity<?> getRoomTypesByIds(@RequestParam List<Long> ids) {
+        List<RoomTypeResponse> roomTypes = roomTypeService.getRoomTypesByIds(ids);
+
+        ApiResponse<List<RoomTypeResponse>> response = new ApiResponse<>();
+        response.setResult(roomTypes);
+        response.setMessage("Lấy danh sách loại phòng thành công");
+        response.setCode(HttpStatus.OK.value());
+
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+
     @GetMapping("/hotel/{hotelId}")
-    public ResponseEntity<?> getRoomTypesByHotelId(@PathVariable Long hotelId) {
+    public ResponseEntity<?> getRoomTypesByHotelId(@PathVariable Long hotelId, WebRequest webRequest) {
+        CatalogVersionService.VersionTag tag = catalogVersionService.hotelRoomTypesTag(hotelId);
+        if (webRequest.checkNotModified(tag.etag(), tag.lastModified())) {
+            return null;
+        }
+
         List<RoomTypeResponse> roomTypes = roomTypeService.getRoomTypesByHotelId(hotelId);
 
         ApiResponse<List<RoomTypeResponse>> response = new ApiResponse<>();
@@ -40,6 +67,24 @@ public class RoomTypeController {
         response.setMessage("Lấy danh sách loại phòng thành công");
         response.setCode(HttpStatus.OK.value());
 
+        return ResponseEntity.status(HttpStatus.OK).cacheControl(CacheControl.noCache()).body(response);
+    }
+
+    /**
+     * Số phòng trống và giá từng đêm trong [from, to) (tối đa 365 đêm) để vẽ lịch đặt phòng, VD ?from=2025-07-01&to=2025-08-01
+     */
+    @GetMapping("/{roomTypeId}/calendar")
+    public ResponseEntity<?> getAvailabilityCalendar(
+            @PathVariable Long roomTypeId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        AvailabilityCalendarResponse calendar = availabilityCalendarService.getRoomTypeCalendar(roomTypeId, from, to);
+
+        ApiResponse<AvailabilityCalendarResponse> response = new ApiResponse<>();
+        response.setResult(calendar);
+        response.setMessage("Lấy lịch phòng trống thành công");
+        response.setCode(HttpStatus.OK.value());
+
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
@@ -0,0 +1,37 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.search.TextSearchResponse;
+import com.example.demo.response.ApiResponse;
+import com.example.demo.service.search.FullTextIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("api/v1/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final FullTextIndex fullTextIndex;
+
+    /**
+     * Tìm khách sạn theo từ khóa trong tên, mô tả và đánh giá đã duyệt
+     */
+    @GetMapping
+    public ResponseEntity<?> search(@RequestParam("q") String keyword,
+                                    @RequestParam(defaultValue = "20") int limit) {
+        List<TextSearchResponse> results = fullTextIndex.search(keyword, Math.min(Math.max(limit, 1), 100));
+
+        ApiResponse<List<TextSearchResponse>> response = new ApiResponse<>();
+        response.setResult(results);
+        response.setCode(HttpStatus.OK.value());
+
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.suggest.SuggestionResponse;
+import com.example.demo.response.ApiResponse;
+import com.example.demo.service.suggest.SuggestionIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("api/v1/suggest")
+@RequiredArgsConstructor
+public class SuggestController {
+
+    private final SuggestionIndex suggestionIndex;
+
+    /**
+     * Gợi ý thành phố, tỉnh, khách sạn theo tiền tố (không phân biệt dấu)
+     */
+    @GetMapping
+    public ResponseEntity<?> suggest(@RequestParam("q") String query,
+                                     @RequestParam(defaultValue = "8") int limit) {
+        List<SuggestionResponse> suggestions = suggestionIndex.suggest(query, limit);
+
+        ApiResponse<List<SuggestionResponse>> response = new ApiResponse<>();
+        response.setResult(suggestions);
+        response.setCode(HttpStatus.OK.value());
+
+        return ResponseEntity.ok(response);
+    }
+}
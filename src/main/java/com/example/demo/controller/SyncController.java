@@ -0,0 +1,39 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.sync.CatalogSyncResponse;
+import com.example.demo.response.ApiResponse;
+import com.example.demo.service.catalog.CatalogSyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("api/v1/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final CatalogSyncService catalogSyncService;
+
+    /**
+     * Đồng bộ danh mục (khách sạn, loại phòng, tiện nghi, địa điểm) cho app.
+     * Không truyền since: trả toàn bộ. Có since (lấy từ nextSince lần trước): chỉ trả bản ghi thay đổi và id đã xóa.
+     */
+    @GetMapping("/catalog")
+    public ResponseEntity<?> syncCatalog(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        CatalogSyncResponse result = catalogSyncService.sync(since);
+
+        ApiResponse<CatalogSyncResponse> response = new ApiResponse<>();
+        response.setResult(result);
+        response.setCode(HttpStatus.OK.value());
+
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+}
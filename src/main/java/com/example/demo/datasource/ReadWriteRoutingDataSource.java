@@ -0,0 +1,117 @@
+package com.example.demo.datasource;
+
+import com.example.demo.dto.datasource.DataSourceRoutingStatsResponse;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Chọn DataSource theo transaction hiện tại:
+ * - transaction readOnly -> một replica (xoay vòng), trừ khi user vừa ghi trong khoảng read-your-writes
+ * - còn lại (ghi, hoặc không có replica) -> primary
+ * Phải được bọc bởi LazyConnectionDataSourceProxy để connection được lấy sau khi cờ readOnly đã set.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, LongAdder> routedCounts = new LinkedHashMap<>();
+    private final LongAdder readYourWritesFallbacks = new LongAdder();
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                      ReadYourWritesTracker readYourWritesTracker) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.readYourWritesTracker = readYourWritesTracker;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        routedCounts.put(PRIMARY, new LongAdder());
+        for (HikariDataSource replica : this.replicas) {
+            targets.put(replica.getPoolName(), replica);
+            routedCounts.put(replica.getPoolName(), new LongAdder());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = resolveKey();
+        routedCounts.get(key).increment();
+        return key;
+    }
+
+    private String resolveKey() {
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        String username = currentUsername();
+
+        if (!readOnly) {
+            if (inTransaction) {
+                readYourWritesTracker.recordWrite(username);
+            }
+            return PRIMARY;
+        }
+        if (replicas.isEmpty()) {
+            return PRIMARY;
+        }
+        if (readYourWritesTracker.wroteRecently(username)) {
+            readYourWritesFallbacks.increment();
+            return PRIMARY;
+        }
+        int index = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        return replicas.get(index).getPoolName();
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+    /**
+     * Số liệu từng pool (connection đang dùng/rảnh/chờ) và số lần được chọn
+     */
+    public DataSourceRoutingStatsResponse getStats() {
+        List<DataSourceRoutingStatsResponse.PoolStats> pools = new ArrayList<>();
+        pools.add(poolStats(primary, PRIMARY, "PRIMARY"));
+        for (HikariDataSource replica : replicas) {
+            pools.add(poolStats(replica, replica.getPoolName(), "REPLICA"));
+        }
+        return DataSourceRoutingStatsResponse.builder()
+                .pools(pools)
+                .readYourWritesFallbacks(readYourWritesFallbacks.sum())
+                .build();
+    }
+
+    private DataSourceRoutingStatsResponse.PoolStats poolStats(HikariDataSource dataSource, String key, String role) {
+        // MXBean chỉ có sau khi pool được khởi tạo (lần lấy connection đầu tiên)
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return DataSourceRoutingStatsResponse.PoolStats.builder()
+                .poolName(dataSource.getPoolName())
+                .role(role)
+                .routedCount(routedCounts.get(key).sum())
+                .activeConnections(pool != null ? pool.getActiveConnections() : 0)
+                .idleConnections(pool != null ? pool.getIdleConnections() : 0)
+                .totalConnections(pool != null ? pool.getTotalConnections() : 0)
+                .threadsAwaitingConnection(pool != null ? pool.getThreadsAwaitingConnection() : 0)
+                .build();
+    }
+}
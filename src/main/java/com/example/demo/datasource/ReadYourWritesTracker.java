@@ -0,0 +1,47 @@
+package com.example.demo.datasource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ghi nhớ thời điểm ghi gần nhất của từng user. Trong khoảng window sau đó, các lần đọc của user này
+ * được đưa về primary để không thấy dữ liệu cũ từ replica đang trễ (VD vừa đặt phòng xong mở danh sách booking).
+ */
+public class ReadYourWritesTracker {
+
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final Duration window;
+    private final Clock clock;
+    private final Map<String, Long> lastWriteMillis = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window) {
+        this(window, Clock.systemUTC());
+    }
+
+    public ReadYourWritesTracker(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    public void recordWrite(String username) {
+        if (username == null || window.isZero() || window.isNegative()) {
+            return;
+        }
+        long now = clock.millis();
+        lastWriteMillis.put(username, now);
+        if (lastWriteMillis.size() > PRUNE_THRESHOLD) {
+            lastWriteMillis.values().removeIf(writtenAt -> now - writtenAt > window.toMillis());
+        }
+    }
+
+    public boolean wroteRecently(String username) {
+        if (username == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteMillis.get(username);
+        return writtenAt != null && clock.millis() - writtenAt <= window.toMillis();
+    }
+}
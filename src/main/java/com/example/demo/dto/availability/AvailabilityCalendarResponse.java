@@ -0,0 +1,22 @@
+package com.example.demo.dto.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AvailabilityCalendarResponse {
+    private Long roomTypeId;
+    private String typeName;
+    private Integer totalRooms;             // Phòng bán được (không tính phòng bảo trì/hỏng)
+    private LocalDate from;
+    private LocalDate to;                   // Không bao gồm: đêm cuối là to - 1
+    private List<AvailabilityNightResponse> nights;
+}
@@ -0,0 +1,19 @@
+package com.example.demo.dto.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AvailabilityNightResponse {
+    private LocalDate date;
+    private Integer availableRooms;
+    private BigDecimal price;       // Giá đêm đó theo lịch giá (RoomPricing, không có thì basePrice)
+}
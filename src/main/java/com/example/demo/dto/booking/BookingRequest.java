@@ -34,10 +34,13 @@ public class BookingRequest {
     @Max(value = 10, message = "Số lượng khách không được vượt quá 10")
     private Integer numberOfGuests;
 
-    @NotNull(message = "Tổng giá không được để trống")
+    // Chỉ để tham khảo: server luôn tính lại giá từ lịch giá hoặc quote token
     @DecimalMin(value = "0.0", inclusive = false, message = "Tổng giá phải lớn hơn 0")
     private Double totalPrice;
 
+    // Token lấy từ POST /api/v1/bookings/quote (có mã khuyến mãi thì bắt buộc)
+    private String quoteToken;
+
     @Size(max = 500, message = "Yêu cầu đặc biệt không được vượt quá 500 ký tự")
     private String specialRequests;
 
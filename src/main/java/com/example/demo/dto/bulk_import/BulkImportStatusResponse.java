@@ -0,0 +1,33 @@
+package com.example.demo.dto.bulk_import;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkImportStatusResponse {
+    private String jobId;
+    private String status;              // QUEUED, RUNNING, COMPLETED, FAILED
+    private String format;              // NDJSON, CSV
+    private String fileName;
+    private String message;
+
+    private Long recordsRead;           // Số khách sạn đã đọc từ file
+    private Long hotelsImported;
+    private Long roomTypesImported;
+    private Long roomsImported;
+    private Long failedRecords;
+    private List<String> errors;        // Tối đa 100 lỗi đầu tiên, kèm số dòng
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long elapsedMillis;
+}
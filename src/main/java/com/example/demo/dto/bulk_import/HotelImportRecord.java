@@ -0,0 +1,34 @@
+package com.example.demo.dto.bulk_import;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Một khách sạn trong file import: mỗi dòng NDJSON là một record, với CSV là nhóm các dòng liên tiếp cùng hotel_ref.
+ * Địa điểm và tiện nghi tham chiếu theo tên (cityName, amenities) chứ không theo id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotelImportRecord {
+    private String hotelRef;        // Mã của hệ thống nguồn, chỉ dùng để báo lỗi
+    private String hotelName;
+    private String address;
+    private String description;
+    private BigDecimal starRating;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+    private String phoneNumber;
+    private String email;
+    private String website;
+    private String propertyType;    // HOTEL, VILLA, APARTMENT
+    private String cityName;
+    private List<String> amenities;
+    private List<RoomTypeImportRecord> roomTypes;
+}
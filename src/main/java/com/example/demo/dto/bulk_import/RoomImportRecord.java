@@ -0,0 +1,15 @@
+package com.example.demo.dto.bulk_import;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomImportRecord {
+    private String roomNumber;
+    private String floor;
+}
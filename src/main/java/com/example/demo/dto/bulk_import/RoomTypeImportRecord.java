@@ -0,0 +1,24 @@
+package com.example.demo.dto.bulk_import;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomTypeImportRecord {
+    private String typeName;
+    private String description;
+    private Integer maxOccupancy;
+    private BigDecimal basePrice;
+    private BigDecimal sizeSqm;
+    private String bedType;
+    private List<String> amenities;
+    private List<RoomImportRecord> rooms;
+}
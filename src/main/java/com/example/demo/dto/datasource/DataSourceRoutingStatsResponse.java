@@ -0,0 +1,31 @@
+package com.example.demo.dto.datasource;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DataSourceRoutingStatsResponse {
+    private List<PoolStats> pools;
+    private Long readYourWritesFallbacks; // Số lần đọc readOnly bị đưa về primary vì user vừa ghi
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PoolStats {
+        private String poolName;
+        private String role;                 // PRIMARY / REPLICA
+        private Long routedCount;            // Số lần routing chọn pool này
+        private Integer activeConnections;
+        private Integer idleConnections;
+        private Integer totalConnections;
+        private Integer threadsAwaitingConnection;
+    }
+}
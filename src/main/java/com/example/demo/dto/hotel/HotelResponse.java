@@ -40,4 +40,6 @@ public class HotelResponse {
     private Boolean isActive;
     private Double latitude;
     private Double longitude;
+    private Double distanceKm; // Chỉ có giá trị khi tìm theo vị trí (/nearby)
+    private BigDecimal minAvailablePrice; // Chỉ có giá trị khi tìm theo ngày: tổng tiền cả kỳ ở của loại phòng rẻ nhất còn trống
 }
\ No newline at end of file
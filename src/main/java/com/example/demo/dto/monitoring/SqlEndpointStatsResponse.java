@@ -0,0 +1,26 @@
+package com.example.demo.dto.monitoring;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SqlEndpointStatsResponse {
+    private String endpoint;                        // VD "GET /api/v1/hotel/{id}"
+    private Long requests;
+    private Long totalStatements;
+    private Double avgStatements;
+    private Long maxStatements;
+    private Long totalRows;
+    private Long totalSqlTimeMs;
+    private Long nPlusOneRequests;                  // Số request có ít nhất một dạng câu lệnh lặp vượt ngưỡng
+    private Map<String, Long> statementHistogram;   // "<=1", "<=2", "<=5", ... ">100" -> số request
+    private List<String> repeatedStatements;        // Các dạng câu lệnh lặp gần nhất, kèm số lần
+}
@@ -0,0 +1,16 @@
+package com.example.demo.dto.pricing;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NightlyPriceResponse {
+    private LocalDate date;
+    private BigDecimal price;
+}
@@ -0,0 +1,49 @@
+package com.example.demo.dto.pricing;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class PriceQuoteRequest {
+
+    @NotNull(message = "RoomType ID không được để trống")
+    @Positive(message = "RoomType ID phải là số dương")
+    private Long roomTypeId;
+
+    @NotNull(message = "Ngày check-in không được để trống")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate checkInDate;
+
+    @NotNull(message = "Ngày check-out không được để trống")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate checkOutDate;
+
+    @NotNull(message = "Số lượng khách không được để trống")
+    @Positive(message = "Số lượng khách phải lớn hơn 0")
+    @Max(value = 10, message = "Số lượng khách không được vượt quá 10")
+    private Integer numberOfGuests;
+
+    // Mã khuyến mãi (tùy chọn)
+    private String promotionCode;
+
+    // Tỷ lệ cọc (tùy chọn), bỏ trống = thanh toán đủ
+    @DecimalMin(value = "10.0", message = "Tỷ lệ cọc tối thiểu 10%")
+    @DecimalMax(value = "50.0", message = "Tỷ lệ cọc tối đa 50%")
+    private Double depositPercentage;
+
+    @AssertTrue(message = "Ngày check-out phải sau ngày check-in")
+    public boolean isCheckOutAfterCheckIn() {
+        if (checkInDate == null || checkOutDate == null) {
+            return true;
+        }
+        return checkOutDate.isAfter(checkInDate);
+    }
+}
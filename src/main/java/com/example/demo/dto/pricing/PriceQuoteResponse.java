@@ -0,0 +1,36 @@
+package com.example.demo.dto.pricing;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceQuoteResponse {
+    private Long roomTypeId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private Integer numberOfGuests;
+    private List<NightlyPriceResponse> nights;   // Giá từng đêm (room_pricing hoặc basePrice)
+
+    private BigDecimal subtotal;
+    private String promotionCode;
+    private BigDecimal discountAmount;
+    private BigDecimal totalPrice;
+
+    private BigDecimal depositPercentage;        // null = thanh toán đủ
+    private BigDecimal depositAmount;
+    private BigDecimal remainingAmount;
+
+    // Gửi kèm khi tạo booking (quoteToken); hết hạn sau expiresAt
+    private String quoteToken;
+    private LocalDateTime expiresAt;
+}
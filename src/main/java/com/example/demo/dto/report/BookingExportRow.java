@@ -0,0 +1,32 @@
+package com.example.demo.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Một dòng báo cáo booking, lấy thẳng bằng constructor expression trong JPQL
+ * nên không tạo entity nào trong persistence context khi xuất.
+ */
+@Data
+@AllArgsConstructor
+public class BookingExportRow {
+    private Long bookingId;
+    private LocalDateTime bookingDate;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private String status;
+    private Integer numberOfGuests;
+    private BigDecimal totalPrice;
+    private BigDecimal depositAmount;
+    private BigDecimal remainingAmount;
+    private String username;
+    private String fullName;
+    private String email;
+    private String hotelName;
+    private String roomTypeName;
+    private String roomNumber;
+}
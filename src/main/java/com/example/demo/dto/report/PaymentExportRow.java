@@ -0,0 +1,26 @@
+package com.example.demo.dto.report;
+
+import com.example.demo.entity.Payment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Một dòng báo cáo thanh toán (doanh thu), lấy bằng constructor expression trong JPQL.
+ */
+@Data
+@AllArgsConstructor
+public class PaymentExportRow {
+    private Long paymentId;
+    private Long bookingId;
+    private LocalDateTime paymentDate;
+    private BigDecimal amount;
+    private Payment.PaymentType paymentType;
+    private String paymentStatus;
+    private String paymentMethod;
+    private String transactionId;
+    private String username;
+    private String hotelName;
+}
@@ -0,0 +1,33 @@
+package com.example.demo.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportExportResponse {
+    private String token;               // Dùng để hỏi trạng thái và tải file
+    private String type;                // BOOKINGS, PAYMENTS
+    private String format;              // CSV, XLSX
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private Long hotelId;
+
+    private String status;              // QUEUED, RUNNING, READY, FAILED
+    private String message;
+    private Long rowsWritten;
+    private Long fileSizeBytes;
+    private String fileName;
+    private String downloadUrl;         // Chỉ có khi status = READY
+
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime expiresAt;    // Sau thời điểm này file bị xóa
+}
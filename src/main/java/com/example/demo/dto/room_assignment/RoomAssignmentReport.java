@@ -0,0 +1,22 @@
+package com.example.demo.dto.room_assignment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomAssignmentReport {
+    private Integer roomTypes;
+    private Integer bookings;                 // Booking đã xác nhận, chưa gán phòng, nhận phòng từ hôm nay
+    private Integer assigned;
+    private Integer unplaced;                 // Không còn phòng nào trống trọn khoảng ở
+    private Integer greedyAssigned;           // Số booking cách gán cũ (phòng đầu tiên) xếp được trên cùng dữ liệu
+    private Long greedyStrandedNights;        // Đêm lẻ nếu gán theo cách cũ
+    private Long strandedNights;              // Đêm lẻ sau khi xếp best-fit
+    private Long recoveredNights;             // Đêm bán được thêm: đêm lẻ tránh được + đêm của booking xếp thêm
+    private Long elapsedMillis;
+}
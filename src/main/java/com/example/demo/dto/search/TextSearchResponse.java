@@ -0,0 +1,21 @@
+package com.example.demo.dto.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TextSearchResponse {
+    private Long hotelId;
+    private String hotelName;
+    private String cityName;
+    private Float score;
+    private Integer matchedReviewCount;
+    private List<String> highlights; // Đoạn trích có từ khóa được bọc trong <em></em>
+}
@@ -0,0 +1,18 @@
+package com.example.demo.dto.suggest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SuggestionResponse {
+    private String type;       // CITY, PROVINCE, HOTEL
+    private Long id;           // locationId (CITY) hoặc hotelId (HOTEL), null với PROVINCE
+    private String text;       // Tên hiển thị có dấu
+    private String subtitle;   // Tỉnh của thành phố / thành phố của khách sạn
+    private Long popularity;
+}
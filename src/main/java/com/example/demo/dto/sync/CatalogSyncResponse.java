@@ -0,0 +1,32 @@
+package com.example.demo.dto.sync;
+
+import com.example.demo.dto.amenity.AmenityResponse;
+import com.example.demo.dto.hotel.HotelResponse;
+import com.example.demo.dto.location.LocationResponse;
+import com.example.demo.dto.room_type.RoomTypeResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogSyncResponse {
+    private Boolean fullSync;           // true khi không truyền since: client thay toàn bộ dữ liệu cục bộ
+    private LocalDateTime nextSince;    // Gửi lại ở lần đồng bộ sau
+
+    private List<HotelResponse> hotels;
+    private List<RoomTypeResponse> roomTypes;
+    private List<AmenityResponse> amenities;
+    private List<LocationResponse> locations;
+
+    private List<Long> deletedHotelIds;
+    private List<Long> deletedRoomTypeIds;
+    private List<Long> deletedAmenityIds;
+    private List<Long> deletedLocationIds;
+}
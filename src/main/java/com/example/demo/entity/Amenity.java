@@ -4,6 +4,7 @@ import com.example.demo.enumm.AmenityCategory;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -53,4 +54,13 @@ public class Amenity {
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private Set<RoomType> roomTypes = new HashSet<>();
-}
\ No newline at end of file
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
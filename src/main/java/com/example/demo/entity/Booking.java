@@ -1,6 +1,12 @@
 package com.example.demo.entity;
 
+import com.example.demo.monitoring.BookingStatusMetricsListener;
+import com.example.demo.service.availability.AvailabilityCalendarEntityListener;
+import com.example.demo.service.booking_document.BookingDocumentEntityListener;
+import com.example.demo.service.hold_expiry.HoldExpiryEntityListener;
+import com.example.demo.entity.converter.BookingStatusConverter;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import lombok.*;
 
 import java.math.BigDecimal;
@@ -16,7 +22,15 @@ import java.util.Set;
 @ToString
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_room_type_status_dates", columnList = "room_type_id, status, check_in_date, check_out_date"),
+        @Index(name = "idx_bookings_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_bookings_status_dates", columnList = "status, check_in_date, check_out_date"),
+        @Index(name = "idx_bookings_booking_date", columnList = "booking_date"),
+        @Index(name = "idx_bookings_check_in_date", columnList = "check_in_date")
+})
+@EntityListeners({BookingStatusMetricsListener.class, HoldExpiryEntityListener.class, AvailabilityCalendarEntityListener.class,
+        BookingDocumentEntityListener.class})
 public class Booking {
 
     @Id
@@ -54,8 +68,14 @@ public class Booking {
     private String specialRequests;
 
     @Column(name = "status")
+    @Convert(converter = BookingStatusConverter.class)
     private String status = "Chờ xác nhận";  // Enum: 'Chờ xác nhận', 'Đã xác nhận', 'Đã hủy', 'Hoàn thành'
 
+    // Trạng thái lúc nạp/lưu gần nhất, để BookingStatusMetricsListener biết booking chuyển từ trạng thái nào
+    @Transient
+    @ToString.Exclude
+    private String loadedStatus;
+
     // ✅ THÊM 2 FIELDS MỚI CHO DEPOSIT PAYMENT
     @Column(name = "deposit_amount", precision = 10, scale = 2)
     private BigDecimal depositAmount;
@@ -79,6 +99,7 @@ public class Booking {
 
     @OneToMany(mappedBy = "booking", cascade = CascadeType.ALL)
     @ToString.Exclude
+    @BatchSize(size = 50)
     private Set<Payment> payments = new HashSet<>();
 
     @OneToOne(mappedBy = "booking", cascade = CascadeType.ALL)
@@ -0,0 +1,40 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bản ghép sẵn (JSON của BookingResponse) của một booking, phục vụ đọc chi tiết / danh sách booking của khách
+ * bằng một lần tra khóa chính. Không có quan hệ JPA: user_id / hotel_id chỉ để bỏ document khi dữ liệu nguồn đổi.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "booking_documents", indexes = {
+        @Index(name = "idx_booking_documents_user_id", columnList = "user_id"),
+        @Index(name = "idx_booking_documents_hotel_id", columnList = "hotel_id")
+})
+public class BookingDocument {
+
+    @Id
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "hotel_id")
+    private Long hotelId;
+
+    @Lob
+    @Column(name = "document", nullable = false)
+    private String document;
+
+    @Column(name = "projected_at", nullable = false)
+    private LocalDateTime projectedAt;
+}
@@ -0,0 +1,35 @@
+package com.example.demo.entity;
+
+import com.example.demo.event.CatalogChangedEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dấu vết bản ghi danh mục đã bị xóa, để API đồng bộ (?since=) báo cho client xóa bản sao cục bộ.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "catalog_tombstones")
+public class CatalogTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "tombstone_id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resource_type", nullable = false, length = 20)
+    private CatalogChangedEvent.ResourceType resourceType;
+
+    @Column(name = "resource_id", nullable = false)
+    private Long resourceId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,30 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Phiên bản của từng tài nguyên danh mục (VD "hotel:12", "amenities").
+ * Tăng mỗi khi tài nguyên thay đổi, dùng để sinh ETag/Last-Modified mà không cần tải entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "catalog_versions")
+public class CatalogVersion {
+
+    @Id
+    @Column(name = "resource_key", length = 100)
+    private String resourceKey;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
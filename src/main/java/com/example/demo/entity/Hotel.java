@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import lombok.*;
 
 import java.math.BigDecimal;
@@ -40,7 +41,9 @@ public class Hotel {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "hotel_id")
+    @TableGenerator(name = "hotel_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "hotels", allocationSize = 50)
     @Column(name = "hotel_id")
     @EqualsAndHashCode.Include
     private Long id;
@@ -103,6 +106,7 @@ public class Hotel {
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     @JsonIgnore
+    @BatchSize(size = 50)
     private Set<HotelImage> images = new HashSet<>();
 
     @OneToMany(mappedBy = "hotel", cascade = CascadeType.ALL)
@@ -126,6 +130,7 @@ public class Hotel {
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     @JsonIgnore
+    @BatchSize(size = 50)
     private Set<Review> reviews = new HashSet<>();
 
     @ManyToMany(mappedBy = "favoriteHotels")
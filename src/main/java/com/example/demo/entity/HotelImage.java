@@ -14,7 +14,9 @@ import lombok.AllArgsConstructor;
 public class HotelImage {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "hotel_image_id")
+    @TableGenerator(name = "hotel_image_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "hotel_images", allocationSize = 50)
     @Column(name = "image_id")
     private Long id;
 
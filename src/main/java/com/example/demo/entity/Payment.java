@@ -1,5 +1,8 @@
 package com.example.demo.entity;
 
+import com.example.demo.service.booking_document.BookingDocumentEntityListener;
+import com.example.demo.service.hold_expiry.HoldExpiryEntityListener;
+import com.example.demo.entity.converter.PaymentStatusConverter;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,7 +19,8 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = @Index(name = "idx_payments_booking_status", columnList = "booking_id, payment_status"))
+@EntityListeners({HoldExpiryEntityListener.class, BookingDocumentEntityListener.class})
 public class Payment {
 
     @Id
@@ -35,6 +39,7 @@ public class Payment {
     private String paymentMethod; // "Ví điện tử" (cho MoMo)
 
     @Column(name = "payment_status")
+    @Convert(converter = PaymentStatusConverter.class)
     private String paymentStatus = "Chờ thanh toán"; // "Chờ thanh toán", "Đã thanh toán", "Đã hủy", "Đã hết hạn"
 
     // ✅ NEW FIELDS FOR DEPOSIT PAYMENT
@@ -13,7 +13,9 @@ import lombok.AllArgsConstructor;
 public class ReviewImage {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "review_image_id")
+    @TableGenerator(name = "review_image_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "review_images", allocationSize = 50)
     @Column(name = "image_id")
     private Long id;
 
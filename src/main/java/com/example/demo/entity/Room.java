@@ -3,10 +3,14 @@ package com.example.demo.entity;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.example.demo.entity.converter.RoomStatusConverter;
+import com.example.demo.service.availability.AvailabilityCalendarEntityListener;
+import com.example.demo.service.booking_document.BookingDocumentEntityListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.ToString;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -15,11 +19,17 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "rooms")
+@Table(name = "rooms", indexes = {
+        @Index(name = "idx_rooms_room_type_status", columnList = "room_type_id, status"),
+        @Index(name = "idx_rooms_status", columnList = "status")
+})
+@EntityListeners({AvailabilityCalendarEntityListener.class, BookingDocumentEntityListener.class})
 public class Room {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "room_id")
+    @TableGenerator(name = "room_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "rooms", allocationSize = 50)
     @Column(name = "room_id")
     private Long id;
 
@@ -35,8 +45,20 @@ public class Room {
     private String floor;
 
     @Column(name = "status")
+    @Convert(converter = RoomStatusConverter.class)
     private String status = "Trống";
 
+    // Số phòng và loại phòng lúc nạp/lưu gần nhất, để BookingDocumentEntityListener chỉ bỏ document khi phòng đổi số/chuyển loại
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    private String loadedRoomNumber;
+
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    private Long loadedRoomTypeId;
+
     @OneToMany(mappedBy = "assignedRoom")
     @JsonIgnore // Thay thế JsonManagedReference để tránh vòng lặp
     private Set<Booking> bookings = new HashSet<>();
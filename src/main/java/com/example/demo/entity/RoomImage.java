@@ -15,7 +15,9 @@ import lombok.AllArgsConstructor;
 public class RoomImage {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "room_image_id")
+    @TableGenerator(name = "room_image_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "room_images", allocationSize = 50)
     @Column(name = "image_id")
     private Long id;
 
@@ -4,11 +4,13 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -20,7 +22,9 @@ import java.util.Set;
 public class RoomType {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "room_type_id")
+    @TableGenerator(name = "room_type_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "room_types", allocationSize = 50)
     @Column(name = "room_type_id")
     private Long id;
 
@@ -62,6 +66,7 @@ public class RoomType {
             inverseJoinColumns = @JoinColumn(name = "amenity_id")
     )
     @JsonIgnore // Thêm để tránh vòng lặp với amenities
+    @BatchSize(size = 50)
     private Set<Amenity> amenities = new HashSet<>();
 
     @OneToMany(mappedBy = "roomType", cascade = CascadeType.ALL)
@@ -71,4 +76,13 @@ public class RoomType {
     @OneToMany(mappedBy = "roomType", cascade = CascadeType.ALL)
     @JsonIgnore // Thay thế JsonManagedReference để tránh vòng lặp
     private Set<Booking> bookings = new HashSet<>();
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.updatedAt = LocalDateTime.now();
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.demo.entity;
 
+import com.example.demo.service.booking_document.BookingDocumentEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -20,6 +21,7 @@ import java.util.Set;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Entity
 @Table(name = "users")
+@EntityListeners(BookingDocumentEntityListener.class)
 public class User {
 
     @Id
@@ -0,0 +1,12 @@
+package com.example.demo.entity.converter;
+
+import com.example.demo.enumm.BookingStatusCode;
+import jakarta.persistence.Converter;
+
+@Converter
+public class BookingStatusConverter extends StatusCodeConverter<BookingStatusCode> {
+
+    public BookingStatusConverter() {
+        super(BookingStatusCode::fromDisplayName, BookingStatusCode::fromCode);
+    }
+}
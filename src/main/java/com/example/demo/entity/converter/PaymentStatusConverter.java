@@ -0,0 +1,12 @@
+package com.example.demo.entity.converter;
+
+import com.example.demo.enumm.PaymentStatusCode;
+import jakarta.persistence.Converter;
+
+@Converter
+public class PaymentStatusConverter extends StatusCodeConverter<PaymentStatusCode> {
+
+    public PaymentStatusConverter() {
+        super(PaymentStatusCode::fromDisplayName, PaymentStatusCode::fromCode);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.entity.converter;
+
+import com.example.demo.enumm.RoomStatusCode;
+import jakarta.persistence.Converter;
+
+@Converter
+public class RoomStatusConverter extends StatusCodeConverter<RoomStatusCode> {
+
+    public RoomStatusConverter() {
+        super(RoomStatusCode::fromDisplayName, RoomStatusCode::fromCode);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.entity.converter;
+
+import com.example.demo.enumm.StatusCode;
+import jakarta.persistence.AttributeConverter;
+
+import java.util.function.Function;
+
+/**
+ * Lưu trạng thái (tên hiển thị ở tầng Java) thành mã SMALLINT trong DB.
+ * So sánh/tham số JPQL trên thuộc tính được chuyển đổi cũng đi qua converter nên vẫn viết bằng tên hiển thị.
+ */
+abstract class StatusCodeConverter<E extends Enum<E> & StatusCode> implements AttributeConverter<String, Short> {
+
+    private final Function<String, E> byDisplayName;
+    private final Function<Short, E> byCode;
+
+    StatusCodeConverter(Function<String, E> byDisplayName, Function<Short, E> byCode) {
+        this.byDisplayName = byDisplayName;
+        this.byCode = byCode;
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(String displayName) {
+        return displayName == null ? null : byDisplayName.apply(displayName).getCode();
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short code) {
+        return code == null ? null : byCode.apply(code).getDisplayName();
+    }
+}
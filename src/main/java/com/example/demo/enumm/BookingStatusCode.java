@@ -0,0 +1,61 @@
+package com.example.demo.enumm;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Mã trạng thái booking (cột bookings.status), tên hiển thị trùng với các hằng trong BookingStatus
+public enum BookingStatusCode implements StatusCode {
+    TEMPORARY(1, "Tạm giữ chỗ"),
+    PENDING(2, "Chờ xác nhận"),
+    CONFIRMED(3, "Đã xác nhận"),
+    DEPOSIT_PAID(4, "Đã đặt cọc"),
+    PAID(5, "Đã thanh toán"),
+    CHECKED_IN(6, "Đã nhận phòng"),
+    COMPLETED(7, "Hoàn thành"),
+    CANCELLED(8, "Đã hủy"),
+    NO_SHOW(9, "Không đến");
+
+    private static final Map<Short, BookingStatusCode> BY_CODE = new HashMap<>();
+    private static final Map<String, BookingStatusCode> BY_DISPLAY_NAME = new HashMap<>();
+
+    static {
+        for (BookingStatusCode status : values()) {
+            BY_CODE.put(status.code, status);
+            BY_DISPLAY_NAME.put(status.displayName, status);
+        }
+    }
+
+    private final short code;
+    private final String displayName;
+
+    BookingStatusCode(int code, String displayName) {
+        this.code = (short) code;
+        this.displayName = displayName;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public static BookingStatusCode fromCode(short code) {
+        BookingStatusCode status = BY_CODE.get(code);
+        if (status == null) {
+            throw new IllegalArgumentException("Mã trạng thái không hợp lệ: " + code);
+        }
+        return status;
+    }
+
+    public static BookingStatusCode fromDisplayName(String displayName) {
+        BookingStatusCode status = BY_DISPLAY_NAME.get(displayName);
+        if (status == null) {
+            throw new IllegalArgumentException("Trạng thái không hợp lệ: " + displayName);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.enumm;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Mã trạng thái thanh toán (cột payments.payment_status)
+public enum PaymentStatusCode implements StatusCode {
+    PENDING(1, "Chờ thanh toán"),
+    PAID(2, "Đã thanh toán"),
+    CANCELLED(3, "Đã hủy"),
+    EXPIRED(4, "Đã hết hạn"),
+    REFUNDED(5, "Đã hoàn tiền");
+
+    private static final Map<Short, PaymentStatusCode> BY_CODE = new HashMap<>();
+    private static final Map<String, PaymentStatusCode> BY_DISPLAY_NAME = new HashMap<>();
+
+    static {
+        for (PaymentStatusCode status : values()) {
+            BY_CODE.put(status.code, status);
+            BY_DISPLAY_NAME.put(status.displayName, status);
+        }
+    }
+
+    private final short code;
+    private final String displayName;
+
+    PaymentStatusCode(int code, String displayName) {
+        this.code = (short) code;
+        this.displayName = displayName;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public static PaymentStatusCode fromCode(short code) {
+        PaymentStatusCode status = BY_CODE.get(code);
+        if (status == null) {
+            throw new IllegalArgumentException("Mã trạng thái không hợp lệ: " + code);
+        }
+        return status;
+    }
+
+    public static PaymentStatusCode fromDisplayName(String displayName) {
+        PaymentStatusCode status = BY_DISPLAY_NAME.get(displayName);
+        if (status == null) {
+            throw new IllegalArgumentException("Trạng thái không hợp lệ: " + displayName);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.enumm;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Mã trạng thái phòng (cột rooms.status), tên hiển thị trùng với các hằng trong RoomStatus
+public enum RoomStatusCode implements StatusCode {
+    AVAILABLE(1, "Trống"),
+    RESERVED(2, "Đã đặt"),
+    OCCUPIED(3, "Đang sử dụng"),
+    MAINTENANCE(4, "Bảo trì"),
+    OUT_OF_ORDER(5, "Hỏng");
+
+    private static final Map<Short, RoomStatusCode> BY_CODE = new HashMap<>();
+    private static final Map<String, RoomStatusCode> BY_DISPLAY_NAME = new HashMap<>();
+
+    static {
+        for (RoomStatusCode status : values()) {
+            BY_CODE.put(status.code, status);
+            BY_DISPLAY_NAME.put(status.displayName, status);
+        }
+    }
+
+    private final short code;
+    private final String displayName;
+
+    RoomStatusCode(int code, String displayName) {
+        this.code = (short) code;
+        this.displayName = displayName;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public static RoomStatusCode fromCode(short code) {
+        RoomStatusCode status = BY_CODE.get(code);
+        if (status == null) {
+            throw new IllegalArgumentException("Mã trạng thái không hợp lệ: " + code);
+        }
+        return status;
+    }
+
+    public static RoomStatusCode fromDisplayName(String displayName) {
+        RoomStatusCode status = BY_DISPLAY_NAME.get(displayName);
+        if (status == null) {
+            throw new IllegalArgumentException("Trạng thái không hợp lệ: " + displayName);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.enumm;
+
+/**
+ * Trạng thái lưu trong DB dưới dạng mã số nhỏ; tên tiếng Việt chỉ dùng ở tầng Java/API.
+ * Mã đã cấp không được đổi hay dùng lại vì dữ liệu cũ đang lưu theo mã.
+ */
+public interface StatusCode {
+
+    short getCode();
+
+    String getDisplayName();
+}
@@ -0,0 +1,41 @@
+package com.example.demo.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Sự kiện phát ra sau khi dữ liệu danh mục (khách sạn, loại phòng, tiện nghi, ...) được tạo, sửa hoặc xóa.
+ * Source là entity vừa thay đổi, các index trong bộ nhớ lắng nghe để cập nhật từng phần.
+ */
+@Getter
+public class CatalogChangedEvent extends ApplicationEvent {
+
+    public enum ResourceType {
+        HOTEL,
+        LOCATION,
+        REVIEW,
+        ROOM_TYPE,
+        AMENITY
+    }
+
+    public enum Action {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final ResourceType resourceType;
+    private final Long resourceId;
+    private final Action action;
+
+    public CatalogChangedEvent(Object source, ResourceType resourceType, Long resourceId, Action action) {
+        super(source);
+        this.resourceType = resourceType;
+        this.resourceId = resourceId;
+        this.action = action;
+    }
+
+    public boolean isDeleted() {
+        return action == Action.DELETED;
+    }
+}
@@ -8,6 +8,7 @@ import com.example.demo.repository.BookingRepository;
 import com.example.demo.repository.PaymentRepository;
 import com.example.demo.repository.RoomRepository;
 import com.example.demo.service.notification.AdminNotificationService;
+import com.example.demo.service.room_assignment.RoomAssignmentService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,6 +30,7 @@ public class PaymentEventListener {
     private final RoomRepository roomRepository;
     private final PaymentRepository paymentRepository;
     private final AdminNotificationService adminNotificationService;
+    private final RoomAssignmentService roomAssignmentService;
 
     @EventListener
     @Async
@@ -67,13 +69,9 @@ public class PaymentEventListener {
             Room assignedRoom = booking.getAssignedRoom();
             if (assignedRoom == null) {
                 // Tìm phòng trống
-                List<Room> availableRooms = roomRepository.findAvailableRoomsByTypeAndDates(
-                        booking.getRoomType().getId(),
-                        booking.getCheckInDate(),
-                        booking.getCheckOutDate());
+                assignedRoom = findAvailableRoom(booking);
 
-                if (!availableRooms.isEmpty()) {
-                    assignedRoom = availableRooms.get(0);
+                if (assignedRoom != null) {
                     booking.setAssignedRoom(assignedRoom);
                     log.info("Auto-assigned room {} to booking {}",
                             assignedRoom.getRoomNumber(), booking.getId());
@@ -187,11 +185,10 @@ public class PaymentEventListener {
 
     // Helper method
     private Room findAvailableRoom(Booking booking) {
-        List<Room> availableRooms = roomRepository.findAvailableRoomsByTypeAndDates(
+        return roomAssignmentService.findBestRoom(
                 booking.getRoomType().getId(),
                 booking.getCheckInDate(),
                 booking.getCheckOutDate());
-        return availableRooms.isEmpty() ? null : availableRooms.get(0);
     }
 
 }
\ No newline at end of file
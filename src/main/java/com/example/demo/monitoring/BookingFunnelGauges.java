@@ -0,0 +1,54 @@
+package com.example.demo.monitoring;
+
+import com.example.demo.dto.booking.BookingStatus;
+import com.example.demo.repository.BookingRepository;
+import com.example.demo.repository.PaymentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gauge số thanh toán đang chờ và số booking tạm giữ chỗ.
+ * Giá trị được đếm lại định kỳ rồi cache, để mỗi lần Prometheus scrape không phải chạy COUNT trên DB.
+ */
+@Component
+public class BookingFunnelGauges {
+    private static final Logger log = LoggerFactory.getLogger(BookingFunnelGauges.class);
+    private static final String PENDING_PAYMENT_STATUS = "Chờ thanh toán";
+
+    private final BookingRepository bookingRepository;
+    private final PaymentRepository paymentRepository;
+
+    private final AtomicLong pendingPayments = new AtomicLong();
+    private final AtomicLong temporaryHolds = new AtomicLong();
+
+    public BookingFunnelGauges(BookingRepository bookingRepository, PaymentRepository paymentRepository,
+                               MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.paymentRepository = paymentRepository;
+
+        Gauge.builder(BookingFunnelMetrics.PENDING_PAYMENTS, pendingPayments, AtomicLong::get)
+                .description("Số thanh toán đang ở trạng thái chờ thanh toán")
+                .register(meterRegistry);
+        Gauge.builder(BookingFunnelMetrics.TEMPORARY_HOLDS, temporaryHolds, AtomicLong::get)
+                .description("Số booking đang tạm giữ chỗ")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.metrics.gauge-refresh-ms:30000}", initialDelay = 5000)
+    public void refresh() {
+        try {
+            Long payments = paymentRepository.countByPaymentStatus(PENDING_PAYMENT_STATUS);
+            pendingPayments.set(payments != null ? payments : 0);
+            temporaryHolds.set(bookingRepository.countByStatus(BookingStatus.TEMPORARY));
+        } catch (Exception e) {
+            // Giữ giá trị cũ, lần sau đếm lại
+            log.warn("Không cập nhật được gauge phễu đặt phòng: {}", e.getMessage());
+        }
+    }
+}
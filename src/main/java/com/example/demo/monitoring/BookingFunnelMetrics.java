@@ -0,0 +1,22 @@
+package com.example.demo.monitoring;
+
+/**
+ * Tên metric dùng chung cho phễu đặt phòng, để dashboard/alert không phụ thuộc tên lớp.
+ */
+public final class BookingFunnelMetrics {
+
+    // Timer theo thao tác service, tag operation (VD booking.create, payment.callback)
+    public static final String OPERATION_TIMER = "booking.funnel.operation";
+
+    // Timer cho từng lần gọi MoMo, tag operation = create/query
+    public static final String MOMO_TIMER = "momo.api.request";
+
+    // Counter chuyển trạng thái booking, tag from/to
+    public static final String STATUS_TRANSITIONS = "booking.status.transitions";
+
+    public static final String PENDING_PAYMENTS = "payment.pending";
+    public static final String TEMPORARY_HOLDS = "booking.temporary.holds";
+
+    private BookingFunnelMetrics() {
+    }
+}
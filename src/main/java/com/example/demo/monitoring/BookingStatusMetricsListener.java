@@ -0,0 +1,74 @@
+package com.example.demo.monitoring;
+
+import com.example.demo.dto.booking.BookingStatus;
+import com.example.demo.entity.Booking;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Đếm chuyển trạng thái booking ở tầng JPA nên bắt được mọi chỗ gọi setStatus
+ * (service, listener thanh toán, job tự hủy) mà không phải sửa từng nơi.
+ * Đếm lúc flush, nên transaction bị rollback sau flush vẫn được tính.
+ */
+@Component
+public class BookingStatusMetricsListener {
+
+    // Nhãn ASCII ổn định cho Prometheus thay vì chuỗi trạng thái tiếng Việt
+    private static final Map<String, String> STATUS_TAGS = Map.of(
+            BookingStatus.TEMPORARY, "temporary",
+            BookingStatus.PENDING, "pending",
+            BookingStatus.CONFIRMED, "confirmed",
+            BookingStatus.PAID, "paid",
+            BookingStatus.DEPOSIT_PAID, "deposit_paid",
+            BookingStatus.CHECKED_IN, "checked_in",
+            BookingStatus.COMPLETED, "completed",
+            BookingStatus.CANCELLED, "cancelled",
+            BookingStatus.NO_SHOW, "no_show");
+
+    // Provider vì test @DataJpaTest không có MeterRegistry
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public BookingStatusMetricsListener(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostLoad
+    public void onLoad(Booking booking) {
+        booking.setLoadedStatus(booking.getStatus());
+    }
+
+    @PostPersist
+    public void onPersist(Booking booking) {
+        count(null, booking.getStatus());
+        booking.setLoadedStatus(booking.getStatus());
+    }
+
+    @PostUpdate
+    public void onUpdate(Booking booking) {
+        if (!Objects.equals(booking.getLoadedStatus(), booking.getStatus())) {
+            count(booking.getLoadedStatus(), booking.getStatus());
+            booking.setLoadedStatus(booking.getStatus());
+        }
+    }
+
+    private void count(String from, String to) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            registry.counter(BookingFunnelMetrics.STATUS_TRANSITIONS, "from", tag(from), "to", tag(to)).increment();
+        }
+    }
+
+    private static String tag(String status) {
+        if (status == null) {
+            return "none";
+        }
+        return STATUS_TAGS.getOrDefault(status, "other");
+    }
+}
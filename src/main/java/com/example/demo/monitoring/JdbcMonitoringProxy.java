@@ -0,0 +1,129 @@
+package com.example.demo.monitoring;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Bọc DataSource bằng dynamic proxy để đếm câu lệnh, số dòng (đọc qua ResultSet.next() hoặc bị ảnh hưởng)
+ * và thời gian thực thi vào SqlRequestContext của luồng hiện tại.
+ * Một lần executeBatch tính là một câu lệnh (một lượt gửi tới DB).
+ */
+public final class JdbcMonitoringProxy {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private JdbcMonitoringProxy() {
+    }
+
+    public static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (proxy, method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            if (result instanceof Connection connection && method.getName().equals("getConnection")) {
+                return wrapConnection(connection);
+            }
+            return result;
+        });
+    }
+
+    private static Connection wrapConnection(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            if (result instanceof CallableStatement statement) {
+                return wrapStatement(CallableStatement.class, statement, sql);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrapStatement(PreparedStatement.class, statement, sql);
+            }
+            if (result instanceof Statement statement) {
+                return wrapStatement(Statement.class, statement, null);
+            }
+            return result;
+        });
+    }
+
+    private static <S extends Statement> S wrapStatement(Class<S> type, S statement, String preparedSql) {
+        return proxy(type, statement, (proxy, method, args) -> {
+            SqlRequestStats stats = SqlRequestContext.current();
+            if (stats == null) {
+                return invoke(statement, method, args);
+            }
+            String name = method.getName();
+            if (EXECUTE_METHODS.contains(name)) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                long start = System.nanoTime();
+                Object result = invoke(statement, method, args);
+                stats.recordStatement(sql, System.nanoTime() - start, affectedRows(result));
+                return result instanceof ResultSet resultSet ? wrapResultSet(resultSet) : result;
+            }
+            Object result = invoke(statement, method, args);
+            if (result instanceof ResultSet resultSet && name.equals("getResultSet")) {
+                return wrapResultSet(resultSet);
+            }
+            return result;
+        });
+    }
+
+    private static ResultSet wrapResultSet(ResultSet resultSet) {
+        return proxy(ResultSet.class, resultSet, (proxy, method, args) -> {
+            Object result = invoke(resultSet, method, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                SqlRequestStats stats = SqlRequestContext.current();
+                if (stats != null) {
+                    stats.recordRowRead();
+                }
+            }
+            return result;
+        });
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Integer count) {
+            return count;
+        }
+        if (result instanceof Long count) {
+            return count;
+        }
+        long total = 0;
+        if (result instanceof int[] counts) {
+            for (int count : counts) {
+                total += Math.max(count, 0);
+            }
+        } else if (result instanceof long[] counts) {
+            for (long count : counts) {
+                total += Math.max(count, 0);
+            }
+        }
+        return total;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(JdbcMonitoringProxy.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    // unwrap/isWrapperFor đi thẳng xuống đối tượng thật (Hikari, driver)
+                    case "unwrap", "isWrapperFor" -> invoke(target, method, args);
+                    default -> handler.invoke(proxy, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
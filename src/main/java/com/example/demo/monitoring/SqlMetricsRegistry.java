@@ -0,0 +1,109 @@
+package com.example.demo.monitoring;
+
+import com.example.demo.dto.monitoring.SqlEndpointStatsResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cộng dồn số liệu SQL theo endpoint (method + pattern), kèm histogram số câu lệnh mỗi request.
+ */
+@Component
+public class SqlMetricsRegistry {
+
+    // Cận trên của các bucket histogram số câu lệnh/request
+    private static final long[] BUCKETS = {0, 1, 2, 5, 10, 20, 50, 100};
+    private static final int KEPT_REPEATED = 5;
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, SqlRequestStats stats, List<SqlRequestStats.RepeatedStatement> repeated) {
+        EndpointStats endpointStats = endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+        endpointStats.requests.increment();
+        endpointStats.statements.add(stats.getStatementCount());
+        endpointStats.maxStatements.accumulate(stats.getStatementCount());
+        endpointStats.rows.add(stats.getRowCount());
+        endpointStats.sqlTimeMs.add(stats.getElapsedMillis());
+        endpointStats.histogram[bucketOf(stats.getStatementCount())].increment();
+        if (!repeated.isEmpty()) {
+            endpointStats.nPlusOneRequests.increment();
+            synchronized (endpointStats.repeated) {
+                for (SqlRequestStats.RepeatedStatement statement : repeated) {
+                    endpointStats.repeated.addFirst(statement.count() + "x " + statement.shape());
+                    if (endpointStats.repeated.size() > KEPT_REPEATED) {
+                        endpointStats.repeated.removeLast();
+                    }
+                }
+            }
+        }
+    }
+
+    public List<SqlEndpointStatsResponse> snapshot() {
+        List<SqlEndpointStatsResponse> result = new ArrayList<>();
+        endpoints.forEach((endpoint, stats) -> {
+            long requests = stats.requests.sum();
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < stats.histogram.length; i++) {
+                String label = i < BUCKETS.length ? "<=" + BUCKETS[i] : ">" + BUCKETS[BUCKETS.length - 1];
+                histogram.put(label, stats.histogram[i].sum());
+            }
+            List<String> repeated;
+            synchronized (stats.repeated) {
+                repeated = new ArrayList<>(stats.repeated);
+            }
+            result.add(SqlEndpointStatsResponse.builder()
+                    .endpoint(endpoint)
+                    .requests(requests)
+                    .totalStatements(stats.statements.sum())
+                    .avgStatements(requests > 0 ? (double) stats.statements.sum() / requests : 0)
+                    .maxStatements(stats.maxStatements.get())
+                    .totalRows(stats.rows.sum())
+                    .totalSqlTimeMs(stats.sqlTimeMs.sum())
+                    .nPlusOneRequests(stats.nPlusOneRequests.sum())
+                    .statementHistogram(histogram)
+                    .repeatedStatements(repeated)
+                    .build());
+        });
+        result.sort(Comparator.comparing(SqlEndpointStatsResponse::getTotalStatements).reversed());
+        return result;
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    private static int bucketOf(long statements) {
+        for (int i = 0; i < BUCKETS.length; i++) {
+            if (statements <= BUCKETS[i]) {
+                return i;
+            }
+        }
+        return BUCKETS.length;
+    }
+
+    private static class EndpointStats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder sqlTimeMs = new LongAdder();
+        private final LongAdder nPlusOneRequests = new LongAdder();
+        private final LongAdder[] histogram = new LongAdder[BUCKETS.length + 1];
+        private final Deque<String> repeated = new ArrayDeque<>();
+
+        private EndpointStats() {
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demo.monitoring;
+
+import com.example.demo.config.SqlMonitorProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Mở SqlRequestContext cho mỗi request, cuối request ghi số liệu theo endpoint và cảnh báo N+1.
+ * Header X-SQL-* được gắn ngay trước khi response bắt đầu ghi body, nên không tính các câu lệnh
+ * chạy trong lúc serialize (lazy load khi Jackson đọc entity); log và thống kê thì có tính.
+ */
+@Slf4j
+public class SqlMonitorFilter extends OncePerRequestFilter {
+
+    // Request attribute chứa SqlRequestStats sau khi request xong (test dùng để kiểm tra ngân sách câu lệnh)
+    public static final String STATS_ATTRIBUTE = SqlMonitorFilter.class.getName() + ".stats";
+
+    private final SqlMonitorProperties properties;
+    private final SqlMetricsRegistry metricsRegistry;
+
+    public SqlMonitorFilter(SqlMonitorProperties properties, SqlMetricsRegistry metricsRegistry) {
+        this.properties = properties;
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlRequestStats stats = SqlRequestContext.start();
+        HeaderWritingResponse headerResponse = properties.isDebugHeader()
+                ? new HeaderWritingResponse(response, stats, properties.getRepeatedStatementThreshold())
+                : null;
+        try {
+            chain.doFilter(request, headerResponse != null ? headerResponse : response);
+        } finally {
+            SqlRequestContext.end();
+            if (headerResponse != null) {
+                headerResponse.writeHeaders();
+            }
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlRequestStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // Dùng pattern thay vì URI thật để số endpoint không tăng theo id
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : "(unmapped)");
+        List<SqlRequestStats.RepeatedStatement> repeated =
+                stats.repeatedStatements(properties.getRepeatedStatementThreshold());
+        if (!repeated.isEmpty()) {
+            log.warn("Nghi N+1 tại {} ({} câu lệnh): {}", endpoint, stats.getStatementCount(),
+                    repeated.stream()
+                            .map(statement -> statement.count() + "x " + statement.shape())
+                            .collect(Collectors.joining(" | ")));
+        }
+        metricsRegistry.record(endpoint, stats, repeated);
+    }
+
+    private static class HeaderWritingResponse extends HttpServletResponseWrapper {
+
+        private final SqlRequestStats stats;
+        private final int repeatedStatementThreshold;
+        private boolean headersWritten;
+
+        HeaderWritingResponse(HttpServletResponse response, SqlRequestStats stats, int repeatedStatementThreshold) {
+            super(response);
+            this.stats = stats;
+            this.repeatedStatementThreshold = repeatedStatementThreshold;
+        }
+
+        void writeHeaders() {
+            if (headersWritten || isCommitted()) {
+                return;
+            }
+            headersWritten = true;
+            setHeader("X-SQL-Count", String.valueOf(stats.getStatementCount()));
+            setHeader("X-SQL-Rows", String.valueOf(stats.getRowCount()));
+            setHeader("X-SQL-Time-Ms", String.valueOf(stats.getElapsedMillis()));
+            setHeader("X-SQL-Repeated", String.valueOf(stats.repeatedStatements(repeatedStatementThreshold).size()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.monitoring;
+
+/**
+ * Gắn SqlRequestStats vào luồng đang xử lý request. Ngoài request (scheduler, job nền) không có context
+ * và JDBC proxy chỉ chuyển tiếp mà không đếm.
+ */
+public final class SqlRequestContext {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private SqlRequestContext() {
+    }
+
+    public static SqlRequestStats start() {
+        SqlRequestStats stats = new SqlRequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.monitoring;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Số liệu SQL của một request. Chỉ luồng xử lý request ghi vào nên không cần đồng bộ.
+ */
+public class SqlRequestStats {
+
+    private int statementCount;
+    private long rowCount;
+    private long elapsedNanos;
+    private final Map<String, ShapeCount> shapes = new HashMap<>();
+
+    public record RepeatedStatement(String shape, int count, long elapsedNanos) {
+    }
+
+    void recordStatement(String sql, long nanos, long rowsAffected) {
+        statementCount++;
+        elapsedNanos += nanos;
+        rowCount += Math.max(rowsAffected, 0);
+        ShapeCount shape = shapes.computeIfAbsent(SqlShape.of(sql), key -> new ShapeCount());
+        shape.count++;
+        shape.elapsedNanos += nanos;
+    }
+
+    void recordRowRead() {
+        rowCount++;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * Các dạng câu lệnh chạy lặp từ threshold lần trở lên, nhiều nhất trước.
+     */
+    public List<RepeatedStatement> repeatedStatements(int threshold) {
+        List<RepeatedStatement> repeated = new ArrayList<>();
+        shapes.forEach((shape, count) -> {
+            if (count.count >= threshold) {
+                repeated.add(new RepeatedStatement(shape, count.count, count.elapsedNanos));
+            }
+        });
+        repeated.sort(Comparator.comparingInt(RepeatedStatement::count).reversed());
+        return repeated;
+    }
+
+    private static class ShapeCount {
+        private int count;
+        private long elapsedNanos;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.monitoring;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Chuẩn hóa câu SQL về "dạng" để gom các lần chạy giống nhau chỉ khác tham số:
+ * literal chuỗi/số thành ?, danh sách IN (?, ?, ?) thành (?), khoảng trắng gộp lại.
+ */
+final class SqlShape {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Hibernate sinh một tập câu lệnh hữu hạn nên cache theo chuỗi gốc, giới hạn để không phình khi có SQL động
+    private static final int CACHE_LIMIT = 2000;
+    private static final Map<String, String> CACHE = new ConcurrentHashMap<>();
+
+    private SqlShape() {
+    }
+
+    static String of(String sql) {
+        if (sql == null) {
+            return "(unknown)";
+        }
+        String cached = CACHE.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String shape = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        if (CACHE.size() < CACHE_LIMIT) {
+            CACHE.put(sql, shape);
+        }
+        return shape;
+    }
+}
@@ -3,5 +3,9 @@ package com.example.demo.repository;
 import com.example.demo.entity.Amenity;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface AmenityRepository extends JpaRepository<Amenity, Long> {
+    List<Amenity> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
 }
@@ -0,0 +1,30 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.BookingDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BookingDocumentRepository extends JpaRepository<BookingDocument, Long> {
+
+    // Thông tin khách sạn / loại phòng / đánh giá đổi: bỏ document của khách sạn, lần đọc sau chiếu lại
+    @Modifying
+    @Query("DELETE FROM BookingDocument d WHERE d.hotelId = :hotelId")
+    int deleteByHotelId(@Param("hotelId") Long hotelId);
+
+    // Phòng đổi số hoặc chuyển loại phòng: bỏ document các booking được gán phòng đó
+    @Modifying
+    @Query("""
+        DELETE FROM BookingDocument d
+        WHERE d.bookingId IN (SELECT b.id FROM Booking b WHERE b.assignedRoom.id = :roomId)
+    """)
+    int deleteByAssignedRoomId(@Param("roomId") Long roomId);
+
+    // Thông tin khách (tên, email) đổi
+    @Modifying
+    @Query("DELETE FROM BookingDocument d WHERE d.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
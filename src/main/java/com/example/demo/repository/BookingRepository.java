@@ -1,16 +1,23 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.report.BookingExportRow;
 import com.example.demo.entity.Booking;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -35,7 +42,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("""
         SELECT COUNT(b) FROM Booking b 
         WHERE b.roomType.id = :roomTypeId 
-        AND b.status IN ('Đã xác nhận', 'Đã thanh toán', 'Đã nhận phòng', 'Checked In') 
+        AND b.status IN ('Đã xác nhận', 'Đã thanh toán', 'Đã nhận phòng') 
         AND NOT (b.checkOutDate <= :checkInDate OR b.checkInDate >= :checkOutDate)
     """)
     long countConfirmedOverlappingBookings(
@@ -50,7 +57,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("""
         SELECT COUNT(b) FROM Booking b 
         WHERE b.roomType.id = :roomTypeId 
-        AND b.status IN ('Đã xác nhận', 'Đã thanh toán', 'Đã nhận phòng', 'Checked In') 
+        AND b.status IN ('Đã xác nhận', 'Đã thanh toán', 'Đã nhận phòng') 
         AND b.id <> :excludeBookingId 
         AND NOT (b.checkOutDate <= :checkInDate OR b.checkInDate >= :checkOutDate)
     """)
@@ -89,6 +96,24 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     """)
     List<Booking> findConfirmedBookingsWithoutAssignedRoom();
 
+    /**
+     * Khoảng ở đã gán phòng của một loại phòng trong [from, to): [assignedRoomId, checkInDate, checkOutDate]
+     * (bộ xếp phòng dựng lịch từng phòng từ đây)
+     */
+    @Query("""
+        SELECT b.assignedRoom.id, b.checkInDate, b.checkOutDate
+        FROM Booking b
+        WHERE b.roomType.id = :roomTypeId
+        AND b.assignedRoom IS NOT NULL
+        AND b.status IN ('Tạm giữ chỗ', 'Chờ xác nhận', 'Đã xác nhận', 'Đã đặt cọc', 'Đã thanh toán', 'Đã nhận phòng')
+        AND b.checkInDate < :to AND b.checkOutDate > :from
+    """)
+    List<Object[]> findAssignedStaysByRoomType(
+            @Param("roomTypeId") Long roomTypeId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
     /**
      * ✅ Kiểm tra room có bị conflict với booking khác không
      */
@@ -145,6 +170,18 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     """)
     List<Booking> findExpiredTemporaryBookings(@Param("cutoffTime") LocalDateTime cutoffTime);
 
+    /**
+     * [bookingId, bookingDate] của mọi booking đang tạm giữ, để nạp lại bánh xe hết hạn khi khởi động
+     */
+    @Query("SELECT b.id, b.bookingDate FROM Booking b WHERE b.status = 'Tạm giữ chỗ'")
+    List<Object[]> findTemporaryBookingDates();
+
+    /**
+     * [bookingId, bookingDate] của mọi booking chờ xác nhận, để nạp lại bánh xe hết hạn khi khởi động
+     */
+    @Query("SELECT b.id, b.bookingDate FROM Booking b WHERE b.status = 'Chờ xác nhận'")
+    List<Object[]> findPendingConfirmationBookingDates();
+
     /**
      * Tìm booking pending cũ không có payment thành công
      */
@@ -176,6 +213,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
         LEFT JOIN FETCH rt.amenities rta
         LEFT JOIN FETCH b.assignedRoom ar
         LEFT JOIN FETCH b.payments p
+        LEFT JOIN FETCH b.review br
         WHERE b.id = :bookingId
     """)
     Optional<Booking> findByIdWithDetails(@Param("bookingId") Long bookingId);
@@ -194,11 +232,80 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
         LEFT JOIN FETCH rt.amenities rta
         LEFT JOIN FETCH b.assignedRoom ar
         LEFT JOIN FETCH b.payments p
+        LEFT JOIN FETCH b.review br
         WHERE b.user.id = :userId
         ORDER BY b.bookingDate DESC
     """)
     List<Booking> findByUserIdWithDetailsOrderByBookingDateDesc(@Param("userId") Long userId);
 
+    /**
+     * Booking của user theo danh sách trạng thái, đầy đủ thông tin (đang ở, lịch sử nhận/trả phòng)
+     */
+    @Query("""
+        SELECT DISTINCT b FROM Booking b
+        LEFT JOIN FETCH b.user u
+        LEFT JOIN FETCH b.roomType rt
+        LEFT JOIN FETCH rt.hotel h
+        LEFT JOIN FETCH h.location loc
+        LEFT JOIN FETCH h.images hi
+        LEFT JOIN FETCH h.reviews hr
+        LEFT JOIN FETCH rt.amenities rta
+        LEFT JOIN FETCH b.assignedRoom ar
+        LEFT JOIN FETCH b.payments p
+        LEFT JOIN FETCH b.review br
+        WHERE b.user.id = :userId AND b.status IN :statuses
+        ORDER BY b.bookingDate DESC
+    """)
+    List<Booking> findByUserIdAndStatusInWithDetails(@Param("userId") Long userId,
+                                                     @Param("statuses") Collection<String> statuses);
+
+    /**
+     * Booking của user có thể nhận phòng: đã thanh toán đủ, hoặc đã cọc và chưa quá hạn nhận phòng
+     * (cùng điều kiện với canCheckIn ở BookingMappingService)
+     */
+    @Query("""
+        SELECT DISTINCT b FROM Booking b
+        LEFT JOIN FETCH b.user u
+        LEFT JOIN FETCH b.roomType rt
+        LEFT JOIN FETCH rt.hotel h
+        LEFT JOIN FETCH h.location loc
+        LEFT JOIN FETCH h.images hi
+        LEFT JOIN FETCH h.reviews hr
+        LEFT JOIN FETCH rt.amenities rta
+        LEFT JOIN FETCH b.assignedRoom ar
+        LEFT JOIN FETCH b.payments p
+        LEFT JOIN FETCH b.review br
+        WHERE b.user.id = :userId
+        AND (b.status = 'Đã xác nhận' OR (b.status = 'Đã thanh toán' AND b.checkInDate >= :earliestCheckIn))
+        ORDER BY b.bookingDate DESC
+    """)
+    List<Booking> findUserBookingsReadyForCheckIn(@Param("userId") Long userId,
+                                                  @Param("earliestCheckIn") LocalDate earliestCheckIn);
+
+    /**
+     * Booking của user đang ở và chưa quá ngày trả phòng (cùng điều kiện với canCheckOut)
+     */
+    @Query("""
+        SELECT DISTINCT b FROM Booking b
+        LEFT JOIN FETCH b.user u
+        LEFT JOIN FETCH b.roomType rt
+        LEFT JOIN FETCH rt.hotel h
+        LEFT JOIN FETCH h.location loc
+        LEFT JOIN FETCH h.images hi
+        LEFT JOIN FETCH h.reviews hr
+        LEFT JOIN FETCH rt.amenities rta
+        LEFT JOIN FETCH b.assignedRoom ar
+        LEFT JOIN FETCH b.payments p
+        LEFT JOIN FETCH b.review br
+        WHERE b.user.id = :userId AND b.status = 'Đã nhận phòng' AND b.checkOutDate >= :today
+        ORDER BY b.bookingDate DESC
+    """)
+    List<Booking> findUserBookingsReadyForCheckOut(@Param("userId") Long userId, @Param("today") LocalDate today);
+
+    // [status, số booking, tổng totalPrice] của user, gom theo trạng thái
+    @Query("SELECT b.status, COUNT(b), SUM(b.totalPrice) FROM Booking b WHERE b.user.id = :userId GROUP BY b.status")
+    List<Object[]> summarizeByStatusForUser(@Param("userId") Long userId);
+
     /**
      * Lấy booking theo status với tất cả thông tin liên quan
      */
@@ -216,6 +323,50 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     """)
     List<Booking> findByStatusWithDetailsOrderByBookingDateDesc(@Param("status") String status);
 
+    /**
+     * Bản nhẹ cho danh sách có chọn trường (fields=): chỉ fetch các quan hệ nhiều-một trong một câu truy vấn,
+     * các collection (ảnh, đánh giá, thanh toán, tiện nghi) chỉ được nạp khi tầng mapping thật sự cần
+     */
+    @Query("""
+        SELECT b FROM Booking b
+        LEFT JOIN FETCH b.user u
+        LEFT JOIN FETCH b.roomType rt
+        LEFT JOIN FETCH rt.hotel h
+        LEFT JOIN FETCH h.location loc
+        LEFT JOIN FETCH b.assignedRoom ar
+        WHERE b.user.id = :userId
+        ORDER BY b.bookingDate DESC
+    """)
+    List<Booking> findSummariesByUserIdOrderByBookingDateDesc(@Param("userId") Long userId);
+
+    // Chỉ id booking của user (đủ để ghép document của read model theo đúng thứ tự)
+    @Query("SELECT b.id FROM Booking b WHERE b.user.id = :userId ORDER BY b.bookingDate DESC")
+    List<Long> findIdsByUserIdOrderByBookingDateDesc(@Param("userId") Long userId);
+
+    @Query("""
+        SELECT b FROM Booking b
+        LEFT JOIN FETCH b.user u
+        LEFT JOIN FETCH b.roomType rt
+        LEFT JOIN FETCH rt.hotel h
+        LEFT JOIN FETCH h.location loc
+        LEFT JOIN FETCH b.assignedRoom ar
+        WHERE b.status = :status
+        ORDER BY b.bookingDate DESC
+    """)
+    List<Booking> findSummariesByStatusOrderByBookingDateDesc(@Param("status") String status);
+
+    @Query("""
+        SELECT b FROM Booking b
+        LEFT JOIN FETCH b.user u
+        LEFT JOIN FETCH b.roomType rt
+        LEFT JOIN FETCH rt.hotel h
+        LEFT JOIN FETCH h.location loc
+        LEFT JOIN FETCH b.assignedRoom ar
+        WHERE h.id = :hotelId AND (:status IS NULL OR b.status = :status)
+        ORDER BY b.bookingDate DESC
+    """)
+    List<Booking> findSummariesByHotelIdAndStatus(@Param("hotelId") Long hotelId, @Param("status") String status);
+
     // ========== STATISTICS QUERIES ==========
 
     /**
@@ -323,18 +474,41 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("endDate") LocalDate endDate
     );
 
+    /**
+     * Khoảng ở còn giữ chỗ của nhiều loại phòng trong [from, to): [roomTypeId, checkInDate, checkOutDate]
+     * (lịch phòng trống quét một lượt trên danh sách này, tính cả booking chưa gán phòng)
+     */
+    @Query("""
+        SELECT b.roomType.id, b.checkInDate, b.checkOutDate
+        FROM Booking b
+        WHERE b.roomType.id IN :roomTypeIds
+        AND b.status IN ('Tạm giữ chỗ', 'Chờ xác nhận', 'Đã xác nhận', 'Đã đặt cọc', 'Đã thanh toán', 'Đã nhận phòng')
+        AND b.checkInDate < :to AND b.checkOutDate > :from
+    """)
+    List<Object[]> findStayDatesByRoomTypesOverlapping(
+            @Param("roomTypeIds") Collection<Long> roomTypeIds,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
     // ========== REVENUE QUERIES ==========
 
     /**
      * Tính tổng doanh thu theo tháng
      */
+    default Double getTotalRevenueByMonth(int year, int month) {
+        // So sánh khoảng trên cột booking_date thay cho YEAR()/MONTH() để dùng được index
+        LocalDateTime start = LocalDate.of(year, month, 1).atStartOfDay();
+        return getTotalRevenueBetween(start, start.plusMonths(1));
+    }
+
     @Query("""
         SELECT SUM(b.totalPrice) FROM Booking b 
         WHERE b.status IN ('Đã xác nhận', 'Đã thanh toán', 'Đã nhận phòng', 'Hoàn thành')
-        AND YEAR(b.bookingDate) = :year 
-        AND MONTH(b.bookingDate) = :month
+        AND b.bookingDate >= :start 
+        AND b.bookingDate < :end
     """)
-    Double getTotalRevenueByMonth(@Param("year") int year, @Param("month") int month);
+    Double getTotalRevenueBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
     /**
      * Tính tổng doanh thu của user
@@ -400,7 +574,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     LEFT JOIN FETCH rt.hotel h
     ORDER BY b.bookingDate DESC
 """)
-    List<Booking> findRecentBookingsWithDetails();
+    List<Booking> findRecentBookingsWithDetails(Pageable pageable);
 
     /**
      * Lấy 10 booking gần nhất - simple version (không fetch)
@@ -553,4 +727,44 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 """)
     Optional<Booking> getCurrentCheckedInBookingForRoom(@Param("roomId") Long roomId);
 
-}
\ No newline at end of file
+    // ✅ Số booking theo từng khách sạn (dùng làm độ phổ biến cho gợi ý tìm kiếm)
+    @Query("""
+    SELECT b.roomType.hotel.id, COUNT(b)
+    FROM Booking b
+    GROUP BY b.roomType.hotel.id
+""")
+    List<Object[]> countBookingsGroupByHotel();
+
+    // ✅ Stream booking cho danh sách admin (không fetch join để stream được theo từng dòng)
+    @Query("SELECT b FROM Booking b WHERE b.status = :status ORDER BY b.bookingDate DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Booking> streamByStatusOrderByBookingDateDesc(@Param("status") String status);
+
+    @Query("SELECT b FROM Booking b " +
+            "JOIN b.roomType rt " +
+            "WHERE rt.hotel.id = :hotelId " +
+            "AND (:status IS NULL OR b.status = :status) " +
+            "ORDER BY b.bookingDate DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Booking> streamByHotelIdAndStatus(@Param("hotelId") Long hotelId, @Param("status") String status);
+
+    // ✅ Xuất báo cáo: đọc dạng projection qua cursor (fetch size) để bộ nhớ không tăng theo số dòng
+    @Query("""
+        SELECT new com.example.demo.dto.report.BookingExportRow(
+            b.id, b.bookingDate, b.checkInDate, b.checkOutDate, b.status, b.numberOfGuests,
+            b.totalPrice, b.depositAmount, b.remainingAmount,
+            u.username, u.fullName, u.email, h.hotelName, rt.typeName, r.roomNumber)
+        FROM Booking b
+        JOIN b.user u
+        JOIN b.roomType rt
+        JOIN rt.hotel h
+        LEFT JOIN b.assignedRoom r
+        WHERE b.checkInDate >= :fromDate AND b.checkInDate <= :toDate
+        AND (:hotelId IS NULL OR h.id = :hotelId)
+        ORDER BY b.checkInDate ASC, b.id ASC
+    """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<BookingExportRow> streamExportRows(@Param("fromDate") LocalDate fromDate,
+                                              @Param("toDate") LocalDate toDate,
+                                              @Param("hotelId") Long hotelId);
+}
@@ -0,0 +1,13 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.CatalogTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CatalogTombstoneRepository extends JpaRepository<CatalogTombstone, Long> {
+    List<CatalogTombstone> findByDeletedAtGreaterThanEqual(LocalDateTime since);
+}
@@ -0,0 +1,25 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, String> {
+
+    /**
+     * Tăng phiên bản (tạo mới với version = 1 nếu chưa có) trong một câu lệnh
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO catalog_versions (resource_key, version, updated_at)
+        VALUES (:resourceKey, 1, :now)
+        ON DUPLICATE KEY UPDATE version = version + 1, updated_at = :now
+    """, nativeQuery = true)
+    void bump(@Param("resourceKey") String resourceKey, @Param("now") LocalDateTime now);
+}
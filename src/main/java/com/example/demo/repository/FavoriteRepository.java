@@ -29,4 +29,7 @@ public interface FavoriteRepository extends JpaRepository<Favorite, FavoriteId>
 
     // Lấy danh sách favorite của người dùng
     List<Favorite> findByUserIdOrderByAddedDateDesc(Long userId);
+
+    // Đếm khách sạn yêu thích mà không nạp cả collection
+    long countByUserId(Long userId);
 }
\ No newline at end of file
@@ -4,5 +4,9 @@ import com.example.demo.entity.HotelImage;
 import com.example.demo.entity.Location;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface HotelImageRepository extends JpaRepository<HotelImage, Long> {
+    List<HotelImage> findByHotel_IdIn(Collection<Long> hotelIds);
 }
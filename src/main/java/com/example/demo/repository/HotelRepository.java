@@ -2,30 +2,64 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.Hotel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface HotelRepository extends JpaRepository<Hotel, Long> {
 
     // Trong HotelRepository.java
-    @Query(value = """
-    SELECT h.hotel_id, h.hotel_name, h.address, h.star_rating,
-           COUNT(b.booking_id) as total_bookings,
-           COALESCE(SUM(CASE WHEN p.payment_status = 'Đã thanh toán' THEN p.amount ELSE 0 END), 0) as total_revenue,
-           COALESCE(AVG(rev.rating), 0) as avg_rating
-    FROM hotels h
-    LEFT JOIN room_types rt ON h.hotel_id = rt.hotel_id  
-    LEFT JOIN bookings b ON rt.room_type_id = b.room_type_id
-    LEFT JOIN payments p ON b.booking_id = p.booking_id
-    LEFT JOIN reviews rev ON h.hotel_id = rev.hotel_id AND rev.is_approved = 1
-    WHERE h.is_active = 1
-    GROUP BY h.hotel_id, h.hotel_name, h.address, h.star_rating
-    ORDER BY total_revenue DESC, total_bookings DESC
+    // JPQL để PaymentStatusConverter đổi 'Đã thanh toán' sang mã đã lưu (V4__status_codes.sql); SQL thuần so chuỗi sẽ không khớp dòng nào
+    @Query("""
+    SELECT h.id, h.hotelName, h.address, h.starRating,
+           COUNT(b.id) AS totalBookings,
+           COALESCE(SUM(CASE WHEN p.paymentStatus = 'Đã thanh toán' THEN p.amount ELSE 0 END), 0) AS totalRevenue,
+           COALESCE(AVG(rev.rating), 0) AS avgRating
+    FROM Hotel h
+    LEFT JOIN RoomType rt ON rt.hotel = h
+    LEFT JOIN Booking b ON b.roomType = rt
+    LEFT JOIN Payment p ON p.booking = b
+    LEFT JOIN Review rev ON rev.hotel = h AND rev.isApproved = true
+    WHERE h.isActive = true
+    GROUP BY h.id, h.hotelName, h.address, h.starRating
+    ORDER BY totalRevenue DESC, totalBookings DESC
     LIMIT 8
-    """, nativeQuery = true)
+    """)
     List<Object[]> findTopHotelsByRevenue();
 
     // Thêm method tìm hotel active
     List<Hotel> findByIsActiveTrue();
-}
\ No newline at end of file
+
+    // Stream toàn bộ khách sạn (dùng cho response dạng stream, phải gọi trong transaction)
+    @Query("SELECT h FROM Hotel h")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Hotel> streamAll();
+
+    // Lấy nhiều khách sạn một lần (batch multi-get), kèm location trong cùng câu truy vấn
+    @Query("SELECT h FROM Hotel h LEFT JOIN FETCH h.location WHERE h.id IN :ids")
+    List<Hotel> findAllWithLocationByIdIn(@Param("ids") Collection<Long> ids);
+
+    // [hotelId, Amenity] của nhiều khách sạn, không khởi tạo collection amenities trên entity
+    @Query("SELECT h.id, a FROM Hotel h JOIN h.amenities a WHERE h.id IN :ids")
+    List<Object[]> findAmenitiesByHotelIds(@Param("ids") Collection<Long> ids);
+
+    // Đồng bộ delta: khách sạn thay đổi từ thời điểm since (dùng index idx_hotels_updated_at)
+    List<Hotel> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+
+    // Đánh dấu khách sạn thay đổi khi dữ liệu phụ (ảnh, đánh giá) đổi mà bản thân entity không bị sửa
+    @Modifying
+    @Query("UPDATE Hotel h SET h.updatedAt = :now WHERE h.id = :hotelId")
+    void touchUpdatedAt(@Param("hotelId") Long hotelId, @Param("now") LocalDateTime now);
+
+    // Khóa tên + địa chỉ của mọi khách sạn, để import hàng loạt bỏ qua bản ghi đã có
+    @Query("SELECT h.hotelName, h.address FROM Hotel h")
+    List<Object[]> findAllNamesAndAddresses();
+}
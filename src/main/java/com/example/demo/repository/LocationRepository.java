@@ -4,5 +4,9 @@ import com.example.demo.entity.Amenity;
 import com.example.demo.entity.Location;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface LocationRepository extends JpaRepository<Location, Long> {
+    List<Location> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
 }
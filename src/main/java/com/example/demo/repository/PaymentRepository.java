@@ -1,16 +1,22 @@
 // ✅ PaymentRepository.java - VERSION ĐƠN GIẢN CHO ĐỒ ÁN
 package com.example.demo.repository;
 
+import com.example.demo.dto.report.PaymentExportRow;
 import com.example.demo.entity.Payment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -27,6 +33,10 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     @Query("SELECT p FROM Payment p WHERE p.paymentStatus = 'Chờ thanh toán' AND p.qrExpiryTime < CURRENT_TIMESTAMP")
     List<Payment> findExpiredPayments();
 
+    // [paymentId, qrExpiryTime] của payment còn chờ thanh toán, để nạp lại bánh xe hết hạn khi khởi động
+    @Query("SELECT p.id, p.qrExpiryTime FROM Payment p WHERE p.paymentStatus = 'Chờ thanh toán' AND p.qrExpiryTime IS NOT NULL")
+    List<Object[]> findPendingQrExpiryTimes();
+
     @Query("SELECT COUNT(p) FROM Payment p WHERE p.booking.id = :bookingId AND p.paymentStatus = 'Đã thanh toán'")
     Long countPaidPaymentsByBookingId(@Param("bookingId") Long bookingId);
 
@@ -64,4 +74,23 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
      * 5. Tìm tất cả payments của booking theo thời gian
      */
     List<Payment> findByBookingIdOrderByCreatedAtDesc(Long bookingId);
-}
\ No newline at end of file
+
+    // ✅ Xuất báo cáo doanh thu theo ngày thanh toán [from, to), đọc qua cursor
+    @Query("""
+        SELECT new com.example.demo.dto.report.PaymentExportRow(
+            p.id, b.id, p.paymentDate, p.amount, p.paymentType, p.paymentStatus,
+            p.paymentMethod, p.transactionId, u.username, h.hotelName)
+        FROM Payment p
+        JOIN p.booking b
+        JOIN b.user u
+        JOIN b.roomType rt
+        JOIN rt.hotel h
+        WHERE p.paymentDate >= :from AND p.paymentDate < :to
+        AND (:hotelId IS NULL OR h.id = :hotelId)
+        ORDER BY p.paymentDate ASC, p.id ASC
+    """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<PaymentExportRow> streamExportRows(@Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to,
+                                              @Param("hotelId") Long hotelId);
+}
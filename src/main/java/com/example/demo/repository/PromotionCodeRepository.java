@@ -0,0 +1,32 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.PromotionCode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PromotionCodeRepository extends JpaRepository<PromotionCode, Long> {
+
+    Optional<PromotionCode> findByCodeIgnoreCase(String code);
+
+    // [usageCount, usageLimit] đọc mới từ DB
+    @Query("SELECT p.usageCount, p.usageLimit FROM PromotionCode p WHERE p.id = :id")
+    List<Object[]> findUsageById(@Param("id") Long id);
+
+    // Giữ trước count lượt nếu không vượt usageLimit; trả 0 khi không đủ lượt
+    @Modifying
+    @Query("""
+        UPDATE PromotionCode p SET p.usageCount = COALESCE(p.usageCount, 0) + :count
+        WHERE p.id = :id AND p.usageLimit IS NOT NULL AND COALESCE(p.usageCount, 0) + :count <= p.usageLimit
+    """)
+    int leaseUsage(@Param("id") Long id, @Param("count") int count);
+
+    // Cộng (hoặc trừ khi trả lượt chưa dùng) usageCount
+    @Modifying
+    @Query("UPDATE PromotionCode p SET p.usageCount = COALESCE(p.usageCount, 0) + :delta WHERE p.id = :id")
+    int addUsage(@Param("id") Long id, @Param("delta") int delta);
+}
@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.PromotionUsage;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface PromotionUsageRepository extends JpaRepository<PromotionUsage, Long> {
+
+    // Mỗi booking dùng tối đa một mã
+    Optional<PromotionUsage> findFirstByBookingId(Long bookingId);
+}
@@ -2,11 +2,16 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.Review;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
@@ -25,6 +30,9 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     // Tìm đánh giá chưa được phê duyệt
     List<Review> findByIsApprovedFalse();
 
+    // Tìm đánh giá đã được phê duyệt
+    List<Review> findByIsApprovedTrue();
+
     // Đếm số lượng đánh giá của một khách sạn
     Long countByHotelId(Long hotelId);
 
@@ -41,4 +49,18 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Review r WHERE r.user.id = :userId AND r.hotel.id = :hotelId")
     boolean existsByUserIdAndHotelId(@Param("userId") Long userId, @Param("hotelId") Long hotelId);
-}
\ No newline at end of file
+
+    // Stream toàn bộ đánh giá (dùng cho response dạng stream, phải gọi trong transaction)
+    @Query("SELECT r FROM Review r")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Review> streamAll();
+
+    // [hotelId, điểm trung bình, số đánh giá] của nhiều khách sạn
+    @Query("SELECT r.hotel.id, AVG(r.rating), COUNT(r) FROM Review r WHERE r.hotel.id IN :hotelIds GROUP BY r.hotel.id")
+    List<Object[]> findRatingStatsByHotelIds(@Param("hotelIds") Collection<Long> hotelIds);
+
+    // [userId, hotelId, reviewId] của các cặp user/khách sạn, dùng khi map cả danh sách booking
+    @Query("SELECT r.user.id, r.hotel.id, r.id FROM Review r WHERE r.user.id IN :userIds AND r.hotel.id IN :hotelIds")
+    List<Object[]> findIdsByUserIdsAndHotelIds(@Param("userIds") Collection<Long> userIds,
+                                               @Param("hotelIds") Collection<Long> hotelIds);
+}
@@ -4,5 +4,9 @@ import com.example.demo.entity.Amenity;
 import com.example.demo.entity.RoomImage;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface RoomImageRepository extends JpaRepository<RoomImage, Long> {
+    List<RoomImage> findByRoomType_IdIn(Collection<Long> roomTypeIds);
 }
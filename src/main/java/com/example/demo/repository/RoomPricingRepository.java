@@ -0,0 +1,20 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.RoomPricing;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RoomPricingRepository extends JpaRepository<RoomPricing, Long> {
+
+    // [roomTypeId, date, price] từ ngày from trở đi, sắp theo loại phòng rồi ngày (nạp lịch giá vào bộ nhớ)
+    @Query("SELECT rp.roomType.id, rp.date, rp.price FROM RoomPricing rp WHERE rp.date >= :from ORDER BY rp.roomType.id, rp.date")
+    List<Object[]> findCalendarFrom(@Param("from") LocalDate from);
+
+    // [roomTypeId, date, price] của một loại phòng
+    @Query("SELECT rp.roomType.id, rp.date, rp.price FROM RoomPricing rp WHERE rp.roomType.id = :roomTypeId AND rp.date >= :from ORDER BY rp.date")
+    List<Object[]> findCalendarByRoomTypeFrom(@Param("roomTypeId") Long roomTypeId, @Param("from") LocalDate from);
+}
@@ -2,13 +2,18 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.Room;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long> {
@@ -57,6 +62,18 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
 
     // ========== AVAILABILITY QUERIES ==========
 
+    /**
+     * Phòng còn bán được của một loại phòng (trừ đang bảo trì/hỏng), bất kể đang trống hay đã đặt:
+     * bộ xếp phòng xét trùng ngày theo lịch từng phòng chứ không theo trạng thái hiện tại
+     */
+    @Query("""
+        SELECT r FROM Room r
+        WHERE r.roomType.id = :roomTypeId
+        AND r.status NOT IN ('Bảo trì', 'Hỏng')
+        ORDER BY r.roomNumber ASC
+    """)
+    List<Room> findSellableRoomsByRoomType(@Param("roomTypeId") Long roomTypeId);
+
     /**
      * ✅ Tìm phòng trống theo room type và thời gian
      */
@@ -123,6 +140,46 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
             @Param("checkOut") LocalDate checkOut
     );
 
+    /**
+     * Số phòng trống theo loại phòng cho nhiều khách sạn cùng lúc (tìm kiếm có ngày):
+     * [hotelId, roomTypeId, số phòng trống], chỉ gồm loại phòng còn ít nhất một phòng và đủ sức chứa.
+     * Phòng "Đã đặt" cho kỳ ở khác vẫn bán được, chỉ booking trùng ngày mới loại phòng (giống findSellableRoomsByRoomType)
+     */
+    @Query("""
+        SELECT rt.hotel.id, rt.id, COUNT(r)
+        FROM Room r
+        JOIN r.roomType rt
+        WHERE rt.hotel.id IN :hotelIds
+        AND (:numberOfGuests IS NULL OR rt.maxOccupancy >= :numberOfGuests)
+        AND r.status NOT IN ('Bảo trì', 'Hỏng')
+        AND r.id NOT IN (
+            SELECT DISTINCT b.assignedRoom.id 
+            FROM Booking b 
+            WHERE b.assignedRoom IS NOT NULL 
+            AND b.status IN ('Tạm giữ chỗ', 'Chờ xác nhận', 'Đã xác nhận', 'Đã nhận phòng')
+            AND (b.checkInDate < :checkOut AND b.checkOutDate > :checkIn)
+        )
+        GROUP BY rt.hotel.id, rt.id
+    """)
+    List<Object[]> countAvailableRoomsByHotelsAndDates(
+            @Param("hotelIds") Collection<Long> hotelIds,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut,
+            @Param("numberOfGuests") Integer numberOfGuests
+    );
+
+    /**
+     * Số phòng bán được theo loại phòng (trừ phòng bảo trì/hỏng): [roomTypeId, số phòng]
+     */
+    @Query("""
+        SELECT r.roomType.id, COUNT(r)
+        FROM Room r
+        WHERE r.roomType.id IN :roomTypeIds
+        AND r.status NOT IN ('Bảo trì', 'Hỏng')
+        GROUP BY r.roomType.id
+    """)
+    List<Object[]> countSellableRoomsByRoomTypes(@Param("roomTypeIds") Collection<Long> roomTypeIds);
+
     // ========== CONFLICT CHECKING ==========
 
     /**
@@ -422,4 +479,21 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
         ORDER BY r.roomNumber ASC
     """)
     List<String> findRoomNumbersLike(@Param("pattern") String pattern);
-}
\ No newline at end of file
+
+    /**
+     * Lấy (roomId, roomNumber) của một khách sạn để dựng index tìm số phòng
+     */
+    @Query("""
+        SELECT r.id, r.roomNumber
+        FROM Room r
+        WHERE r.roomType.hotel.id = :hotelId
+    """)
+    List<Object[]> findRoomNumbersByHotelId(@Param("hotelId") Long hotelId);
+
+    /**
+     * Stream toàn bộ phòng (dùng cho response dạng stream, phải gọi trong transaction)
+     */
+    @Query("SELECT r FROM Room r")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Room> streamAll();
+}
@@ -3,9 +3,12 @@ package com.example.demo.repository;
 import com.example.demo.entity.RoomType;
 import com.example.demo.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface RoomTypeRepository extends JpaRepository<RoomType, Long> {
@@ -16,4 +19,35 @@ public interface RoomTypeRepository extends JpaRepository<RoomType, Long> {
 
     @Query("SELECT rt FROM RoomType rt WHERE rt.hotel.id = :hotelId AND rt.maxOccupancy >= :occupancy")
     List<RoomType> findByHotelIdAndMinOccupancy(@Param("hotelId") Long hotelId, @Param("occupancy") Integer occupancy);
+
+    List<RoomType> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+
+    // [roomTypeId, basePrice] của mọi loại phòng (giá mặc định khi ngày không có trong room_pricing)
+    @Query("SELECT rt.id, rt.basePrice FROM RoomType rt")
+    List<Object[]> findAllBasePrices();
+
+    List<RoomType> findByHotel_IdIn(Collection<Long> hotelIds);
+
+    // [hotelId, basePrice, maxOccupancy] của loại phòng thuộc nhiều khách sạn (bộ lọc tìm kiếm, không nạp entity)
+    @Query("SELECT rt.hotel.id, rt.basePrice, rt.maxOccupancy FROM RoomType rt WHERE rt.hotel.id IN :hotelIds")
+    List<Object[]> findPriceAndOccupancyByHotelIds(@Param("hotelIds") Collection<Long> hotelIds);
+
+    @Query("SELECT rt FROM RoomType rt LEFT JOIN FETCH rt.hotel h LEFT JOIN FETCH h.location WHERE rt.id IN :ids")
+    List<RoomType> findAllWithHotelByIdIn(@Param("ids") Collection<Long> ids);
+
+    // [roomTypeId, amenityName] của nhiều loại phòng
+    @Query("SELECT rt.id, a.amenityName FROM RoomType rt JOIN rt.amenities a WHERE rt.id IN :ids")
+    List<Object[]> findAmenityNamesByRoomTypeIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE RoomType rt SET rt.updatedAt = :now WHERE rt.id = :roomTypeId")
+    void touchUpdatedAt(@Param("roomTypeId") Long roomTypeId, @Param("now") LocalDateTime now);
+
+    // Response loại phòng chứa tên tiện nghi nên đổi/xóa tiện nghi phải đánh dấu các loại phòng đang dùng nó
+    @Modifying
+    @Query(value = """
+        UPDATE room_types SET updated_at = :now
+        WHERE room_type_id IN (SELECT rta.room_type_id FROM room_type_amenities rta WHERE rta.amenity_id = :amenityId)
+    """, nativeQuery = true)
+    void touchByAmenityId(@Param("amenityId") Long amenityId, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,73 @@
+package com.example.demo.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Ghi ApiResponse dạng stream: mở envelope {"code":200,"message":...,"result":[ rồi ghi từng phần tử
+ * ngay khi producer đưa ra, thay vì dựng cả List trong bộ nhớ rồi serialize một lần.
+ * Producer chạy trong luồng async của MVC, nên transaction phải được mở bên trong producer (ở tầng service).
+ */
+public class StreamingApiResponse {
+    private static final Logger log = LoggerFactory.getLogger(StreamingApiResponse.class);
+
+    // Flush sau phần tử đầu tiên để client nhận byte sớm, sau đó theo lô
+    private static final int FLUSH_EVERY = 100;
+
+    public static <T> ResponseEntity<StreamingResponseBody> ok(ObjectMapper objectMapper, String message,
+                                                              Consumer<Consumer<T>> producer) {
+        // ObjectMapper mặc định flush sau mỗi writeValue, tắt đi để chỉ flush theo FLUSH_EVERY
+        ObjectWriter itemWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                // Không để close() tự đóng mảng/object khi producer lỗi giữa chừng: client phải nhận JSON hỏng,
+                // không phải envelope code 200 hợp lệ với result bị cắt cụt
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                generator.writeStartObject();
+                generator.writeNumberField("code", HttpStatus.OK.value());
+                if (message != null) {
+                    generator.writeStringField("message", message);
+                }
+                generator.writeArrayFieldStart("result");
+
+                int[] written = {0};
+                try {
+                    producer.accept(item -> {
+                        try {
+                            itemWriter.writeValue(generator, item);
+                            written[0]++;
+                            if (written[0] == 1 || written[0] % FLUSH_EVERY == 0) {
+                                generator.flush();
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    // Header đã gửi nên không thể trả mã lỗi, chỉ có thể dừng stream
+                    log.error("Lỗi khi stream dữ liệu sau {} phần tử: {}", written[0], e.getMessage());
+                    throw e;
+                }
+
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
@@ -4,6 +4,7 @@ import com.example.demo.dto.amenity.AmenityRequest;
 import com.example.demo.dto.amenity.AmenityResponse;
 import com.example.demo.dto.room.RoomRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface AmenityService {
@@ -14,5 +15,6 @@ public interface AmenityService {
     public void deleteAmenity(Long id);
     List<AmenityResponse> getAllAmenities();
     List<AmenityResponse> getAmenitiesByHotelId(Long hotelId);
+    List<AmenityResponse> getAmenitiesChangedSince(LocalDateTime since);
 
 }
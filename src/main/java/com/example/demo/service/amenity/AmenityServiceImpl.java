@@ -5,13 +5,17 @@ import com.example.demo.dto.amenity.AmenityResponse;
 import com.example.demo.entity.Amenity;
 import com.example.demo.entity.Hotel;
 import com.example.demo.enumm.AmenityCategory;
+import com.example.demo.event.CatalogChangedEvent;
 import com.example.demo.repository.AmenityRepository;
 import com.example.demo.repository.HotelRepository;
 import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,6 +25,7 @@ public class AmenityServiceImpl implements AmenityService {
     private final AmenityRepository amenityRepository;
     private final HotelRepository hotelRepository;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PreAuthorize("hasRole('ADMIN')")
     @Override
@@ -30,7 +35,8 @@ public class AmenityServiceImpl implements AmenityService {
         // Phân loại tiện ích nếu chưa có category
         categorizeAmenity(amenity);
 
-        amenityRepository.save(amenity);
+        Amenity saved = amenityRepository.save(amenity);
+        publishAmenityChanged(saved, CatalogChangedEvent.Action.CREATED);
     }
 
     @Override
@@ -53,13 +59,17 @@ public class AmenityServiceImpl implements AmenityService {
         categorizeAmenity(existingAmenity);
 
         amenityRepository.save(existingAmenity);
+        publishAmenityChanged(existingAmenity, CatalogChangedEvent.Action.UPDATED);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
     @Override
+    @Transactional
     public void deleteAmenity(Long id) {
         Amenity amenity = amenityRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Tiện nghi không tồn tại với id: " + id));
+        // Phát trước khi xóa để còn tìm được các loại phòng đang liên kết với tiện nghi này
+        publishAmenityChanged(amenity, CatalogChangedEvent.Action.DELETED);
         amenityRepository.delete(amenity);
     }
 
@@ -76,6 +86,16 @@ public class AmenityServiceImpl implements AmenityService {
     }
 
     // Phương thức chuyển đổi Amenity -> AmenityResponse
+    @Override
+    public List<AmenityResponse> getAmenitiesChangedSince(LocalDateTime since) {
+        List<Amenity> amenities = since != null
+                ? amenityRepository.findByUpdatedAtGreaterThanEqual(since)
+                : amenityRepository.findAll();
+        return amenities.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+
     private AmenityResponse convertToResponse(Amenity amenity) {
         AmenityResponse response = modelMapper.map(amenity, AmenityResponse.class);
 
@@ -207,4 +227,9 @@ public class AmenityServiceImpl implements AmenityService {
             }
         }
     }
-}
\ No newline at end of file
+
+    private void publishAmenityChanged(Amenity amenity, CatalogChangedEvent.Action action) {
+        eventPublisher.publishEvent(new CatalogChangedEvent(amenity, CatalogChangedEvent.ResourceType.AMENITY,
+                amenity.getId(), action));
+    }
+}
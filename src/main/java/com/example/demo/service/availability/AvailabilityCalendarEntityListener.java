@@ -0,0 +1,51 @@
+package com.example.demo.service.availability;
+
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.Room;
+import com.example.demo.entity.RoomType;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bỏ lịch phòng trống đã tính của loại phòng khi booking hoặc phòng thuộc loại đó được lưu/xóa.
+ * Bỏ ngay lúc flush và bỏ lần nữa sau commit: request đọc chen giữa flush và commit còn thấy dữ liệu cũ
+ * nên có thể cache lại bản cũ, lần bỏ sau commit dọn bản đó.
+ */
+@Component
+public class AvailabilityCalendarEntityListener {
+
+    // Provider vì listener được Hibernate tạo sớm và test @DataJpaTest không có service này
+    private final ObjectProvider<AvailabilityCalendarService> calendarService;
+
+    public AvailabilityCalendarEntityListener(ObjectProvider<AvailabilityCalendarService> calendarService) {
+        this.calendarService = calendarService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChanged(Object entity) {
+        AvailabilityCalendarService service = calendarService.getIfAvailable();
+        RoomType roomType = entity instanceof Booking booking ? booking.getRoomType()
+                : entity instanceof Room room ? room.getRoomType() : null;
+        if (service == null || roomType == null || roomType.getId() == null) {
+            return;
+        }
+
+        Long roomTypeId = roomType.getId();
+        service.evict(roomTypeId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    service.evict(roomTypeId);
+                }
+            });
+        }
+    }
+}
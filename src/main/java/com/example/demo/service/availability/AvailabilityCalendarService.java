@@ -0,0 +1,18 @@
+package com.example.demo.service.availability;
+
+import com.example.demo.dto.availability.AvailabilityCalendarResponse;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AvailabilityCalendarService {
+
+    // Số phòng trống và giá từng đêm trong [from, to), tối đa 365 đêm
+    AvailabilityCalendarResponse getRoomTypeCalendar(Long roomTypeId, LocalDate from, LocalDate to);
+
+    // Như trên cho mọi loại phòng của khách sạn
+    List<AvailabilityCalendarResponse> getHotelCalendar(Long hotelId, LocalDate from, LocalDate to);
+
+    // Booking/phòng của loại phòng vừa thay đổi: bỏ lịch đã tính
+    void evict(Long roomTypeId);
+}
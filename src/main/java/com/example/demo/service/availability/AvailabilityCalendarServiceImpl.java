@@ -0,0 +1,179 @@
+package com.example.demo.service.availability;
+
+import com.example.demo.dto.availability.AvailabilityCalendarResponse;
+import com.example.demo.dto.availability.AvailabilityNightResponse;
+import com.example.demo.entity.RoomType;
+import com.example.demo.repository.BookingRepository;
+import com.example.demo.repository.HotelRepository;
+import com.example.demo.repository.RoomRepository;
+import com.example.demo.repository.RoomTypeRepository;
+import com.example.demo.service.pricing.RoomPriceCalendar;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lịch phòng trống theo loại phòng. Mỗi loại phòng được tính một lần cho cửa sổ WINDOW_DAYS ngày từ hôm nay
+ * (một truy vấn đếm phòng + một truy vấn khoảng ở, quét một lượt bằng AvailabilitySweep) rồi giữ trong bộ nhớ;
+ * request chỉ cắt lát mảng và ghép giá từ RoomPriceCalendar.
+ * Booking/phòng thay đổi thì AvailabilityCalendarEntityListener gọi evict; CACHE_TTL chỉ là lưới an toàn
+ * cho thay đổi không đi qua JPA (sửa tay trong DB).
+ */
+@Service
+@RequiredArgsConstructor
+public class AvailabilityCalendarServiceImpl implements AvailabilityCalendarService {
+
+    public static final int MAX_DAYS = 365;
+    private static final int WINDOW_DAYS = 2 * MAX_DAYS;
+    private static final long CACHE_TTL_MILLIS = Duration.ofMinutes(5).toMillis();
+
+    private final RoomTypeRepository roomTypeRepository;
+    private final RoomRepository roomRepository;
+    private final BookingRepository bookingRepository;
+    private final HotelRepository hotelRepository;
+    private final RoomPriceCalendar roomPriceCalendar;
+
+    private final Map<Long, CachedCalendar> cache = new ConcurrentHashMap<>();
+    // Tăng mỗi lần evict; lịch tính xong chỉ được cache nếu không có evict nào chen vào giữa lúc đang truy vấn
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    private record CachedCalendar(long fromDay, int totalRooms, int[] available, long loadedAtMillis) {
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AvailabilityCalendarResponse getRoomTypeCalendar(Long roomTypeId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        RoomType roomType = roomTypeRepository.findById(roomTypeId)
+                .orElseThrow(() -> new NoSuchElementException("Loại phòng không tồn tại với ID: " + roomTypeId));
+
+        CachedCalendar calendar = calendars(List.of(roomTypeId)).get(roomTypeId);
+        return toResponse(roomType, calendar, from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AvailabilityCalendarResponse> getHotelCalendar(Long hotelId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        List<RoomType> roomTypes = roomTypeRepository.findByHotel_Id(hotelId);
+        if (roomTypes.isEmpty() && !hotelRepository.existsById(hotelId)) {
+            throw new NoSuchElementException("Không tìm thấy khách sạn với ID: " + hotelId);
+        }
+
+        Map<Long, CachedCalendar> calendars = calendars(roomTypes.stream().map(RoomType::getId).toList());
+        List<AvailabilityCalendarResponse> result = new ArrayList<>();
+        for (RoomType roomType : roomTypes) {
+            result.add(toResponse(roomType, calendars.get(roomType.getId()), from, to));
+        }
+        return result;
+    }
+
+    @Override
+    public void evict(Long roomTypeId) {
+        cache.compute(roomTypeId, (id, cached) -> {
+            versions.merge(id, 1L, Long::sum);
+            return null;
+        });
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("Ngày kết thúc phải sau ngày bắt đầu");
+        }
+        if (from.isBefore(today)) {
+            throw new IllegalArgumentException("Không xem được lịch của ngày đã qua");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_DAYS) {
+            throw new IllegalArgumentException("Mỗi lần xem tối đa " + MAX_DAYS + " ngày");
+        }
+        if (to.isAfter(today.plusDays(WINDOW_DAYS))) {
+            throw new IllegalArgumentException("Chỉ xem được lịch trong " + WINDOW_DAYS + " ngày tới");
+        }
+    }
+
+    private Map<Long, CachedCalendar> calendars(Collection<Long> roomTypeIds) {
+        long today = LocalDate.now().toEpochDay();
+        long now = System.currentTimeMillis();
+        Map<Long, CachedCalendar> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long roomTypeId : roomTypeIds) {
+            CachedCalendar cached = cache.get(roomTypeId);
+            if (cached != null && cached.fromDay() == today && now - cached.loadedAtMillis() < CACHE_TTL_MILLIS) {
+                result.put(roomTypeId, cached);
+            } else {
+                missing.add(roomTypeId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            result.putAll(load(missing, today, now));
+        }
+        return result;
+    }
+
+    // Tính lịch cho các loại phòng chưa có trong cache bằng hai truy vấn cho cả nhóm
+    private Map<Long, CachedCalendar> load(List<Long> roomTypeIds, long today, long now) {
+        Map<Long, Long> versionsBefore = new HashMap<>();
+        roomTypeIds.forEach(id -> versionsBefore.put(id, versions.getOrDefault(id, 0L)));
+
+        LocalDate from = LocalDate.ofEpochDay(today);
+        LocalDate to = from.plusDays(WINDOW_DAYS);
+
+        Map<Long, Integer> totalRooms = new HashMap<>();
+        for (Object[] row : roomRepository.countSellableRoomsByRoomTypes(roomTypeIds)) {
+            totalRooms.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        Map<Long, List<long[]>> stays = new HashMap<>();
+        for (Object[] row : bookingRepository.findStayDatesByRoomTypesOverlapping(roomTypeIds, from, to)) {
+            stays.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(new long[]{((LocalDate) row[1]).toEpochDay(), ((LocalDate) row[2]).toEpochDay()});
+        }
+
+        Map<Long, CachedCalendar> result = new HashMap<>();
+        for (Long roomTypeId : roomTypeIds) {
+            int total = totalRooms.getOrDefault(roomTypeId, 0);
+            int[] available = AvailabilitySweep.availableRooms(total, today, WINDOW_DAYS,
+                    stays.getOrDefault(roomTypeId, List.of()));
+            CachedCalendar fresh = new CachedCalendar(today, total, available, now);
+            result.put(roomTypeId, fresh);
+            cache.compute(roomTypeId, (id, cached) ->
+                    versions.getOrDefault(id, 0L).equals(versionsBefore.get(id)) ? fresh : cached);
+        }
+        return result;
+    }
+
+    private AvailabilityCalendarResponse toResponse(RoomType roomType, CachedCalendar calendar, LocalDate from, LocalDate to) {
+        List<BigDecimal> prices = roomPriceCalendar.nightlyPrices(roomType.getId(), from, to);
+        int offset = (int) (from.toEpochDay() - calendar.fromDay());
+
+        List<AvailabilityNightResponse> nights = new ArrayList<>(prices.size());
+        for (int i = 0; i < prices.size(); i++) {
+            nights.add(AvailabilityNightResponse.builder()
+                    .date(from.plusDays(i))
+                    .availableRooms(calendar.available()[offset + i])
+                    .price(prices.get(i))
+                    .build());
+        }
+
+        return AvailabilityCalendarResponse.builder()
+                .roomTypeId(roomType.getId())
+                .typeName(roomType.getTypeName())
+                .totalRooms(calendar.totalRooms())
+                .from(from)
+                .to(to)
+                .nights(nights)
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.service.availability;
+
+import java.util.List;
+
+/**
+ * Đếm phòng trống từng đêm bằng một lượt quét: mỗi khoảng ở (cắt vào cửa sổ) là hai sự kiện,
+ * +1 ở đêm nhận phòng và -1 ở ngày trả phòng; cộng dồn theo ngày ra số phòng đang bị giữ mỗi đêm.
+ * O(số booking + số ngày) thay cho một truy vấn đếm cho mỗi ngày.
+ */
+final class AvailabilitySweep {
+
+    private AvailabilitySweep() {
+    }
+
+    /**
+     * @param stays các cặp [checkInEpochDay, checkOutEpochDay)
+     * @return số phòng trống của từng đêm fromDay + i, không âm (booking vượt số phòng thì coi như hết phòng)
+     */
+    static int[] availableRooms(int totalRooms, long fromDay, int days, List<long[]> stays) {
+        int[] events = new int[days + 1];
+        for (long[] stay : stays) {
+            long start = Math.max(stay[0], fromDay) - fromDay;
+            long end = Math.min(stay[1], fromDay + days) - fromDay;
+            if (start < end) {
+                events[(int) start]++;
+                events[(int) end]--;
+            }
+        }
+
+        int[] available = new int[days];
+        int held = 0;
+        for (int day = 0; day < days; day++) {
+            held += events[day];
+            available[day] = Math.max(totalRooms - held, 0);
+        }
+        return available;
+    }
+}
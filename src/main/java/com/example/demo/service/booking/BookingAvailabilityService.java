@@ -5,13 +5,13 @@ import com.example.demo.entity.Room;
 import com.example.demo.repository.BookingRepository;
 import com.example.demo.repository.RoomRepository;
 import com.example.demo.repository.RoomTypeRepository;
+import com.example.demo.service.room_assignment.RoomAssignmentService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.List;
 import java.util.NoSuchElementException;
 
 @Service
@@ -21,6 +21,7 @@ public class BookingAvailabilityService {
 
     private final RoomRepository roomRepository;
     private final RoomTypeRepository roomTypeRepository;
+    private final RoomAssignmentService roomAssignmentService;
 
     // ✅ SỬA: Throw exception nếu roomType không tồn tại
     public boolean isRoomTypeAvailable(Long roomTypeId, LocalDate checkInDate, LocalDate checkOutDate) {
@@ -43,12 +44,9 @@ public class BookingAvailabilityService {
         return availableRooms > 0;
     }
 
-    // ✅ Giữ nguyên
+    // Chọn phòng khít lịch nhất (không để lại đêm lẻ) thay cho phòng trống đầu tiên
     public Room findAvailableRoom(Long roomTypeId, LocalDate checkInDate, LocalDate checkOutDate) {
-        List<Room> availableRooms = roomRepository.findAvailableRoomsByTypeAndDates(
-                roomTypeId, checkInDate, checkOutDate);
-
-        return availableRooms.isEmpty() ? null : availableRooms.get(0);
+        return roomAssignmentService.findBestRoom(roomTypeId, checkInDate, checkOutDate);
     }
 
     // ✅ SỬA: Throw lỗi nếu repository lỗi
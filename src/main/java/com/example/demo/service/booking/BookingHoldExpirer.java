@@ -0,0 +1,89 @@
+package com.example.demo.service.booking;
+
+import com.example.demo.dto.booking.BookingStatus;
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.Payment;
+import com.example.demo.entity.Room;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Xử lý một booking "Tạm giữ chỗ" hết hạn: đã có thanh toán thì chốt trạng thái (và gán phòng nếu chưa có),
+ * chưa thì hủy để nhả phòng. Booking "Chờ xác nhận" quá hạn mà chưa có thanh toán thành công thì hủy.
+ * Dùng chung cho bánh xe hết hạn và các job quét an toàn.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingHoldExpirer {
+    private static final Logger log = LoggerFactory.getLogger(BookingHoldExpirer.class);
+
+    public static final int TEMPORARY_BOOKING_EXPIRE_MINUTES = 15;
+    public static final int PENDING_BOOKING_EXPIRE_MINUTES = 30;
+
+    private final BookingAvailabilityService availabilityService;
+
+    public LocalDateTime expiresAt(LocalDateTime bookingDate) {
+        return bookingDate != null ? bookingDate.plusMinutes(TEMPORARY_BOOKING_EXPIRE_MINUTES) : null;
+    }
+
+    public boolean isExpiredHold(Booking booking) {
+        LocalDateTime expiresAt = expiresAt(booking.getBookingDate());
+        return BookingStatus.TEMPORARY.equals(booking.getStatus())
+                && expiresAt != null && !LocalDateTime.now().isBefore(expiresAt);
+    }
+
+    public LocalDateTime pendingExpiresAt(LocalDateTime bookingDate) {
+        return bookingDate != null ? bookingDate.plusMinutes(PENDING_BOOKING_EXPIRE_MINUTES) : null;
+    }
+
+    public boolean isExpiredPending(Booking booking) {
+        LocalDateTime expiresAt = pendingExpiresAt(booking.getBookingDate());
+        return BookingStatus.PENDING.equals(booking.getStatus())
+                && expiresAt != null && !LocalDateTime.now().isBefore(expiresAt)
+                && booking.getPayments().stream().noneMatch(Payment::isPaid);
+    }
+
+    // Gọi trong transaction với booking đã qua isExpiredPending
+    public void expirePending(Booking booking) {
+        booking.setStatus(BookingStatus.CANCELLED);
+    }
+
+    // Gọi trong transaction; booking là entity managed nên thay đổi được flush khi commit
+    public void expire(Booking booking) {
+        boolean hasSuccessfulPayment = booking.getPayments().stream()
+                .anyMatch(Payment::isPaid);
+
+        if (hasSuccessfulPayment) {
+            // Determine final status based on payment type
+            Payment paidPayment = booking.getPayments().stream()
+                    .filter(Payment::isPaid)
+                    .findFirst()
+                    .orElse(null);
+
+            if (paidPayment != null && paidPayment.isDeposit()) {
+                booking.setStatus(BookingStatus.PAID); // "Đã thanh toán" with remaining amount
+            } else {
+                booking.setStatus(BookingStatus.CONFIRMED); // "Đã xác nhận" - fully paid
+            }
+
+            if (booking.getAssignedRoom() == null) {
+                Room availableRoom = availabilityService.findAvailableRoom(
+                        booking.getRoomType().getId(),
+                        booking.getCheckInDate(),
+                        booking.getCheckOutDate()
+                );
+                if (availableRoom != null) {
+                    booking.setAssignedRoom(availableRoom);
+                    log.info("Auto-assigned room {} to paid booking {}",
+                            availableRoom.getRoomNumber(), booking.getId());
+                }
+            }
+        } else {
+            booking.setStatus(BookingStatus.CANCELLED);
+        }
+    }
+}
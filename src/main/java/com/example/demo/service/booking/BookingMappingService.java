@@ -5,6 +5,7 @@ import com.example.demo.dto.booking.BookingStatus;
 import com.example.demo.dto.hotel_image.HotelImageResponse;
 import com.example.demo.entity.*;
 import com.example.demo.repository.ReviewRepository;
+import com.example.demo.utils.FieldSelection;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -12,7 +13,10 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -21,29 +25,94 @@ import java.util.stream.Collectors;
 public class BookingMappingService {
     private static final int CHECK_IN_GRACE_DAYS = 1;
     private final ReviewRepository reviewRepository;
+
+    // Nhóm trường theo phần dữ liệu phải nạp/tính: chỉ chạy phần nào có ít nhất một trường được chọn (fields=)
+    private static final String[] USER_FIELDS = {"userId", "userName", "userEmail"};
+    private static final String[] ROOM_TYPE_FIELDS = {"roomTypeId", "roomTypeName", "roomTypeBasePrice",
+            "roomTypeMaxOccupancy", "roomTypeDescription", "roomTypeAmenities"};
+    private static final String[] HOTEL_FIELDS = {"hotelId", "hotelName", "hotelAddress", "hotelStarRating",
+            "hotelPhoneNumber", "hotelEmail", "hotelWebsite", "isHotelActive", "hotelPropertyType",
+            "hotelLocationCity", "hotelLocationDistrict", "hotelAverageRating", "hotelReviewCount", "hotelImages"};
+    private static final String[] PAYMENT_FIELDS = {"paymentId", "paymentStatus", "paymentMethod", "paymentDate",
+            "isPaid", "qrCode", "paymentType"};
+    private static final String[] DEPOSIT_FIELDS = {"depositAmount", "remainingAmount", "depositPercentage", "paymentType"};
+    private static final String[] REVIEW_FIELDS = {"canReview", "hasReviewed", "existingReviewId"};
+
     public BookingResponse mapToBookingResponse(Booking booking) {
+        return mapToBookingResponse(booking, FieldSelection.all());
+    }
+
+    public BookingResponse mapToBookingResponse(Booking booking, FieldSelection fields) {
+        return mapToBookingResponse(booking, fields, null);
+    }
+
+    // reviewIds = null thì tra review riêng cho booking này, khác null thì dùng kết quả đã nạp sẵn cho cả danh sách
+    private BookingResponse mapToBookingResponse(Booking booking, FieldSelection fields, Map<ReviewKey, Long> reviewIds) {
         BookingResponse response = new BookingResponse();
 
         mapBasicBookingFields(response, booking);
-        mapUserInfo(response, booking.getUser());
-        mapRoomTypeInfo(response, booking.getRoomType());
-        mapHotelInfo(response, booking.getRoomType().getHotel());
-        mapPaymentInfo(response, booking.getPayments());
+        if (fields.includesAny(USER_FIELDS)) {
+            mapUserInfo(response, booking.getUser());
+        }
+        if (fields.includesAny(ROOM_TYPE_FIELDS)) {
+            mapRoomTypeInfo(response, booking.getRoomType(), fields);
+        }
+        if (fields.includesAny(HOTEL_FIELDS)) {
+            mapHotelInfo(response, booking.getRoomType().getHotel(), fields);
+        }
+        if (fields.includesAny(PAYMENT_FIELDS)) {
+            mapPaymentInfo(response, booking.getPayments());
+        }
 
         // ✅ THÊM: Map deposit fields BEFORE permissions
-        mapDepositInfo(response, booking);
+        if (fields.includesAny(DEPOSIT_FIELDS)) {
+            mapDepositInfo(response, booking);
+        }
 
-        mapPermissions(response, booking);
-        mapReviewInfo(response, booking);
+        mapPermissions(response, booking, fields);
+        // Mỗi booking lẻ tốn 1-2 truy vấn review nên chỉ chạy khi được yêu cầu
+        if (fields.includesAny(REVIEW_FIELDS)) {
+            mapReviewInfo(response, booking, reviewIds);
+        }
 
         return response;
     }
+
     public List<BookingResponse> mapToBookingResponseList(List<Booking> bookings) {
+        return mapToBookingResponseList(bookings, FieldSelection.all());
+    }
+
+    public List<BookingResponse> mapToBookingResponseList(List<Booking> bookings, FieldSelection fields) {
+        // Nạp review của cả danh sách trong một truy vấn thay vì 1-2 truy vấn mỗi booking
+        Map<ReviewKey, Long> reviewIds = fields.includesAny(REVIEW_FIELDS) ? loadReviewIds(bookings) : null;
         return bookings.stream()
-                .map(this::mapToBookingResponse)
+                .map(booking -> mapToBookingResponse(booking, fields, reviewIds))
                 .collect(Collectors.toList());
     }
 
+    private Map<ReviewKey, Long> loadReviewIds(List<Booking> bookings) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> hotelIds = new HashSet<>();
+        for (Booking booking : bookings) {
+            if (booking.getUser() != null && booking.getRoomType() != null && booking.getRoomType().getHotel() != null) {
+                userIds.add(booking.getUser().getId());
+                hotelIds.add(booking.getRoomType().getHotel().getId());
+            }
+        }
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<ReviewKey, Long> reviewIds = new HashMap<>();
+        for (Object[] row : reviewRepository.findIdsByUserIdsAndHotelIds(userIds, hotelIds)) {
+            reviewIds.merge(new ReviewKey((Long) row[0], (Long) row[1]), (Long) row[2], Math::min);
+        }
+        return reviewIds;
+    }
+
+    private record ReviewKey(Long userId, Long hotelId) {
+    }
+
     private void mapBasicBookingFields(BookingResponse response, Booking booking) {
         response.setId(booking.getId());
         response.setCheckInDate(booking.getCheckInDate());
@@ -99,14 +168,14 @@ public class BookingMappingService {
         response.setUserEmail(user.getEmail());
     }
 
-    private void mapRoomTypeInfo(BookingResponse response, RoomType roomType) {
+    private void mapRoomTypeInfo(BookingResponse response, RoomType roomType, FieldSelection fields) {
         response.setRoomTypeId(roomType.getId());
         response.setRoomTypeName(roomType.getTypeName());
         response.setRoomTypeBasePrice(roomType.getBasePrice() != null ? roomType.getBasePrice().doubleValue() : null);
         response.setRoomTypeMaxOccupancy(roomType.getMaxOccupancy());
         response.setRoomTypeDescription(roomType.getDescription());
 
-        if (roomType.getAmenities() != null && !roomType.getAmenities().isEmpty()) {
+        if (fields.includes("roomTypeAmenities") && roomType.getAmenities() != null && !roomType.getAmenities().isEmpty()) {
             String amenitiesString = roomType.getAmenities().stream()
                     .map(Amenity::getAmenityName)
                     .collect(Collectors.joining(", "));
@@ -114,7 +183,7 @@ public class BookingMappingService {
         }
     }
 
-    private void mapReviewInfo(BookingResponse response, Booking booking) {
+    private void mapReviewInfo(BookingResponse response, Booking booking, Map<ReviewKey, Long> reviewIds) {
         if (booking.getUser() != null && booking.getRoomType() != null && booking.getRoomType().getHotel() != null) {
             Long userId = booking.getUser().getId();
             Long hotelId = booking.getRoomType().getHotel().getId();
@@ -123,19 +192,21 @@ public class BookingMappingService {
             boolean isCompleted = BookingStatus.COMPLETED.equals(booking.getStatus());
 
             // Check if user already reviewed this hotel
-            boolean hasReviewed = reviewRepository.existsByUserIdAndHotelId(userId, hotelId);
+            Long existingReviewId;
+            boolean hasReviewed;
+            if (reviewIds != null) {
+                existingReviewId = reviewIds.get(new ReviewKey(userId, hotelId));
+                hasReviewed = existingReviewId != null;
+            } else {
+                hasReviewed = reviewRepository.existsByUserIdAndHotelId(userId, hotelId);
+                Review existingReview = hasReviewed ? reviewRepository.findByUserIdAndHotelId(userId, hotelId) : null;
+                existingReviewId = existingReview != null ? existingReview.getId() : null;
+            }
 
             // Set review eligibility: can review if completed and not yet reviewed
             response.setCanReview(isCompleted && !hasReviewed);
             response.setHasReviewed(hasReviewed);
-
-            // Get existing review ID if exists
-            if (hasReviewed) {
-                Review existingReview = reviewRepository.findByUserIdAndHotelId(userId, hotelId);
-                if (existingReview != null) {
-                    response.setExistingReviewId(existingReview.getId());
-                }
-            }
+            response.setExistingReviewId(existingReviewId);
         } else {
             // Default values if data is missing
             response.setCanReview(false);
@@ -144,7 +215,7 @@ public class BookingMappingService {
         }
     }
 
-    private void mapHotelInfo(BookingResponse response, Hotel hotel) {
+    private void mapHotelInfo(BookingResponse response, Hotel hotel, FieldSelection fields) {
         if (hotel == null) return;
 
         response.setHotelId(hotel.getId());
@@ -162,19 +233,22 @@ public class BookingMappingService {
             response.setHotelLocationDistrict(hotel.getLocation().getCityName());
         }
 
-        if (hotel.getReviews() != null && !hotel.getReviews().isEmpty()) {
-            Double avgRating = hotel.getReviews().stream()
-                    .mapToDouble(review -> review.getRating().doubleValue())
-                    .average()
-                    .orElse(0.0);
-            response.setHotelAverageRating(avgRating);
-            response.setHotelReviewCount(hotel.getReviews().size());
-        } else {
-            response.setHotelAverageRating(0.0);
-            response.setHotelReviewCount(0);
+        // Điểm đánh giá và ảnh nằm ở collection lazy, chỉ nạp khi được yêu cầu
+        if (fields.includesAny("hotelAverageRating", "hotelReviewCount")) {
+            if (hotel.getReviews() != null && !hotel.getReviews().isEmpty()) {
+                Double avgRating = hotel.getReviews().stream()
+                        .mapToDouble(review -> review.getRating().doubleValue())
+                        .average()
+                        .orElse(0.0);
+                response.setHotelAverageRating(avgRating);
+                response.setHotelReviewCount(hotel.getReviews().size());
+            } else {
+                response.setHotelAverageRating(0.0);
+                response.setHotelReviewCount(0);
+            }
         }
 
-        if (hotel.getImages() != null && !hotel.getImages().isEmpty()) {
+        if (fields.includes("hotelImages") && hotel.getImages() != null && !hotel.getImages().isEmpty()) {
             List<HotelImageResponse> imageResponses = hotel.getImages().stream()
                     .map(this::mapToHotelImageResponse)
                     .collect(Collectors.toList());
@@ -217,43 +291,81 @@ public class BookingMappingService {
         }
     }
 
-    private void mapPermissions(BookingResponse response, Booking booking) {
-        response.setCanCancel(calculateCanCancel(booking));
-        response.setCanModify(calculateCanModify(booking));
-        response.setCanCheckIn(calculateCanCheckIn(booking));
-        response.setCanCheckOut(calculateCanCheckOut(booking));
+    private void mapPermissions(BookingResponse response, Booking booking, FieldSelection fields) {
+        mapPermissions(response, new PermissionState(booking.getStatus(), booking.getCheckInDate(),
+                booking.getCheckOutDate(), booking.getDepositAmount(), booking.getRemainingAmount()), fields);
+    }
+
+    /**
+     * Tính lại các cờ quyền (phụ thuộc ngày hiện tại) cho response đọc từ read model, chỉ dựa trên các trường
+     * đã có trong response nên không cần nạp lại booking.
+     */
+    public void mapPermissions(BookingResponse response, FieldSelection fields) {
+        mapPermissions(response, new PermissionState(response.getStatus(), response.getCheckInDate(),
+                response.getCheckOutDate(), toBigDecimal(response.getDepositAmount()),
+                toBigDecimal(response.getRemainingAmount())), fields);
+    }
+
+    private static BigDecimal toBigDecimal(Double value) {
+        return value != null ? BigDecimal.valueOf(value) : null;
+    }
+
+    // Phần dữ liệu booking mà các cờ quyền cần
+    private record PermissionState(String status, LocalDate checkInDate, LocalDate checkOutDate,
+                                   BigDecimal depositAmount, BigDecimal remainingAmount) {
+    }
+
+    private void mapPermissions(BookingResponse response, PermissionState booking, FieldSelection fields) {
+        if (fields.includes("canCancel")) {
+            response.setCanCancel(calculateCanCancel(booking));
+        }
+        if (fields.includes("canModify")) {
+            response.setCanModify(calculateCanModify(booking));
+        }
+        if (fields.includes("canCheckIn")) {
+            response.setCanCheckIn(calculateCanCheckIn(booking));
+        }
+        if (fields.includes("canCheckOut")) {
+            response.setCanCheckOut(calculateCanCheckOut(booking));
+        }
 
         // ✅ ADD: Calculate deposit-specific permissions
-        response.setCanPayRemaining(calculateCanPayRemaining(booking));
-        response.setIsFullyPaid(calculateIsFullyPaid(booking));
-        response.setIsDepositPayment(calculateIsDepositPayment(booking));
+        if (fields.includes("canPayRemaining")) {
+            response.setCanPayRemaining(calculateCanPayRemaining(booking));
+        }
+        if (fields.includes("isFullyPaid")) {
+            response.setIsFullyPaid(calculateIsFullyPaid(booking));
+        }
+        if (fields.includes("isDepositPayment")) {
+            response.setIsDepositPayment(calculateIsDepositPayment(booking));
+        }
     }
 
-    private Boolean calculateCanPayRemaining(Booking booking) {
-        return BookingStatus.PAID.equals(booking.getStatus()) &&
-                booking.getRemainingAmount() != null &&
-                booking.getRemainingAmount().compareTo(BigDecimal.ZERO) > 0;
+    private Boolean calculateCanPayRemaining(PermissionState booking) {
+        return BookingStatus.PAID.equals(booking.status()) &&
+                booking.remainingAmount() != null &&
+                booking.remainingAmount().compareTo(BigDecimal.ZERO) > 0;
     }
 
-    private Boolean calculateIsFullyPaid(Booking booking) {
-        return booking.getRemainingAmount() == null ||
-                booking.getRemainingAmount().compareTo(BigDecimal.ZERO) <= 0 ||
-                BookingStatus.CONFIRMED.equals(booking.getStatus()) ||
-                BookingStatus.CHECKED_IN.equals(booking.getStatus()) ||
-                BookingStatus.COMPLETED.equals(booking.getStatus());
+    private Boolean calculateIsFullyPaid(PermissionState booking) {
+        return booking.remainingAmount() == null ||
+                booking.remainingAmount().compareTo(BigDecimal.ZERO) <= 0 ||
+                BookingStatus.CONFIRMED.equals(booking.status()) ||
+                BookingStatus.CHECKED_IN.equals(booking.status()) ||
+                BookingStatus.COMPLETED.equals(booking.status());
     }
 
-    private Boolean calculateIsDepositPayment(Booking booking) {
+    private Boolean calculateIsDepositPayment(PermissionState booking) {
         // Check if has deposit amount and remaining amount
-        boolean hasDeposit = booking.getDepositAmount() != null &&
-                booking.getDepositAmount().compareTo(BigDecimal.ZERO) > 0;
-        boolean hasRemaining = booking.getRemainingAmount() != null &&
-                booking.getRemainingAmount().compareTo(BigDecimal.ZERO) > 0;
+        boolean hasDeposit = booking.depositAmount() != null &&
+                booking.depositAmount().compareTo(BigDecimal.ZERO) > 0;
+        boolean hasRemaining = booking.remainingAmount() != null &&
+                booking.remainingAmount().compareTo(BigDecimal.ZERO) > 0;
 
-        return hasDeposit && hasRemaining && BookingStatus.PAID.equals(booking.getStatus());
+        return hasDeposit && hasRemaining && BookingStatus.PAID.equals(booking.status());
     }
-    private Boolean calculateCanCancel(Booking booking) {
-        String status = booking.getStatus();
+    private Boolean calculateCanCancel(PermissionState booking) {
+        String status = booking.status();
 
         // ✅ Cannot cancel these statuses
         if (BookingStatus.CANCELLED.equals(status) ||
@@ -273,7 +385,7 @@ public class BookingMappingService {
                 BookingStatus.CONFIRMED.equals(status) ||
                 BookingStatus.DEPOSIT_PAID.equals(status)) {
 
-            LocalDate checkInDate = booking.getCheckInDate();
+            LocalDate checkInDate = booking.checkInDate();
             LocalDate now = LocalDate.now();
             long daysUntilCheckIn = ChronoUnit.DAYS.between(now, checkInDate);
 
@@ -283,15 +395,15 @@ public class BookingMappingService {
         return false;
     }
 
-    private Boolean calculateCanModify(Booking booking) {
-        String status = booking.getStatus();
+    private Boolean calculateCanModify(PermissionState booking) {
+        String status = booking.status();
         if (BookingStatus.CANCELLED.equals(status) ||
                 BookingStatus.COMPLETED.equals(status) ||
                 BookingStatus.CHECKED_IN.equals(status)) {
             return false;
         }
 
-        LocalDate checkInDate = booking.getCheckInDate();
+        LocalDate checkInDate = booking.checkInDate();
         LocalDate now = LocalDate.now();
         long daysUntilCheckIn = ChronoUnit.DAYS.between(now, checkInDate);
 
@@ -300,14 +412,14 @@ public class BookingMappingService {
 
     // ✅ SỬA BookingMappingService
 // ✅ SỬA BookingMappingService
-    private Boolean calculateCanCheckIn(Booking booking) {
-        String status = booking.getStatus();
+    private Boolean calculateCanCheckIn(PermissionState booking) {
+        String status = booking.status();
 
         if (!BookingStatus.CONFIRMED.equals(status) && !BookingStatus.PAID.equals(status)) {
             return false;
         }
 
-        LocalDate checkInDate = booking.getCheckInDate();
+        LocalDate checkInDate = booking.checkInDate();
         LocalDate today = LocalDate.now();
 
         // ✅ FULL PAYMENT: Không giới hạn thời gian
@@ -333,14 +445,14 @@ public class BookingMappingService {
         return false;
     }
 
-    private Boolean calculateCanCheckOut(Booking booking) {
-        String status = booking.getStatus();
+    private Boolean calculateCanCheckOut(PermissionState booking) {
+        String status = booking.status();
 
         if (!BookingStatus.CHECKED_IN.equals(status)) {
             return false;
         }
 
-        LocalDate checkOutDate = booking.getCheckOutDate();
+        LocalDate checkOutDate = booking.checkOutDate();
         LocalDate now = LocalDate.now();
 
         return now.isBefore(checkOutDate) || now.equals(checkOutDate);
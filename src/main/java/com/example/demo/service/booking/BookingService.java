@@ -5,10 +5,12 @@ import com.example.demo.dto.booking.BookingRequest;
 import com.example.demo.dto.booking.BookingResponse;
 import com.example.demo.dto.booking.BookingStatsResponse;
 import com.example.demo.dto.report.HotelStatsResponse;
+import com.example.demo.utils.FieldSelection;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
 
@@ -17,6 +19,7 @@ public interface BookingService {
     BookingResponse createBooking(BookingRequest request);
     BookingResponse getBookingById(Long id);
     List<BookingResponse> getCurrentUserBookings();
+    List<BookingResponse> getCurrentUserBookings(FieldSelection fields);
     BookingResponse cancelBooking(Long id);
     boolean isRoomTypeAvailable(Long roomTypeId, LocalDate checkInDate, LocalDate checkOutDate);
     BookingResponse checkInBooking(Long bookingId);
@@ -24,12 +27,14 @@ public interface BookingService {
     BookingResponse updateBooking(Long bookingId, BookingRequest request);
     BookingStatsResponse getUserBookingStats();
     BookingResponse confirmBooking(Long bookingId);
-    List<BookingResponse> getPendingBookings();
+    List<BookingResponse> getPendingBookings(FieldSelection fields);
+    void streamPendingBookings(FieldSelection fields, Consumer<BookingResponse> consumer);
     List<BookingResponse> getBookingsReadyForCheckIn();
     List<BookingResponse> getBookingsReadyForCheckOut();
     List<BookingResponse> getCurrentlyCheckedInBookings();
     List<BookingResponse> getCheckHistory();
-    List<BookingResponse> getBookingsByHotel(Long hotelId, String status);
+    List<BookingResponse> getBookingsByHotel(Long hotelId, String status, FieldSelection fields);
+    void streamBookingsByHotel(Long hotelId, String status, FieldSelection fields, Consumer<BookingResponse> consumer);
     HotelStatsResponse getHotelRevenue(Long hotelId, LocalDate fromDate, LocalDate toDate, String status);
 
     // ✅ NEW METHODS FOR DEPOSIT PAYMENT
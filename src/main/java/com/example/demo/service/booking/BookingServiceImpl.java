@@ -5,13 +5,24 @@ import com.example.demo.dto.booking.BookingStatsResponse;
 import com.example.demo.dto.booking.BookingStatus;
 import com.example.demo.dto.report.HotelStatsResponse;
 import com.example.demo.entity.*;
+import com.example.demo.monitoring.BookingFunnelMetrics;
 import com.example.demo.repository.BookingRepository;
+import com.example.demo.repository.FavoriteRepository;
 import com.example.demo.repository.PaymentRepository;
+import com.example.demo.repository.PromotionUsageRepository;
 import com.example.demo.repository.RoomRepository;
 import com.example.demo.repository.RoomTypeRepository;
+import com.example.demo.service.booking_document.BookingDocumentService;
 import com.example.demo.service.notification.AdminNotificationService;
 import com.example.demo.service.payment.PaymentService;
+import com.example.demo.service.pricing.PriceQuote;
+import com.example.demo.service.pricing.PriceQuoteService;
+import com.example.demo.service.promotion.PromotionRedemptionService;
 import com.example.demo.service.user.UserService;
+import com.example.demo.utils.FieldSelection;
+import com.example.demo.utils.StreamUtils;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -26,26 +37,38 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
     private static final Logger log = LoggerFactory.getLogger(BookingServiceImpl.class);
-    private static final int TEMPORARY_BOOKING_EXPIRE_MINUTES = 15;
-    private static final int PENDING_BOOKING_EXPIRE_MINUTES = 30;
+    private static final int TEMPORARY_BOOKING_EXPIRE_MINUTES = BookingHoldExpirer.TEMPORARY_BOOKING_EXPIRE_MINUTES;
+    private static final int PENDING_BOOKING_EXPIRE_MINUTES = BookingHoldExpirer.PENDING_BOOKING_EXPIRE_MINUTES;
+    private static final int CHECK_IN_GRACE_DAYS = 1;
+    private static final int STREAM_BATCH_SIZE = 200;
 
     private final RoomRepository roomRepository;
     private final BookingRepository bookingRepository;
+    private final FavoriteRepository favoriteRepository;
     private final PaymentRepository paymentRepository;
     private final UserService userService;
     private final RoomTypeRepository roomTypeRepository;
     private final BookingAvailabilityService availabilityService;
     private final BookingValidationService validationService;
     private final BookingMappingService mappingService;
+    private final BookingHoldExpirer holdExpirer;
+    private final PriceQuoteService priceQuoteService;
+    private final PromotionRedemptionService promotionRedemptionService;
+    private final PromotionUsageRepository promotionUsageRepository;
     private final AdminNotificationService adminNotificationService;
     private final PaymentService paymentService;
     private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final BookingDocumentService documentService;
 
     // ========== EXISTING CORE METHODS (KEEP AS IS) ==========
 
@@ -61,6 +84,7 @@ public class BookingServiceImpl implements BookingService {
     @Transactional
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Override
+    @Timed(value = BookingFunnelMetrics.OPERATION_TIMER, extraTags = {"operation", "booking.create"}, histogram = true)
     public BookingResponse createBooking(BookingRequest request) {
         User currentUser = userService.getCurrentUser();
 
@@ -89,25 +113,32 @@ public class BookingServiceImpl implements BookingService {
             log.info("User selected room type: {}, system will auto-assign room later", roomType.getTypeName());
         }
 
+        // Giá lấy từ quote token đã ký (hoặc server tự tính), không tin totalPrice client gửi
+        PriceQuote quote = resolveQuote(request);
+
         // Create booking entity
-        Booking booking = createBookingEntity(currentUser, roomType, request);
+        Booking booking = createBookingEntity(currentUser, roomType, request, quote);
         if (assignedRoom != null) {
             booking.setAssignedRoom(assignedRoom);
         }
 
         // Handle deposit payment logic
-        if (request.wantsDepositPayment()) {
-            booking.setDepositPercentage(BigDecimal.valueOf(request.getDepositPercentage()));
+        if (quote.hasDeposit()) {
+            booking.setDepositPercentage(quote.depositPercentage());
             booking.setStatus(BookingStatus.TEMPORARY);
-            booking.setDepositAmount(request.getDepositAmount());
-            booking.setRemainingAmount(request.getRemainingAmount());
-            log.info("Created deposit booking: {}% = {} VND", request.getDepositPercentage(), request.getDepositAmount());
+            booking.setDepositAmount(quote.depositAmount());
+            booking.setRemainingAmount(quote.remainingAmount());
+            log.info("Created deposit booking: {}% = {} VND", quote.depositPercentage(), quote.depositAmount());
         } else {
             booking.setStatus(BookingStatus.TEMPORARY);
-            log.info("Created full payment booking: {} VND", request.getTotalPrice());
+            log.info("Created full payment booking: {} VND", quote.totalPrice());
         }
 
         booking = bookingRepository.save(booking);
+        if (quote.promotionCode() != null) {
+            // Lỗi ở đây rollback cả booking, lượt mã đã lấy được trả lại
+            promotionRedemptionService.redeem(quote, booking);
+        }
         return mappingService.mapToBookingResponse(booking);
     }
 
@@ -155,20 +186,62 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingResponse> getPendingBookings() {
-        List<Booking> pendingBookings = bookingRepository.findByStatusWithDetailsOrderByBookingDateDesc(BookingStatus.PENDING);
-        return mappingService.mapToBookingResponseList(pendingBookings);
+    @Transactional(readOnly = true)
+    public List<BookingResponse> getPendingBookings(FieldSelection fields) {
+        // Có chọn trường thì không fetch join các collection, phần nào cần sẽ được nạp lazy theo lô
+        List<Booking> pendingBookings = fields.isAll()
+                ? bookingRepository.findByStatusWithDetailsOrderByBookingDateDesc(BookingStatus.PENDING)
+                : bookingRepository.findSummariesByStatusOrderByBookingDateDesc(BookingStatus.PENDING);
+        return mappingService.mapToBookingResponseList(pendingBookings, fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamPendingBookings(FieldSelection fields, Consumer<BookingResponse> consumer) {
+        StreamUtils.forEachDetaching(bookingRepository.streamByStatusOrderByBookingDateDesc(BookingStatus.PENDING),
+                entityManager, STREAM_BATCH_SIZE, booking -> consumer.accept(mappingService.mapToBookingResponse(booking, fields)));
     }
 
     @Override
     public List<BookingResponse> getCurrentUserBookings() {
+        return getCurrentUserBookings(FieldSelection.all());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingResponse> getCurrentUserBookings(FieldSelection fields) {
         User currentUser = userService.getCurrentUser();
-        List<Booking> bookings = bookingRepository.findByUserIdWithDetailsOrderByBookingDateDesc(currentUser.getId());
-        return mappingService.mapToBookingResponseList(bookings);
+
+        // Read model: id theo thứ tự rồi document theo khóa chính; thiếu document nào thì đi bảng gốc cả danh sách
+        List<Long> bookingIds = bookingRepository.findIdsByUserIdOrderByBookingDateDesc(currentUser.getId());
+        Map<Long, BookingResponse> documents = documentService.findDocuments(bookingIds);
+        if (documents.size() == bookingIds.size()) {
+            List<BookingResponse> responses = bookingIds.stream()
+                    .map(documents::get)
+                    .collect(Collectors.toList());
+            responses.forEach(response -> mappingService.mapPermissions(response, fields));
+            return responses;
+        }
+
+        List<Booking> bookings = fields.isAll()
+                ? bookingRepository.findByUserIdWithDetailsOrderByBookingDateDesc(currentUser.getId())
+                : bookingRepository.findSummariesByUserIdOrderByBookingDateDesc(currentUser.getId());
+        return mappingService.mapToBookingResponseList(bookings, fields);
     }
 
     @Override
     public BookingResponse getBookingById(Long bookingId) {
+        Optional<BookingResponse> document = documentService.findDocument(bookingId);
+        if (document.isPresent()) {
+            BookingResponse response = document.get();
+            User currentUser = userService.getCurrentUser();
+            if (!isUserAdmin(currentUser)) {
+                validationService.validateBookingOwnership(response.getUserId(), currentUser);
+            }
+            mappingService.mapPermissions(response, FieldSelection.all());
+            return response;
+        }
+
         Booking booking = bookingRepository.findByIdWithDetails(bookingId)
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy đặt phòng với ID: " + bookingId));
 
@@ -183,6 +256,7 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional
     public BookingResponse updateBooking(Long bookingId, BookingRequest request) {
         User currentUser = userService.getCurrentUser();
         Booking booking = bookingRepository.findById(bookingId)
@@ -202,66 +276,102 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BookingStatsResponse getUserBookingStats() {
         User currentUser = userService.getCurrentUser();
-        List<Booking> userBookings = bookingRepository.findByUserId(currentUser.getId());
+
+        // Đếm và cộng tiền theo trạng thái ở DB (một dòng mỗi trạng thái) thay vì nạp toàn bộ lịch sử booking
+        long total = 0;
+        long active = 0;
+        long completed = 0;
+        long cancelled = 0;
+        BigDecimal totalSpent = BigDecimal.ZERO;
+        for (Object[] row : bookingRepository.summarizeByStatusForUser(currentUser.getId())) {
+            String status = (String) row[0];
+            long count = (Long) row[1];
+            total += count;
+            if (BookingStatus.CONFIRMED.equals(status) || BookingStatus.CHECKED_IN.equals(status) || BookingStatus.PAID.equals(status)) {
+                active += count;
+            } else if (BookingStatus.COMPLETED.equals(status)) {
+                completed += count;
+            } else if (BookingStatus.CANCELLED.equals(status)) {
+                cancelled += count;
+            }
+            if (!BookingStatus.CANCELLED.equals(status) && row[2] != null) {
+                totalSpent = totalSpent.add((BigDecimal) row[2]);
+            }
+        }
 
         return BookingStatsResponse.builder()
-                .totalBookings((long) userBookings.size())
-                .activeBookings(countBookingsByStatus(userBookings, BookingStatus.CONFIRMED, BookingStatus.CHECKED_IN, BookingStatus.PAID))
-                .completedBookings(countBookingsByStatus(userBookings, BookingStatus.COMPLETED))
-                .cancelledBookings(countBookingsByStatus(userBookings, BookingStatus.CANCELLED))
-                .totalSpent(calculateTotalSpent(userBookings))
-                .favoriteHotels((long) currentUser.getFavoriteHotels().size())
+                .totalBookings(total)
+                .activeBookings(active)
+                .completedBookings(completed)
+                .cancelledBookings(cancelled)
+                .totalSpent(totalSpent.doubleValue())
+                .favoriteHotels(favoriteRepository.countByUserId(currentUser.getId()))
                 .build();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingResponse> getBookingsReadyForCheckIn() {
-        List<BookingResponse> allBookings = getCurrentUserBookings();
-        return allBookings.stream()
-                .filter(booking -> Boolean.TRUE.equals(booking.getCanCheckIn()))
-                .toList();
+        User currentUser = userService.getCurrentUser();
+        LocalDate earliestCheckIn = LocalDate.now().minusDays(CHECK_IN_GRACE_DAYS);
+        return mappingService.mapToBookingResponseList(
+                bookingRepository.findUserBookingsReadyForCheckIn(currentUser.getId(), earliestCheckIn));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingResponse> getBookingsReadyForCheckOut() {
-        List<BookingResponse> allBookings = getCurrentUserBookings();
-        return allBookings.stream()
-                .filter(booking -> Boolean.TRUE.equals(booking.getCanCheckOut()))
-                .toList();
+        User currentUser = userService.getCurrentUser();
+        return mappingService.mapToBookingResponseList(
+                bookingRepository.findUserBookingsReadyForCheckOut(currentUser.getId(), LocalDate.now()));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingResponse> getCurrentlyCheckedInBookings() {
-        List<BookingResponse> allBookings = getCurrentUserBookings();
-        return allBookings.stream()
-                .filter(BookingResponse::isCheckedIn)
-                .toList();
+        User currentUser = userService.getCurrentUser();
+        return mappingService.mapToBookingResponseList(bookingRepository.findByUserIdAndStatusInWithDetails(
+                currentUser.getId(), List.of(BookingStatus.CHECKED_IN)));
     }
 
+    @Override
+    @Transactional(readOnly = true)
     public List<BookingResponse> getCheckHistory() {
-        List<BookingResponse> allBookings = getCurrentUserBookings();
-        return allBookings.stream()
-                .filter(booking -> booking.isCheckedIn() || booking.isCheckedOut())
-                .toList();
+        User currentUser = userService.getCurrentUser();
+        return mappingService.mapToBookingResponseList(bookingRepository.findByUserIdAndStatusInWithDetails(
+                currentUser.getId(), List.of(BookingStatus.CHECKED_IN, BookingStatus.COMPLETED)));
     }
 
     @Override
-    public List<BookingResponse> getBookingsByHotel(Long hotelId, String status) {
+    @Transactional(readOnly = true)
+    public List<BookingResponse> getBookingsByHotel(Long hotelId, String status, FieldSelection fields) {
         List<Booking> bookings;
 
-        if (status != null && !status.trim().isEmpty()) {
+        if (!fields.isAll()) {
+            String statusFilter = status != null && !status.trim().isEmpty() ? status : null;
+            bookings = bookingRepository.findSummariesByHotelIdAndStatus(hotelId, statusFilter);
+        } else if (status != null && !status.trim().isEmpty()) {
             bookings = bookingRepository.findByRoomType_Hotel_IdAndStatusOrderByBookingDateDesc(hotelId, status);
         } else {
             bookings = bookingRepository.findByRoomType_Hotel_IdOrderByBookingDateDesc(hotelId);
         }
 
         return bookings.stream()
-                .map(mappingService::mapToBookingResponse)
+                .map(booking -> mappingService.mapToBookingResponse(booking, fields))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamBookingsByHotel(Long hotelId, String status, FieldSelection fields, Consumer<BookingResponse> consumer) {
+        String statusFilter = status != null && !status.trim().isEmpty() ? status : null;
+        StreamUtils.forEachDetaching(bookingRepository.streamByHotelIdAndStatus(hotelId, statusFilter),
+                entityManager, STREAM_BATCH_SIZE, booking -> consumer.accept(mappingService.mapToBookingResponse(booking, fields)));
+    }
+
     @Override
     public HotelStatsResponse getHotelRevenue(Long hotelId, LocalDate fromDate, LocalDate toDate, String status) {
         BigDecimal totalRevenue = bookingRepository.calculateTotalRevenue(hotelId, fromDate, toDate, status);
@@ -302,6 +412,7 @@ public class BookingServiceImpl implements BookingService {
     // ✅ Code đầy đủ logic
     @Transactional
     @Override
+    @Timed(value = BookingFunnelMetrics.OPERATION_TIMER, extraTags = {"operation", "booking.pay_deposit"}, histogram = true)
     public BookingResponse payDeposit(Long bookingId, BigDecimal depositPercentage) {
 
         // ✅ DEBUG
@@ -503,6 +614,7 @@ public class BookingServiceImpl implements BookingService {
 
     @Transactional
     @Override
+    @Timed(value = BookingFunnelMetrics.OPERATION_TIMER, extraTags = {"operation", "booking.check_in"}, histogram = true)
     public BookingResponse checkInBooking(Long bookingId) {
         User currentUser = userService.getCurrentUser();
         Booking booking = bookingRepository.findById(bookingId)
@@ -620,58 +732,28 @@ public class BookingServiceImpl implements BookingService {
 
     // ========== SCHEDULED TASKS (UPDATED) ==========
 
-    @Scheduled(fixedRate = 300000)
+    // Hạn tạm giữ được HoldExpiryService xử lý đúng thời điểm; job này chỉ là lưới an toàn (mặc định mỗi giờ)
+    @Scheduled(fixedRateString = "${app.hold-expiry.safety-sweep-ms:3600000}")
     @Transactional
     public void cleanupExpiredTemporaryBookings() {
         LocalDateTime cutoffTime = LocalDateTime.now().minusMinutes(TEMPORARY_BOOKING_EXPIRE_MINUTES);
         List<Booking> expiredBookings = bookingRepository.findExpiredTemporaryBookings(cutoffTime);
 
-        expiredBookings.forEach(booking -> {
-            boolean hasSuccessfulPayment = booking.getPayments().stream()
-                    .anyMatch(Payment::isPaid);
-
-            if (hasSuccessfulPayment) {
-                // Determine final status based on payment type
-                Payment paidPayment = booking.getPayments().stream()
-                        .filter(Payment::isPaid)
-                        .findFirst()
-                        .orElse(null);
-
-                if (paidPayment != null && paidPayment.isDeposit()) {
-                    booking.setStatus(BookingStatus.PAID); // "Đã thanh toán" with remaining amount
-                } else {
-                    booking.setStatus(BookingStatus.CONFIRMED); // "Đã xác nhận" - fully paid
-                }
-
-                if (booking.getAssignedRoom() == null) {
-                    Room availableRoom = availabilityService.findAvailableRoom(
-                            booking.getRoomType().getId(),
-                            booking.getCheckInDate(),
-                            booking.getCheckOutDate()
-                    );
-                    if (availableRoom != null) {
-                        booking.setAssignedRoom(availableRoom);
-                        log.info("Auto-assigned room {} to paid booking {}",
-                                availableRoom.getRoomNumber(), booking.getId());
-                    }
-                }
-            } else {
-                booking.setStatus(BookingStatus.CANCELLED);
-            }
-        });
+        expiredBookings.forEach(holdExpirer::expire);
 
         if (!expiredBookings.isEmpty()) {
             bookingRepository.saveAll(expiredBookings);
         }
     }
 
-    @Scheduled(fixedRate = 600000)
+    // Booking chờ xác nhận cũng hết hạn trên bánh xe của HoldExpiryService; job này chỉ là lưới an toàn
+    @Scheduled(fixedRateString = "${app.hold-expiry.safety-sweep-ms:3600000}")
     @Transactional
     public void cleanupOldPendingBookings() {
         LocalDateTime cutoffTime = LocalDateTime.now().minusMinutes(PENDING_BOOKING_EXPIRE_MINUTES);
         List<Booking> oldPendingBookings = bookingRepository.findOldPendingBookingsWithoutPayment(cutoffTime);
 
-        oldPendingBookings.forEach(booking -> booking.setStatus(BookingStatus.CANCELLED));
+        oldPendingBookings.forEach(holdExpirer::expirePending);
 
         if (!oldPendingBookings.isEmpty()) {
             bookingRepository.saveAll(oldPendingBookings);
@@ -685,14 +767,23 @@ public class BookingServiceImpl implements BookingService {
                 .anyMatch(role -> "ADMIN".equals(role.getName()));
     }
 
-    private Booking createBookingEntity(User user, RoomType roomType, BookingRequest request) {
+    private PriceQuote resolveQuote(BookingRequest request) {
+        if (request.getQuoteToken() != null && !request.getQuoteToken().isBlank()) {
+            return priceQuoteService.verifyQuote(request.getQuoteToken(), request);
+        }
+        return priceQuoteService.priceStay(request.getRoomTypeId(), request.getCheckInDate(),
+                request.getCheckOutDate(), request.getNumberOfGuests(),
+                request.wantsDepositPayment() ? request.getDepositPercentage() : null);
+    }
+
+    private Booking createBookingEntity(User user, RoomType roomType, BookingRequest request, PriceQuote quote) {
         Booking booking = new Booking();
         booking.setUser(user);
         booking.setRoomType(roomType);
         booking.setCheckInDate(request.getCheckInDate());
         booking.setCheckOutDate(request.getCheckOutDate());
         booking.setNumberOfGuests(request.getNumberOfGuests());
-        booking.setTotalPrice(BigDecimal.valueOf(request.getTotalPrice()));
+        booking.setTotalPrice(quote.totalPrice());
         booking.setSpecialRequests(request.getSpecialRequests());
         booking.setStatus(BookingStatus.TEMPORARY);
         return booking;
@@ -721,23 +812,23 @@ public class BookingServiceImpl implements BookingService {
         booking.setCheckInDate(request.getCheckInDate());
         booking.setCheckOutDate(request.getCheckOutDate());
         booking.setNumberOfGuests(request.getNumberOfGuests());
-        booking.setTotalPrice(BigDecimal.valueOf(request.getTotalPrice()));
+        // Đổi ngày thì tính lại giá theo lịch giá (giữ mã khuyến mãi đã dùng và tỷ lệ cọc), không lấy totalPrice client gửi
+        PromotionUsage usage = promotionUsageRepository.findFirstByBookingId(booking.getId()).orElse(null);
+        PriceQuote quote = priceQuoteService.repriceStay(booking.getRoomType().getId(),
+                request.getCheckInDate(), request.getCheckOutDate(), request.getNumberOfGuests(),
+                usage != null ? usage.getPromotionCode() : null, booking.getDepositPercentage());
+        booking.setTotalPrice(quote.totalPrice());
+        if (quote.hasDeposit()) {
+            booking.setDepositAmount(quote.depositAmount());
+            booking.setRemainingAmount(quote.remainingAmount());
+        }
+        if (usage != null) {
+            usage.setDiscountAmount(quote.discountAmount());
+            promotionUsageRepository.save(usage);
+        }
         booking.setSpecialRequests(request.getSpecialRequests());
     }
 
-    private long countBookingsByStatus(List<Booking> bookings, String... statuses) {
-        return bookings.stream()
-                .filter(b -> List.of(statuses).contains(b.getStatus()))
-                .count();
-    }
-
-    private Double calculateTotalSpent(List<Booking> bookings) {
-        return bookings.stream()
-                .filter(b -> !BookingStatus.CANCELLED.equals(b.getStatus()))
-                .mapToDouble(b -> b.getTotalPrice().doubleValue())
-                .sum();
-    }
-
     // ✅ Handle refund processing using PaymentService
     private void handleCancellationRefund(Booking booking) {
         List<Payment> payments = paymentRepository.findByBookingId(booking.getId());
@@ -41,7 +41,6 @@ public class BookingValidationService {
     public void validateBookingRequest(BookingRequest request) {
         validateDates(request.getCheckInDate(), request.getCheckOutDate());
         validateGuests(request.getNumberOfGuests());
-        validatePrice(request.getTotalPrice());
         validateAdvanceBooking(request.getCheckInDate());
 
         // Check booking conflicts
@@ -97,15 +96,6 @@ public class BookingValidationService {
         }
     }
 
-    /**
-     * Validate total price
-     */
-    private void validatePrice(Double totalPrice) {
-        if (totalPrice == null || totalPrice <= 0) {
-            throw new RuntimeException("Tổng giá phải lớn hơn 0");
-        }
-    }
-
     /**
      * Validate advance booking limit
      */
@@ -134,7 +124,12 @@ public class BookingValidationService {
      */
     // ✅ SỬA HÀM CŨ - CHỈ THAY ĐỔI EXCEPTION TYPE
     public void validateBookingOwnership(Booking booking, User user) {
-        if (!booking.getUser().getId().equals(user.getId())) {
+        validateBookingOwnership(booking.getUser().getId(), user);
+    }
+
+    // Bản theo id chủ booking, cho response đọc từ read model (không có entity Booking)
+    public void validateBookingOwnership(Long bookingUserId, User user) {
+        if (!bookingUserId.equals(user.getId())) {
             throw new SecurityException("Bạn không có quyền thao tác với đặt phòng này");
         }
     }
@@ -0,0 +1,100 @@
+package com.example.demo.service.booking_document;
+
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.Payment;
+import com.example.demo.entity.Room;
+import com.example.demo.entity.User;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+
+/**
+ * Cập nhật read model booking khi booking, thanh toán của nó, thông tin khách hoặc số/loại của phòng được gán thay đổi.
+ * Chỉ xếp việc sau commit: chiếu lúc flush sẽ đọc dữ liệu chưa commit, còn transaction rollback thì không có gì để chiếu.
+ */
+@Component
+public class BookingDocumentEntityListener {
+
+    // Provider vì listener được Hibernate tạo sớm và test @DataJpaTest không có service này
+    private final ObjectProvider<BookingDocumentService> documentService;
+
+    public BookingDocumentEntityListener(ObjectProvider<BookingDocumentService> documentService) {
+        this.documentService = documentService;
+    }
+
+    @PostLoad
+    public void onLoaded(Object entity) {
+        if (entity instanceof Room room) {
+            rememberLoadedState(room);
+        }
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChanged(Object entity) {
+        if (entity instanceof Room room) {
+            // Đổi trạng thái phòng (check-in/out, thanh toán) không chạm document; phòng mới chưa có booking nào
+            boolean renamedOrMoved = room.getLoadedRoomNumber() != null
+                    && (!Objects.equals(room.getLoadedRoomNumber(), room.getRoomNumber())
+                    || !Objects.equals(room.getLoadedRoomTypeId(), roomTypeIdOf(room)));
+            rememberLoadedState(room);
+            BookingDocumentService service = documentService.getIfAvailable();
+            if (renamedOrMoved && service != null) {
+                Long roomId = room.getId();
+                afterCommit(() -> service.invalidateRoom(roomId));
+            }
+            return;
+        }
+
+        BookingDocumentService service = documentService.getIfAvailable();
+        if (service == null) {
+            return;
+        }
+
+        if (entity instanceof User user) {
+            if (user.getId() != null) {
+                Long userId = user.getId();
+                afterCommit(() -> service.invalidateUser(userId));
+            }
+            return;
+        }
+
+        Booking booking = entity instanceof Booking changed ? changed
+                : entity instanceof Payment payment ? payment.getBooking() : null;
+        if (booking == null || booking.getId() == null) {
+            return;
+        }
+        Long bookingId = booking.getId();
+        afterCommit(() -> service.scheduleProjection(bookingId));
+    }
+
+    private static void rememberLoadedState(Room room) {
+        room.setLoadedRoomNumber(room.getRoomNumber());
+        room.setLoadedRoomTypeId(roomTypeIdOf(room));
+    }
+
+    private static Long roomTypeIdOf(Room room) {
+        return room.getRoomType() != null ? room.getRoomType().getId() : null;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.service.booking_document;
+
+import com.example.demo.dto.booking.BookingResponse;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+public interface BookingDocumentService {
+
+    // Document của booking; rỗng nếu đang chờ chiếu lại hoặc chưa có (khi đó xếp chiếu bổ sung), người gọi đọc bảng gốc.
+    // Các cờ phụ thuộc ngày hiện tại chưa được tính
+    Optional<BookingResponse> findDocument(Long bookingId);
+
+    // Như trên cho nhiều booking, chỉ trả các booking có document dùng được
+    Map<Long, BookingResponse> findDocuments(Collection<Long> bookingIds);
+
+    // Booking (hoặc thanh toán của nó) vừa thay đổi và đã commit: chiếu lại ở nền
+    void scheduleProjection(Long bookingId);
+
+    // Thông tin khách đổi: bỏ document của khách
+    void invalidateUser(Long userId);
+
+    // Phòng đổi số hoặc chuyển loại phòng: bỏ document các booking được gán phòng đó
+    void invalidateRoom(Long roomId);
+
+    // Chiếu lại toàn bộ booking (backfill), chờ các lần chiếu đang xếp hàng xong trước; trả số booking đã chiếu
+    int rebuildAll();
+}
@@ -0,0 +1,230 @@
+package com.example.demo.service.booking_document;
+
+import com.example.demo.dto.booking.BookingResponse;
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.BookingDocument;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Review;
+import com.example.demo.entity.RoomType;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.repository.BookingDocumentRepository;
+import com.example.demo.repository.BookingRepository;
+import com.example.demo.service.booking.BookingMappingService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Read model cho chi tiết / danh sách booking của khách. Mỗi booking có một document JSON (BookingResponse đầy đủ
+ * do BookingMappingService ghép) trong bảng booking_documents, đọc bằng khóa chính thay vì nạp ~8 quan hệ.
+ * Document được chiếu lại trên một thread nền sau commit (BookingDocumentEntityListener cho booking/thanh toán/khách;
+ * phòng đổi số hoặc chuyển loại thì xóa document các booking được gán phòng đó);
+ * thay đổi khách sạn, loại phòng, đánh giá chỉ xóa document của khách sạn, lần đọc sau đi bảng gốc rồi chiếu bổ sung.
+ * Booking đang chờ chiếu lại trên instance này được đọc từ bảng gốc để khách thấy ngay thay đổi của mình.
+ */
+@Service
+@Slf4j
+public class BookingDocumentServiceImpl implements BookingDocumentService {
+
+    private static final int REBUILD_BATCH_SIZE = 200;
+
+    private final BookingDocumentRepository documentRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingMappingService mappingService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    // Một luồng: các lần chiếu / xóa chạy đúng thứ tự commit, bản chiếu cũ không ghi đè bản mới
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "booking-document");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Số lần chiếu đã xếp hàng nhưng chưa xong của từng booking
+    private final Map<Long, Integer> pending = new ConcurrentHashMap<>();
+
+    public BookingDocumentServiceImpl(BookingDocumentRepository documentRepository, BookingRepository bookingRepository,
+                                      BookingMappingService mappingService, ObjectMapper objectMapper,
+                                      PlatformTransactionManager transactionManager) {
+        this.documentRepository = documentRepository;
+        this.bookingRepository = bookingRepository;
+        this.mappingService = mappingService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public Optional<BookingResponse> findDocument(Long bookingId) {
+        if (pending.containsKey(bookingId)) {
+            return Optional.empty();
+        }
+        Optional<BookingResponse> response = documentRepository.findById(bookingId).map(this::readDocument);
+        if (response.isEmpty()) {
+            scheduleProjection(bookingId);
+        }
+        return response;
+    }
+
+    @Override
+    public Map<Long, BookingResponse> findDocuments(Collection<Long> bookingIds) {
+        List<Long> ready = bookingIds.stream().filter(id -> !pending.containsKey(id)).toList();
+        Map<Long, BookingResponse> result = new HashMap<>();
+        if (ready.isEmpty()) {
+            return result;
+        }
+        for (BookingDocument document : documentRepository.findAllById(ready)) {
+            BookingResponse response = readDocument(document);
+            if (response != null) {
+                result.put(document.getBookingId(), response);
+            }
+        }
+        ready.stream().filter(id -> !result.containsKey(id)).forEach(this::scheduleProjection);
+        return result;
+    }
+
+    @Override
+    public void scheduleProjection(Long bookingId) {
+        pending.merge(bookingId, 1, Integer::sum);
+        executor.execute(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> project(bookingId));
+            } catch (Exception e) {
+                // Không để lại document cũ: lần đọc sau đi bảng gốc và xếp chiếu lại
+                log.warn("Không chiếu được document của booking #{}: {}", bookingId, e.getMessage());
+                runQuietly(() -> documentRepository.deleteAllByIdInBatch(List.of(bookingId)));
+            } finally {
+                pending.computeIfPresent(bookingId, (id, count) -> count > 1 ? count - 1 : null);
+            }
+        });
+    }
+
+    @Override
+    public void invalidateUser(Long userId) {
+        executor.execute(() -> runQuietly(() -> documentRepository.deleteByUserId(userId)));
+    }
+
+    @Override
+    public void invalidateRoom(Long roomId) {
+        executor.execute(() -> runQuietly(() -> documentRepository.deleteByAssignedRoomId(roomId)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        switch (event.getResourceType()) {
+            case HOTEL -> invalidateHotel(event.getResourceId());
+            case ROOM_TYPE -> {
+                if (event.getSource() instanceof RoomType roomType && roomType.getHotel() != null) {
+                    invalidateHotel(roomType.getHotel().getId());
+                } else if (event.getSource() instanceof Hotel previousHotel) {
+                    // Loại phòng vừa chuyển khỏi khách sạn này
+                    invalidateHotel(previousHotel.getId());
+                }
+            }
+            // Điểm trung bình / số đánh giá của khách sạn và cờ đã đánh giá của khách đều nằm trong document
+            case REVIEW -> {
+                if (event.getSource() instanceof Review review && review.getHotel() != null) {
+                    invalidateHotel(review.getHotel().getId());
+                }
+            }
+            // Hiếm và có thể chạm nhiều khách sạn: bỏ toàn bộ
+            case LOCATION, AMENITY -> executor.execute(() -> runQuietly(documentRepository::deleteAllInBatch));
+        }
+    }
+
+    @Override
+    public int rebuildAll() {
+        try {
+            return executor.submit(this::rebuildAllNow).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bị ngắt khi đang chiếu lại document booking", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Không chiếu lại được document booking: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private int rebuildAllNow() {
+        int projected = 0;
+        PageRequest pageRequest = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+        Page<Booking> page;
+        do {
+            PageRequest current = pageRequest;
+            page = transactionTemplate.execute(status -> bookingRepository.findAll(current));
+            for (Booking booking : page.getContent()) {
+                transactionTemplate.executeWithoutResult(status -> project(booking.getId()));
+                projected++;
+            }
+            pageRequest = pageRequest.next();
+        } while (page.hasNext());
+        log.info("Đã chiếu lại {} document booking", projected);
+        return projected;
+    }
+
+    private void invalidateHotel(Long hotelId) {
+        if (hotelId != null) {
+            executor.execute(() -> runQuietly(() -> documentRepository.deleteByHotelId(hotelId)));
+        }
+    }
+
+    private void project(Long bookingId) {
+        Optional<Booking> booking = bookingRepository.findByIdWithDetails(bookingId);
+        if (booking.isEmpty()) {
+            documentRepository.deleteAllByIdInBatch(List.of(bookingId));
+            return;
+        }
+        documentRepository.save(toDocument(booking.get()));
+    }
+
+    private BookingDocument toDocument(Booking booking) {
+        // Cờ quyền trong document chỉ là giá trị lúc chiếu, BookingServiceImpl luôn tính lại khi đọc
+        BookingResponse response = mappingService.mapToBookingResponse(booking);
+        try {
+            return new BookingDocument(booking.getId(), booking.getUser().getId(),
+                    booking.getRoomType().getHotel() != null ? booking.getRoomType().getHotel().getId() : null,
+                    objectMapper.writeValueAsString(response), LocalDateTime.now());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Không serialize được booking #" + booking.getId(), e);
+        }
+    }
+
+    private BookingResponse readDocument(BookingDocument document) {
+        try {
+            return objectMapper.readValue(document.getDocument(), BookingResponse.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Document của booking #{} hỏng, đọc từ bảng gốc: {}", document.getBookingId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void runQuietly(Runnable action) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> action.run());
+        } catch (Exception e) {
+            log.warn("Không cập nhật được read model booking: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.service.bulk_import;
+
+public enum BulkImportFormat {
+    NDJSON,
+    CSV;
+
+    /**
+     * Lấy theo tham số format nếu có, không thì đoán theo đuôi file (.csv là CSV, còn lại NDJSON).
+     */
+    public static BulkImportFormat resolve(String format, String fileName) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return valueOf(format.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Định dạng import không hỗ trợ: " + format + " (chỉ NDJSON hoặc CSV)");
+            }
+        }
+        if (fileName != null && fileName.toLowerCase().endsWith(".csv")) {
+            return CSV;
+        }
+        return NDJSON;
+    }
+}
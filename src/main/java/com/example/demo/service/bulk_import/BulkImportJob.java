@@ -0,0 +1,114 @@
+package com.example.demo.service.bulk_import;
+
+import com.example.demo.dto.bulk_import.BulkImportStatusResponse;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Trạng thái một lần import, được luồng import cập nhật và API trạng thái đọc song song.
+ */
+class BulkImportJob {
+
+    enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private static final int MAX_ERRORS = 100;
+
+    private final String id;
+    private final String fileName;
+    private final BulkImportFormat format;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile String message;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    private final AtomicLong recordsRead = new AtomicLong();
+    private final AtomicLong hotelsImported = new AtomicLong();
+    private final AtomicLong roomTypesImported = new AtomicLong();
+    private final AtomicLong roomsImported = new AtomicLong();
+    private final AtomicLong failedRecords = new AtomicLong();
+    private final List<String> errors = new ArrayList<>();
+
+    BulkImportJob(String id, String fileName, BulkImportFormat format) {
+        this.id = id;
+        this.fileName = fileName;
+        this.format = format;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    void start() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    void complete() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(String reason) {
+        message = reason;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    void recordRead() {
+        recordsRead.incrementAndGet();
+    }
+
+    void recordImported(int hotels, int roomTypes, int rooms) {
+        hotelsImported.addAndGet(hotels);
+        roomTypesImported.addAndGet(roomTypes);
+        roomsImported.addAndGet(rooms);
+    }
+
+    void recordFailed(int count, String error) {
+        failedRecords.addAndGet(count);
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+
+    BulkImportStatusResponse toResponse() {
+        List<String> errorSnapshot;
+        synchronized (errors) {
+            errorSnapshot = new ArrayList<>(errors);
+        }
+        LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+        return BulkImportStatusResponse.builder()
+                .jobId(id)
+                .status(status.name())
+                .format(format.name())
+                .fileName(fileName)
+                .message(message)
+                .recordsRead(recordsRead.get())
+                .hotelsImported(hotelsImported.get())
+                .roomTypesImported(roomTypesImported.get())
+                .roomsImported(roomsImported.get())
+                .failedRecords(failedRecords.get())
+                .errors(errorSnapshot)
+                .createdAt(createdAt)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .elapsedMillis(startedAt != null ? Duration.between(startedAt, end).toMillis() : null)
+                .build();
+    }
+}
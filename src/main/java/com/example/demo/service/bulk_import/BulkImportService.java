@@ -0,0 +1,16 @@
+package com.example.demo.service.bulk_import;
+
+import com.example.demo.dto.bulk_import.BulkImportStatusResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+public interface BulkImportService {
+
+    // Lưu file tạm và xếp hàng import chạy nền, trả ngay jobId để theo dõi
+    BulkImportStatusResponse startHotelImport(MultipartFile file, String format);
+
+    BulkImportStatusResponse getStatus(String jobId);
+
+    List<BulkImportStatusResponse> getRecentJobs();
+}
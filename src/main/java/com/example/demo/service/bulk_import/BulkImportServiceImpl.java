@@ -0,0 +1,421 @@
+package com.example.demo.service.bulk_import;
+
+import com.example.demo.dto.bulk_import.BulkImportStatusResponse;
+import com.example.demo.dto.bulk_import.HotelImportRecord;
+import com.example.demo.dto.bulk_import.RoomImportRecord;
+import com.example.demo.dto.bulk_import.RoomTypeImportRecord;
+import com.example.demo.entity.Amenity;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Location;
+import com.example.demo.entity.Room;
+import com.example.demo.entity.RoomType;
+import com.example.demo.repository.AmenityRepository;
+import com.example.demo.repository.HotelRepository;
+import com.example.demo.repository.LocationRepository;
+import com.example.demo.service.hotel.HotelGeoIndex;
+import com.example.demo.service.search.FullTextIndex;
+import com.example.demo.service.suggest.SuggestionIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Import hàng loạt khách sạn, loại phòng và phòng từ file CSV/NDJSON.
+ * File được đọc tuần tự từng khách sạn, địa điểm và tiện nghi tra theo tên trong map nạp sẵn một lần,
+ * và ghi theo lô khoảng CHUNK_ENTITIES entity mỗi transaction (id pooled + JDBC batch, xem db/migration/V3__id_generators.sql).
+ * Bản ghi lỗi bị bỏ qua và ghi vào danh sách lỗi của job, không làm dừng cả file.
+ */
+@Service
+@Slf4j
+public class BulkImportServiceImpl implements BulkImportService {
+
+    private static final int CHUNK_ENTITIES = 1000;
+    private static final int MAX_KEPT_JOBS = 50;
+
+    private final LocationRepository locationRepository;
+    private final AmenityRepository amenityRepository;
+    private final HotelRepository hotelRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final FullTextIndex fullTextIndex;
+    private final HotelGeoIndex hotelGeoIndex;
+    private final SuggestionIndex suggestionIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Một luồng: các job import chạy lần lượt, job sau ở trạng thái QUEUED
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bulk-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, BulkImportJob> jobs = new ConcurrentHashMap<>();
+
+    public BulkImportServiceImpl(LocationRepository locationRepository, AmenityRepository amenityRepository,
+                                 HotelRepository hotelRepository, ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager, FullTextIndex fullTextIndex,
+                                 HotelGeoIndex hotelGeoIndex, SuggestionIndex suggestionIndex) {
+        this.locationRepository = locationRepository;
+        this.amenityRepository = amenityRepository;
+        this.hotelRepository = hotelRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fullTextIndex = fullTextIndex;
+        this.hotelGeoIndex = hotelGeoIndex;
+        this.suggestionIndex = suggestionIndex;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public BulkImportStatusResponse startHotelImport(MultipartFile file, String format) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("File import rỗng");
+        }
+        BulkImportFormat importFormat = BulkImportFormat.resolve(format, file.getOriginalFilename());
+
+        // File multipart bị xóa khi request kết thúc nên phải chép ra file tạm cho luồng nền
+        Path tempFile;
+        try {
+            tempFile = Files.createTempFile("hotel-import-", "." + importFormat.name().toLowerCase());
+            file.transferTo(tempFile);
+        } catch (IOException e) {
+            throw new RuntimeException("Không thể lưu file import: " + e.getMessage(), e);
+        }
+
+        pruneFinishedJobs();
+        BulkImportJob job = new BulkImportJob(UUID.randomUUID().toString(), file.getOriginalFilename(), importFormat);
+        jobs.put(job.getId(), job);
+        executor.submit(() -> run(job, tempFile, importFormat));
+        return job.toResponse();
+    }
+
+    @Override
+    public BulkImportStatusResponse getStatus(String jobId) {
+        BulkImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Không tìm thấy job import: " + jobId);
+        }
+        return job.toResponse();
+    }
+
+    @Override
+    public List<BulkImportStatusResponse> getRecentJobs() {
+        return jobs.values().stream()
+                .map(BulkImportJob::toResponse)
+                .sorted(Comparator.comparing(BulkImportStatusResponse::getCreatedAt).reversed())
+                .toList();
+    }
+
+    private void run(BulkImportJob job, Path file, BulkImportFormat format) {
+        job.start();
+        log.info("Bắt đầu import {} từ {}", format, file);
+        try (HotelImportReader reader = openReader(file, format)) {
+            ReferenceData references = loadReferences();
+            List<HotelImportReader.Item> chunk = new ArrayList<>();
+            int chunkEntities = 0;
+
+            HotelImportReader.Item item;
+            while ((item = reader.next()) != null) {
+                job.recordRead();
+                String error = item.error() != null ? item.error() : validate(item.record(), references);
+                if (error != null) {
+                    job.recordFailed(1, describe(item) + ": " + error);
+                    continue;
+                }
+                references.pendingHotelKeys.add(hotelKey(item.record()));
+                chunk.add(item);
+                chunkEntities += countEntities(item.record());
+                if (chunkEntities >= CHUNK_ENTITIES) {
+                    writeChunk(job, chunk, references);
+                    chunkEntities = 0;
+                }
+            }
+            writeChunk(job, chunk, references);
+            job.complete();
+        } catch (Exception e) {
+            log.error("Import {} thất bại", job.getId(), e);
+            job.fail("Import dừng giữa chừng: " + e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Không xóa được file tạm {}: {}", file, e.getMessage());
+            }
+        }
+
+        refreshIndexes(job);
+        log.info("Kết thúc import {}: {}", job.getId(), job.toResponse().getStatus());
+    }
+
+    private HotelImportReader openReader(Path file, BulkImportFormat format) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        return format == BulkImportFormat.CSV
+                ? new CsvHotelImportReader(reader)
+                : new NdjsonHotelImportReader(reader, objectMapper);
+    }
+
+    private void writeChunk(BulkImportJob job, List<HotelImportReader.Item> chunk, ReferenceData references) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        int[] counts = new int[3];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (HotelImportReader.Item item : chunk) {
+                    persistHotel(item.record(), references, counts);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            job.recordImported(counts[0], counts[1], counts[2]);
+            references.hotelKeys.addAll(references.pendingHotelKeys);
+        } catch (RuntimeException e) {
+            // Cả lô đã rollback: đánh dấu lỗi cho toàn bộ bản ghi trong lô rồi đi tiếp
+            log.warn("Ghi lô import thất bại: {}", e.getMessage());
+            String range = "Dòng " + chunk.get(0).lineNumber() + "-" + chunk.get(chunk.size() - 1).lineNumber();
+            job.recordFailed(chunk.size(), range + ": lỗi ghi DB, bỏ qua cả lô (" + rootMessage(e) + ")");
+        }
+        // Lô rollback thì khách sạn chưa tồn tại, bản ghi trùng ở phần sau của file vẫn được import
+        references.pendingHotelKeys.clear();
+        chunk.clear();
+    }
+
+    private void persistHotel(HotelImportRecord record, ReferenceData references, int[] counts) {
+        Hotel hotel = new Hotel();
+        hotel.setHotelName(record.getHotelName().trim());
+        hotel.setAddress(record.getAddress().trim());
+        hotel.setDescription(record.getDescription());
+        hotel.setStarRating(record.getStarRating());
+        hotel.setLatitude(record.getLatitude());
+        hotel.setLongitude(record.getLongitude());
+        hotel.setPhoneNumber(record.getPhoneNumber());
+        hotel.setEmail(record.getEmail());
+        hotel.setWebsite(record.getWebsite());
+        if (record.getPropertyType() != null) {
+            hotel.setPropertyType(Hotel.PropertyType.valueOf(record.getPropertyType().trim().toUpperCase()));
+        }
+        hotel.setLocation(entityManager.getReference(Location.class,
+                references.locationIds.get(normalize(record.getCityName()))));
+        hotel.setAmenities(amenityReferences(record.getAmenities(), references));
+        entityManager.persist(hotel);
+        counts[0]++;
+
+        // Không thêm vào hotel.roomTypes / roomType.rooms: RoomType và Room dùng @Data, hashCode sẽ đi vòng qua collection
+        for (RoomTypeImportRecord roomTypeRecord : nullSafe(record.getRoomTypes())) {
+            RoomType roomType = new RoomType();
+            roomType.setHotel(hotel);
+            roomType.setTypeName(roomTypeRecord.getTypeName().trim());
+            roomType.setDescription(roomTypeRecord.getDescription());
+            roomType.setMaxOccupancy(roomTypeRecord.getMaxOccupancy());
+            roomType.setBasePrice(roomTypeRecord.getBasePrice());
+            roomType.setSizeSqm(roomTypeRecord.getSizeSqm());
+            roomType.setBedType(roomTypeRecord.getBedType());
+            roomType.setAmenities(amenityReferences(roomTypeRecord.getAmenities(), references));
+            entityManager.persist(roomType);
+            counts[1]++;
+
+            for (RoomImportRecord roomRecord : nullSafe(roomTypeRecord.getRooms())) {
+                Room room = new Room();
+                room.setRoomType(roomType);
+                room.setRoomNumber(roomRecord.getRoomNumber().trim());
+                room.setFloor(roomRecord.getFloor());
+                entityManager.persist(room);
+                counts[2]++;
+            }
+        }
+    }
+
+    private Set<Amenity> amenityReferences(List<String> names, ReferenceData references) {
+        Set<Amenity> amenities = new HashSet<>();
+        for (String name : nullSafe(names)) {
+            amenities.add(entityManager.getReference(Amenity.class, references.amenityIds.get(normalize(name))));
+        }
+        return amenities;
+    }
+
+    /**
+     * Trả null nếu hợp lệ, ngược lại là lý do đầu tiên khiến bản ghi bị bỏ qua.
+     */
+    private String validate(HotelImportRecord record, ReferenceData references) {
+        if (isBlank(record.getHotelName())) {
+            return "Thiếu tên khách sạn";
+        }
+        if (isBlank(record.getAddress())) {
+            return "Thiếu địa chỉ";
+        }
+        if (record.getStarRating() == null
+                || record.getStarRating().compareTo(BigDecimal.ZERO) < 0
+                || record.getStarRating().compareTo(BigDecimal.valueOf(5)) > 0) {
+            return "Hạng sao phải trong khoảng 0-5";
+        }
+        if (isBlank(record.getCityName()) || !references.locationIds.containsKey(normalize(record.getCityName()))) {
+            return "Không tìm thấy địa điểm: " + record.getCityName();
+        }
+        if (record.getPropertyType() != null) {
+            try {
+                Hotel.PropertyType.valueOf(record.getPropertyType().trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return "Loại hình không hợp lệ: " + record.getPropertyType();
+            }
+        }
+        String amenityError = validateAmenities(record.getAmenities(), references);
+        if (amenityError != null) {
+            return amenityError;
+        }
+        String hotelKey = hotelKey(record);
+        if (references.hotelKeys.contains(hotelKey) || references.pendingHotelKeys.contains(hotelKey)) {
+            return "Khách sạn đã tồn tại (trùng tên và địa chỉ)";
+        }
+
+        Set<String> roomNumbers = new HashSet<>();
+        for (RoomTypeImportRecord roomType : nullSafe(record.getRoomTypes())) {
+            if (isBlank(roomType.getTypeName())) {
+                return "Thiếu tên loại phòng";
+            }
+            if (roomType.getMaxOccupancy() == null || roomType.getMaxOccupancy() <= 0) {
+                return "Loại phòng " + roomType.getTypeName() + ": sức chứa phải lớn hơn 0";
+            }
+            if (roomType.getBasePrice() == null || roomType.getBasePrice().compareTo(BigDecimal.ZERO) < 0) {
+                return "Loại phòng " + roomType.getTypeName() + ": thiếu giá hoặc giá âm";
+            }
+            amenityError = validateAmenities(roomType.getAmenities(), references);
+            if (amenityError != null) {
+                return "Loại phòng " + roomType.getTypeName() + ": " + amenityError;
+            }
+            for (RoomImportRecord room : nullSafe(roomType.getRooms())) {
+                if (isBlank(room.getRoomNumber())) {
+                    return "Loại phòng " + roomType.getTypeName() + ": thiếu số phòng";
+                }
+                if (!roomNumbers.add(room.getRoomNumber().trim())) {
+                    return "Số phòng bị trùng: " + room.getRoomNumber();
+                }
+            }
+        }
+        return null;
+    }
+
+    private String validateAmenities(List<String> names, ReferenceData references) {
+        for (String name : nullSafe(names)) {
+            if (!references.amenityIds.containsKey(normalize(name))) {
+                return "Không tìm thấy tiện nghi: " + name;
+            }
+        }
+        return null;
+    }
+
+    private ReferenceData loadReferences() {
+        ReferenceData references = new ReferenceData();
+        for (Location location : locationRepository.findAll()) {
+            references.locationIds.putIfAbsent(normalize(location.getCityName()), location.getId());
+        }
+        for (Amenity amenity : amenityRepository.findAll()) {
+            references.amenityIds.putIfAbsent(normalize(amenity.getAmenityName()), amenity.getId());
+        }
+        for (Object[] row : hotelRepository.findAllNamesAndAddresses()) {
+            references.hotelKeys.add(normalize((String) row[0]) + "|" + normalize((String) row[1]));
+        }
+        return references;
+    }
+
+    // Sau import, nạp lại các index trong bộ nhớ một lần thay vì phát sự kiện cho từng khách sạn
+    private void refreshIndexes(BulkImportJob job) {
+        if (job.toResponse().getHotelsImported() == 0) {
+            return;
+        }
+        try {
+            fullTextIndex.rebuild();
+            hotelGeoIndex.rebuild();
+            suggestionIndex.rebuild();
+        } catch (Exception e) {
+            log.warn("Không thể nạp lại index sau import {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private void pruneFinishedJobs() {
+        if (jobs.size() < MAX_KEPT_JOBS) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(BulkImportJob::isFinished)
+                .min(Comparator.comparing(BulkImportJob::getFinishedAt))
+                .ifPresent(oldest -> jobs.remove(oldest.getId()));
+    }
+
+    private static int countEntities(HotelImportRecord record) {
+        int count = 1;
+        for (RoomTypeImportRecord roomType : nullSafe(record.getRoomTypes())) {
+            count += 1 + nullSafe(roomType.getRooms()).size();
+        }
+        return count;
+    }
+
+    private static String hotelKey(HotelImportRecord record) {
+        return normalize(record.getHotelName()) + "|" + normalize(record.getAddress());
+    }
+
+    private static String describe(HotelImportReader.Item item) {
+        String description = "Dòng " + item.lineNumber();
+        if (item.record() != null && item.record().getHotelRef() != null) {
+            description += " (" + item.record().getHotelRef() + ")";
+        }
+        return description;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static <T> List<T> nullSafe(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private static class ReferenceData {
+        private final Map<String, Long> locationIds = new HashMap<>();
+        private final Map<String, Long> amenityIds = new HashMap<>();
+        private final Set<String> hotelKeys = new HashSet<>();
+        // Khách sạn trong lô đang chờ ghi, chỉ chuyển sang hotelKeys khi lô commit
+        private final Set<String> pendingHotelKeys = new HashSet<>();
+    }
+}
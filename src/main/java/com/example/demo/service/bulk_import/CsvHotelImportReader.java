@@ -0,0 +1,242 @@
+package com.example.demo.service.bulk_import;
+
+import com.example.demo.dto.bulk_import.HotelImportRecord;
+import com.example.demo.dto.bulk_import.RoomImportRecord;
+import com.example.demo.dto.bulk_import.RoomTypeImportRecord;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CSV phẳng, mỗi dòng là một phòng (hoặc một loại phòng chưa có phòng khi room_number trống).
+ * Các dòng liên tiếp cùng hotel_ref (không có thì cùng hotel_name + address) gộp thành một khách sạn,
+ * trong đó gộp tiếp theo room_type_name. Thông tin khách sạn/loại phòng lấy từ dòng đầu tiên của nhóm.
+ * Danh sách tiện nghi trong một ô ngăn cách bằng "|". Không hỗ trợ xuống dòng bên trong ô có ngoặc kép.
+ */
+class CsvHotelImportReader implements HotelImportReader {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("hotel_name", "address", "city_name");
+
+    private final BufferedReader reader;
+    private Map<String, Integer> columns;
+    private long lineNumber;
+    private Row pending;
+
+    CsvHotelImportReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public Item next() throws IOException {
+        if (columns == null) {
+            readHeader();
+        }
+
+        HotelImportRecord hotel = null;
+        Map<String, RoomTypeImportRecord> roomTypes = new LinkedHashMap<>();
+        String groupKey = null;
+        long startLine = 0;
+        String error = null;
+
+        while (true) {
+            Row row = pending != null ? pending : readRow();
+            pending = null;
+            if (row == null) {
+                break;
+            }
+            String rowKey = groupKey(row);
+            if (hotel != null && !rowKey.equals(groupKey)) {
+                pending = row;
+                break;
+            }
+            try {
+                if (hotel == null) {
+                    groupKey = rowKey;
+                    startLine = row.lineNumber;
+                    hotel = new HotelImportRecord();
+                    fillHotel(hotel, row);
+                }
+                addRoom(roomTypes, row);
+            } catch (IllegalArgumentException e) {
+                if (error == null) {
+                    error = "Dòng " + row.lineNumber + ": " + e.getMessage();
+                }
+            }
+        }
+
+        if (hotel == null) {
+            return null;
+        }
+        if (error != null) {
+            return Item.invalid(startLine, error);
+        }
+        hotel.setRoomTypes(new ArrayList<>(roomTypes.values()));
+        return Item.ok(hotel, startLine);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        Row header = readRow();
+        if (header == null) {
+            throw new IllegalArgumentException("File CSV rỗng");
+        }
+        columns = new HashMap<>();
+        for (int i = 0; i < header.values.length; i++) {
+            String name = header.values[i].trim().toLowerCase();
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            columns.put(name, i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("File CSV thiếu cột " + required);
+            }
+        }
+    }
+
+    private Row readRow() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (!line.isBlank()) {
+                return new Row(lineNumber, split(line));
+            }
+        }
+        return null;
+    }
+
+    private String groupKey(Row row) {
+        String ref = row.get(columns, "hotel_ref");
+        if (ref != null) {
+            return ref;
+        }
+        return row.get(columns, "hotel_name") + "|" + row.get(columns, "address");
+    }
+
+    private void fillHotel(HotelImportRecord hotel, Row row) {
+        hotel.setHotelRef(row.get(columns, "hotel_ref"));
+        hotel.setHotelName(row.get(columns, "hotel_name"));
+        hotel.setAddress(row.get(columns, "address"));
+        hotel.setDescription(row.get(columns, "description"));
+        hotel.setStarRating(decimal(row, "star_rating"));
+        hotel.setLatitude(decimal(row, "latitude"));
+        hotel.setLongitude(decimal(row, "longitude"));
+        hotel.setPhoneNumber(row.get(columns, "phone_number"));
+        hotel.setEmail(row.get(columns, "email"));
+        hotel.setWebsite(row.get(columns, "website"));
+        hotel.setPropertyType(row.get(columns, "property_type"));
+        hotel.setCityName(row.get(columns, "city_name"));
+        hotel.setAmenities(list(row, "hotel_amenities"));
+    }
+
+    private void addRoom(Map<String, RoomTypeImportRecord> roomTypes, Row row) {
+        String typeName = row.get(columns, "room_type_name");
+        if (typeName == null) {
+            return;
+        }
+        RoomTypeImportRecord roomType = roomTypes.get(typeName);
+        if (roomType == null) {
+            String maxOccupancy = row.get(columns, "max_occupancy");
+            roomType = RoomTypeImportRecord.builder()
+                    .typeName(typeName)
+                    .description(row.get(columns, "room_type_description"))
+                    .maxOccupancy(maxOccupancy != null ? parseInt(maxOccupancy, "max_occupancy") : null)
+                    .basePrice(decimal(row, "base_price"))
+                    .sizeSqm(decimal(row, "size_sqm"))
+                    .bedType(row.get(columns, "bed_type"))
+                    .amenities(list(row, "room_type_amenities"))
+                    .rooms(new ArrayList<>())
+                    .build();
+            roomTypes.put(typeName, roomType);
+        }
+        String roomNumber = row.get(columns, "room_number");
+        if (roomNumber != null) {
+            roomType.getRooms().add(new RoomImportRecord(roomNumber, row.get(columns, "floor")));
+        }
+    }
+
+    private BigDecimal decimal(Row row, String column) {
+        String value = row.get(columns, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Giá trị " + column + " không phải số: " + value);
+        }
+    }
+
+    private int parseInt(String value, String column) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Giá trị " + column + " không phải số nguyên: " + value);
+        }
+    }
+
+    private List<String> list(Row row, String column) {
+        String value = row.get(columns, column);
+        if (value == null) {
+            return List.of();
+        }
+        return Arrays.stream(value.split("\\|"))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .toList();
+    }
+
+    // Tách một dòng CSV theo dấu phẩy, hỗ trợ ô trong ngoặc kép và "" để thoát dấu ngoặc kép
+    static String[] split(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values.toArray(new String[0]);
+    }
+
+    private record Row(long lineNumber, String[] values) {
+
+        // Ô trống hoặc không có cột trả về null
+        String get(Map<String, Integer> columns, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= values.length) {
+                return null;
+            }
+            String value = values[index].trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.service.bulk_import;
+
+import com.example.demo.dto.bulk_import.HotelImportRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Đọc file import tuần tự từng khách sạn, không nạp cả file vào bộ nhớ.
+ */
+interface HotelImportReader extends Closeable {
+
+    /**
+     * Khách sạn kế tiếp, hoặc null khi hết file.
+     */
+    Item next() throws IOException;
+
+    /**
+     * record = null khi phần dữ liệu này không đọc được, lý do nằm ở error.
+     */
+    record Item(HotelImportRecord record, long lineNumber, String error) {
+
+        static Item ok(HotelImportRecord record, long lineNumber) {
+            return new Item(record, lineNumber, null);
+        }
+
+        static Item invalid(long lineNumber, String error) {
+            return new Item(null, lineNumber, error);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.service.bulk_import;
+
+import com.example.demo.dto.bulk_import.HotelImportRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Mỗi dòng là một khách sạn dạng JSON, kèm roomTypes và rooms lồng bên trong. Dòng trống được bỏ qua.
+ */
+class NdjsonHotelImportReader implements HotelImportReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long lineNumber;
+
+    NdjsonHotelImportReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Item next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                HotelImportRecord record = objectMapper.readValue(line, HotelImportRecord.class);
+                if (record == null) {
+                    return Item.invalid(lineNumber, "Dòng không phải object JSON");
+                }
+                return Item.ok(record, lineNumber);
+            } catch (JsonProcessingException e) {
+                return Item.invalid(lineNumber, "JSON không hợp lệ: " + e.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo.service.catalog;
+
+import com.example.demo.dto.sync.CatalogSyncResponse;
+import com.example.demo.entity.CatalogTombstone;
+import com.example.demo.entity.Review;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.repository.CatalogTombstoneRepository;
+import com.example.demo.repository.HotelRepository;
+import com.example.demo.repository.RoomTypeRepository;
+import com.example.demo.service.amenity.AmenityService;
+import com.example.demo.service.hotel.HotelService;
+import com.example.demo.service.location.LocationService;
+import com.example.demo.service.room_type.RoomTypeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Đồng bộ delta danh mục cho app di động: chỉ trả các bản ghi có updated_at từ thời điểm since
+ * cùng danh sách id đã bị xóa (tombstone), nên chi phí mỗi lần mở app tỉ lệ với số thay đổi chứ không phải kích thước danh mục.
+ * Tombstone và mốc updated_at của dữ liệu phụ (ảnh, đánh giá, tiện nghi của loại phòng) được ghi
+ * trong cùng transaction với thao tác ghi qua CatalogChangedEvent.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogSyncService {
+
+    // updated_at được gán lúc flush nhưng chỉ hiện ra khi commit, lùi mốc để không bỏ sót transaction commit muộn.
+    // Client có thể nhận lại vài bản ghi đã có, ghi đè theo id là an toàn.
+    private static final Duration COMMIT_LAG_TOLERANCE = Duration.ofSeconds(60);
+
+    private final HotelService hotelService;
+    private final RoomTypeService roomTypeService;
+    private final AmenityService amenityService;
+    private final LocationService locationService;
+    private final CatalogTombstoneRepository catalogTombstoneRepository;
+    private final HotelRepository hotelRepository;
+    private final RoomTypeRepository roomTypeRepository;
+
+    @Transactional(readOnly = true)
+    public CatalogSyncResponse sync(LocalDateTime since) {
+        LocalDateTime now = LocalDateTime.now();
+        if (since != null && since.isAfter(now)) {
+            throw new IllegalArgumentException("Mốc since không được ở tương lai");
+        }
+        LocalDateTime from = since != null ? since.minus(COMMIT_LAG_TOLERANCE) : null;
+
+        Map<CatalogChangedEvent.ResourceType, List<Long>> deleted = new EnumMap<>(CatalogChangedEvent.ResourceType.class);
+        // Lần đồng bộ đầu client tải toàn bộ nên không cần tombstone
+        if (from != null) {
+            for (CatalogTombstone tombstone : catalogTombstoneRepository.findByDeletedAtGreaterThanEqual(from)) {
+                deleted.computeIfAbsent(tombstone.getResourceType(), type -> new ArrayList<>())
+                        .add(tombstone.getResourceId());
+            }
+        }
+
+        return CatalogSyncResponse.builder()
+                .fullSync(since == null)
+                .nextSince(now)
+                .hotels(hotelService.getHotelsChangedSince(from))
+                .roomTypes(roomTypeService.getRoomTypesChangedSince(from))
+                .amenities(amenityService.getAmenitiesChangedSince(from))
+                .locations(locationService.getLocationsChangedSince(from))
+                .deletedHotelIds(deleted.getOrDefault(CatalogChangedEvent.ResourceType.HOTEL, List.of()))
+                .deletedRoomTypeIds(deleted.getOrDefault(CatalogChangedEvent.ResourceType.ROOM_TYPE, List.of()))
+                .deletedAmenityIds(deleted.getOrDefault(CatalogChangedEvent.ResourceType.AMENITY, List.of()))
+                .deletedLocationIds(deleted.getOrDefault(CatalogChangedEvent.ResourceType.LOCATION, List.of()))
+                .build();
+    }
+
+    @EventListener
+    @Transactional
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        switch (event.getResourceType()) {
+            case HOTEL -> {
+                if (event.isDeleted()) {
+                    recordTombstone(event, now);
+                } else {
+                    // Ảnh khách sạn đổi không làm entity Hotel bị sửa
+                    hotelRepository.touchUpdatedAt(event.getResourceId(), now);
+                }
+            }
+            case ROOM_TYPE -> {
+                if (event.isDeleted()) {
+                    recordTombstone(event, now);
+                } else {
+                    // Ảnh và tiện nghi của loại phòng nằm ở bảng khác
+                    roomTypeRepository.touchUpdatedAt(event.getResourceId(), now);
+                }
+            }
+            case AMENITY -> {
+                if (event.isDeleted()) {
+                    recordTombstone(event, now);
+                }
+                roomTypeRepository.touchByAmenityId(event.getResourceId(), now);
+            }
+            case LOCATION -> {
+                if (event.isDeleted()) {
+                    recordTombstone(event, now);
+                }
+            }
+            // Danh sách khách sạn có điểm đánh giá trung bình và số lượng đánh giá
+            case REVIEW -> {
+                if (event.getSource() instanceof Review review && review.getHotel() != null) {
+                    hotelRepository.touchUpdatedAt(review.getHotel().getId(), now);
+                }
+            }
+        }
+    }
+
+    private void recordTombstone(CatalogChangedEvent event, LocalDateTime now) {
+        catalogTombstoneRepository.save(new CatalogTombstone(null, event.getResourceType(), event.getResourceId(), now));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.demo.service.catalog;
+
+import com.example.demo.entity.CatalogVersion;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Review;
+import com.example.demo.entity.RoomType;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.repository.CatalogVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Theo dõi phiên bản tài nguyên danh mục để trả ETag/Last-Modified.
+ * Phiên bản được tăng trong cùng transaction với thao tác ghi (qua CatalogChangedEvent),
+ * còn request GET chỉ cần đọc vài dòng catalog_versions theo khóa chính để quyết định trả 304.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogVersionService {
+
+    public static final String AMENITIES = "amenities";
+    public static final String LOCATIONS = "locations";
+
+    private final CatalogVersionRepository catalogVersionRepository;
+
+    public record VersionTag(String etag, long lastModified) {
+    }
+
+    public static String hotelKey(Long hotelId) {
+        return "hotel:" + hotelId;
+    }
+
+    public static String hotelRoomTypesKey(Long hotelId) {
+        return "room-types:hotel:" + hotelId;
+    }
+
+    // Chi tiết khách sạn có nhúng danh sách tiện nghi nên phụ thuộc cả phiên bản tiện nghi
+    public VersionTag hotelTag(Long hotelId) {
+        return tag("hotel-" + hotelId, hotelKey(hotelId), AMENITIES);
+    }
+
+    public VersionTag hotelRoomTypesTag(Long hotelId) {
+        return tag("room-types-" + hotelId, hotelRoomTypesKey(hotelId), AMENITIES);
+    }
+
+    public VersionTag amenitiesTag() {
+        return tag(AMENITIES, AMENITIES);
+    }
+
+    public VersionTag locationsTag() {
+        return tag(LOCATIONS, LOCATIONS);
+    }
+
+    @EventListener
+    @Transactional
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        for (String key : affectedKeys(event)) {
+            catalogVersionRepository.bump(key, now);
+        }
+    }
+
+    private List<String> affectedKeys(CatalogChangedEvent event) {
+        List<String> keys = new ArrayList<>();
+        switch (event.getResourceType()) {
+            case HOTEL -> keys.add(hotelKey(event.getResourceId()));
+            case ROOM_TYPE -> {
+                Hotel hotel = hotelOf(event);
+                if (hotel != null) {
+                    keys.add(hotelKey(hotel.getId()));
+                    keys.add(hotelRoomTypesKey(hotel.getId()));
+                }
+            }
+            // Chi tiết khách sạn có điểm đánh giá trung bình và số lượng đánh giá
+            case REVIEW -> {
+                if (event.getSource() instanceof Review review && review.getHotel() != null) {
+                    keys.add(hotelKey(review.getHotel().getId()));
+                }
+            }
+            case AMENITY -> keys.add(AMENITIES);
+            case LOCATION -> keys.add(LOCATIONS);
+        }
+        return keys;
+    }
+
+    // Nguồn là khách sạn khi loại phòng vừa chuyển khỏi khách sạn đó (RoomTypeServiceImpl.updateRoomType)
+    private static Hotel hotelOf(CatalogChangedEvent event) {
+        if (event.getSource() instanceof RoomType roomType) {
+            return roomType.getHotel();
+        }
+        return event.getSource() instanceof Hotel hotel ? hotel : null;
+    }
+
+    private VersionTag tag(String prefix, String... keys) {
+        Map<String, CatalogVersion> versions = catalogVersionRepository.findAllById(Arrays.asList(keys)).stream()
+                .collect(Collectors.toMap(CatalogVersion::getResourceKey, Function.identity()));
+
+        StringBuilder etag = new StringBuilder("\"").append(prefix);
+        LocalDateTime lastModified = null;
+        for (String key : keys) {
+            CatalogVersion version = versions.get(key);
+            etag.append('-').append(version != null ? version.getVersion() : 0);
+            if (version != null && (lastModified == null || version.getUpdatedAt().isAfter(lastModified))) {
+                lastModified = version.getUpdatedAt();
+            }
+        }
+        etag.append('"');
+
+        // Chưa có dòng phiên bản nào (chưa từng ghi kể từ khi triển khai) thì không gửi Last-Modified
+        long lastModifiedMillis = lastModified != null
+                ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+        return new VersionTag(etag.toString(), lastModifiedMillis);
+    }
+}
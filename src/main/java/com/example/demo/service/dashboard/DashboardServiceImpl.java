@@ -8,15 +8,19 @@ import com.example.demo.repository.HotelRepository;
 import com.example.demo.repository.PaymentRepository;
 import com.example.demo.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
+// Chỉ đọc thống kê, khi bật tách đọc/ghi sẽ chạy trên replica
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class DashboardServiceImpl implements DashboardService {
 
     private final HotelRepository hotelRepository;
@@ -61,10 +65,8 @@ public class DashboardServiceImpl implements DashboardService {
 
     @Override
     public List<RecentBookingDto> getRecentBookings() {
-        var bookings = bookingRepository.findRecentBookingsWithDetails()
-                .stream()
-                .limit(10) // Giới hạn 10 records trong Java
-                .collect(Collectors.toList());
+        // LIMIT 10 chạy trên DB (index booking_date), không nạp toàn bộ booking rồi cắt trong Java
+        var bookings = bookingRepository.findRecentBookingsWithDetails(PageRequest.of(0, 10));
 
         return bookings.stream()
                 .map(booking -> RecentBookingDto.builder()
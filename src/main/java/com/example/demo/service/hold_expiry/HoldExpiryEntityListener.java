@@ -0,0 +1,58 @@
+package com.example.demo.service.hold_expiry;
+
+import com.example.demo.dto.booking.BookingStatus;
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.Payment;
+import com.example.demo.service.booking.BookingHoldExpirer;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Đặt hạn lên bánh xe ngay khi booking tạm giữ / chờ xác nhận / payment có QR được lưu, ở mọi đường tạo/gia hạn.
+ * Chạy lúc flush (trước commit): nếu transaction rollback thì tới hạn sẽ không tìm thấy bản ghi và bỏ qua.
+ */
+@Component
+public class HoldExpiryEntityListener {
+
+    // Provider vì listener được Hibernate tạo sớm và test @DataJpaTest không có service này
+    private final ObjectProvider<HoldExpiryService> holdExpiryService;
+    private final ObjectProvider<BookingHoldExpirer> bookingHoldExpirer;
+
+    public HoldExpiryEntityListener(ObjectProvider<HoldExpiryService> holdExpiryService,
+                                    ObjectProvider<BookingHoldExpirer> bookingHoldExpirer) {
+        this.holdExpiryService = holdExpiryService;
+        this.bookingHoldExpirer = bookingHoldExpirer;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        HoldExpiryService service = holdExpiryService.getIfAvailable();
+        if (service == null) {
+            return;
+        }
+        if (entity instanceof Booking booking) {
+            BookingHoldExpirer expirer = bookingHoldExpirer.getIfAvailable();
+            if (BookingStatus.TEMPORARY.equals(booking.getStatus()) && expirer != null) {
+                service.schedule(HoldType.BOOKING_HOLD, booking.getId(), expirer.expiresAt(booking.getBookingDate()));
+            } else {
+                service.cancel(HoldType.BOOKING_HOLD, booking.getId());
+            }
+            // Thanh toán thành công sau đó không đổi booking nên không hủy hạn ở đây; lúc tới hạn sẽ kiểm tra lại
+            if (BookingStatus.PENDING.equals(booking.getStatus()) && expirer != null) {
+                service.schedule(HoldType.PENDING_CONFIRMATION, booking.getId(),
+                        expirer.pendingExpiresAt(booking.getBookingDate()));
+            } else {
+                service.cancel(HoldType.PENDING_CONFIRMATION, booking.getId());
+            }
+        } else if (entity instanceof Payment payment) {
+            if (payment.isPending() && payment.getQrExpiryTime() != null) {
+                service.schedule(HoldType.PAYMENT_QR, payment.getId(), payment.getQrExpiryTime());
+            } else {
+                service.cancel(HoldType.PAYMENT_QR, payment.getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.demo.service.hold_expiry;
+
+import java.time.LocalDateTime;
+
+public interface HoldExpiryService {
+
+    // Đặt (hoặc đổi) thời điểm hết hạn của một booking tạm giữ / mã QR
+    void schedule(HoldType type, Long id, LocalDateTime expiresAt);
+
+    void cancel(HoldType type, Long id);
+
+    // Số hạn đang chờ trên bánh xe
+    int getScheduledCount();
+}
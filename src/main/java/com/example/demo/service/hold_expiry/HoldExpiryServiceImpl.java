@@ -0,0 +1,164 @@
+package com.example.demo.service.hold_expiry;
+
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.Payment;
+import com.example.demo.entity.PaymentHistory;
+import com.example.demo.repository.BookingRepository;
+import com.example.demo.repository.PaymentHistoryRepository;
+import com.example.demo.repository.PaymentRepository;
+import com.example.demo.service.booking.BookingHoldExpirer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hết hạn booking tạm giữ, booking chờ xác nhận chưa thanh toán và mã QR đúng thời điểm thay vì chờ job quét bảng định kỳ.
+ * Mỗi hạn được đặt lên TimingWheel lúc tạo (qua HoldExpiryEntityListener) và nạp lại từ DB khi khởi động;
+ * một thread nền quay bánh xe mỗi tick và xử lý các hạn tới lượt, mỗi hạn một transaction riêng.
+ * Xử lý kiểm tra lại trạng thái trong DB nên hạn đã thanh toán/hủy hoặc bị chạy hai lần đều vô hại.
+ * Job quét trong BookingServiceImpl vẫn chạy thưa làm lưới an toàn.
+ */
+@Service
+@Slf4j
+public class HoldExpiryServiceImpl implements HoldExpiryService {
+
+    private static final long TICK_MILLIS = 1000;
+    // 1024 tick ~ 17 phút: hạn 15 phút của booking/QR nằm gọn trong một vòng
+    private static final int WHEEL_SIZE = 1024;
+
+    private final BookingRepository bookingRepository;
+    private final PaymentRepository paymentRepository;
+    private final PaymentHistoryRepository paymentHistoryRepository;
+    private final BookingHoldExpirer bookingHoldExpirer;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    private final TimingWheel<HoldKey> wheel = new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hold-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record HoldKey(HoldType type, Long id) {
+    }
+
+    public HoldExpiryServiceImpl(BookingRepository bookingRepository, PaymentRepository paymentRepository,
+                                 PaymentHistoryRepository paymentHistoryRepository,
+                                 BookingHoldExpirer bookingHoldExpirer, EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.paymentRepository = paymentRepository;
+        this.paymentHistoryRepository = paymentHistoryRepository;
+        this.bookingHoldExpirer = bookingHoldExpirer;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        ticker.scheduleWithFixedDelay(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // DB chưa sẵn sàng: các hạn cũ sẽ do job quét an toàn xử lý
+            log.warn("Không nạp được các hạn tạm giữ khi khởi động: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Nạp lại toàn bộ hạn còn mở từ DB (booking tạm giữ, booking chờ xác nhận, payment chờ thanh toán có QR).
+     */
+    public void rebuild() {
+        List<Object[]> holds = bookingRepository.findTemporaryBookingDates();
+        for (Object[] row : holds) {
+            schedule(HoldType.BOOKING_HOLD, (Long) row[0], bookingHoldExpirer.expiresAt((LocalDateTime) row[1]));
+        }
+        List<Object[]> pending = bookingRepository.findPendingConfirmationBookingDates();
+        for (Object[] row : pending) {
+            schedule(HoldType.PENDING_CONFIRMATION, (Long) row[0], bookingHoldExpirer.pendingExpiresAt((LocalDateTime) row[1]));
+        }
+        List<Object[]> qrs = paymentRepository.findPendingQrExpiryTimes();
+        for (Object[] row : qrs) {
+            schedule(HoldType.PAYMENT_QR, (Long) row[0], (LocalDateTime) row[1]);
+        }
+        log.info("Đã nạp {} booking tạm giữ, {} booking chờ xác nhận và {} mã QR lên bánh xe hết hạn",
+                holds.size(), pending.size(), qrs.size());
+    }
+
+    @Override
+    public void schedule(HoldType type, Long id, LocalDateTime expiresAt) {
+        if (id == null || expiresAt == null) {
+            return;
+        }
+        wheel.schedule(new HoldKey(type, id), expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    @Override
+    public void cancel(HoldType type, Long id) {
+        if (id != null) {
+            wheel.cancel(new HoldKey(type, id));
+        }
+    }
+
+    @Override
+    public int getScheduledCount() {
+        return wheel.size();
+    }
+
+    private void tick() {
+        for (HoldKey key : wheel.advance(System.currentTimeMillis())) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> expire(key));
+            } catch (Exception e) {
+                // Lỗi một hạn không chặn các hạn khác; job quét an toàn sẽ thử lại
+                log.warn("Không xử lý được hạn {} #{}: {}", key.type(), key.id(), e.getMessage());
+            }
+        }
+    }
+
+    private void expire(HoldKey key) {
+        switch (key.type()) {
+            case BOOKING_HOLD -> {
+                Booking booking = entityManager.find(Booking.class, key.id(), LockModeType.PESSIMISTIC_WRITE);
+                if (booking != null && bookingHoldExpirer.isExpiredHold(booking)) {
+                    bookingHoldExpirer.expire(booking);
+                    log.info("Booking tạm giữ #{} hết hạn, trạng thái mới: {}", booking.getId(), booking.getStatus());
+                }
+            }
+            case PENDING_CONFIRMATION -> {
+                Booking booking = entityManager.find(Booking.class, key.id(), LockModeType.PESSIMISTIC_WRITE);
+                if (booking != null && bookingHoldExpirer.isExpiredPending(booking)) {
+                    bookingHoldExpirer.expirePending(booking);
+                    log.info("Booking chờ xác nhận #{} quá hạn chưa thanh toán, đã hủy", booking.getId());
+                }
+            }
+            case PAYMENT_QR -> {
+                Payment payment = entityManager.find(Payment.class, key.id(), LockModeType.PESSIMISTIC_WRITE);
+                if (payment != null && payment.isPending() && payment.isExpired()) {
+                    payment.setPaymentStatus("Đã hết hạn");
+                    paymentHistoryRepository.save(PaymentHistory.updateRecord(payment, "Mã QR hết hạn"));
+                    log.info("Mã QR của payment #{} hết hạn", payment.getId());
+                }
+            }
+        }
+    }
+}
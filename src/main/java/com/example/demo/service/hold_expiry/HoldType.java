@@ -0,0 +1,10 @@
+package com.example.demo.service.hold_expiry;
+
+public enum HoldType {
+    // Booking "Tạm giữ chỗ" giữ phòng trong TEMPORARY_BOOKING_EXPIRE_MINUTES kể từ lúc đặt
+    BOOKING_HOLD,
+    // Booking "Chờ xác nhận" chưa có thanh toán thành công, bị hủy sau PENDING_BOOKING_EXPIRE_MINUTES kể từ lúc đặt
+    PENDING_CONFIRMATION,
+    // Mã QR MoMo của payment "Chờ thanh toán", hết hạn theo qrExpiryTime
+    PAYMENT_QR
+}
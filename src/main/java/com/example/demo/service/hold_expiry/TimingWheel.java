@@ -0,0 +1,94 @@
+package com.example.demo.service.hold_expiry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bánh xe thời gian băm (hashed timing wheel): vòng gồm wheelSize ô, mỗi ô ứng với một tick,
+ * khóa rơi vào ô theo tick hết hạn. Thêm/đổi hạn/hủy O(1); mỗi tick chỉ duyệt một ô,
+ * khóa có hạn xa hơn một vòng quay nằm lại ô đó tới vòng sau (so tick hết hạn thay vì đếm số vòng).
+ * Không bao giờ bắn sớm: hạn được làm tròn lên tick kế tiếp.
+ */
+public class TimingWheel<K> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Set<K>> slots;
+    private final Map<K, Long> deadlineTicks = new HashMap<>();
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis phải > 0");
+        }
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize phải là lũy thừa của 2");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.slots = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            slots.add(new HashSet<>());
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Đặt (hoặc đổi) hạn của khóa. Hạn đã qua thì bắn ở lần advance kế tiếp.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long deadlineTick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        deadlineTicks.put(key, deadlineTick);
+        slots.get(slotOf(deadlineTick)).add(key);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Long deadlineTick = deadlineTicks.remove(key);
+        if (deadlineTick == null) {
+            return false;
+        }
+        slots.get(slotOf(deadlineTick)).remove(key);
+        return true;
+    }
+
+    /**
+     * Quay bánh xe tới nowMillis và trả các khóa đã tới hạn (đã gỡ khỏi bánh xe).
+     * Bị trễ nhiều tick (GC, máy ngủ) thì chỉ duyệt tối đa một vòng vì khi đó mọi ô đều đã được xét.
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        if (nowTick <= currentTick) {
+            return List.of();
+        }
+
+        List<K> due = new ArrayList<>();
+        long steps = Math.min(nowTick - currentTick, slots.size());
+        for (long tick = currentTick + 1; tick <= currentTick + steps; tick++) {
+            Iterator<K> iterator = slots.get(slotOf(tick)).iterator();
+            while (iterator.hasNext()) {
+                K key = iterator.next();
+                if (deadlineTicks.get(key) <= nowTick) {
+                    iterator.remove();
+                    deadlineTicks.remove(key);
+                    due.add(key);
+                }
+            }
+        }
+        currentTick = nowTick;
+        return due;
+    }
+
+    public synchronized int size() {
+        return deadlineTicks.size();
+    }
+
+    private int slotOf(long tick) {
+        return (int) (tick & mask);
+    }
+}
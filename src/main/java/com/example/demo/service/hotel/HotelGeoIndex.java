@@ -0,0 +1,186 @@
+package com.example.demo.service.hotel;
+
+import com.example.demo.entity.Hotel;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.repository.HotelRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index không gian trong bộ nhớ cho tọa độ khách sạn.
+ * Chia bề mặt thành lưới ô cố định (CELL_SIZE_DEG độ), mỗi ô giữ id các khách sạn nằm trong đó.
+ * Truy vấn theo bán kính chỉ duyệt các ô giao với hình bao của vòng tròn rồi tính Haversine cho ứng viên.
+ */
+@Component
+@RequiredArgsConstructor
+public class HotelGeoIndex {
+    private static final Logger log = LoggerFactory.getLogger(HotelGeoIndex.class);
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+    // ~11km theo vĩ độ: đủ nhỏ để lọc nhanh trong thành phố, đủ lớn để bán kính vài chục km chỉ chạm vài chục ô
+    private static final double CELL_SIZE_DEG = 0.1;
+
+    private final HotelRepository hotelRepository;
+
+    private final Map<Long, GeoPoint> points = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+
+    public record GeoPoint(double latitude, double longitude) {
+    }
+
+    public record GeoHit(Long hotelId, double latitude, double longitude, double distanceKm) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // Không chặn khởi động khi DB chưa sẵn sàng, index sẽ được nạp lại ở truy vấn đầu tiên
+            log.warn("Không thể nạp geo index khi khởi động: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Nạp lại toàn bộ index từ DB.
+     */
+    public synchronized void rebuild() {
+        List<Hotel> hotels = hotelRepository.findByIsActiveTrue();
+        points.clear();
+        cells.clear();
+        hotels.forEach(this::put);
+        loaded = true;
+        log.info("Đã nạp geo index với {} khách sạn", points.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getResourceType() != CatalogChangedEvent.ResourceType.HOTEL || !loaded) {
+            return;
+        }
+        remove(event.getResourceId());
+        if (!event.isDeleted() && event.getSource() instanceof Hotel hotel) {
+            put(hotel);
+        }
+    }
+
+    /**
+     * Trả về các khách sạn trong bán kính radiusKm, sắp xếp theo khoảng cách tăng dần.
+     */
+    public List<GeoHit> findWithinRadius(double latitude, double longitude, double radiusKm) {
+        ensureLoaded();
+
+        double latDelta = radiusKm / KM_PER_DEGREE_LAT;
+        double cosLat = Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+        double lngDelta = Math.min(radiusKm / (KM_PER_DEGREE_LAT * cosLat), 180.0);
+
+        int minLatCell = cellIndex(Math.max(latitude - latDelta, -90.0));
+        int maxLatCell = cellIndex(Math.min(latitude + latDelta, 90.0));
+        int minLngCell = cellIndex(longitude - lngDelta);
+        int maxLngCell = cellIndex(longitude + lngDelta);
+
+        long cellCount = (long) (maxLatCell - minLatCell + 1) * (maxLngCell - minLngCell + 1);
+        Collection<Long> candidates;
+        if (cellCount > points.size()) {
+            // Bán kính quá lớn so với số khách sạn: duyệt thẳng còn rẻ hơn duyệt ô
+            candidates = points.keySet();
+        } else {
+            candidates = new HashSet<>();
+            for (int latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+                for (int lngCell = minLngCell; lngCell <= maxLngCell; lngCell++) {
+                    Set<Long> ids = cells.get(cellKey(latCell, wrapLngCell(lngCell)));
+                    if (ids != null) {
+                        candidates.addAll(ids);
+                    }
+                }
+            }
+        }
+
+        List<GeoHit> hits = new ArrayList<>();
+        for (Long hotelId : candidates) {
+            GeoPoint point = points.get(hotelId);
+            if (point == null) {
+                continue;
+            }
+            double distance = haversineKm(latitude, longitude, point.latitude(), point.longitude());
+            if (distance <= radiusKm) {
+                hits.add(new GeoHit(hotelId, point.latitude(), point.longitude(), distance));
+            }
+        }
+        hits.sort(Comparator.comparingDouble(GeoHit::distanceKm));
+        return hits;
+    }
+
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            rebuild();
+        }
+    }
+
+    private void put(Hotel hotel) {
+        if (hotel.getId() == null || !Boolean.TRUE.equals(hotel.getIsActive())
+                || hotel.getLatitude() == null || hotel.getLongitude() == null) {
+            return;
+        }
+        GeoPoint point = new GeoPoint(hotel.getLatitude().doubleValue(), hotel.getLongitude().doubleValue());
+        points.put(hotel.getId(), point);
+        cells.computeIfAbsent(cellKey(point), key -> ConcurrentHashMap.newKeySet()).add(hotel.getId());
+    }
+
+    private void remove(Long hotelId) {
+        if (hotelId == null) {
+            return;
+        }
+        GeoPoint previous = points.remove(hotelId);
+        if (previous != null) {
+            cells.computeIfPresent(cellKey(previous), (key, ids) -> {
+                ids.remove(hotelId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static long cellKey(GeoPoint point) {
+        return cellKey(cellIndex(point.latitude()), wrapLngCell(cellIndex(point.longitude())));
+    }
+
+    private static long cellKey(int latCell, int lngCell) {
+        return ((long) latCell << 32) | (lngCell & 0xffffffffL);
+    }
+
+    private static int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / CELL_SIZE_DEG);
+    }
+
+    // Đưa chỉ số ô kinh độ về khoảng [-180, 180) để truy vấn gần kinh tuyến 180 không bị hụt
+    private static int wrapLngCell(int lngCell) {
+        int cellsPerCircle = (int) Math.round(360.0 / CELL_SIZE_DEG);
+        int half = cellsPerCircle / 2;
+        return Math.floorMod(lngCell + half, cellsPerCircle) - half;
+    }
+}
@@ -3,8 +3,12 @@ package com.example.demo.service.hotel;
 import com.example.demo.dto.hotel.HotelRequest;
 import com.example.demo.dto.hotel.HotelResponse;
 import com.example.demo.entity.Hotel;
+import com.example.demo.utils.FieldSelection;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface HotelService {
     Hotel createHotel(HotelRequest request);
@@ -15,8 +19,22 @@ public interface HotelService {
 
     HotelResponse getHotelById(Long id);
 
-    public List<HotelResponse> getAllHotelsBasic();
+    List<HotelResponse> getHotelsByIds(List<Long> ids);
 
-    List<HotelResponse> filterHotels(String cityName, Double minPrice, Double maxPrice, Double minRating, List<Long> amenityIds, Integer numberOfGuests);
+    public List<HotelResponse> getAllHotelsBasic(FieldSelection fields);
+
+    void streamAllHotelsBasic(FieldSelection fields, Consumer<HotelResponse> consumer);
+
+    // Đồng bộ delta: since = null thì trả toàn bộ
+    List<HotelResponse> getHotelsChangedSince(LocalDateTime since);
+
+    // checkInDate/checkOutDate (tùy chọn, đi cùng nhau): chỉ trả khách sạn còn phòng trong kỳ ở, kèm minAvailablePrice
+    List<HotelResponse> filterHotels(String cityName, Double minPrice, Double maxPrice, Double minRating, List<Long> amenityIds,
+                                     Integer numberOfGuests, LocalDate checkInDate, LocalDate checkOutDate);
+
+    List<HotelResponse> findNearbyHotels(double latitude, double longitude, double radiusKm, int limit,
+                                         String cityName, Double minPrice, Double maxPrice, Double minRating,
+                                         List<Long> amenityIds, Integer numberOfGuests,
+                                         LocalDate checkInDate, LocalDate checkOutDate);
 
 }
@@ -5,19 +5,37 @@ import com.example.demo.dto.hotel.HotelRequest;
 import com.example.demo.dto.hotel.HotelResponse;
 import com.example.demo.dto.hotel_image.HotelImageRequest;
 import com.example.demo.dto.hotel_image.HotelImageResponse;
+import com.example.demo.dto.location.LocationResponse;
 import com.example.demo.dto.room_type.RoomTypeResponse;
 import com.example.demo.entity.*;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.monitoring.BookingFunnelMetrics;
 import com.example.demo.repository.*;
+import com.example.demo.service.pricing.RoomPriceCalendar;
+import com.example.demo.utils.FieldSelection;
 import com.example.demo.utils.ImageUtils;
-import jakarta.transaction.Transactional;
+import com.example.demo.utils.VietnameseTextUtils;
+import com.example.demo.utils.StreamUtils;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.example.demo.utils.ImageUtils.saveBase64Image;
@@ -29,7 +47,21 @@ public class HotelServiceImpl implements HotelService {
     private final LocationRepository locationRepository;
     private final AmenityRepository amenityRepository;
     private final HotelImageRepository hotelImageRepository;
+    private final RoomTypeRepository roomTypeRepository;
+    private final ReviewRepository reviewRepository;
     private final ModelMapper modelMapper;
+    private final HotelGeoIndex hotelGeoIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final RoomRepository roomRepository;
+    private final RoomPriceCalendar roomPriceCalendar;
+
+    private static final double MAX_NEARBY_RADIUS_KM = 200.0;
+    private static final int MAX_NEARBY_LIMIT = 100;
+    // Số khách sạn trong bán kính nạp và lọc mỗi lượt khi tìm theo vị trí
+    private static final int NEARBY_CHUNK_SIZE = 100;
+    private static final int STREAM_BATCH_SIZE = 200;
+    private static final int MAX_BATCH_IDS = 50;
 
     @Override
     public Hotel createHotel(HotelRequest request) {
@@ -77,14 +109,25 @@ public class HotelServiceImpl implements HotelService {
             savedHotel.setImages(hotelImages);
         }
 
+        eventPublisher.publishEvent(new CatalogChangedEvent(savedHotel, CatalogChangedEvent.ResourceType.HOTEL,
+                savedHotel.getId(), CatalogChangedEvent.Action.CREATED));
         return savedHotel;
     }
 
     @Override
+    @Transactional
     public void deleteHotel(Long id) {
         Hotel hotel = hotelRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy khách sạn với ID: " + id));
+        // Loại phòng bị xóa theo cascade, phát sự kiện riêng để client đồng bộ cũng xóa chúng
+        List<RoomType> roomTypes = new ArrayList<>(hotel.getRoomTypes());
         hotelRepository.delete(hotel);
+        for (RoomType roomType : roomTypes) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(roomType, CatalogChangedEvent.ResourceType.ROOM_TYPE,
+                    roomType.getId(), CatalogChangedEvent.Action.DELETED));
+        }
+        eventPublisher.publishEvent(new CatalogChangedEvent(hotel, CatalogChangedEvent.ResourceType.HOTEL,
+                id, CatalogChangedEvent.Action.DELETED));
     }
 
     @Override
@@ -233,6 +276,8 @@ public class HotelServiceImpl implements HotelService {
             System.out.println("🔍 Saving hotel to database...");
             Hotel savedHotel = hotelRepository.save(hotel);
             System.out.println("✅ Hotel saved successfully");
+            eventPublisher.publishEvent(new CatalogChangedEvent(savedHotel, CatalogChangedEvent.ResourceType.HOTEL,
+                    savedHotel.getId(), CatalogChangedEvent.Action.UPDATED));
 
             System.out.println("🔍 === UPDATE HOTEL COMPLETED ===");
             return savedHotel;
@@ -298,40 +343,352 @@ public class HotelServiceImpl implements HotelService {
         return response;
     }
 
+    /**
+     * Lấy chi tiết nhiều khách sạn một lần (cùng dạng với getHotelById).
+     * Số câu truy vấn cố định (khách sạn, ảnh, tiện nghi, loại phòng, thống kê đánh giá) bất kể số id,
+     * thay vì mỗi khách sạn một lượt findById cộng các lần nạp lazy.
+     */
     @Override
-    public List<HotelResponse> getAllHotelsBasic() {
+    @Transactional(readOnly = true)
+    public List<HotelResponse> getHotelsByIds(List<Long> ids) {
+        List<Long> distinctIds = ids == null ? new ArrayList<>() : ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        if (distinctIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (distinctIds.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("Chỉ được lấy tối đa " + MAX_BATCH_IDS + " khách sạn mỗi lần");
+        }
+
+        Map<Long, Hotel> hotels = hotelRepository.findAllWithLocationByIdIn(distinctIds).stream()
+                .collect(Collectors.toMap(Hotel::getId, Function.identity()));
+
+        Map<Long, List<HotelImage>> imagesByHotel = hotelImageRepository.findByHotel_IdIn(distinctIds).stream()
+                .collect(Collectors.groupingBy(image -> image.getHotel().getId()));
+
+        Map<Long, List<Amenity>> amenitiesByHotel = new HashMap<>();
+        for (Object[] row : hotelRepository.findAmenitiesByHotelIds(distinctIds)) {
+            amenitiesByHotel.computeIfAbsent((Long) row[0], key -> new ArrayList<>()).add((Amenity) row[1]);
+        }
+
+        Map<Long, List<RoomType>> roomTypesByHotel = roomTypeRepository.findByHotel_IdIn(distinctIds).stream()
+                .collect(Collectors.groupingBy(roomType -> roomType.getHotel().getId()));
+
+        Map<Long, Object[]> ratingStats = new HashMap<>();
+        for (Object[] row : reviewRepository.findRatingStatsByHotelIds(distinctIds)) {
+            ratingStats.put((Long) row[0], row);
+        }
+
+        // Giữ thứ tự id client gửi, bỏ qua id không tồn tại
+        List<HotelResponse> responses = new ArrayList<>();
+        for (Long id : distinctIds) {
+            Hotel hotel = hotels.get(id);
+            if (hotel == null) {
+                continue;
+            }
+            HotelResponse response = convertToDetailResponse(hotel,
+                    imagesByHotel.getOrDefault(id, List.of()),
+                    amenitiesByHotel.getOrDefault(id, List.of()),
+                    roomTypesByHotel.getOrDefault(id, List.of()));
+            Object[] stats = ratingStats.get(id);
+            response.setAverageRating(stats != null ? ((Number) stats[1]).doubleValue() : 0.0);
+            response.setReviewCount(stats != null ? ((Number) stats[2]).intValue() : 0);
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    // Map các trường của khách sạn từ dữ liệu đã nạp sẵn, không chạm vào collection lazy của entity
+    private HotelResponse convertToDetailResponse(Hotel hotel, List<HotelImage> images, List<Amenity> amenities,
+                                                  List<RoomType> roomTypes) {
+        HotelResponse response = new HotelResponse();
+        response.setId(hotel.getId());
+        response.setHotelName(hotel.getHotelName());
+        response.setAddress(hotel.getAddress());
+        response.setDescription(hotel.getDescription());
+        response.setStarRating(hotel.getStarRating());
+        response.setPhoneNumber(hotel.getPhoneNumber());
+        response.setEmail(hotel.getEmail());
+        response.setWebsite(hotel.getWebsite());
+        response.setDistanceToBeach(hotel.getDistanceToBeach());
+        response.setHotelCategory(hotel.getHotelCategory());
+        response.setPropertyType(hotel.getPropertyType());
+        response.setIsActive(hotel.getIsActive());
+        response.setLatitude(hotel.getLatitude() != null ? hotel.getLatitude().doubleValue() : null);
+        response.setLongitude(hotel.getLongitude() != null ? hotel.getLongitude().doubleValue() : null);
+        if (hotel.getLocation() != null) {
+            response.setLocation(modelMapper.map(hotel.getLocation(), LocationResponse.class));
+        }
+        if (hotel.getCheckInTime() != null) {
+            response.setCheckInTime(hotel.getCheckInTime().toString());
+        }
+        if (hotel.getCheckOutTime() != null) {
+            response.setCheckOutTime(hotel.getCheckOutTime().toString());
+        }
+
+        if (!images.isEmpty()) {
+            response.setImages(images.stream()
+                    .map(image -> modelMapper.map(image, HotelImageResponse.class))
+                    .collect(Collectors.toList()));
+        }
+        if (!amenities.isEmpty()) {
+            response.setAmenities(amenities.stream()
+                    .map(amenity -> modelMapper.map(amenity, AmenityResponse.class))
+                    .collect(Collectors.toList()));
+        }
+        if (!roomTypes.isEmpty()) {
+            response.setRoomTypes(roomTypes.stream()
+                    .map(roomType -> modelMapper.map(roomType, RoomTypeResponse.class))
+                    .collect(Collectors.toList()));
+        }
+        return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<HotelResponse> getAllHotelsBasic(FieldSelection fields) {
         List<Hotel> hotels = hotelRepository.findAll();
         return hotels.stream()
-                .map(this::convertToBasicResponse)
+                .map(hotel -> convertToBasicResponse(hotel, fields))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllHotelsBasic(FieldSelection fields, Consumer<HotelResponse> consumer) {
+        StreamUtils.forEachDetaching(hotelRepository.streamAll(), entityManager, STREAM_BATCH_SIZE,
+                hotel -> consumer.accept(convertToBasicResponse(hotel, fields)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<HotelResponse> getHotelsChangedSince(LocalDateTime since) {
+        List<Hotel> hotels = since != null
+                ? hotelRepository.findByUpdatedAtGreaterThanEqual(since)
+                : hotelRepository.findAll();
+        return hotels.stream()
+                .map(hotel -> {
+                    HotelResponse response = convertToBasicResponse(hotel);
+                    // Client cần biết khách sạn bị ẩn để gỡ khỏi danh sách
+                    response.setIsActive(hotel.getIsActive());
+                    return response;
+                })
                 .collect(Collectors.toList());
     }
 
     @Override
-    public List<HotelResponse> filterHotels(String cityName, Double minPrice, Double maxPrice, Double minRating, List<Long> amenityIds, Integer numberOfGuests) {
-        return hotelRepository.findAll().stream()
-                .filter(hotel -> hotel.getIsActive() != null && hotel.getIsActive())
-                .filter(hotel -> cityName == null || (hotel.getLocation() != null &&
-                        hotel.getLocation().getCityName() != null &&
-                        hotel.getLocation().getCityName().toLowerCase().contains(cityName.toLowerCase())))
-                .filter(hotel -> minPrice == null || (hotel.getRoomTypes() != null &&
-                        hotel.getRoomTypes().stream().anyMatch(rt -> rt.getBasePrice() != null &&
-                                rt.getBasePrice().doubleValue() >= minPrice)))
-                .filter(hotel -> maxPrice == null || (hotel.getRoomTypes() != null &&
-                        hotel.getRoomTypes().stream().anyMatch(rt -> rt.getBasePrice() != null &&
-                                rt.getBasePrice().doubleValue() <= maxPrice)))
-                .filter(hotel -> minRating == null || (hotel.getReviews() != null && !hotel.getReviews().isEmpty() &&
-                        hotel.getReviews().stream().mapToDouble(r -> r.getRating().doubleValue()).average().orElse(0.0) >= minRating))
-                .filter(hotel -> amenityIds == null || amenityIds.isEmpty() || (hotel.getAmenities() != null &&
-                        hotel.getAmenities().stream().anyMatch(a -> amenityIds.contains(a.getId()))))
-                .filter(hotel -> numberOfGuests == null || (hotel.getRoomTypes() != null &&
-                        hotel.getRoomTypes().stream().anyMatch(rt -> rt.getMaxOccupancy() != null &&
-                                rt.getMaxOccupancy() >= numberOfGuests)))
-                .map(this::convertToBasicResponse)
+    @Transactional(readOnly = true)
+    @Timed(value = BookingFunnelMetrics.OPERATION_TIMER, extraTags = {"operation", "hotel.filter"}, histogram = true)
+    public List<HotelResponse> filterHotels(String cityName, Double minPrice, Double maxPrice, Double minRating, List<Long> amenityIds,
+                                            Integer numberOfGuests, LocalDate checkInDate, LocalDate checkOutDate) {
+        boolean byDates = validateStayDates(checkInDate, checkOutDate);
+        List<Hotel> allHotels = hotelRepository.findAll();
+        HotelFilterData filterData = loadFilterData(allHotels, minPrice, maxPrice, minRating, amenityIds, numberOfGuests);
+        List<Hotel> hotels = allHotels.stream()
+                .filter(hotel -> matchesFilter(hotel, filterData, cityName, minPrice, maxPrice, minRating, amenityIds, numberOfGuests))
                 .collect(Collectors.toList());
+        if (!byDates) {
+            return hotels.stream()
+                    .map(this::convertToBasicResponse)
+                    .collect(Collectors.toList());
+        }
+
+        Map<Long, BigDecimal> minPrices = minAvailablePrices(hotels, checkInDate, checkOutDate, numberOfGuests);
+        List<HotelResponse> result = new ArrayList<>();
+        for (Hotel hotel : hotels) {
+            BigDecimal minAvailablePrice = minPrices.get(hotel.getId());
+            if (minAvailablePrice == null) {
+                continue;
+            }
+            HotelResponse response = convertToBasicResponse(hotel);
+            response.setMinAvailablePrice(minAvailablePrice);
+            result.add(response);
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<HotelResponse> findNearbyHotels(double latitude, double longitude, double radiusKm, int limit,
+                                                String cityName, Double minPrice, Double maxPrice, Double minRating,
+                                                List<Long> amenityIds, Integer numberOfGuests,
+                                                LocalDate checkInDate, LocalDate checkOutDate) {
+        boolean byDates = validateStayDates(checkInDate, checkOutDate);
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Tọa độ không hợp lệ");
+        }
+        if (radiusKm <= 0 || radiusKm > MAX_NEARBY_RADIUS_KM) {
+            throw new IllegalArgumentException("Bán kính phải trong khoảng (0, " + MAX_NEARBY_RADIUS_KM + "] km");
+        }
+        int topK = Math.min(Math.max(limit, 1), MAX_NEARBY_LIMIT);
+
+        List<HotelGeoIndex.GeoHit> hits = hotelGeoIndex.findWithinRadius(latitude, longitude, radiusKm);
+
+        // Lọc trước rồi mới cắt top-K: đi theo thứ tự khoảng cách từng lô, dừng khi đủ topK khách sạn khớp
+        List<HotelResponse> result = new ArrayList<>();
+        for (int from = 0; from < hits.size() && result.size() < topK; from += NEARBY_CHUNK_SIZE) {
+            List<HotelGeoIndex.GeoHit> chunk = hits.subList(from, Math.min(from + NEARBY_CHUNK_SIZE, hits.size()));
+            Map<Long, Hotel> hotelsById = hotelRepository.findAllWithLocationByIdIn(
+                            chunk.stream().map(HotelGeoIndex.GeoHit::hotelId).collect(Collectors.toList()))
+                    .stream()
+                    .collect(Collectors.toMap(Hotel::getId, Function.identity()));
+            HotelFilterData filterData = loadFilterData(new ArrayList<>(hotelsById.values()),
+                    minPrice, maxPrice, minRating, amenityIds, numberOfGuests);
+            List<HotelGeoIndex.GeoHit> matched = chunk.stream()
+                    .filter(hit -> {
+                        Hotel hotel = hotelsById.get(hit.hotelId());
+                        return hotel != null && matchesFilter(hotel, filterData, cityName, minPrice, maxPrice, minRating,
+                                amenityIds, numberOfGuests);
+                    })
+                    .collect(Collectors.toList());
+
+            // Lọc theo ngày: một truy vấn phòng trống cho mọi khách sạn của lô đã qua bộ lọc
+            Map<Long, BigDecimal> minPrices = byDates
+                    ? minAvailablePrices(matched.stream().map(hit -> hotelsById.get(hit.hotelId())).collect(Collectors.toList()),
+                            checkInDate, checkOutDate, numberOfGuests)
+                    : null;
+
+            for (HotelGeoIndex.GeoHit hit : matched) {
+                if (result.size() >= topK) {
+                    break;
+                }
+                Hotel hotel = hotelsById.get(hit.hotelId());
+                if (minPrices != null && !minPrices.containsKey(hotel.getId())) {
+                    continue;
+                }
+                HotelResponse response = convertToBasicResponse(hotel);
+                if (minPrices != null) {
+                    response.setMinAvailablePrice(minPrices.get(hotel.getId()));
+                }
+                response.setLatitude(hit.latitude());
+                response.setLongitude(hit.longitude());
+                response.setDistanceKm(Math.round(hit.distanceKm() * 100.0) / 100.0);
+                result.add(response);
+            }
+        }
+        return result;
+    }
+
+    // Ngày nhận/trả phòng phải đi cùng nhau; trả true khi có lọc theo ngày
+    private boolean validateStayDates(LocalDate checkInDate, LocalDate checkOutDate) {
+        if (checkInDate == null && checkOutDate == null) {
+            return false;
+        }
+        if (checkInDate == null || checkOutDate == null) {
+            throw new IllegalArgumentException("Phải truyền cả ngày nhận phòng và ngày trả phòng");
+        }
+        if (!checkOutDate.isAfter(checkInDate)) {
+            throw new IllegalArgumentException("Ngày trả phòng phải sau ngày nhận phòng");
+        }
+        if (checkInDate.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Ngày nhận phòng không được ở quá khứ");
+        }
+        return true;
+    }
+
+    /**
+     * Giá thấp nhất còn đặt được của từng khách sạn cho kỳ ở: một truy vấn gom phòng trống theo loại phòng
+     * cho mọi khách sạn, giá lấy từ lịch giá trong bộ nhớ. Khách sạn không còn phòng nào thì không có trong map.
+     */
+    private Map<Long, BigDecimal> minAvailablePrices(List<Hotel> hotels, LocalDate checkInDate, LocalDate checkOutDate,
+                                                     Integer numberOfGuests) {
+        Map<Long, BigDecimal> minPrices = new HashMap<>();
+        if (hotels.isEmpty()) {
+            return minPrices;
+        }
+        List<Long> hotelIds = hotels.stream().map(Hotel::getId).collect(Collectors.toList());
+        for (Object[] row : roomRepository.countAvailableRoomsByHotelsAndDates(hotelIds, checkInDate, checkOutDate, numberOfGuests)) {
+            BigDecimal stayTotal = roomPriceCalendar.stayTotal((Long) row[1], checkInDate, checkOutDate);
+            minPrices.merge((Long) row[0], stayTotal, BigDecimal::min);
+        }
+        return minPrices;
+    }
+
+    // Dữ liệu cho bộ lọc của nhiều khách sạn, theo hotelId
+    private record HotelFilterData(Map<Long, List<RoomTypeFacts>> roomTypes, Map<Long, Set<Long>> amenityIds,
+                                   Map<Long, Double> averageRatings) {
+    }
+
+    private record RoomTypeFacts(BigDecimal basePrice, Integer maxOccupancy) {
+    }
+
+    /**
+     * Nạp dữ liệu cho các bộ lọc đang dùng bằng một truy vấn gom mỗi loại, thay vì duyệt collection lazy
+     * (roomTypes, amenities, reviews) của từng khách sạn
+     */
+    private HotelFilterData loadFilterData(List<Hotel> hotels, Double minPrice, Double maxPrice, Double minRating,
+                                           List<Long> amenityIds, Integer numberOfGuests) {
+        List<Long> hotelIds = hotels.stream().map(Hotel::getId).collect(Collectors.toList());
+        Map<Long, List<RoomTypeFacts>> roomTypes = new HashMap<>();
+        Map<Long, Set<Long>> amenities = new HashMap<>();
+        Map<Long, Double> averageRatings = new HashMap<>();
+        if (hotelIds.isEmpty()) {
+            return new HotelFilterData(roomTypes, amenities, averageRatings);
+        }
+        if (minPrice != null || maxPrice != null || numberOfGuests != null) {
+            for (Object[] row : roomTypeRepository.findPriceAndOccupancyByHotelIds(hotelIds)) {
+                roomTypes.computeIfAbsent((Long) row[0], key -> new ArrayList<>())
+                        .add(new RoomTypeFacts((BigDecimal) row[1], (Integer) row[2]));
+            }
+        }
+        if (amenityIds != null && !amenityIds.isEmpty()) {
+            for (Object[] row : hotelRepository.findAmenitiesByHotelIds(hotelIds)) {
+                amenities.computeIfAbsent((Long) row[0], key -> new HashSet<>()).add(((Amenity) row[1]).getId());
+            }
+        }
+        if (minRating != null) {
+            for (Object[] row : reviewRepository.findRatingStatsByHotelIds(hotelIds)) {
+                averageRatings.put((Long) row[0], ((Number) row[1]).doubleValue());
+            }
+        }
+        return new HotelFilterData(roomTypes, amenities, averageRatings);
+    }
+
+    // Các điều kiện lọc dùng chung cho tìm kiếm thường và tìm kiếm theo vị trí
+    private boolean matchesFilter(Hotel hotel, HotelFilterData filterData, String cityName, Double minPrice,
+                                  Double maxPrice, Double minRating, List<Long> amenityIds, Integer numberOfGuests) {
+        if (hotel.getIsActive() == null || !hotel.getIsActive()) {
+            return false;
+        }
+        // So khớp không dấu: "da nang" khớp "Đà Nẵng"
+        if (cityName != null && (hotel.getLocation() == null ||
+                !VietnameseTextUtils.containsIgnoreAccents(hotel.getLocation().getCityName(), cityName))) {
+            return false;
+        }
+        List<RoomTypeFacts> roomTypes = filterData.roomTypes().getOrDefault(hotel.getId(), List.of());
+        if (minPrice != null && roomTypes.stream().noneMatch(rt -> rt.basePrice() != null &&
+                rt.basePrice().doubleValue() >= minPrice)) {
+            return false;
+        }
+        if (maxPrice != null && roomTypes.stream().noneMatch(rt -> rt.basePrice() != null &&
+                rt.basePrice().doubleValue() <= maxPrice)) {
+            return false;
+        }
+        if (minRating != null) {
+            Double averageRating = filterData.averageRatings().get(hotel.getId());
+            if (averageRating == null || averageRating < minRating) {
+                return false;
+            }
+        }
+        if (amenityIds != null && !amenityIds.isEmpty()) {
+            Set<Long> hotelAmenityIds = filterData.amenityIds().getOrDefault(hotel.getId(), Set.of());
+            if (amenityIds.stream().noneMatch(hotelAmenityIds::contains)) {
+                return false;
+            }
+        }
+        return numberOfGuests == null || roomTypes.stream().anyMatch(rt -> rt.maxOccupancy() != null &&
+                rt.maxOccupancy() >= numberOfGuests);
     }
 
     // Thêm phương thức private để tái sử dụng code
     private HotelResponse convertToBasicResponse(Hotel hotel) {
+        return convertToBasicResponse(hotel, FieldSelection.all());
+    }
+
+    // Ảnh và đánh giá là collection lazy, chỉ nạp khi client yêu cầu (fields=)
+    private HotelResponse convertToBasicResponse(Hotel hotel, FieldSelection fields) {
         HotelResponse response = new HotelResponse();
 
         // Map thông tin cơ bản
@@ -347,7 +704,7 @@ public class HotelServiceImpl implements HotelService {
         response.setLocation(null);
 
         // Chỉ lấy hình ảnh chính hoặc hình đầu tiên
-        if (hotel.getImages() != null && !hotel.getImages().isEmpty()) {
+        if (fields.includes("images") && hotel.getImages() != null && !hotel.getImages().isEmpty()) {
             List<HotelImageResponse> imageResponses = hotel.getImages().stream()
                     .map(image -> modelMapper.map(image, HotelImageResponse.class))
                     .collect(Collectors.toList());
@@ -355,16 +712,18 @@ public class HotelServiceImpl implements HotelService {
         }
 
         // Tính điểm đánh giá trung bình và số lượng đánh giá
-        if (hotel.getReviews() != null && !hotel.getReviews().isEmpty()) {
-            Double avgRating = hotel.getReviews().stream()
-                    .mapToDouble(review -> review.getRating().doubleValue())
-                    .average()
-                    .orElse(0.0);
-            response.setAverageRating(avgRating);
-            response.setReviewCount(hotel.getReviews().size());
-        } else {
-            response.setAverageRating(0.0);
-            response.setReviewCount(0);
+        if (fields.includesAny("averageRating", "reviewCount")) {
+            if (hotel.getReviews() != null && !hotel.getReviews().isEmpty()) {
+                Double avgRating = hotel.getReviews().stream()
+                        .mapToDouble(review -> review.getRating().doubleValue())
+                        .average()
+                        .orElse(0.0);
+                response.setAverageRating(avgRating);
+                response.setReviewCount(hotel.getReviews().size());
+            } else {
+                response.setAverageRating(0.0);
+                response.setReviewCount(0);
+            }
         }
 
         // Không map các trường không cần thiết
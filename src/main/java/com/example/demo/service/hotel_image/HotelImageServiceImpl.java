@@ -3,10 +3,12 @@ package com.example.demo.service.hotel_image;
 import com.example.demo.dto.hotel_image.HotelImageRequest;
 import com.example.demo.entity.Hotel;
 import com.example.demo.entity.HotelImage;
+import com.example.demo.event.CatalogChangedEvent;
 import com.example.demo.repository.HotelImageRepository;
 import com.example.demo.repository.HotelRepository;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
@@ -24,6 +26,7 @@ public class HotelImageServiceImpl implements HotelImageService {
     private final HotelRepository hotelRepository;
     private final HotelImageRepository hotelImageRepository;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PreAuthorize("hasRole('ADMIN')")
     @Override
@@ -37,6 +40,7 @@ public class HotelImageServiceImpl implements HotelImageService {
         image.setImageUrl(imageUrl);
 
         hotelImageRepository.save(image);
+        publishHotelChanged(hotel);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -49,11 +53,19 @@ public class HotelImageServiceImpl implements HotelImageService {
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy khách sạn"));
 
         String imageUrl = saveBase64Image(request.getImageUrl());
-        modelMapper.map(request, existingImage);
+
+        // Không dùng modelMapper ở đây: hotelId sẽ bị map vào id của khách sạn cũ
+        Hotel previousHotel = existingImage.getHotel();
         existingImage.setHotel(hotel);
+        existingImage.setCaption(request.getCaption());
+        existingImage.setIsPrimary(Boolean.TRUE.equals(request.getIsPrimary()));
         existingImage.setImageUrl(imageUrl);
 
         hotelImageRepository.save(existingImage);
+        publishHotelChanged(hotel);
+        if (previousHotel != null && !previousHotel.getId().equals(hotel.getId())) {
+            publishHotelChanged(previousHotel);
+        }
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -62,6 +74,15 @@ public class HotelImageServiceImpl implements HotelImageService {
         HotelImage image = hotelImageRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy ảnh"));
         hotelImageRepository.delete(image);
+        publishHotelChanged(image.getHotel());
+    }
+
+    // Ảnh là một phần của chi tiết khách sạn
+    private void publishHotelChanged(Hotel hotel) {
+        if (hotel != null) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(hotel, CatalogChangedEvent.ResourceType.HOTEL,
+                    hotel.getId(), CatalogChangedEvent.Action.UPDATED));
+        }
     }
 
 }
@@ -4,6 +4,7 @@ import com.example.demo.dto.location.LocationRequest;
 import com.example.demo.dto.location.LocationResponse;
 import com.example.demo.entity.Location;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface LocationService {
@@ -12,4 +13,6 @@ public interface LocationService {
     List<LocationResponse> getAllLocations();
 
     Location getLocationById(Long id);
+
+    List<LocationResponse> getLocationsChangedSince(LocalDateTime since);
 }
@@ -4,12 +4,15 @@ import com.example.demo.dto.location.LocationRequest;
 import com.example.demo.dto.location.LocationResponse;
 import com.example.demo.entity.Location;
 import com.example.demo.entity.Room;
+import com.example.demo.event.CatalogChangedEvent;
 import com.example.demo.repository.LocationRepository;
 import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,11 +23,15 @@ public class LocationServiceImpl implements LocationService {
     @Autowired
     private LocationRepository locationRepository;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Location createLocation(LocationRequest request) {
         Location location = modelMapper.map(request, Location.class);
-        return locationRepository.save(location);
+        Location saved = locationRepository.save(location);
+        eventPublisher.publishEvent(new CatalogChangedEvent(saved, CatalogChangedEvent.ResourceType.LOCATION,
+                saved.getId(), CatalogChangedEvent.Action.CREATED));
+        return saved;
     }
 
     @Override
@@ -32,22 +39,34 @@ public class LocationServiceImpl implements LocationService {
         List<Location> locations = locationRepository.findAll();
 
         return locations.stream()
-                .map(location -> {
-                    LocationResponse response = new LocationResponse();
-                    response.setId(location.getId());
-                    response.setCityName(location.getCityName());
-                    response.setProvince(location.getProvince());
-                    response.setCountry(location.getCountry());
-                    response.setDescription(location.getDescription());
-                    response.setImageUrl(location.getImageUrl());
-                    if (location.getPosition() != null) {
-                        response.setPosition(location.getPosition());
-                    }
-                    return response;
-                })
+                .map(this::convertToResponse)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<LocationResponse> getLocationsChangedSince(LocalDateTime since) {
+        List<Location> locations = since != null
+                ? locationRepository.findByUpdatedAtGreaterThanEqual(since)
+                : locationRepository.findAll();
+        return locations.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+
+    private LocationResponse convertToResponse(Location location) {
+        LocationResponse response = new LocationResponse();
+        response.setId(location.getId());
+        response.setCityName(location.getCityName());
+        response.setProvince(location.getProvince());
+        response.setCountry(location.getCountry());
+        response.setDescription(location.getDescription());
+        response.setImageUrl(location.getImageUrl());
+        if (location.getPosition() != null) {
+            response.setPosition(location.getPosition());
+        }
+        return response;
+    }
+
     @Override
     public Location getLocationById(Long id) {
         return locationRepository.findById(id)
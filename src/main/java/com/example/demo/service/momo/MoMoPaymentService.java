@@ -3,6 +3,8 @@ import com.example.demo.config.PaymentConfig;
 import com.example.demo.dto.payment.MoMoPaymentResponse;
 import com.example.demo.dto.payment.PaymentCallbackRequest;
 import com.example.demo.entity.Payment;
+import com.example.demo.monitoring.BookingFunnelMetrics;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.codec.binary.Hex;
 import org.slf4j.Logger;
@@ -24,6 +26,7 @@ public class MoMoPaymentService {
     private final PaymentConfig paymentConfig;
     private final RestTemplate restTemplate;
 
+    @Timed(value = BookingFunnelMetrics.MOMO_TIMER, extraTags = {"operation", "create"}, histogram = true)
     public MoMoPaymentResponse createPaymentRequest(Payment payment) throws Exception {
         String partnerCode = paymentConfig.getMomoPartnerCode();
         String accessKey = paymentConfig.getMomoAccessKey();
@@ -100,6 +103,8 @@ public class MoMoPaymentService {
         return momoResponse;
     }
 
+    // Lỗi bị nuốt bên trong nên timer chỉ đo độ trễ; kết quả xem qua log
+    @Timed(value = BookingFunnelMetrics.MOMO_TIMER, extraTags = {"operation", "query"}, histogram = true)
     public boolean checkPaymentStatus(Payment payment) {
         try {
             String partnerCode = paymentConfig.getMomoPartnerCode();
@@ -5,11 +5,14 @@ import com.example.demo.dto.payment.*;
 import com.example.demo.entity.Booking;
 import com.example.demo.entity.Payment;
 import com.example.demo.entity.PaymentHistory;
+import com.example.demo.enumm.PaymentStatusCode;
 import com.example.demo.event.PaymentSuccessEvent;
+import com.example.demo.monitoring.BookingFunnelMetrics;
 import com.example.demo.repository.BookingRepository;
 import com.example.demo.repository.PaymentHistoryRepository;
 import com.example.demo.repository.PaymentRepository;
 import com.example.demo.service.momo.MoMoPaymentService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
@@ -206,6 +209,8 @@ public class PaymentServiceImpl implements PaymentService {
     @Transactional
     @Override
     public PaymentResponse updatePaymentStatus(Long id, String status) {
+        // Trạng thái không có mã tương ứng thì báo 400 trước khi đụng DB
+        PaymentStatusCode.fromDisplayName(status);
         Payment payment = paymentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment không tồn tại với id: " + id));
 
@@ -229,6 +234,7 @@ public class PaymentServiceImpl implements PaymentService {
 
     @Transactional
     @Override
+    @Timed(value = BookingFunnelMetrics.OPERATION_TIMER, extraTags = {"operation", "payment.callback"}, histogram = true)
     public PaymentResponse processPaymentCallback(PaymentCallbackRequest request) {
         if (!moMoPaymentService.verifyPaymentCallback(request)) {
             throw new RuntimeException("MoMo callback không hợp lệ");
@@ -0,0 +1,28 @@
+package com.example.demo.service.pricing;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Nội dung một báo giá đã tính ở server, được ký vào quote token.
+ * depositPercentage/depositAmount/remainingAmount null khi thanh toán đủ; promotionCode null khi không dùng mã.
+ */
+public record PriceQuote(
+        String username,
+        Long roomTypeId,
+        LocalDate checkInDate,
+        LocalDate checkOutDate,
+        Integer numberOfGuests,
+        String promotionCode,
+        BigDecimal subtotal,
+        BigDecimal discountAmount,
+        BigDecimal totalPrice,
+        BigDecimal depositPercentage,
+        BigDecimal depositAmount,
+        BigDecimal remainingAmount,
+        long expiresAtEpochSecond) {
+
+    public boolean hasDeposit() {
+        return depositPercentage != null;
+    }
+}
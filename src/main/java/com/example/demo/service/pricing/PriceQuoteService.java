@@ -0,0 +1,27 @@
+package com.example.demo.service.pricing;
+
+import com.example.demo.dto.booking.BookingRequest;
+import com.example.demo.dto.pricing.PriceQuoteRequest;
+import com.example.demo.dto.pricing.PriceQuoteResponse;
+import com.example.demo.entity.PromotionCode;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface PriceQuoteService {
+
+    // Tính giá từng đêm, áp mã khuyến mãi và tỷ lệ cọc, trả kèm quote token đã ký cho user hiện tại
+    PriceQuoteResponse createQuote(PriceQuoteRequest request);
+
+    // Kiểm tra chữ ký, hạn và khớp với yêu cầu đặt phòng; sai thì IllegalArgumentException
+    PriceQuote verifyQuote(String quoteToken, BookingRequest request);
+
+    // Giá server tính cho booking không gửi quote token (không áp khuyến mãi)
+    PriceQuote priceStay(Long roomTypeId, LocalDate checkInDate, LocalDate checkOutDate,
+                         Integer numberOfGuests, Double depositPercentage);
+
+    // Giá mới khi sửa ngày/số khách của booking: giữ mã khuyến mãi booking đã dùng (redeemedPromotion, có thể null)
+    // và tỷ lệ cọc cũ. Không kiểm lại hạn/lượt của mã vì lượt đã được trừ lúc đặt
+    PriceQuote repriceStay(Long roomTypeId, LocalDate checkInDate, LocalDate checkOutDate, Integer numberOfGuests,
+                           PromotionCode redeemedPromotion, BigDecimal depositPercentage);
+}
@@ -0,0 +1,270 @@
+package com.example.demo.service.pricing;
+
+import com.example.demo.config.PricingProperties;
+import com.example.demo.dto.booking.BookingRequest;
+import com.example.demo.dto.pricing.NightlyPriceResponse;
+import com.example.demo.dto.pricing.PriceQuoteRequest;
+import com.example.demo.dto.pricing.PriceQuoteResponse;
+import com.example.demo.entity.PromotionCode;
+import com.example.demo.repository.PromotionCodeRepository;
+import com.example.demo.service.promotion.PromotionRedemptionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Báo giá phía server: giá từng đêm lấy từ RoomPriceCalendar (bộ nhớ), áp mã khuyến mãi và tỷ lệ cọc,
+ * rồi ký HMAC-SHA256 thành quote token ngắn hạn. createBooking chỉ tin số tiền trong token đã kiểm chữ ký,
+ * không tin totalPrice/depositAmount client gửi lên.
+ * Token = base64url(JSON báo giá) + "." + base64url(HMAC của phần trước).
+ */
+@Service
+@Slf4j
+public class PriceQuoteServiceImpl implements PriceQuoteService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String PERCENT_DISCOUNT = "Phần trăm";
+    private static final String FIXED_DISCOUNT = "Số tiền cố định";
+
+    private final RoomPriceCalendar priceCalendar;
+    private final PromotionCodeRepository promotionCodeRepository;
+    private final PromotionRedemptionService promotionRedemptionService;
+    private final ObjectMapper objectMapper;
+    private final PricingProperties properties;
+    private final SecretKeySpec signingKey;
+
+    public PriceQuoteServiceImpl(RoomPriceCalendar priceCalendar, PromotionCodeRepository promotionCodeRepository,
+                                 PromotionRedemptionService promotionRedemptionService,
+                                 ObjectMapper objectMapper, PricingProperties properties) {
+        this.priceCalendar = priceCalendar;
+        this.promotionCodeRepository = promotionCodeRepository;
+        this.promotionRedemptionService = promotionRedemptionService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+
+        byte[] secret;
+        if (properties.getQuoteSecret() == null || properties.getQuoteSecret().isBlank()) {
+            log.warn("Chưa cấu hình app.pricing.quote-secret, dùng khóa ngẫu nhiên: quote token mất hiệu lực khi khởi động lại");
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        } else {
+            secret = properties.getQuoteSecret().getBytes(StandardCharsets.UTF_8);
+        }
+        this.signingKey = new SecretKeySpec(secret, HMAC_ALGORITHM);
+    }
+
+    @Override
+    public PriceQuoteResponse createQuote(PriceQuoteRequest request) {
+        validateStay(request.getCheckInDate(), request.getCheckOutDate());
+        List<BigDecimal> nightly = priceCalendar.nightlyPrices(request.getRoomTypeId(),
+                request.getCheckInDate(), request.getCheckOutDate());
+        BigDecimal subtotal = nightly.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        String promotionCode = null;
+        BigDecimal discount = BigDecimal.ZERO;
+        if (request.getPromotionCode() != null && !request.getPromotionCode().isBlank()) {
+            PromotionCode promotion = findApplicablePromotion(request.getPromotionCode().trim(), subtotal);
+            promotionCode = promotion.getCode();
+            discount = calculateDiscount(promotion, subtotal);
+        }
+
+        PriceQuote quote = buildQuote(currentUsername(), request.getRoomTypeId(), request.getCheckInDate(),
+                request.getCheckOutDate(), request.getNumberOfGuests(), promotionCode, subtotal, discount,
+                request.getDepositPercentage());
+
+        List<NightlyPriceResponse> nights = new ArrayList<>(nightly.size());
+        LocalDate date = request.getCheckInDate();
+        for (BigDecimal price : nightly) {
+            nights.add(new NightlyPriceResponse(date, price));
+            date = date.plusDays(1);
+        }
+
+        return PriceQuoteResponse.builder()
+                .roomTypeId(quote.roomTypeId())
+                .checkInDate(quote.checkInDate())
+                .checkOutDate(quote.checkOutDate())
+                .numberOfGuests(quote.numberOfGuests())
+                .nights(nights)
+                .subtotal(quote.subtotal())
+                .promotionCode(quote.promotionCode())
+                .discountAmount(quote.discountAmount())
+                .totalPrice(quote.totalPrice())
+                .depositPercentage(quote.depositPercentage())
+                .depositAmount(quote.depositAmount())
+                .remainingAmount(quote.remainingAmount())
+                .quoteToken(sign(quote))
+                .expiresAt(LocalDateTime.ofInstant(Instant.ofEpochSecond(quote.expiresAtEpochSecond()), ZoneId.systemDefault()))
+                .build();
+    }
+
+    @Override
+    public PriceQuote verifyQuote(String quoteToken, BookingRequest request) {
+        PriceQuote quote = decode(quoteToken);
+
+        if (Instant.now().getEpochSecond() > quote.expiresAtEpochSecond()) {
+            throw new IllegalArgumentException("Báo giá đã hết hạn, vui lòng lấy báo giá mới");
+        }
+        BigDecimal requestedDeposit = request.wantsDepositPayment()
+                ? BigDecimal.valueOf(request.getDepositPercentage()) : null;
+        boolean matches = Objects.equals(quote.username(), currentUsername())
+                && Objects.equals(quote.roomTypeId(), request.getRoomTypeId())
+                && Objects.equals(quote.checkInDate(), request.getCheckInDate())
+                && Objects.equals(quote.checkOutDate(), request.getCheckOutDate())
+                && Objects.equals(quote.numberOfGuests(), request.getNumberOfGuests())
+                && sameAmount(quote.depositPercentage(), requestedDeposit);
+        if (!matches) {
+            throw new IllegalArgumentException("Báo giá không khớp với thông tin đặt phòng, vui lòng lấy báo giá mới");
+        }
+        return quote;
+    }
+
+    @Override
+    public PriceQuote priceStay(Long roomTypeId, LocalDate checkInDate, LocalDate checkOutDate,
+                                Integer numberOfGuests, Double depositPercentage) {
+        validateStay(checkInDate, checkOutDate);
+        BigDecimal subtotal = priceCalendar.stayTotal(roomTypeId, checkInDate, checkOutDate);
+        return buildQuote(currentUsername(), roomTypeId, checkInDate, checkOutDate, numberOfGuests,
+                null, subtotal, BigDecimal.ZERO, depositPercentage);
+    }
+
+    @Override
+    public PriceQuote repriceStay(Long roomTypeId, LocalDate checkInDate, LocalDate checkOutDate,
+                                  Integer numberOfGuests, PromotionCode redeemedPromotion,
+                                  BigDecimal depositPercentage) {
+        validateStay(checkInDate, checkOutDate);
+        BigDecimal subtotal = priceCalendar.stayTotal(roomTypeId, checkInDate, checkOutDate);
+        String promotionCode = null;
+        BigDecimal discount = BigDecimal.ZERO;
+        if (redeemedPromotion != null) {
+            promotionCode = redeemedPromotion.getCode();
+            discount = calculateDiscount(redeemedPromotion, subtotal);
+        }
+        return buildQuote(currentUsername(), roomTypeId, checkInDate, checkOutDate, numberOfGuests,
+                promotionCode, subtotal, discount, depositPercentage != null ? depositPercentage.doubleValue() : null);
+    }
+
+    private PriceQuote buildQuote(String username, Long roomTypeId, LocalDate checkInDate, LocalDate checkOutDate,
+                                  Integer numberOfGuests, String promotionCode, BigDecimal subtotal,
+                                  BigDecimal discount, Double depositPercentage) {
+        BigDecimal total = subtotal.subtract(discount).setScale(2, RoundingMode.HALF_UP);
+
+        BigDecimal percentage = null;
+        BigDecimal depositAmount = null;
+        BigDecimal remainingAmount = null;
+        if (depositPercentage != null && depositPercentage > 0) {
+            percentage = BigDecimal.valueOf(depositPercentage);
+            depositAmount = total.multiply(percentage).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+            remainingAmount = total.subtract(depositAmount);
+        }
+
+        long expiresAt = Instant.now().plus(properties.getQuoteTtl()).getEpochSecond();
+        return new PriceQuote(username, roomTypeId, checkInDate, checkOutDate, numberOfGuests, promotionCode,
+                subtotal.setScale(2, RoundingMode.HALF_UP), discount.setScale(2, RoundingMode.HALF_UP), total,
+                percentage, depositAmount, remainingAmount, expiresAt);
+    }
+
+    private PromotionCode findApplicablePromotion(String code, BigDecimal subtotal) {
+        PromotionCode promotion = promotionCodeRepository.findByCodeIgnoreCase(code)
+                .orElseThrow(() -> new IllegalArgumentException("Mã khuyến mãi không tồn tại: " + code));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!Boolean.TRUE.equals(promotion.getIsActive())
+                || now.isBefore(promotion.getStartDate()) || now.isAfter(promotion.getEndDate())) {
+            throw new IllegalArgumentException("Mã khuyến mãi " + code + " không còn hiệu lực");
+        }
+        if (!promotionRedemptionService.hasRemainingUses(promotion)) {
+            throw new IllegalArgumentException("Mã khuyến mãi " + code + " đã hết lượt sử dụng");
+        }
+        if (promotion.getMinBookingValue() != null && subtotal.compareTo(promotion.getMinBookingValue()) < 0) {
+            throw new IllegalArgumentException("Đơn tối thiểu " + promotion.getMinBookingValue()
+                    + " VND để dùng mã " + code);
+        }
+        return promotion;
+    }
+
+    private BigDecimal calculateDiscount(PromotionCode promotion, BigDecimal subtotal) {
+        BigDecimal discount;
+        if (PERCENT_DISCOUNT.equals(promotion.getDiscountType())) {
+            discount = subtotal.multiply(promotion.getDiscountValue()).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+            if (promotion.getMaxDiscount() != null && discount.compareTo(promotion.getMaxDiscount()) > 0) {
+                discount = promotion.getMaxDiscount();
+            }
+        } else if (FIXED_DISCOUNT.equals(promotion.getDiscountType())) {
+            discount = promotion.getDiscountValue();
+        } else {
+            throw new IllegalStateException("Loại giảm giá không hỗ trợ: " + promotion.getDiscountType());
+        }
+        return discount.min(subtotal);
+    }
+
+    private String sign(PriceQuote quote) {
+        try {
+            String payload = Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(quote));
+            return payload + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(hmac(payload));
+        } catch (Exception e) {
+            throw new IllegalStateException("Không ký được báo giá", e);
+        }
+    }
+
+    private PriceQuote decode(String quoteToken) {
+        int dot = quoteToken == null ? -1 : quoteToken.indexOf('.');
+        if (dot <= 0) {
+            throw new IllegalArgumentException("Quote token không hợp lệ");
+        }
+        String payload = quoteToken.substring(0, dot);
+        try {
+            byte[] signature = Base64.getUrlDecoder().decode(quoteToken.substring(dot + 1));
+            if (!MessageDigest.isEqual(hmac(payload), signature)) {
+                throw new IllegalArgumentException("Quote token không hợp lệ");
+            }
+            return objectMapper.readValue(Base64.getUrlDecoder().decode(payload), PriceQuote.class);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Quote token không hợp lệ");
+        }
+    }
+
+    private byte[] hmac(String payload) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        mac.init(signingKey);
+        return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void validateStay(LocalDate checkInDate, LocalDate checkOutDate) {
+        if (checkInDate == null || checkOutDate == null || !checkOutDate.isAfter(checkInDate)) {
+            throw new IllegalArgumentException("Ngày check-out phải sau ngày check-in");
+        }
+    }
+
+    private static boolean sameAmount(BigDecimal left, BigDecimal right) {
+        if (left == null || right == null) {
+            return left == right;
+        }
+        return left.compareTo(right) == 0;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.demo.service.pricing;
+
+import com.example.demo.entity.RoomType;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.repository.RoomPricingRepository;
+import com.example.demo.repository.RoomTypeRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lịch giá theo ngày của từng loại phòng, giữ trong bộ nhớ.
+ * Mỗi loại phòng là một mảng giá đánh chỉ số theo epoch day (từ room_pricing) cộng basePrice làm giá mặc định,
+ * nên tính giá một đêm là một phép tra mảng, không có truy vấn DB.
+ * Nạp lại toàn bộ định kỳ (room_pricing được nhập thẳng vào DB); basePrice đổi qua CatalogChangedEvent.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomPriceCalendar {
+    private static final Logger log = LoggerFactory.getLogger(RoomPriceCalendar.class);
+
+    private final RoomTypeRepository roomTypeRepository;
+    private final RoomPricingRepository roomPricingRepository;
+
+    private volatile Map<Long, PriceCalendar> calendars = new ConcurrentHashMap<>();
+
+    private record PriceCalendar(BigDecimal basePrice, long firstEpochDay, BigDecimal[] prices) {
+
+        BigDecimal priceOn(long epochDay) {
+            long offset = epochDay - firstEpochDay;
+            if (offset >= 0 && offset < prices.length && prices[(int) offset] != null) {
+                return prices[(int) offset];
+            }
+            return basePrice;
+        }
+
+        PriceCalendar withBasePrice(BigDecimal newBasePrice) {
+            return new PriceCalendar(newBasePrice, firstEpochDay, prices);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            reload();
+        } catch (Exception e) {
+            // Không chặn khởi động khi DB chưa sẵn sàng, lịch giá được nạp theo từng loại phòng khi cần
+            log.warn("Không thể nạp lịch giá khi khởi động: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.pricing.calendar-refresh-ms:300000}",
+            initialDelayString = "${app.pricing.calendar-refresh-ms:300000}")
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Không thể nạp lại lịch giá: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Nạp lại toàn bộ lịch giá từ hôm nay trở đi (hai truy vấn) rồi thay map một lần.
+     */
+    public synchronized void reload() {
+        LocalDate today = LocalDate.now();
+        Map<Long, PriceCalendar> fresh = new ConcurrentHashMap<>();
+        for (Object[] row : roomTypeRepository.findAllBasePrices()) {
+            fresh.put((Long) row[0], new PriceCalendar((BigDecimal) row[1], today.toEpochDay(), new BigDecimal[0]));
+        }
+
+        List<Object[]> rows = roomPricingRepository.findCalendarFrom(today);
+        int start = 0;
+        while (start < rows.size()) {
+            Long roomTypeId = (Long) rows.get(start)[0];
+            int end = start;
+            while (end < rows.size() && roomTypeId.equals(rows.get(end)[0])) {
+                end++;
+            }
+            PriceCalendar base = fresh.get(roomTypeId);
+            fresh.put(roomTypeId, build(base != null ? base.basePrice() : null, rows.subList(start, end)));
+            start = end;
+        }
+
+        calendars = fresh;
+        log.info("Đã nạp lịch giá cho {} loại phòng ({} ngày có giá riêng)", fresh.size(), rows.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getResourceType() != CatalogChangedEvent.ResourceType.ROOM_TYPE) {
+            return;
+        }
+        if (event.isDeleted()) {
+            calendars.remove(event.getResourceId());
+        } else if (event.getSource() instanceof RoomType roomType) {
+            calendars.computeIfPresent(roomType.getId(), (id, calendar) -> calendar.withBasePrice(roomType.getBasePrice()));
+        }
+    }
+
+    /**
+     * Giá từng đêm trong [checkIn, checkOut).
+     */
+    public List<BigDecimal> nightlyPrices(Long roomTypeId, LocalDate checkIn, LocalDate checkOut) {
+        PriceCalendar calendar = calendarOf(roomTypeId);
+        List<BigDecimal> prices = new ArrayList<>();
+        for (long day = checkIn.toEpochDay(); day < checkOut.toEpochDay(); day++) {
+            prices.add(requirePrice(calendar.priceOn(day), roomTypeId));
+        }
+        return prices;
+    }
+
+    /**
+     * Tổng giá lưu trú, dùng khi định giá hàng loạt kết quả tìm kiếm (không tạo danh sách trung gian).
+     */
+    public BigDecimal stayTotal(Long roomTypeId, LocalDate checkIn, LocalDate checkOut) {
+        PriceCalendar calendar = calendarOf(roomTypeId);
+        BigDecimal total = BigDecimal.ZERO;
+        for (long day = checkIn.toEpochDay(); day < checkOut.toEpochDay(); day++) {
+            total = total.add(requirePrice(calendar.priceOn(day), roomTypeId));
+        }
+        return total;
+    }
+
+    private PriceCalendar calendarOf(Long roomTypeId) {
+        PriceCalendar calendar = calendars.get(roomTypeId);
+        if (calendar != null) {
+            return calendar;
+        }
+        // Loại phòng mới tạo sau lần nạp gần nhất (hoặc chưa nạp được lúc khởi động): nạp riêng một lần
+        return calendars.computeIfAbsent(roomTypeId, this::loadRoomType);
+    }
+
+    private PriceCalendar loadRoomType(Long roomTypeId) {
+        RoomType roomType = roomTypeRepository.findById(roomTypeId)
+                .orElseThrow(() -> new NoSuchElementException("Loại phòng không tồn tại với ID: " + roomTypeId));
+        return build(roomType.getBasePrice(), roomPricingRepository.findCalendarByRoomTypeFrom(roomTypeId, LocalDate.now()));
+    }
+
+    private static PriceCalendar build(BigDecimal basePrice, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return new PriceCalendar(basePrice, LocalDate.now().toEpochDay(), new BigDecimal[0]);
+        }
+        long first = ((LocalDate) rows.get(0)[1]).toEpochDay();
+        long last = ((LocalDate) rows.get(rows.size() - 1)[1]).toEpochDay();
+        BigDecimal[] prices = new BigDecimal[(int) (last - first + 1)];
+        for (Object[] row : rows) {
+            prices[(int) (((LocalDate) row[1]).toEpochDay() - first)] = (BigDecimal) row[2];
+        }
+        return new PriceCalendar(basePrice, first, prices);
+    }
+
+    private static BigDecimal requirePrice(BigDecimal price, Long roomTypeId) {
+        if (price == null) {
+            throw new IllegalArgumentException("Loại phòng " + roomTypeId + " chưa có giá");
+        }
+        return price;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.service.promotion;
+
+import com.example.demo.entity.PromotionCode;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Trạng thái trong bộ nhớ của một mã khuyến mãi trên node này.
+ * Mã có usageLimit: tokens là số lượt đã giữ trước từ DB (usageCount đã cộng sẵn), lấy lượt chỉ là một CAS.
+ * Mã không giới hạn: chỉ đếm lượt đã dùng vào unflushed rồi cộng dồn xuống DB theo chu kỳ.
+ */
+class PromotionAllowance {
+
+    record Rules(Long id, String code, boolean active, LocalDateTime startDate, LocalDateTime endDate,
+                 BigDecimal minBookingValue, Integer usageLimit) {
+
+        static Rules of(PromotionCode promotion) {
+            return new Rules(promotion.getId(), promotion.getCode(), Boolean.TRUE.equals(promotion.getIsActive()),
+                    promotion.getStartDate(), promotion.getEndDate(), promotion.getMinBookingValue(),
+                    promotion.getUsageLimit());
+        }
+
+        boolean limited() {
+            return usageLimit != null;
+        }
+    }
+
+    private volatile Rules rules;
+    private final AtomicInteger tokens = new AtomicInteger();
+    private final LongAdder unflushed = new LongAdder();
+    private volatile long lastUsedMillis = System.currentTimeMillis();
+
+    PromotionAllowance(Rules rules) {
+        this.rules = rules;
+    }
+
+    Rules rules() {
+        return rules;
+    }
+
+    void updateRules(Rules rules) {
+        this.rules = rules;
+    }
+
+    boolean tryTake() {
+        int current;
+        do {
+            current = tokens.get();
+            if (current <= 0) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - 1));
+        lastUsedMillis = System.currentTimeMillis();
+        return true;
+    }
+
+    void giveBack(int count) {
+        tokens.addAndGet(count);
+    }
+
+    int drainTokens() {
+        return tokens.getAndSet(0);
+    }
+
+    int availableTokens() {
+        return tokens.get();
+    }
+
+    void recordUnlimitedUse() {
+        unflushed.increment();
+        lastUsedMillis = System.currentTimeMillis();
+    }
+
+    int drainUnflushed() {
+        return (int) unflushed.sumThenReset();
+    }
+
+    void restoreUnflushed(int count) {
+        unflushed.add(count);
+    }
+
+    long lastUsedMillis() {
+        return lastUsedMillis;
+    }
+}
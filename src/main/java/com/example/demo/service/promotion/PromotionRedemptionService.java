@@ -0,0 +1,18 @@
+package com.example.demo.service.promotion;
+
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.PromotionCode;
+import com.example.demo.service.pricing.PriceQuote;
+
+public interface PromotionRedemptionService {
+
+    // Dùng một lượt mã trong quote cho booking vừa lưu và ghi PromotionUsage; hết lượt/hết hạn thì IllegalArgumentException.
+    // Transaction gọi bị rollback thì lượt được trả lại.
+    void redeem(PriceQuote quote, Booking booking);
+
+    // Còn lượt không (tính cả lượt node này đang giữ), dùng khi báo giá
+    boolean hasRemainingUses(PromotionCode promotion);
+
+    // Cộng lượt của mã không giới hạn xuống DB, trả lượt giữ lâu không dùng, nạp lại điều kiện mã
+    void reconcile();
+}
@@ -0,0 +1,253 @@
+package com.example.demo.service.promotion;
+
+import com.example.demo.config.PromotionProperties;
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.PromotionCode;
+import com.example.demo.entity.PromotionUsage;
+import com.example.demo.repository.PromotionCodeRepository;
+import com.example.demo.repository.PromotionUsageRepository;
+import com.example.demo.service.pricing.PriceQuote;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dùng mã khuyến mãi mà không khóa dòng promotion_codes cho từng lượt.
+ * Mã có usageLimit: mỗi node giữ trước một khối lượt bằng một UPDATE có điều kiện (usageCount + n <= usageLimit),
+ * sau đó từng lượt chỉ là CAS trên bộ đếm trong bộ nhớ. usageCount trong DB = lượt đã dùng + lượt các node đang giữ,
+ * nên tổng lượt dùng không bao giờ vượt usageLimit; lượt giữ lâu không dùng được trả lại khi reconcile và khi tắt.
+ * Mã không giới hạn: đếm trong bộ nhớ, cộng dồn xuống DB khi reconcile.
+ * Điều kiện isActive, khoảng hiệu lực và minBookingValue được đọc lại từ DB (theo khóa chính, không khóa dòng)
+ * và kiểm tra tại thời điểm dùng, nên mã vừa bị tắt/sửa có hiệu lực ngay trên mọi node.
+ */
+@Service
+public class PromotionRedemptionServiceImpl implements PromotionRedemptionService {
+    private static final Logger log = LoggerFactory.getLogger(PromotionRedemptionServiceImpl.class);
+
+    private final PromotionCodeRepository promotionCodeRepository;
+    private final PromotionUsageRepository promotionUsageRepository;
+    private final EntityManager entityManager;
+    private final PromotionProperties properties;
+    // UPDATE giữ lượt chạy trong transaction riêng để khóa dòng mã chỉ trong thời gian một câu lệnh.
+    // Transaction riêng cần thêm một kết nối trong khi transaction booking vẫn giữ kết nối của nó:
+    // pool phải lớn hơn số booking đồng thời dùng cùng một mã, nếu không luồng đi giữ khối chờ tới hết connection-timeout
+    private final TransactionTemplate leaseTransaction;
+
+    private final Map<String, PromotionAllowance> allowances = new ConcurrentHashMap<>();
+
+    public PromotionRedemptionServiceImpl(PromotionCodeRepository promotionCodeRepository,
+                                          PromotionUsageRepository promotionUsageRepository,
+                                          EntityManager entityManager, PromotionProperties properties,
+                                          PlatformTransactionManager transactionManager) {
+        this.promotionCodeRepository = promotionCodeRepository;
+        this.promotionUsageRepository = promotionUsageRepository;
+        this.entityManager = entityManager;
+        this.properties = properties;
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void redeem(PriceQuote quote, Booking booking) {
+        PromotionAllowance allowance = allowanceOf(quote.promotionCode());
+        PromotionAllowance.Rules rules = refreshRules(allowance);
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!rules.active() || now.isBefore(rules.startDate()) || now.isAfter(rules.endDate())) {
+            throw new IllegalArgumentException("Mã khuyến mãi " + rules.code() + " không còn hiệu lực");
+        }
+        if (rules.minBookingValue() != null && quote.subtotal().compareTo(rules.minBookingValue()) < 0) {
+            throw new IllegalArgumentException("Đơn tối thiểu " + rules.minBookingValue()
+                    + " VND để dùng mã " + rules.code());
+        }
+        if (!acquire(allowance)) {
+            throw new IllegalArgumentException("Mã khuyến mãi " + rules.code() + " đã hết lượt sử dụng");
+        }
+
+        PromotionUsage usage = new PromotionUsage();
+        usage.setPromotionCode(entityManager.getReference(PromotionCode.class, rules.id()));
+        usage.setBooking(booking);
+        usage.setUser(booking.getUser());
+        usage.setDiscountAmount(quote.discountAmount());
+        promotionUsageRepository.save(usage);
+    }
+
+    @Override
+    public boolean hasRemainingUses(PromotionCode promotion) {
+        if (promotion.getUsageLimit() == null) {
+            return true;
+        }
+        int used = promotion.getUsageCount() != null ? promotion.getUsageCount() : 0;
+        if (used < promotion.getUsageLimit()) {
+            return true;
+        }
+        PromotionAllowance allowance = allowances.get(normalize(promotion.getCode()));
+        return allowance != null && allowance.availableTokens() > 0;
+    }
+
+    /**
+     * Lấy một lượt; chỉ một luồng mỗi mã đi giữ khối mới, các luồng khác chờ rồi dùng luôn khối đó.
+     * Mã có giới hạn mà lượt được lấy trong transaction bị rollback thì trả lại vào bộ đếm của node.
+     */
+    private boolean acquire(PromotionAllowance allowance) {
+        if (!allowance.rules().limited()) {
+            afterCommit(allowance::recordUnlimitedUse);
+            return true;
+        }
+        if (!allowance.tryTake()) {
+            synchronized (allowance) {
+                while (!allowance.tryTake()) {
+                    int leased = lease(allowance.rules().id());
+                    if (leased == 0) {
+                        return false;
+                    }
+                    allowance.giveBack(leased);
+                }
+            }
+        }
+        onRollback(() -> allowance.giveBack(1));
+        return true;
+    }
+
+    private int lease(Long promotionId) {
+        Integer leased = leaseTransaction.execute(status -> {
+            int block = Math.max(1, properties.getLeaseBlockSize());
+            if (promotionCodeRepository.leaseUsage(promotionId, block) == 1) {
+                return block;
+            }
+            // Không đủ cả khối: giữ phần còn lại; UPDATE thất bại nghĩa là node khác vừa lấy, đọc lại rồi thử tiếp
+            while (true) {
+                int remaining = remainingUses(promotionId);
+                if (remaining <= 0) {
+                    return 0;
+                }
+                int partial = Math.min(block, remaining);
+                if (promotionCodeRepository.leaseUsage(promotionId, partial) == 1) {
+                    return partial;
+                }
+            }
+        });
+        return leased != null ? leased : 0;
+    }
+
+    private int remainingUses(Long promotionId) {
+        List<Object[]> usage = promotionCodeRepository.findUsageById(promotionId);
+        if (usage.isEmpty() || usage.get(0)[1] == null) {
+            return 0;
+        }
+        int used = usage.get(0)[0] != null ? (Integer) usage.get(0)[0] : 0;
+        return (Integer) usage.get(0)[1] - used;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.promotion.reconcile-ms:30000}",
+            initialDelayString = "${app.promotion.reconcile-ms:30000}")
+    public void reconcile() {
+        long idleBefore = System.currentTimeMillis() - properties.getIdleRelease().toMillis();
+        allowances.forEach((code, allowance) -> {
+            try {
+                flush(allowance, allowance.lastUsedMillis() <= idleBefore);
+                promotionCodeRepository.findById(allowance.rules().id())
+                        .ifPresentOrElse(promotion -> allowance.updateRules(PromotionAllowance.Rules.of(promotion)),
+                                () -> allowances.remove(code));
+            } catch (Exception e) {
+                log.warn("Không đồng bộ được lượt dùng mã {}: {}", code, e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        allowances.values().forEach(allowance -> {
+            try {
+                flush(allowance, true);
+            } catch (Exception e) {
+                log.warn("Không trả được lượt mã {} khi tắt: {}", allowance.rules().code(), e.getMessage());
+            }
+        });
+    }
+
+    private void flush(PromotionAllowance allowance, boolean releaseTokens) {
+        int used = allowance.drainUnflushed();
+        int released = releaseTokens ? allowance.drainTokens() : 0;
+        int delta = used - released;
+        if (delta == 0) {
+            return;
+        }
+        try {
+            leaseTransaction.executeWithoutResult(status -> promotionCodeRepository.addUsage(allowance.rules().id(), delta));
+        } catch (RuntimeException e) {
+            // Ghi thất bại thì giữ lại trong bộ nhớ, lần reconcile sau thử lại
+            allowance.restoreUnflushed(used);
+            allowance.giveBack(released);
+            throw e;
+        }
+        if (released > 0) {
+            log.info("Trả lại {} lượt chưa dùng của mã {}", released, allowance.rules().code());
+        }
+    }
+
+    private PromotionAllowance.Rules refreshRules(PromotionAllowance allowance) {
+        PromotionAllowance.Rules cached = allowance.rules();
+        PromotionCode promotion = promotionCodeRepository.findById(cached.id()).orElse(null);
+        if (promotion == null) {
+            allowances.remove(normalize(cached.code()), allowance);
+            throw new IllegalArgumentException("Mã khuyến mãi không tồn tại: " + cached.code());
+        }
+        PromotionAllowance.Rules rules = PromotionAllowance.Rules.of(promotion);
+        allowance.updateRules(rules);
+        return rules;
+    }
+
+    private PromotionAllowance allowanceOf(String code) {
+        return allowances.computeIfAbsent(normalize(code), key -> {
+            PromotionCode promotion = promotionCodeRepository.findByCodeIgnoreCase(key)
+                    .orElseThrow(() -> new IllegalArgumentException("Mã khuyến mãi không tồn tại: " + code));
+            return new PromotionAllowance(PromotionAllowance.Rules.of(promotion));
+        });
+    }
+
+    private static String normalize(String code) {
+        return code.trim().toUpperCase();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
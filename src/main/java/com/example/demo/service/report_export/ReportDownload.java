@@ -0,0 +1,11 @@
+package com.example.demo.service.report_export;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * File báo cáo sẵn sàng để tải. gzipEncoded = true khi nội dung vẫn đang nén gzip
+ * (client chấp nhận gzip), controller phải gửi kèm Content-Encoding: gzip.
+ */
+public record ReportDownload(Resource resource, String fileName, String contentType, boolean gzipEncoded,
+                             Long contentLength) {
+}
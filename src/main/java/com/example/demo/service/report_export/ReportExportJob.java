@@ -0,0 +1,126 @@
+package com.example.demo.service.report_export;
+
+import com.example.demo.dto.report.ReportExportResponse;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Trạng thái một lần xuất báo cáo, luồng xuất cập nhật còn API trạng thái đọc song song.
+ */
+class ReportExportJob {
+
+    enum Status { QUEUED, RUNNING, READY, FAILED }
+
+    private final String token;
+    private final ReportExportType type;
+    private final ReportExportFormat format;
+    private final LocalDate fromDate;
+    private final LocalDate toDate;
+    private final Long hotelId;
+    private final Path file;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private volatile Status status = Status.QUEUED;
+    private volatile String message;
+    private volatile Long fileSizeBytes;
+    private volatile LocalDateTime finishedAt;
+    private volatile LocalDateTime expiresAt;
+
+    ReportExportJob(String token, ReportExportType type, ReportExportFormat format,
+                    LocalDate fromDate, LocalDate toDate, Long hotelId, Path file) {
+        this.token = token;
+        this.type = type;
+        this.format = format;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.hotelId = hotelId;
+        this.file = file;
+    }
+
+    String getToken() {
+        return token;
+    }
+
+    ReportExportType getType() {
+        return type;
+    }
+
+    ReportExportFormat getFormat() {
+        return format;
+    }
+
+    LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    LocalDate getToDate() {
+        return toDate;
+    }
+
+    Long getHotelId() {
+        return hotelId;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    Status getStatus() {
+        return status;
+    }
+
+    LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    // Tên file người dùng nhận được, VD bookings_2025-01-01_2025-12-31.csv
+    String getFileName() {
+        return type.name().toLowerCase() + "_" + fromDate + "_" + toDate + "." + format.getExtension();
+    }
+
+    void start() {
+        status = Status.RUNNING;
+    }
+
+    void rowWritten() {
+        rowsWritten.incrementAndGet();
+    }
+
+    void ready(long sizeBytes, LocalDateTime expiresAt) {
+        this.fileSizeBytes = sizeBytes;
+        this.finishedAt = LocalDateTime.now();
+        this.expiresAt = expiresAt;
+        this.status = Status.READY;
+    }
+
+    void fail(String reason, LocalDateTime expiresAt) {
+        this.message = reason;
+        this.finishedAt = LocalDateTime.now();
+        this.expiresAt = expiresAt;
+        this.status = Status.FAILED;
+    }
+
+    ReportExportResponse toResponse() {
+        return ReportExportResponse.builder()
+                .token(token)
+                .type(type.name())
+                .format(format.name())
+                .fromDate(fromDate)
+                .toDate(toDate)
+                .hotelId(hotelId)
+                .status(status.name())
+                .message(message)
+                .rowsWritten(rowsWritten.get())
+                .fileSizeBytes(fileSizeBytes)
+                .fileName(getFileName())
+                .downloadUrl(status == Status.READY ? "/api/v1/admin/reports/export/" + token + "/download" : null)
+                .createdAt(createdAt)
+                .finishedAt(finishedAt)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
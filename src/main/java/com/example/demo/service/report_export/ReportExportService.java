@@ -0,0 +1,15 @@
+package com.example.demo.service.report_export;
+
+import com.example.demo.dto.report.ReportExportResponse;
+
+import java.time.LocalDate;
+
+public interface ReportExportService {
+
+    // Xếp hàng xuất báo cáo chạy nền, trả token để theo dõi và tải file
+    ReportExportResponse startExport(String type, String format, LocalDate fromDate, LocalDate toDate, Long hotelId);
+
+    ReportExportResponse getExport(String token);
+
+    ReportDownload openDownload(String token, boolean acceptsGzip);
+}
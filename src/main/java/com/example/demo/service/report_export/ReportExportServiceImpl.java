@@ -0,0 +1,254 @@
+package com.example.demo.service.report_export;
+
+import com.example.demo.dto.report.BookingExportRow;
+import com.example.demo.dto.report.PaymentExportRow;
+import com.example.demo.dto.report.ReportExportResponse;
+import com.example.demo.repository.BookingRepository;
+import com.example.demo.repository.PaymentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Xuất báo cáo booking/thanh toán ra CSV (nén gzip) hoặc XLSX.
+ * Chạy nền trên pool riêng nên không giữ thread của request; dữ liệu đọc bằng projection qua cursor
+ * (fetch size) trong transaction readOnly và ghi thẳng ra file tạm từng dòng, bộ nhớ không tăng theo khoảng ngày.
+ * File được giữ FILE_TTL rồi xóa.
+ */
+@Service
+@Slf4j
+public class ReportExportServiceImpl implements ReportExportService {
+
+    private static final int EXPORT_THREADS = 2;
+    private static final Duration FILE_TTL = Duration.ofHours(1);
+
+    private static final List<String> BOOKING_HEADERS = List.of(
+            "Mã booking", "Ngày đặt", "Nhận phòng", "Trả phòng", "Trạng thái", "Số khách",
+            "Tổng tiền", "Tiền cọc", "Còn lại", "Tài khoản", "Họ tên", "Email",
+            "Khách sạn", "Loại phòng", "Số phòng");
+
+    private static final List<String> PAYMENT_HEADERS = List.of(
+            "Mã thanh toán", "Mã booking", "Ngày thanh toán", "Số tiền", "Loại thanh toán", "Trạng thái",
+            "Phương thức", "Mã giao dịch", "Tài khoản", "Khách sạn");
+
+    private final BookingRepository bookingRepository;
+    private final PaymentRepository paymentRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Map<String, ReportExportJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private final ExecutorService executor = Executors.newFixedThreadPool(EXPORT_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "report-export-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReportExportServiceImpl(BookingRepository bookingRepository, PaymentRepository paymentRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.paymentRepository = paymentRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public ReportExportResponse startExport(String type, String format, LocalDate fromDate, LocalDate toDate,
+                                            Long hotelId) {
+        ReportExportType exportType = parse(ReportExportType.class, type, "loại báo cáo");
+        ReportExportFormat exportFormat = format == null || format.isBlank()
+                ? ReportExportFormat.CSV
+                : parse(ReportExportFormat.class, format, "định dạng");
+        if (fromDate == null || toDate == null) {
+            throw new IllegalArgumentException("Cần truyền from và to");
+        }
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("Ngày bắt đầu phải trước hoặc bằng ngày kết thúc");
+        }
+
+        Path file;
+        try {
+            String suffix = exportFormat == ReportExportFormat.CSV ? ".csv.gz" : ".xlsx";
+            file = Files.createTempFile("report-export-", suffix);
+        } catch (IOException e) {
+            throw new RuntimeException("Không thể tạo file báo cáo: " + e.getMessage(), e);
+        }
+
+        ReportExportJob job = new ReportExportJob(UUID.randomUUID().toString(), exportType, exportFormat,
+                fromDate, toDate, hotelId, file);
+        jobs.put(job.getToken(), job);
+        executor.submit(() -> run(job));
+        return job.toResponse();
+    }
+
+    @Override
+    public ReportExportResponse getExport(String token) {
+        return findJob(token).toResponse();
+    }
+
+    @Override
+    public ReportDownload openDownload(String token, boolean acceptsGzip) {
+        ReportExportJob job = findJob(token);
+        if (job.getStatus() != ReportExportJob.Status.READY) {
+            throw new IllegalArgumentException("Báo cáo chưa sẵn sàng để tải (trạng thái " + job.getStatus() + ")");
+        }
+        Path file = job.getFile();
+        String contentType = job.getFormat().getContentType();
+        try {
+            if (job.getFormat() != ReportExportFormat.CSV) {
+                return new ReportDownload(new FileSystemResource(file), job.getFileName(), contentType, false,
+                        Files.size(file));
+            }
+            if (acceptsGzip) {
+                // Gửi nguyên file gzip kèm Content-Encoding, trình duyệt tự giải nén và lưu thành .csv
+                return new ReportDownload(new FileSystemResource(file), job.getFileName(), contentType, true,
+                        Files.size(file));
+            }
+            return new ReportDownload(new InputStreamResource(new GZIPInputStream(Files.newInputStream(file))),
+                    job.getFileName(), contentType, false, null);
+        } catch (IOException e) {
+            throw new RuntimeException("Không thể đọc file báo cáo: " + e.getMessage(), e);
+        }
+    }
+
+    // Xóa file và job đã hết hạn
+    @Scheduled(fixedRate = 600000)
+    public void removeExpiredExports() {
+        LocalDateTime now = LocalDateTime.now();
+        jobs.values().removeIf(job -> {
+            if (job.getExpiresAt() == null || job.getExpiresAt().isAfter(now)) {
+                return false;
+            }
+            deleteQuietly(job.getFile());
+            return true;
+        });
+    }
+
+    private void run(ReportExportJob job) {
+        job.start();
+        log.info("Bắt đầu xuất báo cáo {} {} từ {} đến {}", job.getType(), job.getFormat(),
+                job.getFromDate(), job.getToDate());
+        try {
+            try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(job.getFile()), 64 * 1024);
+                 ReportWriter writer = openWriter(job, output)) {
+                readOnlyTransaction.executeWithoutResult(status -> writeRows(job, writer));
+            }
+            job.ready(Files.size(job.getFile()), LocalDateTime.now().plus(FILE_TTL));
+            log.info("Xuất báo cáo {} xong: {} dòng", job.getToken(), job.toResponse().getRowsWritten());
+        } catch (Exception e) {
+            log.error("Xuất báo cáo {} thất bại", job.getToken(), e);
+            deleteQuietly(job.getFile());
+            job.fail("Xuất báo cáo thất bại: " + e.getMessage(), LocalDateTime.now().plus(FILE_TTL));
+        }
+    }
+
+    private ReportWriter openWriter(ReportExportJob job, OutputStream output) throws IOException {
+        if (job.getFormat() == ReportExportFormat.XLSX) {
+            return new XlsxReportWriter(output, job.getType().name());
+        }
+        return new CsvReportWriter(new GZIPOutputStream(output, 64 * 1024));
+    }
+
+    private void writeRows(ReportExportJob job, ReportWriter writer) {
+        try {
+            if (job.getType() == ReportExportType.BOOKINGS) {
+                writer.writeRow(BOOKING_HEADERS);
+                try (Stream<BookingExportRow> rows = bookingRepository.streamExportRows(
+                        job.getFromDate(), job.getToDate(), job.getHotelId())) {
+                    Iterator<BookingExportRow> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        writer.writeRow(bookingValues(iterator.next()));
+                        job.rowWritten();
+                    }
+                }
+            } else {
+                writer.writeRow(PAYMENT_HEADERS);
+                try (Stream<PaymentExportRow> rows = paymentRepository.streamExportRows(
+                        job.getFromDate().atStartOfDay(), job.getToDate().plusDays(1).atStartOfDay(),
+                        job.getHotelId())) {
+                    Iterator<PaymentExportRow> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        writer.writeRow(paymentValues(iterator.next()));
+                        job.rowWritten();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<Object> bookingValues(BookingExportRow row) {
+        return Arrays.asList(row.getBookingId(), row.getBookingDate(), row.getCheckInDate(), row.getCheckOutDate(),
+                row.getStatus(), row.getNumberOfGuests(), row.getTotalPrice(), row.getDepositAmount(),
+                row.getRemainingAmount(), row.getUsername(), row.getFullName(), row.getEmail(),
+                row.getHotelName(), row.getRoomTypeName(), row.getRoomNumber());
+    }
+
+    private static List<Object> paymentValues(PaymentExportRow row) {
+        return Arrays.asList(row.getPaymentId(), row.getBookingId(), row.getPaymentDate(), row.getAmount(),
+                row.getPaymentType() != null ? row.getPaymentType().getDisplayName() : null,
+                row.getPaymentStatus(), row.getPaymentMethod(), row.getTransactionId(),
+                row.getUsername(), row.getHotelName());
+    }
+
+    private ReportExportJob findJob(String token) {
+        ReportExportJob job = jobs.get(token);
+        if (job == null) {
+            throw new NoSuchElementException("Không tìm thấy báo cáo hoặc báo cáo đã hết hạn: " + token);
+        }
+        return job;
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value, String label) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Thiếu " + label);
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Giá trị " + label + " không hợp lệ: " + value
+                    + " (chọn một trong " + Arrays.toString(type.getEnumConstants()) + ")");
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Không xóa được file báo cáo {}: {}", file, e.getMessage());
+        }
+    }
+}
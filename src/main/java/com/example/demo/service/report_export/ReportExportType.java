@@ -0,0 +1,6 @@
+package com.example.demo.service.report_export;
+
+public enum ReportExportType {
+    BOOKINGS,   // Booking có ngày nhận phòng trong khoảng [from, to]
+    PAYMENTS    // Thanh toán có ngày thanh toán trong khoảng [from, to] (doanh thu)
+}
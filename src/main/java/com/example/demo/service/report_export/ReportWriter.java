@@ -0,0 +1,13 @@
+package com.example.demo.service.report_export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Ghi báo cáo tuần tự từng dòng ra luồng, không giữ các dòng đã ghi trong bộ nhớ.
+ */
+interface ReportWriter extends Closeable {
+
+    void writeRow(List<?> values) throws IOException;
+}
@@ -0,0 +1,136 @@
+package com.example.demo.service.report_export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Ghi file XLSX một sheet theo kiểu streaming: các phần cố định của gói OOXML được ghi trước,
+ * sheet1.xml ghi thẳng từng dòng vào ZipOutputStream với chuỗi inline (không cần bảng sharedStrings),
+ * nên bộ nhớ dùng không phụ thuộc số dòng. Số ghi dưới dạng số, còn lại (kể cả ngày) ghi dạng chuỗi.
+ */
+class XlsxReportWriter implements ReportWriter {
+
+    // Giới hạn số dòng của một sheet Excel
+    static final int MAX_ROWS = 1_048_576;
+
+    private static final String CONTENT_TYPES = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">
+            <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>
+            <Default Extension="xml" ContentType="application/xml"/>
+            <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>
+            <Override PartName="/xl/worksheets/sheet1.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml"/>
+            </Types>""";
+
+    private static final String ROOT_RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>
+            </Relationships>""";
+
+    private static final String WORKBOOK_RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet" Target="worksheets/sheet1.xml"/>
+            </Relationships>""";
+
+    private static final String WORKBOOK = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">
+            <sheets><sheet name="%s" sheetId="1" r:id="rId1"/></sheets>
+            </workbook>""";
+
+    private final ZipOutputStream zip;
+    private final Writer writer;
+    private int rowNumber;
+
+    XlsxReportWriter(OutputStream output, String sheetName) throws IOException {
+        this.zip = new ZipOutputStream(output, StandardCharsets.UTF_8);
+        this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 64 * 1024);
+
+        writeEntry("[Content_Types].xml", CONTENT_TYPES);
+        writeEntry("_rels/.rels", ROOT_RELS);
+        writeEntry("xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+        writeEntry("xl/workbook.xml", WORKBOOK.formatted(escapeXml(sheetName)));
+
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+    }
+
+    @Override
+    public void writeRow(List<?> values) throws IOException {
+        if (rowNumber >= MAX_ROWS) {
+            throw new IllegalStateException("Báo cáo vượt quá " + MAX_ROWS + " dòng của Excel, hãy xuất CSV");
+        }
+        rowNumber++;
+        writer.write("<row r=\"" + rowNumber + "\">");
+        for (int i = 0; i < values.size(); i++) {
+            Object value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            String ref = columnName(i) + rowNumber;
+            if (value instanceof Number) {
+                String number = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+                writer.write("<c r=\"" + ref + "\"><v>" + number + "</v></c>");
+            } else {
+                writer.write("<c r=\"" + ref + "\" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                writer.write(escapeXml(value.toString()));
+                writer.write("</t></is></c>");
+            }
+        }
+        writer.write("</row>");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+        zip.close();
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    // 0 -> A, 25 -> Z, 26 -> AA
+    private static String columnName(int index) {
+        StringBuilder name = new StringBuilder();
+        for (int n = index + 1; n > 0; n = (n - 1) / 26) {
+            name.insert(0, (char) ('A' + (n - 1) % 26));
+        }
+        return name.toString();
+    }
+
+    private static String escapeXml(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                default -> {
+                    // Bỏ ký tự điều khiển không hợp lệ trong XML 1.0
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+}
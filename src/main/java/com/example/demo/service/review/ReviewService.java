@@ -5,6 +5,7 @@ import com.example.demo.dto.review.ReviewResponse;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public interface ReviewService {
     void createReview(ReviewRequest request);
@@ -13,6 +14,7 @@ public interface ReviewService {
     void approveReview(Long id);
     ReviewResponse getReview(Long id);
     List<ReviewResponse> getAllReviews();
+    void streamAllReviews(Consumer<ReviewResponse> consumer);
     List<ReviewResponse> getReviewsByHotelId(Long hotelId);
     List<ReviewResponse> getApprovedReviewsByHotelId(Long hotelId);
     List<ReviewResponse> getReviewsByUserId(Long userId);
@@ -8,12 +8,16 @@ import com.example.demo.entity.Hotel;
 import com.example.demo.entity.Review;
 import com.example.demo.entity.ReviewImage;
 import com.example.demo.entity.User;
+import com.example.demo.event.CatalogChangedEvent;
 import com.example.demo.repository.HotelRepository;
 import com.example.demo.repository.ReviewImageRepository;
 import com.example.demo.repository.ReviewRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.utils.StreamUtils;
+import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -25,17 +29,22 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class ReviewServiceImpl implements ReviewService {
+    private static final int STREAM_BATCH_SIZE = 200;
+
     private final ReviewRepository reviewRepository;
     private final HotelRepository hotelRepository;
     private final UserRepository userRepository;
     private final ReviewImageRepository reviewImageRepository;
     private final ModelMapper modelMapper;
     private final ReviewValidationService reviewValidationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
@@ -69,13 +78,9 @@ public class ReviewServiceImpl implements ReviewService {
         review = reviewRepository.save(review);
 
         if (request.getImageUrls() != null && !request.getImageUrls().isEmpty()) {
-            for (String imageUrl : request.getImageUrls()) {
-                ReviewImage reviewImage = new ReviewImage();
-                reviewImage.setReview(review);
-                reviewImage.setImageUrl(imageUrl);
-                reviewImageRepository.save(reviewImage);
-            }
+            reviewImageRepository.saveAll(buildReviewImages(review, request.getImageUrls()));
         }
+        publishReviewChanged(review, CatalogChangedEvent.Action.CREATED);
     }
 
     @Override
@@ -122,15 +127,11 @@ public class ReviewServiceImpl implements ReviewService {
 
         // Thêm hình ảnh mới
         if (request.getImageUrls() != null && !request.getImageUrls().isEmpty()) {
-            for (String imageUrl : request.getImageUrls()) {
-                ReviewImage reviewImage = new ReviewImage();
-                reviewImage.setReview(review);
-                reviewImage.setImageUrl(imageUrl);
-                reviewImageRepository.save(reviewImage);
-            }
+            reviewImageRepository.saveAll(buildReviewImages(review, request.getImageUrls()));
         }
 
         reviewRepository.save(review);
+        publishReviewChanged(review, CatalogChangedEvent.Action.UPDATED);
     }
 
     @Override
@@ -139,6 +140,7 @@ public class ReviewServiceImpl implements ReviewService {
         Review review = reviewRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Review not found with ID: " + id));
         reviewRepository.delete(review);
+        publishReviewChanged(review, CatalogChangedEvent.Action.DELETED);
     }
 
     @Override
@@ -148,6 +150,7 @@ public class ReviewServiceImpl implements ReviewService {
                 .orElseThrow(() -> new RuntimeException("Review not found with ID: " + id));
         review.setIsApproved(true);
         reviewRepository.save(review);
+        publishReviewChanged(review, CatalogChangedEvent.Action.UPDATED);
     }
 
     @Override
@@ -158,6 +161,7 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ReviewResponse> getAllReviews() {
         return reviewRepository.findAll().stream()
                 .map(this::convertToResponse)
@@ -165,6 +169,14 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public void streamAllReviews(Consumer<ReviewResponse> consumer) {
+        StreamUtils.forEachDetaching(reviewRepository.streamAll(), entityManager, STREAM_BATCH_SIZE,
+                review -> consumer.accept(convertToResponse(review)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<ReviewResponse> getReviewsByHotelId(Long hotelId) {
         return reviewRepository.findByHotelId(hotelId).stream()
                 .map(this::convertToResponse)
@@ -172,6 +184,7 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ReviewResponse> getApprovedReviewsByHotelId(Long hotelId) {
         return reviewRepository.findByHotelIdAndIsApprovedTrue(hotelId).stream()
                 .map(this::convertToResponse)
@@ -179,6 +192,7 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ReviewResponse> getReviewsByUserId(Long userId) {
         return reviewRepository.findByUserId(userId).stream()
                 .map(this::convertToResponse)
@@ -216,6 +230,7 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Override
     @PreAuthorize("hasRole('ADMIN') or hasRole('HOTEL_MANAGER')")
+    @Transactional(readOnly = true)
     public List<ReviewResponse> getPendingReviews() {
         return reviewRepository.findByIsApprovedFalse().stream()
                 .map(this::convertToResponse)
@@ -223,6 +238,7 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getHotelReviewStats(Long hotelId) {
         List<Review> reviews = reviewRepository.findByHotelIdAndIsApprovedTrue(hotelId);
 
@@ -282,4 +298,20 @@ public class ReviewServiceImpl implements ReviewService {
 
         return stats;
     }
-}
\ No newline at end of file
+
+    private List<ReviewImage> buildReviewImages(Review review, List<String> imageUrls) {
+        List<ReviewImage> images = new ArrayList<>();
+        for (String imageUrl : imageUrls) {
+            ReviewImage reviewImage = new ReviewImage();
+            reviewImage.setReview(review);
+            reviewImage.setImageUrl(imageUrl);
+            images.add(reviewImage);
+        }
+        return images;
+    }
+
+    private void publishReviewChanged(Review review, CatalogChangedEvent.Action action) {
+        eventPublisher.publishEvent(new CatalogChangedEvent(review, CatalogChangedEvent.ResourceType.REVIEW,
+                review.getId(), action));
+    }
+}
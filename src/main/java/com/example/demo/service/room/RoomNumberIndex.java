@@ -0,0 +1,165 @@
+package com.example.demo.service.room;
+
+import com.example.demo.entity.Room;
+import com.example.demo.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index n-gram (1..3 ký tự) trên số phòng, tách riêng theo từng khách sạn.
+ * Tìm chuỗi con: truy vấn ≤ 3 ký tự đọc thẳng posting list; dài hơn thì giao các trigram rồi kiểm tra lại contains.
+ * Dữ liệu của một khách sạn được nạp từ DB ở lần tìm đầu tiên, sau đó chỉ cập nhật qua RoomServiceImpl.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomNumberIndex {
+
+    private static final int GRAM_SIZE = 3;
+
+    private final RoomRepository roomRepository;
+
+    private final Map<Long, HotelRooms> hotels = new ConcurrentHashMap<>();
+    // roomId -> hotelId, để biết xóa ở khách sạn nào khi phòng đổi loại phòng/khách sạn
+    private final Map<Long, Long> roomToHotel = new ConcurrentHashMap<>();
+
+    private static final class HotelRooms {
+        private final Map<Long, String> roomNumbers = new HashMap<>();
+        private final Map<String, Set<Long>> postings = new HashMap<>();
+
+        private void add(Long roomId, String roomNumber) {
+            String normalized = normalize(roomNumber);
+            roomNumbers.put(roomId, normalized);
+            for (String gram : grams(normalized)) {
+                postings.computeIfAbsent(gram, key -> new HashSet<>()).add(roomId);
+            }
+        }
+
+        private void remove(Long roomId) {
+            String normalized = roomNumbers.remove(roomId);
+            if (normalized == null) {
+                return;
+            }
+            for (String gram : grams(normalized)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(roomId);
+                    if (ids.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+
+        private List<Long> search(String query) {
+            Set<Long> candidates;
+            if (query.length() <= GRAM_SIZE) {
+                candidates = postings.getOrDefault(query, Set.of());
+            } else {
+                candidates = null;
+                for (int i = 0; i + GRAM_SIZE <= query.length(); i++) {
+                    Set<Long> ids = postings.get(query.substring(i, i + GRAM_SIZE));
+                    if (ids == null) {
+                        return new ArrayList<>();
+                    }
+                    if (candidates == null) {
+                        candidates = new HashSet<>(ids);
+                    } else {
+                        candidates.retainAll(ids);
+                    }
+                    if (candidates.isEmpty()) {
+                        return new ArrayList<>();
+                    }
+                }
+            }
+
+            List<Long> result = new ArrayList<>();
+            for (Long roomId : candidates) {
+                String roomNumber = roomNumbers.get(roomId);
+                // Giao trigram có thể dương tính giả ("1012" chứa "101","012" nhưng không chứa "1013")
+                if (roomNumber != null && roomNumber.contains(query)) {
+                    result.add(roomId);
+                }
+            }
+            result.sort(Comparator.comparing(roomNumbers::get));
+            return result;
+        }
+    }
+
+    /**
+     * Trả về id các phòng của khách sạn có số phòng chứa chuỗi query, sắp theo số phòng.
+     */
+    public List<Long> search(Long hotelId, String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return new ArrayList<>();
+        }
+        HotelRooms rooms = hotels.computeIfAbsent(hotelId, this::load);
+        List<Long> result;
+        synchronized (rooms) {
+            result = rooms.search(normalized);
+        }
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    public void put(Room room) {
+        if (room.getId() == null || room.getRoomType() == null || room.getRoomType().getHotel() == null) {
+            return;
+        }
+        remove(room.getId());
+        Long hotelId = room.getRoomType().getHotel().getId();
+        HotelRooms rooms = hotels.get(hotelId);
+        // Khách sạn chưa được nạp thì lần tìm đầu tiên sẽ đọc từ DB, không cần thêm
+        if (rooms != null) {
+            synchronized (rooms) {
+                rooms.add(room.getId(), room.getRoomNumber());
+            }
+            roomToHotel.put(room.getId(), hotelId);
+        }
+    }
+
+    public void remove(Long roomId) {
+        Long hotelId = roomToHotel.remove(roomId);
+        if (hotelId == null) {
+            return;
+        }
+        HotelRooms rooms = hotels.get(hotelId);
+        if (rooms != null) {
+            synchronized (rooms) {
+                rooms.remove(roomId);
+            }
+        }
+    }
+
+    private HotelRooms load(Long hotelId) {
+        HotelRooms rooms = new HotelRooms();
+        for (Object[] row : roomRepository.findRoomNumbersByHotelId(hotelId)) {
+            Long roomId = (Long) row[0];
+            rooms.add(roomId, (String) row[1]);
+            roomToHotel.put(roomId, hotelId);
+        }
+        return rooms;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase();
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int size = 1; size <= GRAM_SIZE; size++) {
+            for (int i = 0; i + size <= value.length(); i++) {
+                grams.add(value.substring(i, i + size));
+            }
+        }
+        return grams;
+    }
+}
@@ -3,6 +3,7 @@ package com.example.demo.service.room;
 import com.example.demo.dto.room.RoomRequest;
 import com.example.demo.dto.room.RoomResponse;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface RoomService {
     void createRoom(RoomRequest request);
@@ -10,5 +11,7 @@ public interface RoomService {
     void deleteRoom(Long id);
     RoomResponse getRoom(Long id);
     List<RoomResponse> getAllRooms();
+    void streamAllRooms(Consumer<RoomResponse> consumer);
     List<RoomResponse> getRoomsByRoomTypeId(Long roomTypeId);
+    List<RoomResponse> searchRoomsByNumber(Long hotelId, String query, int limit);
 }
\ No newline at end of file
@@ -1,40 +1,55 @@
 package com.example.demo.service.room;
 
 import com.example.demo.dto.room.RoomRequest;
+import com.example.demo.enumm.RoomStatusCode;
 import com.example.demo.dto.room.RoomResponse;
 import com.example.demo.entity.Room;
 import com.example.demo.entity.RoomType;
 import com.example.demo.repository.RoomRepository;
 import com.example.demo.repository.RoomTypeRepository;
 
+import com.example.demo.utils.StreamUtils;
+import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class RoomServiceImpl implements RoomService {
+    private static final int STREAM_BATCH_SIZE = 200;
+
     private final RoomRepository roomRepository;
     private final RoomTypeRepository roomTypeRepository;
     private final ModelMapper modelMapper;
+    private final RoomNumberIndex roomNumberIndex;
+    private final EntityManager entityManager;
 
     @Override
     @PreAuthorize("hasRole('ADMIN')")
     public void createRoom(RoomRequest request) {
+        validateStatus(request.getStatus());
         RoomType roomType = roomTypeRepository.findById(request.getRoomTypeId())
                 .orElseThrow(() -> new RuntimeException("RoomType not found with ID: " + request.getRoomTypeId()));
         Room room = modelMapper.map(request, Room.class);
         room.setRoomType(roomType);
-        roomRepository.save(room);
+        roomNumberIndex.put(roomRepository.save(room));
     }
 
     @Override
     @PreAuthorize("hasRole('ADMIN')")
     public void updateRoom(Long id, RoomRequest request) {
+        validateStatus(request.getStatus());
         Room room = roomRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Room not found with ID: " + id));
 
@@ -44,7 +59,7 @@ public class RoomServiceImpl implements RoomService {
         modelMapper.map(request, room);
         room.setRoomType(roomType);
 
-        roomRepository.save(room);
+        roomNumberIndex.put(roomRepository.save(room));
     }
 
     @Override
@@ -53,6 +68,7 @@ public class RoomServiceImpl implements RoomService {
         Room room = roomRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Room not found with ID: " + id));
         roomRepository.delete(room);
+        roomNumberIndex.remove(id);
     }
 
     @Override
@@ -71,6 +87,13 @@ public class RoomServiceImpl implements RoomService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllRooms(Consumer<RoomResponse> consumer) {
+        StreamUtils.forEachDetaching(roomRepository.streamAll(), entityManager, STREAM_BATCH_SIZE,
+                room -> consumer.accept(convertToResponse(room)));
+    }
+
     @Override
     public List<RoomResponse> getRoomsByRoomTypeId(Long roomTypeId) {
         // Kiểm tra room type có tồn tại không
@@ -86,6 +109,25 @@ public class RoomServiceImpl implements RoomService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<RoomResponse> searchRoomsByNumber(Long hotelId, String query, int limit) {
+        List<Long> roomIds = roomNumberIndex.search(hotelId, query, Math.min(Math.max(limit, 1), 100));
+        if (roomIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Đọc lại theo khóa chính để trạng thái phòng luôn là trạng thái hiện tại
+        Map<Long, Room> roomsById = roomRepository.findAllById(roomIds).stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+
+        return roomIds.stream()
+                .map(roomsById::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+
     // Helper method để convert Room entity sang RoomResponse DTO
     private RoomResponse convertToResponse(Room room) {
         RoomResponse response = modelMapper.map(room, RoomResponse.class);
@@ -101,4 +143,11 @@ public class RoomServiceImpl implements RoomService {
 
         return response;
     }
-}
\ No newline at end of file
+
+    // Cột status lưu mã số: trạng thái lạ bị từ chối ngay ở đây (400) thay vì lỗi lúc flush
+    private void validateStatus(String status) {
+        if (status != null) {
+            RoomStatusCode.fromDisplayName(status);
+        }
+    }
+}
@@ -3,9 +3,11 @@ package com.example.demo.service.roomImage;
 import com.example.demo.dto.room_image.RoomImageRequest;
 import com.example.demo.entity.RoomImage;
 import com.example.demo.entity.RoomType;
+import com.example.demo.event.CatalogChangedEvent;
 import com.example.demo.repository.RoomImageRepository;
 import com.example.demo.repository.RoomTypeRepository;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
@@ -23,6 +25,7 @@ public class RoomImageServiceImpl implements RoomImageService {
 
     private final RoomImageRepository roomImageRepository;
     private final RoomTypeRepository roomTypeRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PreAuthorize("hasRole('ADMIN')")
     @Override
@@ -39,7 +42,7 @@ public class RoomImageServiceImpl implements RoomImageService {
         image.setImageUrl(imageUrl);
 
         roomImageRepository.save(image);
-
+        publishRoomTypeChanged(roomType);
     }
 
     @PreAuthorize("hasRole('USER')")
@@ -53,12 +56,17 @@ public class RoomImageServiceImpl implements RoomImageService {
         RoomType roomType = roomTypeRepository.findById(request.getRoomTypeId())
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy loại phòng"));
 
+        RoomType previousRoomType = existingImage.getRoomType();
         existingImage.setRoomType(roomType);
         existingImage.setCaption(request.getCaption());
         existingImage.setIsPrimary(Boolean.TRUE.equals(request.getIsPrimary()));
         existingImage.setImageUrl(imageUrl);
 
         roomImageRepository.save(existingImage);
+        publishRoomTypeChanged(roomType);
+        if (previousRoomType != null && !previousRoomType.getId().equals(roomType.getId())) {
+            publishRoomTypeChanged(previousRoomType);
+        }
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -67,7 +75,14 @@ public class RoomImageServiceImpl implements RoomImageService {
         RoomImage image = roomImageRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy ảnh phòng"));
         roomImageRepository.delete(image);
+        publishRoomTypeChanged(image.getRoomType());
     }
 
-
+    // Ảnh là một phần của loại phòng (và chi tiết khách sạn)
+    private void publishRoomTypeChanged(RoomType roomType) {
+        if (roomType != null) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(roomType, CatalogChangedEvent.ResourceType.ROOM_TYPE,
+                    roomType.getId(), CatalogChangedEvent.Action.UPDATED));
+        }
+    }
 }
@@ -0,0 +1,115 @@
+package com.example.demo.service.room_assignment;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Xếp booking vào phòng của một loại phòng theo kiểu best-fit trên lịch từng phòng (RoomIntervalTree):
+ * chọn phòng mà khoảng ở khít nhất với booking trước/sau, tránh để lại khe ngắn hơn minSellableGap đêm
+ * (đêm lẻ không bán được). Phía không có booking nào tính là khe mở tới mép horizon, không bị phạt,
+ * nên phòng trống hoàn toàn chỉ được dùng khi không phòng nào ghép khít hơn.
+ * Hòa điểm thì lấy phòng đứng trước theo thứ tự thêm vào (số phòng), giống cách gán cũ.
+ */
+public class RoomAssignmentPlanner {
+
+    private static final long STRANDED_PENALTY = 1_000_000L;
+
+    private final Map<Long, RoomIntervalTree> rooms = new LinkedHashMap<>();
+    private final long horizonStart;
+    private final long horizonEnd;
+    private final int minSellableGap;
+
+    public RoomAssignmentPlanner(long horizonStart, long horizonEnd, int minSellableGap) {
+        this.horizonStart = horizonStart;
+        this.horizonEnd = horizonEnd;
+        this.minSellableGap = minSellableGap;
+    }
+
+    public void addRoom(Long roomId) {
+        rooms.putIfAbsent(roomId, new RoomIntervalTree());
+    }
+
+    /**
+     * Ghi nhận khoảng ở đã gán sẵn. Phòng chưa thêm hoặc khoảng chồng lấn thì bỏ qua và trả false.
+     */
+    public boolean occupy(Long roomId, long start, long end) {
+        RoomIntervalTree tree = rooms.get(roomId);
+        return tree != null && tree.add(start, end);
+    }
+
+    /**
+     * Phòng tốt nhất cho khoảng [start, end) trong số candidates (null = mọi phòng), chưa ghi nhận vào lịch.
+     */
+    public Long bestRoom(long start, long end, Collection<Long> candidates) {
+        Long bestRoomId = null;
+        long bestCost = Long.MAX_VALUE;
+        for (Map.Entry<Long, RoomIntervalTree> room : rooms.entrySet()) {
+            if (candidates != null && !candidates.contains(room.getKey())) {
+                continue;
+            }
+            RoomIntervalTree tree = room.getValue();
+            if (tree.overlaps(start, end)) {
+                continue;
+            }
+            long cost = cost(tree, start, end);
+            if (cost < bestCost) {
+                bestCost = cost;
+                bestRoomId = room.getKey();
+            }
+        }
+        return bestRoomId;
+    }
+
+    /**
+     * Chọn phòng best-fit và ghi nhận luôn khoảng ở, null nếu không phòng nào trống.
+     */
+    public Long assignBestFit(long start, long end) {
+        Long roomId = bestRoom(start, end, null);
+        if (roomId != null) {
+            rooms.get(roomId).add(start, end);
+        }
+        return roomId;
+    }
+
+    /**
+     * Cách gán cũ (phòng trống đầu tiên theo số phòng), dùng làm mốc so sánh trong báo cáo.
+     */
+    public Long assignFirstFit(long start, long end) {
+        for (Map.Entry<Long, RoomIntervalTree> room : rooms.entrySet()) {
+            if (room.getValue().add(start, end)) {
+                return room.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tổng số đêm lẻ (khe ngắn hơn minSellableGap giữa hai booking) trong horizon của mọi phòng.
+     */
+    public long strandedNights() {
+        long stranded = 0;
+        for (RoomIntervalTree tree : rooms.values()) {
+            stranded += tree.strandedNights(horizonStart, horizonEnd, minSellableGap);
+        }
+        return stranded;
+    }
+
+    public RoomAssignmentPlanner copy() {
+        RoomAssignmentPlanner copy = new RoomAssignmentPlanner(horizonStart, horizonEnd, minSellableGap);
+        rooms.forEach((roomId, tree) -> copy.rooms.put(roomId, tree.copy()));
+        return copy;
+    }
+
+    private long cost(RoomIntervalTree tree, long start, long end) {
+        Long previousEnd = tree.previousEnd(start);
+        Long nextStart = tree.nextStart(end);
+        long before = previousEnd != null ? gapCost(start - previousEnd) : Math.max(start - horizonStart, 0);
+        long after = nextStart != null ? gapCost(nextStart - end) : Math.max(horizonEnd - end, 0);
+        return before + after;
+    }
+
+    private long gapCost(long gap) {
+        return gap > 0 && gap < minSellableGap ? STRANDED_PENALTY + gap : gap;
+    }
+}
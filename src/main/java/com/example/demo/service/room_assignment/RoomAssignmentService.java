@@ -0,0 +1,15 @@
+package com.example.demo.service.room_assignment;
+
+import com.example.demo.dto.room_assignment.RoomAssignmentReport;
+import com.example.demo.entity.Room;
+
+import java.time.LocalDate;
+
+public interface RoomAssignmentService {
+
+    // Phòng trống khít lịch nhất cho khoảng ở, null nếu hết phòng
+    Room findBestRoom(Long roomTypeId, LocalDate checkInDate, LocalDate checkOutDate);
+
+    // Xếp lại các booking đã xác nhận nhưng chưa gán phòng (nhận phòng từ hôm nay) và so với cách gán cũ
+    RoomAssignmentReport repackUnassigned();
+}
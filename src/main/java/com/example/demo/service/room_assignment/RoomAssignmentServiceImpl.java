@@ -0,0 +1,143 @@
+package com.example.demo.service.room_assignment;
+
+import com.example.demo.config.RoomAssignmentProperties;
+import com.example.demo.dto.room_assignment.RoomAssignmentReport;
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.Room;
+import com.example.demo.repository.BookingRepository;
+import com.example.demo.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Gán phòng cho booking theo lịch từng phòng thay cho "phòng trống đầu tiên".
+ * Ứng viên là mọi phòng còn bán được của loại phòng (trừ bảo trì/hỏng); phòng có rảnh hay không do lịch
+ * (RoomIntervalTree dựng từ các khoảng ở đã gán) quyết định, không theo trạng thái hiện tại của phòng,
+ * vì PaymentEventListener đánh dấu phòng đã gán là "Đã đặt" dù khoảng ở còn ở tương lai.
+ * RoomAssignmentPlanner chọn phòng trống lịch sao cho không để lại đêm lẻ.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoomAssignmentServiceImpl implements RoomAssignmentService {
+    private static final Logger log = LoggerFactory.getLogger(RoomAssignmentServiceImpl.class);
+
+    private final RoomRepository roomRepository;
+    private final BookingRepository bookingRepository;
+    private final RoomAssignmentProperties properties;
+
+    @Override
+    public Room findBestRoom(Long roomTypeId, LocalDate checkInDate, LocalDate checkOutDate) {
+        List<Room> rooms = roomRepository.findSellableRoomsByRoomType(roomTypeId);
+        if (rooms.isEmpty()) {
+            return null;
+        }
+
+        LocalDate from = min(LocalDate.now(), checkInDate);
+        LocalDate to = max(LocalDate.now().plusDays(properties.getHorizonDays()), checkOutDate);
+        RoomAssignmentPlanner planner = planner(roomTypeId, rooms, from, to);
+
+        Long roomId = planner.bestRoom(checkInDate.toEpochDay(), checkOutDate.toEpochDay(), null);
+        return roomId != null ? byId(rooms).get(roomId) : null;
+    }
+
+    @Override
+    @Transactional
+    public RoomAssignmentReport repackUnassigned() {
+        long started = System.nanoTime();
+        LocalDate today = LocalDate.now();
+
+        Map<Long, List<Booking>> bookingsByRoomType = bookingRepository.findConfirmedBookingsWithoutAssignedRoom().stream()
+                .filter(booking -> !booking.getCheckInDate().isBefore(today))
+                .collect(Collectors.groupingBy(booking -> booking.getRoomType().getId(), LinkedHashMap::new, Collectors.toList()));
+
+        int bookings = 0;
+        int assigned = 0;
+        int greedyAssigned = 0;
+        long assignedNights = 0;
+        long greedyNights = 0;
+        long strandedNights = 0;
+        long greedyStrandedNights = 0;
+
+        for (Map.Entry<Long, List<Booking>> entry : bookingsByRoomType.entrySet()) {
+            List<Booking> unassigned = entry.getValue();
+            // Xếp theo ngày nhận phòng, cùng ngày thì khoảng ở dài trước (interval partitioning)
+            unassigned.sort(Comparator.comparing(Booking::getCheckInDate)
+                    .thenComparing(Booking::getCheckOutDate, Comparator.reverseOrder()));
+
+            List<Room> rooms = roomRepository.findSellableRoomsByRoomType(entry.getKey());
+            LocalDate to = unassigned.stream().map(Booking::getCheckOutDate)
+                    .reduce(today.plusDays(properties.getHorizonDays()), RoomAssignmentServiceImpl::max);
+            RoomAssignmentPlanner planner = planner(entry.getKey(), rooms, today, to);
+            RoomAssignmentPlanner greedy = planner.copy();
+            Map<Long, Room> roomsById = byId(rooms);
+
+            for (Booking booking : unassigned) {
+                long start = booking.getCheckInDate().toEpochDay();
+                long end = booking.getCheckOutDate().toEpochDay();
+                bookings++;
+
+                if (greedy.assignFirstFit(start, end) != null) {
+                    greedyAssigned++;
+                    greedyNights += end - start;
+                }
+
+                Long roomId = planner.assignBestFit(start, end);
+                if (roomId != null) {
+                    booking.setAssignedRoom(roomsById.get(roomId));
+                    assigned++;
+                    assignedNights += end - start;
+                }
+            }
+
+            strandedNights += planner.strandedNights();
+            greedyStrandedNights += greedy.strandedNights();
+        }
+
+        RoomAssignmentReport report = RoomAssignmentReport.builder()
+                .roomTypes(bookingsByRoomType.size())
+                .bookings(bookings)
+                .assigned(assigned)
+                .unplaced(bookings - assigned)
+                .greedyAssigned(greedyAssigned)
+                .greedyStrandedNights(greedyStrandedNights)
+                .strandedNights(strandedNights)
+                .recoveredNights((assignedNights - greedyNights) + (greedyStrandedNights - strandedNights))
+                .elapsedMillis((System.nanoTime() - started) / 1_000_000)
+                .build();
+        log.info("Xếp lại phòng: {}", report);
+        return report;
+    }
+
+    private RoomAssignmentPlanner planner(Long roomTypeId, List<Room> rooms, LocalDate from, LocalDate to) {
+        RoomAssignmentPlanner planner = new RoomAssignmentPlanner(from.toEpochDay(), to.toEpochDay(),
+                properties.getMinSellableGapNights());
+        rooms.forEach(room -> planner.addRoom(room.getId()));
+        for (Object[] stay : bookingRepository.findAssignedStaysByRoomType(roomTypeId, from, to)) {
+            planner.occupy((Long) stay[0], ((LocalDate) stay[1]).toEpochDay(), ((LocalDate) stay[2]).toEpochDay());
+        }
+        return planner;
+    }
+
+    private static Map<Long, Room> byId(List<Room> rooms) {
+        return rooms.stream().collect(Collectors.toMap(Room::getId, Function.identity(), (a, b) -> a, LinkedHashMap::new));
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
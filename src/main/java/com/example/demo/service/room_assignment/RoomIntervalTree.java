@@ -0,0 +1,80 @@
+package com.example.demo.service.room_assignment;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Lịch của một phòng: các khoảng ở [start, end) tính bằng epoch day, không chồng lấn nhau,
+ * giữ trong cây đỏ-đen (TreeMap) theo ngày bắt đầu. Vì các khoảng trong một phòng không bao giờ giao nhau
+ * nên không cần cây khoảng tăng cường (max end): khoảng đứng ngay trước ngày bắt đầu là ứng viên giao duy nhất,
+ * kiểm tra chồng lấn và tìm hàng xóm trước/sau đều O(log n).
+ */
+public class RoomIntervalTree {
+
+    private final TreeMap<Long, Long> intervals = new TreeMap<>();
+
+    public boolean overlaps(long start, long end) {
+        Map.Entry<Long, Long> before = intervals.lowerEntry(end);
+        return before != null && before.getValue() > start;
+    }
+
+    /**
+     * Thêm khoảng ở. Trả false (không thêm) nếu giao với khoảng đã có.
+     */
+    public boolean add(long start, long end) {
+        if (end <= start) {
+            throw new IllegalArgumentException("Khoảng ở phải có ít nhất một đêm");
+        }
+        if (overlaps(start, end)) {
+            return false;
+        }
+        intervals.put(start, end);
+        return true;
+    }
+
+    /**
+     * Ngày trả phòng của khoảng gần nhất kết thúc trước (hoặc đúng) start, null nếu không có.
+     */
+    public Long previousEnd(long start) {
+        Map.Entry<Long, Long> before = intervals.floorEntry(start);
+        return before != null ? before.getValue() : null;
+    }
+
+    /**
+     * Ngày nhận phòng của khoảng gần nhất bắt đầu từ end trở đi, null nếu không có.
+     */
+    public Long nextStart(long end) {
+        return intervals.ceilingKey(end);
+    }
+
+    public int size() {
+        return intervals.size();
+    }
+
+    /**
+     * Số đêm trống nằm kẹp giữa hai khoảng ở liên tiếp trong [from, to) và ngắn hơn minSellableGap đêm.
+     */
+    public long strandedNights(long from, long to, int minSellableGap) {
+        long stranded = 0;
+        Long previousEnd = null;
+        for (Map.Entry<Long, Long> interval : intervals.subMap(from, true, to, false).entrySet()) {
+            if (previousEnd == null) {
+                previousEnd = previousEnd(interval.getKey() - 1);
+            }
+            if (previousEnd != null) {
+                long gap = interval.getKey() - previousEnd;
+                if (gap > 0 && gap < minSellableGap) {
+                    stranded += gap;
+                }
+            }
+            previousEnd = interval.getValue();
+        }
+        return stranded;
+    }
+
+    public RoomIntervalTree copy() {
+        RoomIntervalTree copy = new RoomIntervalTree();
+        copy.intervals.putAll(intervals);
+        return copy;
+    }
+}
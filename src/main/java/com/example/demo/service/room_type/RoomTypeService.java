@@ -4,11 +4,14 @@ import com.example.demo.dto.room_type.RoomTypeRequest;
 import com.example.demo.dto.room_type.RoomTypeResponse;
 import com.example.demo.entity.RoomType;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface RoomTypeService {
     public RoomType createRoomType(RoomTypeRequest request);
     List<RoomTypeResponse> getRoomTypesByHotelId(Long hotelId);
+    List<RoomTypeResponse> getRoomTypesByIds(List<Long> ids);
     RoomType updateRoomType(Long roomTypeId, RoomTypeRequest request);
+    List<RoomTypeResponse> getRoomTypesChangedSince(LocalDateTime since);
 
 }
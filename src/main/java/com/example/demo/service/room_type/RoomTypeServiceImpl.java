@@ -3,18 +3,27 @@ package com.example.demo.service.room_type;
 import com.example.demo.dto.room_type.RoomTypeRequest;
 import com.example.demo.dto.room_type.RoomTypeResponse;
 import com.example.demo.entity.*;
+import com.example.demo.event.CatalogChangedEvent;
 import com.example.demo.repository.AmenityRepository;
 import com.example.demo.repository.HotelRepository;
 import com.example.demo.repository.RoomImageRepository;
 import com.example.demo.repository.RoomTypeRepository;
 import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +35,9 @@ public class RoomTypeServiceImpl implements RoomTypeService {
     private final AmenityRepository amenityRepository;
     private final RoomImageRepository roomImageRepository;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int MAX_BATCH_IDS = 50;
 
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -58,7 +70,8 @@ public class RoomTypeServiceImpl implements RoomTypeService {
             savedRoomType.setImages(images);
         }
 
-
+        eventPublisher.publishEvent(new CatalogChangedEvent(savedRoomType, CatalogChangedEvent.ResourceType.ROOM_TYPE,
+                savedRoomType.getId(), CatalogChangedEvent.Action.CREATED));
         return savedRoomType;
     }
 
@@ -77,25 +90,89 @@ public class RoomTypeServiceImpl implements RoomTypeService {
                 .collect(Collectors.toList());
     }
 
-    private RoomTypeResponse convertToResponse(RoomType roomType) {
-        RoomTypeResponse response = modelMapper.map(roomType, RoomTypeResponse.class);
+    /**
+     * Lấy nhiều loại phòng một lần với 3 câu truy vấn IN (loại phòng + khách sạn, ảnh, tên tiện nghi)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<RoomTypeResponse> getRoomTypesByIds(List<Long> ids) {
+        List<Long> distinctIds = ids == null ? new ArrayList<>() : ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        if (distinctIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (distinctIds.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("Chỉ được lấy tối đa " + MAX_BATCH_IDS + " loại phòng mỗi lần");
+        }
 
-        // Set hotelId
-        response.setHotelId(roomType.getHotel().getId());
+        Map<Long, RoomType> roomTypes = roomTypeRepository.findAllWithHotelByIdIn(distinctIds).stream()
+                .collect(Collectors.toMap(RoomType::getId, Function.identity()));
 
+        Map<Long, Set<String>> imageUrls = new HashMap<>();
+        for (RoomImage image : roomImageRepository.findByRoomType_IdIn(distinctIds)) {
+            imageUrls.computeIfAbsent(image.getRoomType().getId(), key -> new HashSet<>()).add(image.getImageUrl());
+        }
+
+        Map<Long, Set<String>> amenityNames = new HashMap<>();
+        for (Object[] row : roomTypeRepository.findAmenityNamesByRoomTypeIds(distinctIds)) {
+            amenityNames.computeIfAbsent((Long) row[0], key -> new HashSet<>()).add((String) row[1]);
+        }
+
+        // Giữ thứ tự id client gửi, bỏ qua id không tồn tại
+        List<RoomTypeResponse> responses = new ArrayList<>();
+        for (Long id : distinctIds) {
+            RoomType roomType = roomTypes.get(id);
+            if (roomType != null) {
+                responses.add(convertToResponse(roomType, imageUrls.get(id), amenityNames.get(id)));
+            }
+        }
+        return responses;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RoomTypeResponse> getRoomTypesChangedSince(LocalDateTime since) {
+        List<RoomType> roomTypes = since != null
+                ? roomTypeRepository.findByUpdatedAtGreaterThanEqual(since)
+                : roomTypeRepository.findAll();
+        return roomTypes.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+
+    private RoomTypeResponse convertToResponse(RoomType roomType) {
+        Set<String> imageUrls = null;
         // Set image URLs
         if (roomType.getImages() != null && !roomType.getImages().isEmpty()) {
-            Set<String> imageUrls = roomType.getImages().stream()
+            imageUrls = roomType.getImages().stream()
                     .map(RoomImage::getImageUrl)
                     .collect(Collectors.toSet());
-            response.setImageUrls(imageUrls);
         }
 
+        Set<String> amenityNames = null;
         // Set amenity names - Sửa từ getName() thành getAmenityName()
         if (roomType.getAmenities() != null && !roomType.getAmenities().isEmpty()) {
-            Set<String> amenityNames = roomType.getAmenities().stream()
+            amenityNames = roomType.getAmenities().stream()
                     .map(Amenity::getAmenityName)  // Sửa ở đây
                     .collect(Collectors.toSet());
+        }
+
+        return convertToResponse(roomType, imageUrls, amenityNames);
+    }
+
+    // Ảnh và tiện nghi truyền vào từ ngoài để bản batch dùng dữ liệu đã nạp bằng truy vấn IN
+    private RoomTypeResponse convertToResponse(RoomType roomType, Set<String> imageUrls, Set<String> amenityNames) {
+        RoomTypeResponse response = modelMapper.map(roomType, RoomTypeResponse.class);
+
+        // Set hotelId
+        response.setHotelId(roomType.getHotel().getId());
+
+        if (imageUrls != null && !imageUrls.isEmpty()) {
+            response.setImageUrls(imageUrls);
+        }
+        if (amenityNames != null && !amenityNames.isEmpty()) {
             response.setAmenityNames(amenityNames);
         }
 
@@ -114,6 +191,8 @@ public class RoomTypeServiceImpl implements RoomTypeService {
         Hotel hotel = hotelRepository.findById(request.getHotelId())
                 .orElseThrow(() -> new RuntimeException("Hotel không tồn tại với ID: " + request.getHotelId()));
 
+        Hotel previousHotel = existingRoomType.getHotel();
+
         // Update các field cơ bản
         existingRoomType.setTypeName(request.getTypeName());
         existingRoomType.setDescription(request.getDescription());
@@ -161,6 +240,14 @@ public class RoomTypeServiceImpl implements RoomTypeService {
             }
         }
 
+        eventPublisher.publishEvent(new CatalogChangedEvent(savedRoomType, CatalogChangedEvent.ResourceType.ROOM_TYPE,
+                savedRoomType.getId(), CatalogChangedEvent.Action.UPDATED));
+        // Loại phòng chuyển sang khách sạn khác thì chi tiết lẫn danh sách loại phòng của khách sạn cũ cũng thay đổi:
+        // sự kiện ROOM_TYPE với nguồn là khách sạn cũ
+        if (previousHotel != null && !previousHotel.getId().equals(hotel.getId())) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(previousHotel, CatalogChangedEvent.ResourceType.ROOM_TYPE,
+                    savedRoomType.getId(), CatalogChangedEvent.Action.UPDATED));
+        }
         return savedRoomType;
     }
 }
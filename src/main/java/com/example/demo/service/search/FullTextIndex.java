@@ -0,0 +1,331 @@
+package com.example.demo.service.search;
+
+import com.example.demo.dto.search.TextSearchResponse;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Review;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.repository.HotelRepository;
+import com.example.demo.repository.ReviewRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.highlight.Highlighter;
+import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
+import org.apache.lucene.search.highlight.QueryScorer;
+import org.apache.lucene.search.highlight.SimpleHTMLEncoder;
+import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.apache.lucene.search.highlight.SimpleSpanFragmenter;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index full-text nhúng (Lucene) cho mô tả khách sạn và bình luận đánh giá đã duyệt.
+ * Ghi được đẩy vào IndexWriter và commit ngay khi dữ liệu thay đổi, SearcherManager được làm mới
+ * (near-real-time), nên tìm kiếm không chạm tới MySQL.
+ * Mặc định index nằm trong bộ nhớ và được dựng lại từ DB khi khởi động; đặt search.index-dir để lưu xuống đĩa.
+ */
+@Component
+@RequiredArgsConstructor
+public class FullTextIndex {
+    private static final Logger log = LoggerFactory.getLogger(FullTextIndex.class);
+
+    private static final String FIELD_DOC_ID = "doc_id";
+    private static final String FIELD_TYPE = "type";
+    private static final String FIELD_HOTEL_ID = "hotel_id";
+    private static final String FIELD_NAME = "name";
+    private static final String FIELD_CITY = "city";
+    private static final String FIELD_DESCRIPTION = "description";
+    private static final String FIELD_COMMENT = "comment";
+
+    private static final String TYPE_HOTEL = "hotel";
+    private static final String TYPE_REVIEW = "review";
+
+    private static final int MAX_HIGHLIGHTS_PER_HOTEL = 3;
+    private static final int FRAGMENT_SIZE = 120;
+
+    private final HotelRepository hotelRepository;
+    private final ReviewRepository reviewRepository;
+
+    @Value("${search.index-dir:}")
+    private String indexDir;
+
+    private final Analyzer analyzer = new VietnameseAnalyzer();
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    @PostConstruct
+    public void open() throws IOException {
+        directory = indexDir == null || indexDir.isBlank()
+                ? new ByteBuffersDirectory()
+                : FSDirectory.open(Paths.get(indexDir));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        writer.commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (writer.getDocStats().numDocs > 0) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Không thể dựng index full-text khi khởi động: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Xóa toàn bộ index và nạp lại từ DB. Trả về số document đã index.
+     */
+    public synchronized int rebuild() {
+        try {
+            List<Hotel> hotels = hotelRepository.findByIsActiveTrue();
+            List<Review> reviews = reviewRepository.findByIsApprovedTrue();
+
+            writer.deleteAll();
+            for (Hotel hotel : hotels) {
+                writer.addDocument(toDocument(hotel));
+            }
+            int reviewCount = 0;
+            for (Review review : reviews) {
+                if (review.getHotel() != null && Boolean.TRUE.equals(review.getHotel().getIsActive())) {
+                    writer.addDocument(toDocument(review));
+                    reviewCount++;
+                }
+            }
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            log.info("Đã dựng index full-text: {} khách sạn, {} đánh giá", hotels.size(), reviewCount);
+            return hotels.size() + reviewCount;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lỗi dựng index full-text", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        try {
+            switch (event.getResourceType()) {
+                case HOTEL -> {
+                    if (event.isDeleted()) {
+                        // Xóa cả khách sạn lẫn các đánh giá của nó
+                        writer.deleteDocuments(new Term(FIELD_HOTEL_ID, String.valueOf(event.getResourceId())));
+                    } else if (event.getSource() instanceof Hotel hotel && Boolean.TRUE.equals(hotel.getIsActive())) {
+                        writer.updateDocument(new Term(FIELD_DOC_ID, docId(TYPE_HOTEL, hotel.getId())), toDocument(hotel));
+                        // Khách sạn vừa được kích hoạt lại: đánh giá đã duyệt bị gỡ lúc ẩn phải index lại như rebuild
+                        for (Review review : reviewRepository.findByHotelIdAndIsApprovedTrue(hotel.getId())) {
+                            writer.updateDocument(new Term(FIELD_DOC_ID, docId(TYPE_REVIEW, review.getId())), toDocument(review));
+                        }
+                    } else {
+                        // Khách sạn bị ẩn: gỡ cả đánh giá để tìm kiếm không trả về khách sạn qua đánh giá của nó
+                        writer.deleteDocuments(new Term(FIELD_HOTEL_ID, String.valueOf(event.getResourceId())));
+                    }
+                }
+                case REVIEW -> {
+                    Term term = new Term(FIELD_DOC_ID, docId(TYPE_REVIEW, event.getResourceId()));
+                    if (!event.isDeleted() && event.getSource() instanceof Review review
+                            && Boolean.TRUE.equals(review.getIsApproved()) && review.getHotel() != null
+                            && Boolean.TRUE.equals(review.getHotel().getIsActive())) {
+                        writer.updateDocument(term, toDocument(review));
+                    } else {
+                        // Đánh giá bị xóa, chuyển về chưa duyệt hoặc thuộc khách sạn đang ẩn
+                        writer.deleteDocuments(term);
+                    }
+                }
+                default -> {
+                    return;
+                }
+            }
+            // Commit từng thay đổi: với search.index-dir, thay đổi chưa commit mất khi restart,
+            // còn warmUp thấy index không rỗng nên không dựng lại
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.error("Không thể cập nhật index full-text cho {} {}: {}",
+                    event.getResourceType(), event.getResourceId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Tìm kiếm theo từ khóa, gộp kết quả theo khách sạn và sắp xếp theo điểm liên quan.
+     */
+    public List<TextSearchResponse> search(String keyword, int limit) {
+        if (keyword == null || keyword.isBlank()) {
+            return new ArrayList<>();
+        }
+
+        Query query = parse(keyword);
+        if (query instanceof BooleanQuery booleanQuery && booleanQuery.clauses().isEmpty()) {
+            // Từ khóa chỉ toàn ký tự đặc biệt
+            return new ArrayList<>();
+        }
+        IndexSearcher searcher = null;
+        try {
+            searcherManager.maybeRefresh();
+            searcher = searcherManager.acquire();
+            // Lấy dư để sau khi gộp theo khách sạn vẫn đủ limit kết quả
+            TopDocs topDocs = searcher.search(query, Math.min(limit * 5, 500));
+
+            Map<String, TextSearchResponse> byHotel = new LinkedHashMap<>();
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                Document doc = searcher.storedFields().document(scoreDoc.doc);
+                String hotelId = doc.get(FIELD_HOTEL_ID);
+                TextSearchResponse result = byHotel.get(hotelId);
+                if (result == null) {
+                    if (byHotel.size() >= limit) {
+                        continue;
+                    }
+                    result = TextSearchResponse.builder()
+                            .hotelId(Long.valueOf(hotelId))
+                            .score(scoreDoc.score)
+                            .matchedReviewCount(0)
+                            .highlights(new ArrayList<>())
+                            .build();
+                    byHotel.put(hotelId, result);
+                }
+
+                if (TYPE_HOTEL.equals(doc.get(FIELD_TYPE))) {
+                    fillHotelInfo(result, doc);
+                    addHighlight(result, query, FIELD_DESCRIPTION, doc.get(FIELD_DESCRIPTION));
+                } else {
+                    result.setMatchedReviewCount(result.getMatchedReviewCount() + 1);
+                    addHighlight(result, query, FIELD_COMMENT, doc.get(FIELD_COMMENT));
+                }
+            }
+
+            // Khách sạn chỉ khớp qua đánh giá: lấy tên từ document khách sạn
+            for (TextSearchResponse result : byHotel.values()) {
+                if (result.getHotelName() == null) {
+                    TopDocs hotelDoc = searcher.search(
+                            new TermQuery(new Term(FIELD_DOC_ID, docId(TYPE_HOTEL, result.getHotelId()))), 1);
+                    if (hotelDoc.scoreDocs.length > 0) {
+                        fillHotelInfo(result, searcher.storedFields().document(hotelDoc.scoreDocs[0].doc));
+                    }
+                }
+            }
+            return new ArrayList<>(byHotel.values());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lỗi tìm kiếm full-text", e);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException e) {
+                    log.warn("Không thể giải phóng searcher: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Query parse(String keyword) {
+        Map<String, Float> boosts = Map.of(
+                FIELD_NAME, 3.0f,
+                FIELD_CITY, 2.0f,
+                FIELD_DESCRIPTION, 1.0f,
+                FIELD_COMMENT, 0.8f);
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                new String[]{FIELD_NAME, FIELD_CITY, FIELD_DESCRIPTION, FIELD_COMMENT}, analyzer, boosts);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        try {
+            return parser.parse(QueryParser.escape(keyword.trim()));
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Từ khóa tìm kiếm không hợp lệ: " + keyword);
+        }
+    }
+
+    private void fillHotelInfo(TextSearchResponse result, Document hotelDoc) {
+        result.setHotelName(hotelDoc.get(FIELD_NAME));
+        result.setCityName(hotelDoc.get(FIELD_CITY));
+    }
+
+    private void addHighlight(TextSearchResponse result, Query query, String field, String text) {
+        if (text == null || result.getHighlights().size() >= MAX_HIGHLIGHTS_PER_HOTEL) {
+            return;
+        }
+        QueryScorer scorer = new QueryScorer(query, field);
+        Highlighter highlighter = new Highlighter(new SimpleHTMLFormatter("<em>", "</em>"), new SimpleHTMLEncoder(), scorer);
+        highlighter.setTextFragmenter(new SimpleSpanFragmenter(scorer, FRAGMENT_SIZE));
+        try {
+            String fragment = highlighter.getBestFragment(analyzer, field, text);
+            if (fragment != null) {
+                result.getHighlights().add(fragment);
+            }
+        } catch (IOException | InvalidTokenOffsetsException e) {
+            log.debug("Không thể tạo highlight cho trường {}: {}", field, e.getMessage());
+        }
+    }
+
+    private Document toDocument(Hotel hotel) {
+        Document doc = new Document();
+        doc.add(new StringField(FIELD_DOC_ID, docId(TYPE_HOTEL, hotel.getId()), Field.Store.NO));
+        doc.add(new StringField(FIELD_TYPE, TYPE_HOTEL, Field.Store.YES));
+        doc.add(new StringField(FIELD_HOTEL_ID, String.valueOf(hotel.getId()), Field.Store.YES));
+        doc.add(new TextField(FIELD_NAME, nullToEmpty(hotel.getHotelName()), Field.Store.YES));
+        if (hotel.getLocation() != null) {
+            doc.add(new TextField(FIELD_CITY, nullToEmpty(hotel.getLocation().getCityName()), Field.Store.YES));
+        }
+        doc.add(new TextField(FIELD_DESCRIPTION, nullToEmpty(hotel.getDescription()), Field.Store.YES));
+        return doc;
+    }
+
+    private Document toDocument(Review review) {
+        Document doc = new Document();
+        doc.add(new StringField(FIELD_DOC_ID, docId(TYPE_REVIEW, review.getId()), Field.Store.NO));
+        doc.add(new StringField(FIELD_TYPE, TYPE_REVIEW, Field.Store.YES));
+        doc.add(new StringField(FIELD_HOTEL_ID, String.valueOf(review.getHotel().getId()), Field.Store.YES));
+        doc.add(new TextField(FIELD_COMMENT, nullToEmpty(review.getComment()), Field.Store.YES));
+        return doc;
+    }
+
+    private static String docId(String type, Long id) {
+        return type + ":" + id;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
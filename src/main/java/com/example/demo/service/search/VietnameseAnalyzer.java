@@ -0,0 +1,28 @@
+package com.example.demo.service.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+
+/**
+ * Analyzer cho văn bản tiếng Việt: tách từ chuẩn, chữ thường, và sinh thêm bản không dấu
+ * cùng vị trí với bản gốc (ASCIIFoldingFilter giữ nguyên token gốc).
+ * Nhờ vậy "da nang" và "Đà Nẵng" đều khớp, còn truy vấn có dấu vẫn được tính điểm cao hơn.
+ */
+public class VietnameseAnalyzer extends Analyzer {
+
+    @Override
+    protected TokenStreamComponents createComponents(String fieldName) {
+        StandardTokenizer source = new StandardTokenizer();
+        TokenStream result = new LowerCaseFilter(source);
+        result = new ASCIIFoldingFilter(result, true);
+        return new TokenStreamComponents(source, result);
+    }
+
+    @Override
+    protected TokenStream normalize(String fieldName, TokenStream in) {
+        return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+    }
+}
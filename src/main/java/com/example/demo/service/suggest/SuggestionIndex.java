@@ -0,0 +1,286 @@
+package com.example.demo.service.suggest;
+
+import com.example.demo.dto.suggest.SuggestionResponse;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Location;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.repository.BookingRepository;
+import com.example.demo.repository.HotelRepository;
+import com.example.demo.repository.LocationRepository;
+import com.example.demo.utils.VietnameseTextUtils;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Index gợi ý tìm kiếm (autocomplete) cho thành phố, tỉnh và tên khách sạn.
+ * Dữ liệu được bỏ dấu trước khi đưa vào trie nên "da nang" khớp "Đà Nẵng".
+ * Mỗi nút trie giữ sẵn top-K mục phổ biến nhất của nhánh đó, truy vấn chỉ là đi theo tiền tố rồi đọc danh sách.
+ * Khi dữ liệu thay đổi, trie được dựng lại từ các mục trong bộ nhớ (không truy vấn DB) rồi thay thế nguyên khối,
+ * nên luồng đọc không cần khóa. Việc dựng lại được gom theo TRIE_REFRESH_MILLIS thay vì chạy ở mỗi sự kiện.
+ */
+@Component
+@RequiredArgsConstructor
+public class SuggestionIndex {
+    private static final Logger log = LoggerFactory.getLogger(SuggestionIndex.class);
+
+    public static final String TYPE_CITY = "CITY";
+    public static final String TYPE_PROVINCE = "PROVINCE";
+    public static final String TYPE_HOTEL = "HOTEL";
+
+    private static final int TOP_K_PER_NODE = 10;
+    private static final int MAX_INDEXED_PREFIX = 24;
+    // Sự kiện danh mục chỉ sửa entries; trie được dựng lại tối đa mỗi khoảng này nên import hàng loạt chỉ tốn vài lần dựng
+    private static final long TRIE_REFRESH_MILLIS = 1000;
+
+    private final LocationRepository locationRepository;
+    private final HotelRepository hotelRepository;
+    private final BookingRepository bookingRepository;
+
+    // key: "CITY:<id>", "HOTEL:<id>"
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile TrieNode root = new TrieNode();
+    private volatile boolean loaded = false;
+    private volatile boolean trieStale = false;
+
+    private static final class Entry {
+        private final String type;
+        private final Long id;
+        private final String text;
+        private final String subtitle;
+        private final Long locationId;
+        private final long basePopularity;
+        private long popularity;
+
+        private Entry(String type, Long id, String text, String subtitle, Long locationId, long basePopularity) {
+            this.type = type;
+            this.id = id;
+            this.text = text;
+            this.subtitle = subtitle;
+            this.locationId = locationId;
+            this.basePopularity = basePopularity;
+        }
+    }
+
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private List<Entry> top = new ArrayList<>();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Không thể nạp index gợi ý khi khởi động: {}", e.getMessage());
+        }
+    }
+
+    // Làm mới độ phổ biến (số booking) định kỳ
+    @Scheduled(fixedDelay = 3600000, initialDelay = 3600000)
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Không thể làm mới index gợi ý: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Nạp lại toàn bộ mục gợi ý từ DB.
+     */
+    public synchronized void rebuild() {
+        Map<Long, Long> bookingCounts = new HashMap<>();
+        for (Object[] row : bookingRepository.countBookingsGroupByHotel()) {
+            bookingCounts.put((Long) row[0], (Long) row[1]);
+        }
+
+        entries.clear();
+        for (Location location : locationRepository.findAll()) {
+            putLocation(location);
+        }
+        for (Hotel hotel : hotelRepository.findByIsActiveTrue()) {
+            putHotel(hotel, bookingCounts.getOrDefault(hotel.getId(), 0L));
+        }
+        rebuildTrie();
+        trieStale = false;
+        loaded = true;
+        log.info("Đã nạp index gợi ý với {} mục", entries.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        switch (event.getResourceType()) {
+            case HOTEL -> {
+                Entry previous = entries.remove(TYPE_HOTEL + ":" + event.getResourceId());
+                if (!event.isDeleted() && event.getSource() instanceof Hotel hotel) {
+                    putHotel(hotel, previous != null ? previous.basePopularity : 0L);
+                }
+            }
+            case LOCATION -> {
+                entries.remove(TYPE_CITY + ":" + event.getResourceId());
+                if (!event.isDeleted() && event.getSource() instanceof Location location) {
+                    putLocation(location);
+                }
+            }
+            default -> {
+                return;
+            }
+        }
+        trieStale = true;
+    }
+
+    /**
+     * Dựng lại trie nếu có thay đổi danh mục kể từ lần dựng trước.
+     */
+    @Scheduled(fixedDelay = TRIE_REFRESH_MILLIS, initialDelay = TRIE_REFRESH_MILLIS)
+    public synchronized void refreshTrie() {
+        if (trieStale) {
+            trieStale = false;
+            rebuildTrie();
+        }
+    }
+
+    public List<SuggestionResponse> suggest(String query, int limit) {
+        if (!loaded) {
+            rebuild();
+        }
+        String prefix = VietnameseTextUtils.fold(query);
+        if (prefix.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        TrieNode node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        if (node == null) {
+            return new ArrayList<>();
+        }
+
+        return node.top.stream()
+                .limit(Math.min(limit, TOP_K_PER_NODE))
+                .map(entry -> SuggestionResponse.builder()
+                        .type(entry.type)
+                        .id(entry.id)
+                        .text(entry.text)
+                        .subtitle(entry.subtitle)
+                        .popularity(entry.popularity)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private void putLocation(Location location) {
+        if (location.getId() == null || location.getCityName() == null) {
+            return;
+        }
+        entries.put(TYPE_CITY + ":" + location.getId(), new Entry(TYPE_CITY, location.getId(),
+                location.getCityName(), location.getProvince(), location.getId(), 0L));
+    }
+
+    private void putHotel(Hotel hotel, long bookingCount) {
+        if (hotel.getId() == null || hotel.getHotelName() == null || !Boolean.TRUE.equals(hotel.getIsActive())) {
+            return;
+        }
+        Location location = hotel.getLocation();
+        entries.put(TYPE_HOTEL + ":" + hotel.getId(), new Entry(TYPE_HOTEL, hotel.getId(), hotel.getHotelName(),
+                location != null ? location.getCityName() : null,
+                location != null ? location.getId() : null,
+                bookingCount));
+    }
+
+    /**
+     * Tính độ phổ biến rồi dựng trie mới từ các mục hiện có.
+     * Khách sạn: số booking. Thành phố: tổng (1 + booking) các khách sạn thuộc thành phố. Tỉnh: tổng các thành phố.
+     */
+    private void rebuildTrie() {
+        Map<Long, Long> cityPopularity = new HashMap<>();
+        for (Entry entry : entries.values()) {
+            if (TYPE_HOTEL.equals(entry.type)) {
+                entry.popularity = entry.basePopularity;
+                if (entry.locationId != null) {
+                    cityPopularity.merge(entry.locationId, 1 + entry.basePopularity, Long::sum);
+                }
+            }
+        }
+
+        List<Entry> all = new ArrayList<>();
+        Map<String, Entry> provinces = new HashMap<>();
+        for (Entry entry : entries.values()) {
+            if (TYPE_CITY.equals(entry.type)) {
+                entry.popularity = cityPopularity.getOrDefault(entry.id, 0L);
+                if (entry.subtitle != null && !entry.subtitle.isBlank()) {
+                    String provinceKey = VietnameseTextUtils.fold(entry.subtitle);
+                    Entry province = provinces.computeIfAbsent(provinceKey,
+                            key -> new Entry(TYPE_PROVINCE, null, entry.subtitle, null, null, 0L));
+                    province.popularity += entry.popularity;
+                }
+            }
+            all.add(entry);
+        }
+        all.addAll(provinces.values());
+
+        TrieNode newRoot = new TrieNode();
+        for (Entry entry : all) {
+            String folded = VietnameseTextUtils.fold(entry.text);
+            // Chèn từ đầu mỗi từ để "nang" cũng khớp "Đà Nẵng"
+            for (int start = 0; start < folded.length(); start++) {
+                if (start > 0 && folded.charAt(start - 1) != ' ') {
+                    continue;
+                }
+                TrieNode node = newRoot;
+                int end = Math.min(folded.length(), start + MAX_INDEXED_PREFIX);
+                for (int i = start; i < end; i++) {
+                    node = node.children.computeIfAbsent(folded.charAt(i), c -> new TrieNode());
+                    node.top.add(entry);
+                }
+            }
+        }
+
+        Comparator<Entry> ranking = Comparator.<Entry>comparingLong(entry -> entry.popularity).reversed()
+                .thenComparing(entry -> typeOrder(entry.type))
+                .thenComparing(entry -> entry.text.length());
+        trimTop(newRoot, ranking);
+        root = newRoot;
+    }
+
+    private void trimTop(TrieNode node, Comparator<Entry> ranking) {
+        List<TrieNode> stack = new ArrayList<>();
+        stack.add(node);
+        while (!stack.isEmpty()) {
+            TrieNode current = stack.remove(stack.size() - 1);
+            Set<Entry> distinct = new LinkedHashSet<>(current.top);
+            current.top = distinct.stream()
+                    .sorted(ranking)
+                    .limit(TOP_K_PER_NODE)
+                    .collect(Collectors.toList());
+            stack.addAll(current.children.values());
+        }
+    }
+
+    private static int typeOrder(String type) {
+        return switch (type) {
+            case TYPE_CITY -> 0;
+            case TYPE_PROVINCE -> 1;
+            default -> 2;
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Danh sách trường client yêu cầu qua tham số fields= (VD "id,status,hotelName").
+ * Tầng mapping dùng includes/includesAny để bỏ qua phần không được yêu cầu (không nạp quan hệ, không tính cờ),
+ * còn project() cắt response chỉ giữ các trường đó. Không truyền fields (hoặc "*") thì lấy tất cả như trước.
+ */
+public final class FieldSelection {
+
+    private static final FieldSelection ALL = new FieldSelection(null);
+
+    // null = tất cả các trường
+    private final Set<String> fields;
+
+    private FieldSelection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static FieldSelection all() {
+        return ALL;
+    }
+
+    public static FieldSelection parse(String fields) {
+        if (fields == null || fields.isBlank() || fields.trim().equals("*")) {
+            return ALL;
+        }
+        Set<String> selected = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (selected.isEmpty()) {
+            return ALL;
+        }
+        // Luôn trả id để client ghép dữ liệu
+        selected.add("id");
+        return new FieldSelection(Collections.unmodifiableSet(selected));
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    public boolean includesAny(String... candidates) {
+        if (fields == null) {
+            return true;
+        }
+        for (String candidate : candidates) {
+            if (fields.contains(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Chuyển DTO (hoặc danh sách DTO) thành JSON chỉ chứa các trường được chọn.
+     * Chọn tất cả thì trả nguyên đối tượng để Jackson serialize như bình thường.
+     */
+    public Object project(ObjectMapper objectMapper, Object value) {
+        if (fields == null || value == null) {
+            return value;
+        }
+        JsonNode node = objectMapper.valueToTree(value);
+        if (node instanceof ArrayNode array) {
+            array.forEach(element -> {
+                if (element instanceof ObjectNode object) {
+                    object.retain(fields);
+                }
+            });
+        } else if (node instanceof ObjectNode object) {
+            object.retain(fields);
+        }
+        return node;
+    }
+}
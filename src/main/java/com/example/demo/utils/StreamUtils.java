@@ -0,0 +1,28 @@
+package com.example.demo.utils;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class StreamUtils {
+
+    /**
+     * Duyệt một Stream entity từ repository, gọi action cho từng phần tử và định kỳ clear persistence context
+     * để các entity đã xử lý không bị giữ lại trong bộ nhớ. Phải gọi trong transaction.
+     */
+    public static <E> void forEachDetaching(Stream<E> stream, EntityManager entityManager, int batchSize,
+                                            Consumer<E> action) {
+        try (stream) {
+            Iterator<E> iterator = stream.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                if (++count % batchSize == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.utils;
+
+import java.text.Normalizer;
+import java.util.regex.Pattern;
+
+public class VietnameseTextUtils {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    /**
+     * Bỏ dấu tiếng Việt, chuyển về chữ thường và gộp khoảng trắng
+     * VD: "Đà Nẵng" -> "da nang", "  Hội   An " -> "hoi an"
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        // "đ" không phải ký tự tổ hợp nên NFD không tách được, phải thay tay
+        String replaced = text.replace('đ', 'd').replace('Đ', 'D');
+        String decomposed = Normalizer.normalize(replaced, Normalizer.Form.NFD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase();
+        return NON_ALPHANUMERIC.matcher(stripped).replaceAll(" ").trim();
+    }
+
+    /**
+     * So khớp "chứa" không phân biệt dấu và hoa thường
+     */
+    public static boolean containsIgnoreAccents(String text, String keyword) {
+        if (text == null || keyword == null) {
+            return false;
+        }
+        return fold(text).contains(fold(keyword));
+    }
+}
@@ -0,0 +1,7 @@
+-- Phiên bản tài nguyên danh mục cho ETag / conditional GET
+CREATE TABLE IF NOT EXISTS catalog_versions (
+    resource_key VARCHAR(100) NOT NULL,
+    version      BIGINT       NOT NULL,
+    updated_at   DATETIME(6)  NOT NULL,
+    PRIMARY KEY (resource_key)
+);
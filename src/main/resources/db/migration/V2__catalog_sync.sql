@@ -0,0 +1,25 @@
+-- Đồng bộ delta danh mục (?since=): mốc updated_at, index và bảng tombstone
+
+ALTER TABLE room_types ADD COLUMN updated_at DATETIME(6) NULL;
+ALTER TABLE amenities  ADD COLUMN updated_at DATETIME(6) NULL;
+ALTER TABLE locations  ADD COLUMN updated_at DATETIME(6) NULL;
+
+-- Bản ghi cũ chưa có mốc thời gian: coi như vừa thay đổi để client nhận ở lần đồng bộ kế tiếp
+UPDATE hotels     SET updated_at = NOW(6) WHERE updated_at IS NULL;
+UPDATE room_types SET updated_at = NOW(6) WHERE updated_at IS NULL;
+UPDATE amenities  SET updated_at = NOW(6) WHERE updated_at IS NULL;
+UPDATE locations  SET updated_at = NOW(6) WHERE updated_at IS NULL;
+
+CREATE INDEX idx_hotels_updated_at     ON hotels (updated_at);
+CREATE INDEX idx_room_types_updated_at ON room_types (updated_at);
+CREATE INDEX idx_amenities_updated_at  ON amenities (updated_at);
+CREATE INDEX idx_locations_updated_at  ON locations (updated_at);
+
+CREATE TABLE IF NOT EXISTS catalog_tombstones (
+    tombstone_id  BIGINT      NOT NULL AUTO_INCREMENT,
+    resource_type VARCHAR(20) NOT NULL,
+    resource_id   BIGINT      NOT NULL,
+    deleted_at    DATETIME(6) NOT NULL,
+    PRIMARY KEY (tombstone_id),
+    INDEX idx_catalog_tombstones_deleted_at (deleted_at)
+);
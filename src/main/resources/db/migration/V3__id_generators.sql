@@ -0,0 +1,18 @@
+-- Cấp id theo khối (pooled, allocationSize = 50) cho các bảng ghi hàng loạt.
+-- IDENTITY buộc Hibernate INSERT từng dòng để lấy id, nên không gom batch JDBC được.
+-- next_val là cận trên của khối kế tiếp: Hibernate dùng (next_val - 49 .. next_val) rồi cộng thêm 50.
+-- Khởi tạo = MAX(id) + 50 để khối đầu tiên bắt đầu ngay sau id lớn nhất hiện có.
+
+CREATE TABLE IF NOT EXISTS id_generators (
+    sequence_name VARCHAR(64) NOT NULL,
+    next_val      BIGINT      NOT NULL,
+    PRIMARY KEY (sequence_name)
+);
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'hotels', COALESCE(MAX(hotel_id), 0) + 50 FROM hotels
+UNION ALL SELECT 'room_types', COALESCE(MAX(room_type_id), 0) + 50 FROM room_types
+UNION ALL SELECT 'rooms', COALESCE(MAX(room_id), 0) + 50 FROM rooms
+UNION ALL SELECT 'hotel_images', COALESCE(MAX(image_id), 0) + 50 FROM hotel_images
+UNION ALL SELECT 'room_images', COALESCE(MAX(image_id), 0) + 50 FROM room_images
+UNION ALL SELECT 'review_images', COALESCE(MAX(image_id), 0) + 50 FROM review_images;
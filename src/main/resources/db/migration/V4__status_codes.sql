@@ -0,0 +1,39 @@
+-- Trạng thái booking / phòng / thanh toán lưu thành mã SMALLINT (enumm/*StatusCode) thay cho chuỗi tiếng Việt.
+-- Đổi giá trị tại chỗ rồi MODIFY kiểu cột: còn giá trị nào chưa có mã thì MODIFY báo lỗi (strict mode), không mất dữ liệu âm thầm.
+
+UPDATE bookings SET status = CASE status
+    WHEN 'Tạm giữ chỗ'   THEN '1'
+    WHEN 'Chờ xác nhận'  THEN '2'
+    WHEN 'Đã xác nhận'   THEN '3'
+    WHEN 'Đã đặt cọc'    THEN '4'
+    WHEN 'Đã thanh toán' THEN '5'
+    WHEN 'Đã nhận phòng' THEN '6'
+    WHEN 'Hoàn thành'    THEN '7'
+    WHEN 'Đã hủy'        THEN '8'
+    WHEN 'Không đến'     THEN '9'
+    ELSE status END;
+ALTER TABLE bookings MODIFY status SMALLINT NULL;
+
+UPDATE rooms SET status = CASE status
+    WHEN 'Trống'        THEN '1'
+    WHEN 'Đã đặt'       THEN '2'
+    WHEN 'Đang sử dụng' THEN '3'
+    WHEN 'Bảo trì'      THEN '4'
+    WHEN 'Hỏng'         THEN '5'
+    ELSE status END;
+ALTER TABLE rooms MODIFY status SMALLINT NULL;
+
+UPDATE payments SET payment_status = CASE payment_status
+    WHEN 'Chờ thanh toán' THEN '1'
+    WHEN 'Đã thanh toán'  THEN '2'
+    WHEN 'Đã hủy'         THEN '3'
+    WHEN 'Đã hết hạn'     THEN '4'
+    WHEN 'Đã hoàn tiền'   THEN '5'
+    ELSE payment_status END;
+ALTER TABLE payments MODIFY payment_status SMALLINT NULL;
+
+-- Truy vấn chồng lấn ngày lọc theo loại phòng + trạng thái + khoảng ngày
+CREATE INDEX idx_bookings_room_type_status_dates ON bookings (room_type_id, status, check_in_date, check_out_date);
+CREATE INDEX idx_bookings_user_status ON bookings (user_id, status);
+CREATE INDEX idx_rooms_room_type_status ON rooms (room_type_id, status);
+CREATE INDEX idx_payments_booking_status ON payments (booking_id, payment_status);
@@ -0,0 +1,15 @@
+-- Index cho các truy vấn trong BookingRepository/RoomRepository mà QueryPlanTests phát hiện đang quét toàn bảng.
+-- Giữ đồng bộ với @Table(indexes = ...) trên Booking/Room để H2 trong test có cùng index.
+
+-- Chồng lấn ngày / check-in, check-out hôm nay / dọn booking tạm giữ: lọc theo trạng thái rồi khoảng ngày.
+-- Cũng phục vụ subquery NOT EXISTS của các truy vấn phòng trống (status IN + khoảng ngày).
+CREATE INDEX idx_bookings_status_dates ON bookings (status, check_in_date, check_out_date);
+
+-- Dashboard: booking gần nhất, đếm/doanh thu theo khoảng booking_date
+CREATE INDEX idx_bookings_booking_date ON bookings (booking_date);
+
+-- Báo cáo / export theo khoảng ngày nhận phòng, không lọc trạng thái
+CREATE INDEX idx_bookings_check_in_date ON bookings (check_in_date);
+
+-- Danh sách phòng theo trạng thái (bảo trì, phòng trống theo sức chứa / khoảng giá)
+CREATE INDEX idx_rooms_status ON rooms (status);
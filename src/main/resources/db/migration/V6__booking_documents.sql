@@ -0,0 +1,15 @@
+-- Read model cho chi tiết / danh sách booking của khách: mỗi booking một document JSON đã ghép sẵn
+-- (user, loại phòng, khách sạn, thanh toán, đánh giá). Các cờ phụ thuộc ngày hiện tại không lưu, tính lúc đọc.
+-- Bảng được ghi nền sau commit (BookingDocumentServiceImpl); booking chưa có document thì đọc từ bảng gốc
+-- rồi chiếu bổ sung, nên không cần backfill trong migration.
+
+CREATE TABLE IF NOT EXISTS booking_documents (
+    booking_id   BIGINT      NOT NULL,
+    user_id      BIGINT      NOT NULL,
+    hotel_id     BIGINT      NULL,
+    document     LONGTEXT    NOT NULL,
+    projected_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (booking_id),
+    INDEX idx_booking_documents_user_id (user_id),
+    INDEX idx_booking_documents_hotel_id (hotel_id)
+);
@@ -0,0 +1,77 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultipartSizeLimitFilterTests {
+
+	private static final long LIMIT = 10 * 1024 * 1024;
+
+	private final MultipartSizeLimitFilter filter =
+			new MultipartSizeLimitFilter(LIMIT, BulkImportConfig.IMPORT_PATH, new ObjectMapper());
+
+	@Test
+	void oversizedUploadOutsideTheImportPathIsRejected() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(multipart("/api/v1/hotel/upload", LIMIT + 1), response, chain);
+
+		assertEquals(413, response.getStatus());
+		assertTrue(response.getContentAsString().contains("\"code\":413"), response.getContentAsString());
+		assertNull(chain.getRequest());
+	}
+
+	@Test
+	void uploadWithoutContentLengthOutsideTheImportPathIsRejected() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(multipart("/api/v1/hotel/upload", -1), response, chain);
+
+		assertEquals(411, response.getStatus());
+		assertNull(chain.getRequest());
+	}
+
+	@Test
+	void importPathAndSmallUploadsPassThrough() throws Exception {
+		for (MockHttpServletRequest request : new MockHttpServletRequest[]{
+				multipart("/api/v1/admin/import/hotels", 150L * 1024 * 1024),
+				multipart("/api/v1/hotel/upload", LIMIT)}) {
+			MockFilterChain chain = new MockFilterChain();
+			filter.doFilter(request, new MockHttpServletResponse(), chain);
+			assertNotNull(chain.getRequest(), request.getRequestURI());
+		}
+	}
+
+	@Test
+	void nonMultipartRequestsAreNotChecked() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/hotel");
+		request.setContentType("application/json");
+		request.addHeader("Content-Length", LIMIT * 2);
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+		assertNotNull(chain.getRequest());
+	}
+
+	private static MockHttpServletRequest multipart(String uri, long contentLength) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", uri) {
+			@Override
+			public long getContentLengthLong() {
+				return contentLength;
+			}
+		};
+		request.setContentType("multipart/form-data; boundary=x");
+		return request;
+	}
+}
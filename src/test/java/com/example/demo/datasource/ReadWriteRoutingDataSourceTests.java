@@ -0,0 +1,94 @@
+package com.example.demo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadWriteRoutingDataSourceTests {
+
+	private final List<HikariDataSource> pools = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+		pools.forEach(HikariDataSource::close);
+	}
+
+	@Test
+	void readOnlyTransactionGoesToReplica() {
+		Fixture fixture = fixture(Duration.ofSeconds(5));
+
+		assertEquals("replica", fixture.readMarker(true));
+		assertEquals("primary", fixture.readMarker(false));
+	}
+
+	@Test
+	void recentWriterReadsFromPrimary() {
+		Fixture fixture = fixture(Duration.ofSeconds(5));
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+
+		fixture.readMarker(false);
+
+		assertEquals("primary", fixture.readMarker(true));
+		assertEquals(1, fixture.routing.getStats().getReadYourWritesFallbacks());
+	}
+
+	@Test
+	void zeroWindowDisablesReadYourWrites() {
+		Fixture fixture = fixture(Duration.ZERO);
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+
+		fixture.readMarker(false);
+
+		assertEquals("replica", fixture.readMarker(true));
+	}
+
+	private Fixture fixture(Duration window) {
+		HikariDataSource primary = pool("primary");
+		HikariDataSource replica = pool("replica-1");
+		new JdbcTemplate(primary).execute("INSERT INTO marker VALUES ('primary')");
+		new JdbcTemplate(replica).execute("INSERT INTO marker VALUES ('replica')");
+
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, List.of(replica),
+				new ReadYourWritesTracker(window));
+		LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routing);
+		proxy.setDefaultAutoCommit(true);
+		proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+		return new Fixture(routing, new JdbcTemplate(proxy), new DataSourceTransactionManager(proxy));
+	}
+
+	private HikariDataSource pool(String name) {
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setPoolName(name);
+		dataSource.setJdbcUrl("jdbc:h2:mem:" + name + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+		dataSource.setMaximumPoolSize(2);
+		pools.add(dataSource);
+		new JdbcTemplate(dataSource).execute("CREATE TABLE marker (name VARCHAR(20))");
+		return dataSource;
+	}
+
+	private record Fixture(ReadWriteRoutingDataSource routing, JdbcTemplate jdbcTemplate,
+						   DataSourceTransactionManager transactionManager) {
+
+		String readMarker(boolean readOnly) {
+			TransactionTemplate template = new TransactionTemplate(transactionManager);
+			template.setReadOnly(readOnly);
+			return template.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM marker", String.class));
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package com.example.demo.monitoring;
+
+import com.example.demo.dto.booking.BookingStatus;
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Location;
+import com.example.demo.entity.RoomType;
+import com.example.demo.entity.User;
+import com.example.demo.service.hotel.HotelService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:funnel-metrics;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class BookingFunnelMetricsTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Test
+	void statusChangesAreCountedAsTransitions() {
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		Long bookingId = template.execute(status -> persistTemporaryBooking().getId());
+		template.executeWithoutResult(status ->
+				entityManager.find(Booking.class, bookingId).setStatus(BookingStatus.CONFIRMED));
+
+		assertEquals(1.0, transitions("none", "temporary"));
+		assertEquals(1.0, transitions("temporary", "confirmed"));
+	}
+
+	@Test
+	@WithMockUser(username = "admin", roles = "ADMIN")
+	void timedOperationsAreScrapedAsHistograms() throws Exception {
+		hotelService.filterHotels(null, null, null, null, null, null, null, null);
+
+		Timer timer = meterRegistry.find(BookingFunnelMetrics.OPERATION_TIMER).tag("operation", "hotel.filter").timer();
+		assertNotNull(timer);
+		assertEquals(1, timer.count());
+
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("booking_funnel_operation_seconds_bucket")))
+				.andExpect(content().string(containsString("payment_pending")))
+				.andExpect(content().string(containsString("booking_temporary_holds")));
+	}
+
+	@Test
+	void prometheusScrapeRequiresAdmin() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/actuator/health"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@WithMockUser(username = "alice")
+	void prometheusScrapeIsForbiddenForRegularUsers() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isForbidden());
+	}
+
+	private double transitions(String from, String to) {
+		var counter = meterRegistry.find(BookingFunnelMetrics.STATUS_TRANSITIONS).tag("from", from).tag("to", to).counter();
+		return counter != null ? counter.count() : 0;
+	}
+
+	private Booking persistTemporaryBooking() {
+		Location location = new Location();
+		location.setCityName("Huế");
+		location.setProvince("Thừa Thiên Huế");
+		location.setCountry("Việt Nam");
+		entityManager.persist(location);
+
+		Hotel hotel = new Hotel();
+		hotel.setHotelName("Khách sạn Sông Hương");
+		hotel.setAddress("1 Lê Lợi");
+		hotel.setStarRating(new BigDecimal("4.0"));
+		hotel.setLatitude(new BigDecimal("16.46"));
+		hotel.setLongitude(new BigDecimal("107.59"));
+		hotel.setLocation(location);
+		entityManager.persist(hotel);
+
+		RoomType roomType = new RoomType();
+		roomType.setHotel(hotel);
+		roomType.setTypeName("Deluxe");
+		roomType.setMaxOccupancy(2);
+		roomType.setBasePrice(new BigDecimal("800000"));
+		entityManager.persist(roomType);
+
+		User user = new User();
+		user.setUsername("bob");
+		user.setEmail("bob@example.com");
+		user.setPasswordHash("x");
+		user.setFullName("Bob");
+		entityManager.persist(user);
+
+		Booking booking = new Booking();
+		booking.setUser(user);
+		booking.setRoomType(roomType);
+		booking.setCheckInDate(LocalDate.now().plusDays(3));
+		booking.setCheckOutDate(LocalDate.now().plusDays(4));
+		booking.setNumberOfGuests(2);
+		booking.setBookingDate(LocalDateTime.now());
+		booking.setTotalPrice(new BigDecimal("800000"));
+		booking.setStatus(BookingStatus.TEMPORARY);
+		entityManager.persist(booking);
+		return booking;
+	}
+}
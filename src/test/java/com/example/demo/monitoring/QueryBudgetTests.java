@@ -0,0 +1,317 @@
+package com.example.demo.monitoring;
+
+import com.example.demo.entity.Amenity;
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.HotelImage;
+import com.example.demo.entity.Location;
+import com.example.demo.entity.Review;
+import com.example.demo.entity.Room;
+import com.example.demo.entity.RoomImage;
+import com.example.demo.entity.RoomType;
+import com.example.demo.entity.User;
+import com.example.demo.service.booking_document.BookingDocumentService;
+import com.example.demo.service.hotel.HotelGeoIndex;
+import com.example.demo.service.pricing.RoomPriceCalendar;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Ngân sách số câu SQL cho các endpoint chính, chạy trên H2 với dữ liệu nhiều khách sạn/booking.
+ * Ngân sách không phụ thuộc số bản ghi: nếu một endpoint quay lại kiểu N+1 thì số câu lệnh sẽ vượt ngân sách.
+ * Chi tiết một khách sạn (/hotel/{id}) đi qua /hotel/batch cùng dạng response nên không đo riêng.
+ */
+@SpringBootTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:query-budget;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTests {
+
+	private static final int HOTELS = 8;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private RoomPriceCalendar roomPriceCalendar;
+
+	@Autowired
+	private BookingDocumentService bookingDocumentService;
+
+	@Autowired
+	private HotelGeoIndex hotelGeoIndex;
+
+	private final List<Long> hotelIds = new ArrayList<>();
+	private final List<Long> bookingIds = new ArrayList<>();
+	private Long wifiId;
+
+	@BeforeAll
+	void seed() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			Location location = new Location();
+			location.setCityName("Đà Nẵng");
+			location.setProvince("Đà Nẵng");
+			location.setCountry("Việt Nam");
+			entityManager.persist(location);
+
+			Amenity wifi = amenity("Wifi");
+			Amenity pool = amenity("Hồ bơi");
+			wifiId = wifi.getId();
+
+			User user = new User();
+			user.setUsername("alice");
+			user.setEmail("alice@example.com");
+			user.setPasswordHash("x");
+			user.setFullName("Alice");
+			entityManager.persist(user);
+
+			for (int h = 0; h < HOTELS; h++) {
+				Hotel hotel = new Hotel();
+				hotel.setHotelName("Khách sạn " + h);
+				hotel.setAddress(h + " Bạch Đằng");
+				hotel.setStarRating(new BigDecimal("4.0"));
+				hotel.setLatitude(new BigDecimal("16.06"));
+				hotel.setLongitude(new BigDecimal("108.22"));
+				hotel.setLocation(location);
+				hotel.setAmenities(Set.of(wifi, pool));
+				entityManager.persist(hotel);
+				hotelIds.add(hotel.getId());
+
+				for (int i = 0; i < 3; i++) {
+					HotelImage image = new HotelImage();
+					image.setHotel(hotel);
+					image.setImageUrl("/uploads/hotel-" + h + "-" + i + ".jpg");
+					image.setIsPrimary(i == 0);
+					entityManager.persist(image);
+				}
+
+				for (int t = 0; t < 2; t++) {
+					RoomType roomType = new RoomType();
+					roomType.setHotel(hotel);
+					roomType.setTypeName("Loại " + t);
+					roomType.setMaxOccupancy(2 + t);
+					roomType.setBasePrice(new BigDecimal(500_000 + t * 200_000));
+					roomType.setAmenities(Set.of(wifi));
+					entityManager.persist(roomType);
+
+					// Khách sạn chẵn: phòng duy nhất của mỗi loại đã gán cho booking bên dưới (hết phòng khi tìm theo ngày)
+					Room room = new Room();
+					room.setRoomType(roomType);
+					room.setRoomNumber(h + "0" + t);
+					entityManager.persist(room);
+
+					RoomImage roomImage = new RoomImage();
+					roomImage.setRoomType(roomType);
+					roomImage.setImageUrl("/uploads/room-" + h + "-" + t + ".jpg");
+					entityManager.persist(roomImage);
+
+					Booking booking = new Booking();
+					booking.setUser(user);
+					booking.setRoomType(roomType);
+					booking.setCheckInDate(LocalDate.now().plusDays(10 + t));
+					booking.setCheckOutDate(LocalDate.now().plusDays(12 + t));
+					booking.setNumberOfGuests(2);
+					booking.setBookingDate(LocalDateTime.now());
+					booking.setTotalPrice(roomType.getBasePrice().multiply(BigDecimal.valueOf(2)));
+					if (h % 2 == 0) {
+						booking.setAssignedRoom(room);
+					}
+					entityManager.persist(booking);
+					bookingIds.add(booking.getId());
+				}
+
+				Review review = new Review();
+				review.setUser(user);
+				review.setHotel(hotel);
+				review.setRating(new BigDecimal("4.5"));
+				review.setComment("Tốt");
+				review.setReviewDate(LocalDateTime.now());
+				review.setIsApproved(true);
+				entityManager.persist(review);
+			}
+		});
+		// Seed ghi thẳng qua EntityManager, không phát CatalogChangedEvent nên nạp lại lịch giá và index vị trí bằng tay
+		roomPriceCalendar.reload();
+		hotelGeoIndex.rebuild();
+	}
+
+	@Test
+	@WithMockUser(username = "alice")
+	void hotelListStaysWithinBudget() throws Exception {
+		assertBudget(perform("/api/v1/hotel/getBasic"), 6);
+	}
+
+	@Test
+	@WithMockUser(username = "alice")
+	void hotelBatchStaysWithinBudget() throws Exception {
+		String ids = hotelIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+		assertBudget(perform("/api/v1/hotel/batch?ids=" + ids), 6);
+	}
+
+	@Test
+	@WithMockUser(username = "alice")
+	void hotelSearchStaysWithinBudget() throws Exception {
+		assertBudget(perform("/api/v1/hotel/search?cityName=Đà Nẵng"), 8);
+	}
+
+	@Test
+	@WithMockUser(username = "alice")
+	void hotelSearchByDatesStaysWithinBudget() throws Exception {
+		String url = "/api/v1/hotel/search?cityName=Đà Nẵng&checkInDate=" + LocalDate.now().plusDays(10)
+				+ "&checkOutDate=" + LocalDate.now().plusDays(12);
+		assertBudget(perform(url), 9);
+
+		mockMvc.perform(get(url))
+				.andExpect(jsonPath("$.result.length()").value(HOTELS / 2))
+				.andExpect(jsonPath("$.result[0].minAvailablePrice").value(1_000_000));
+	}
+
+	@Test
+	@WithMockUser(username = "alice")
+	void nearbySearchWithFiltersStaysWithinBudget() throws Exception {
+		// Bộ lọc đọc tiện nghi, loại phòng và đánh giá của từng khách sạn: phải nạp theo lô, không N+1
+		String url = "/api/v1/hotel/nearby?lat=16.06&lng=108.22&radius=5&limit=3&minPrice=600000&minRating=4"
+				+ "&numberOfGuests=3&amenityIds=" + wifiId
+				+ "&checkInDate=" + LocalDate.now().plusDays(10) + "&checkOutDate=" + LocalDate.now().plusDays(12);
+		assertBudget(perform(url), 10);
+
+		mockMvc.perform(get(url))
+				.andExpect(jsonPath("$.result.length()").value(3));
+	}
+
+	@Test
+	@WithMockUser(username = "alice")
+	void availabilityCalendarStaysWithinBudget() throws Exception {
+		// Khách sạn 0: phòng duy nhất của loại 0 bị giữ đêm 10-11, loại 1 đêm 11-12
+		String url = "/api/v1/hotel/" + hotelIds.get(0) + "/calendar?from=" + LocalDate.now()
+				+ "&to=" + LocalDate.now().plusDays(365);
+		assertBudget(perform(url), 4);
+		assertBudget(perform(url), 2);
+
+		mockMvc.perform(get(url))
+				.andExpect(jsonPath("$.result.length()").value(2))
+				.andExpect(jsonPath("$.result[0].nights.length()").value(365))
+				.andExpect(jsonPath("$.result[0].nights[9].availableRooms").value(1))
+				.andExpect(jsonPath("$.result[0].nights[10].availableRooms").value(0))
+				.andExpect(jsonPath("$.result[0].nights[11].availableRooms").value(0))
+				.andExpect(jsonPath("$.result[0].nights[12].availableRooms").value(1))
+				.andExpect(jsonPath("$.result[0].nights[0].price").value(500_000));
+	}
+
+	@Test
+	@WithMockUser(username = "alice")
+	void hotelReviewsStayWithinBudget() throws Exception {
+		assertBudget(perform("/api/v1/reviews/hotel/" + hotelIds.get(0)), 8);
+	}
+
+	@Test
+	@WithMockUser(username = "alice")
+	void myBookingsStayWithinBudget() throws Exception {
+		assertBudget(perform("/api/v1/bookings/my-bookings"), 10);
+	}
+
+	@Test
+	@WithMockUser(username = "alice")
+	void bookingDocumentsServeReadsWithinBudget() throws Exception {
+		bookingDocumentService.rebuildAll();
+
+		// Chi tiết: user + quyền của user + một document theo khóa chính
+		String url = "/api/v1/bookings/" + bookingIds.get(0);
+		assertBudget(perform(url), 3);
+		// Danh sách: như trên + id booking của user, document lấy một lần theo danh sách khóa chính
+		assertBudget(perform("/api/v1/bookings/my-bookings"), 4);
+
+		mockMvc.perform(get(url))
+				.andExpect(jsonPath("$.result.hotelName").value("Khách sạn 0"))
+				.andExpect(jsonPath("$.result.roomNumber").value("000"))
+				.andExpect(jsonPath("$.result.hasReviewed").value(true))
+				.andExpect(jsonPath("$.result.canModify").value(true));
+	}
+
+	@Test
+	@WithMockUser(username = "alice")
+	void bookingStatsStayWithinBudget() throws Exception {
+		assertBudget(perform("/api/v1/bookings/stats"), 4);
+	}
+
+	@Test
+	@WithMockUser(username = "alice", roles = "ADMIN")
+	void checkInViewsStayWithinBudget() throws Exception {
+		assertBudget(perform("/api/v1/bookings/ready-for-checkin"), 6);
+		assertBudget(perform("/api/v1/bookings/ready-for-checkout"), 6);
+		assertBudget(perform("/api/v1/bookings/checked-in"), 6);
+		assertBudget(perform("/api/v1/bookings/check-history"), 6);
+	}
+
+	@Test
+	@WithMockUser(username = "alice")
+	void debugHeadersAreReturned() throws Exception {
+		mockMvc.perform(get("/api/v1/hotel/getBasic"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists("X-SQL-Count"))
+				.andExpect(header().exists("X-SQL-Rows"))
+				.andExpect(header().exists("X-SQL-Time-Ms"));
+	}
+
+	private SqlRequestStats perform(String url) throws Exception {
+		MvcResult result = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn();
+		SqlRequestStats stats = (SqlRequestStats) result.getRequest().getAttribute(SqlMonitorFilter.STATS_ATTRIBUTE);
+		assertNotNull(stats);
+		return stats;
+	}
+
+	private void assertBudget(SqlRequestStats stats, int maxStatements) {
+		assertTrue(stats.getStatementCount() <= maxStatements,
+				"Vượt ngân sách: " + stats.getStatementCount() + " câu lệnh > " + maxStatements
+						+ ", lặp: " + stats.repeatedStatements(2));
+		assertEquals(List.of(), stats.repeatedStatements(HOTELS));
+	}
+
+	private Amenity amenity(String name) {
+		Amenity amenity = new Amenity();
+		amenity.setAmenityName(name);
+		amenity.setAmenityType("Khách sạn");
+		entityManager.persist(amenity);
+		return amenity;
+	}
+}
@@ -0,0 +1,81 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.HotelImage;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * So sánh số câu lệnh JDBC khi tạo khách sạn nhiều ảnh: có batch (id pooled) và không batch.
+ */
+@DataJpaTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.jpa.show-sql=false"
+})
+class HotelImageBatchInsertTests {
+
+	private static final int IMAGE_COUNT = 200;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private HotelImageRepository hotelImageRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void imageInsertsAreBatched() {
+		long unbatched = insertHotelWithImages(1);
+		long batched = insertHotelWithImages(50);
+
+		assertEquals(2L * IMAGE_COUNT, hotelImageRepository.count());
+		// Có batch: 200 INSERT dùng chung một PreparedStatement, gửi thành 4 lô 50 dòng thay vì 200 lượt
+		String report = IMAGE_COUNT + " images: " + unbatched + " statements unbatched, " + batched + " batched";
+		assertTrue(unbatched >= IMAGE_COUNT, report);
+		assertTrue(batched <= 10, report);
+	}
+
+	private long insertHotelWithImages(int batchSize) {
+		Session session = entityManager.unwrap(Session.class);
+		session.setJdbcBatchSize(batchSize);
+		Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		Hotel hotel = new Hotel();
+		hotel.setHotelName("Benchmark hotel");
+		hotel.setAddress("1 Test street");
+		hotel.setStarRating(new BigDecimal("4.5"));
+		hotel = hotelRepository.save(hotel);
+
+		List<HotelImage> images = new ArrayList<>();
+		for (int i = 0; i < IMAGE_COUNT; i++) {
+			HotelImage image = new HotelImage();
+			image.setHotel(hotel);
+			image.setImageUrl("/uploads/hotel-" + i + ".jpg");
+			image.setIsPrimary(i == 0);
+			images.add(image);
+		}
+		hotelImageRepository.saveAll(images);
+		session.flush();
+		session.clear();
+
+		return statistics.getPrepareStatementCount();
+	}
+}
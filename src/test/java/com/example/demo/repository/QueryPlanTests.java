@@ -0,0 +1,187 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.booking.BookingStatus;
+import com.example.demo.dto.room.RoomStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Chạy EXPLAIN cho SQL sinh ra từ mọi @Query trong BookingRepository/RoomRepository (H2, index lấy từ @Table)
+ * và báo lỗi khi kế hoạch quét toàn bảng. Thêm truy vấn mới mà chưa có index thì test này đỏ:
+ * bổ sung index vào db/migration + @Table, hoặc ghi lý do vào ALLOWED_SCANS nếu quét toàn bảng là chủ ý.
+ */
+@DataJpaTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.demo.repository.QueryPlanTests$CapturingInspector",
+		"spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QueryPlanTests {
+
+	private static final Pattern TABLE_SCAN = Pattern.compile("PUBLIC\\.(\\w+)\\.tableScan");
+
+	// Tên truy vấn -> lý do chấp nhận quét toàn bảng
+	private static final Map<String, String> ALLOWED_SCANS = Map.of(
+			"findByRoomNumberContaining", "LIKE '%x%' không dùng được B-tree; bảng phòng nhỏ, chỉ admin tìm kiếm",
+			"findRoomNumbersLike", "LIKE '%x%' cho autocomplete số phòng, cùng lý do findByRoomNumberContaining",
+			"findRoomsByCriteria", "Bộ lọc tùy chọn (:x IS NULL OR ...) nên không chọn cố định được index",
+			"streamAll", "Stream toàn bộ phòng là chủ ý");
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void repositoryQueriesUseIndexes() {
+		List<String> violations = new ArrayList<>();
+		violations.addAll(explainQueries(BookingRepository.class, bookingRepository));
+		violations.addAll(explainQueries(RoomRepository.class, roomRepository));
+
+		assertTrue(violations.isEmpty(), "Truy vấn quét toàn bảng:\n" + String.join("\n", violations));
+	}
+
+	@Test
+	void allowedScansStillExist() {
+		List<String> declared = Stream.of(BookingRepository.class, RoomRepository.class)
+				.flatMap(repository -> Stream.of(repository.getDeclaredMethods()))
+				.filter(method -> method.isAnnotationPresent(Query.class))
+				.map(Method::getName)
+				.toList();
+
+		ALLOWED_SCANS.keySet().forEach(name ->
+				assertTrue(declared.contains(name), "ALLOWED_SCANS còn tên không tồn tại: " + name));
+	}
+
+	private List<String> explainQueries(Class<?> repositoryType, Object repository) {
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		List<String> violations = new ArrayList<>();
+		for (Method method : repositoryType.getDeclaredMethods()) {
+			if (!method.isAnnotationPresent(Query.class)) {
+				continue;
+			}
+			String name = repositoryType.getSimpleName() + "." + method.getName();
+			List<String> statements = capture(method, repository);
+			if (statements.isEmpty()) {
+				violations.add(name + ": không sinh ra SQL");
+				continue;
+			}
+			for (String sql : statements) {
+				String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+				Matcher scan = TABLE_SCAN.matcher(plan);
+				while (scan.find()) {
+					if (!ALLOWED_SCANS.containsKey(method.getName())) {
+						violations.add(name + ": quét toàn bảng " + scan.group(1));
+					}
+				}
+			}
+		}
+		return violations;
+	}
+
+	/**
+	 * Gọi truy vấn với tham số giả trong transaction rollback và trả về các SQL đã gửi xuống DB.
+	 * Truy vấn lỗi lúc chạy trên DB rỗng (VD chia cho 0) vẫn có SQL để EXPLAIN nên bỏ qua lỗi.
+	 */
+	private List<String> capture(Method method, Object repository) {
+		CapturingInspector.STATEMENTS.clear();
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		try {
+			template.executeWithoutResult(status -> {
+				status.setRollbackOnly();
+				try {
+					Object result = method.invoke(repository, arguments(method));
+					if (result instanceof Stream<?> stream) {
+						try (stream) {
+							stream.forEach(row -> { });
+						}
+					}
+				} catch (ReflectiveOperationException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		} catch (RuntimeException ignored) {
+			// chỉ cần SQL đã bắt được
+		}
+		return List.copyOf(CapturingInspector.STATEMENTS);
+	}
+
+	private Object[] arguments(Method method) {
+		boolean roomQuery = method.getDeclaringClass() == RoomRepository.class;
+		Object[] arguments = new Object[method.getParameterCount()];
+		for (int i = 0; i < arguments.length; i++) {
+			Parameter parameter = method.getParameters()[i];
+			Param param = parameter.getAnnotation(Param.class);
+			String name = param != null ? param.value() : parameter.getName();
+			Class<?> type = parameter.getType();
+			if (type == Long.class || type == long.class) {
+				arguments[i] = 1L;
+			} else if (type == Integer.class || type == int.class) {
+				arguments[i] = name.equals("year") ? LocalDate.now().getYear() : 1;
+			} else if (type == Double.class || type == double.class) {
+				arguments[i] = 1.0;
+			} else if (type == String.class) {
+				arguments[i] = !name.toLowerCase().contains("status") ? "101"
+						: roomQuery ? RoomStatus.AVAILABLE : BookingStatus.CONFIRMED;
+			} else if (type == LocalDate.class) {
+				arguments[i] = LocalDate.now();
+			} else if (type == LocalDateTime.class) {
+				arguments[i] = LocalDateTime.now();
+			} else if (type == Pageable.class) {
+				arguments[i] = PageRequest.of(0, 10);
+			} else if (Collection.class.isAssignableFrom(type)) {
+				Object element = ((ParameterizedType) parameter.getParameterizedType()).getActualTypeArguments()[0];
+				arguments[i] = element == String.class ? List.of(BookingStatus.CONFIRMED) : List.of(1L);
+			}
+		}
+		return arguments;
+	}
+
+	public static class CapturingInspector implements StatementInspector {
+
+		static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			STATEMENTS.add(sql);
+			return sql;
+		}
+	}
+}
@@ -0,0 +1,256 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.booking.BookingStatus;
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Location;
+import com.example.demo.entity.Payment;
+import com.example.demo.entity.Room;
+import com.example.demo.entity.RoomType;
+import com.example.demo.entity.User;
+import com.example.demo.enumm.BookingStatusCode;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Trạng thái lưu thành mã số nhưng JPQL (tham số lẫn hằng chuỗi) vẫn viết bằng tên hiển thị.
+ */
+@DataJpaTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.show-sql=false"
+})
+class StatusCodeMappingTests {
+
+	// Hằng chuỗi trong câu query, ví dụ b.status = 'Đã xác nhận'
+	private static final Pattern STRING_LITERAL = Pattern.compile("'[^']*'");
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void statusIsStoredAsSmallCodeAndQueriedByDisplayName() {
+		Booking booking = persistBooking(BookingStatus.TEMPORARY);
+		persistBooking(BookingStatus.CANCELLED);
+		entityManager.flush();
+		entityManager.clear();
+
+		Number stored = (Number) entityManager
+				.createNativeQuery("SELECT status FROM bookings WHERE booking_id = " + booking.getId())
+				.getSingleResult();
+		assertEquals(BookingStatusCode.TEMPORARY.getCode(), stored.shortValue());
+
+		// Hằng chuỗi trong JPQL
+		List<Object[]> temporary = bookingRepository.findTemporaryBookingDates();
+		assertEquals(1, temporary.size());
+		assertEquals(booking.getId(), temporary.get(0)[0]);
+		// Tham số
+		assertEquals(1, bookingRepository.countByStatus(BookingStatus.CANCELLED));
+		// Đọc lại thành tên hiển thị
+		assertEquals(BookingStatus.TEMPORARY, bookingRepository.findById(booking.getId()).orElseThrow().getStatus());
+	}
+
+	/**
+	 * Hằng trạng thái sai (như 'Checked In') chỉ lỗi khi converter đổi nó sang mã lúc chạy query,
+	 * nên chạy thật mọi query có hằng chuỗi của các repository để bắt lỗi ngay ở test.
+	 */
+	@Test
+	void everyQueryWithStringLiteralsRuns() {
+		// Id thật cho tham số *Id để các query chia theo số phòng có dữ liệu (H2 báo lỗi chia cho 0, MySQL trả NULL)
+		Booking booking = persistBooking(BookingStatus.CONFIRMED);
+		Room room = new Room();
+		room.setRoomType(booking.getRoomType());
+		room.setRoomNumber("101");
+		entityManager.persist(room);
+		booking.setAssignedRoom(room);
+		entityManager.flush();
+		Map<String, Long> ids = Map.of(
+				"bookingId", booking.getId(),
+				"excludeBookingId", booking.getId(),
+				"userId", booking.getUser().getId(),
+				"hotelId", booking.getRoomType().getHotel().getId(),
+				"roomTypeId", booking.getRoomType().getId(),
+				"roomId", room.getId());
+
+		List<String> failures = new ArrayList<>();
+		int executed = runLiteralQueries(BookingRepository.class, bookingRepository, BookingStatus.CONFIRMED, ids, failures)
+				+ runLiteralQueries(RoomRepository.class, roomRepository, "Trống", ids, failures)
+				+ runLiteralQueries(HotelRepository.class, hotelRepository, "Đã thanh toán", ids, failures);
+
+		assertTrue(failures.isEmpty(), String.join("\n", failures));
+		assertTrue(executed >= 20, "chỉ chạy " + executed + " query");
+	}
+
+	/**
+	 * SQL thuần không đi qua converter: so trạng thái bằng tên hiển thị thì không khớp dòng nào và doanh thu luôn bằng 0.
+	 */
+	@Test
+	void nativeTopHotelsQueryCountsOnlyPaidPayments() {
+		Booking booking = persistBooking(BookingStatus.CONFIRMED);
+		persistPayment(booking, "Đã thanh toán", new BigDecimal("600000"));
+		persistPayment(booking, "Chờ thanh toán", new BigDecimal("900000"));
+		entityManager.flush();
+		entityManager.clear();
+
+		List<Object[]> top = hotelRepository.findTopHotelsByRevenue();
+
+		assertEquals(1, top.size());
+		assertEquals(booking.getRoomType().getHotel().getId(), ((Number) top.get(0)[0]).longValue());
+		assertEquals(0, new BigDecimal("600000").compareTo(new BigDecimal(top.get(0)[5].toString())),
+				"doanh thu " + top.get(0)[5]);
+	}
+
+	private int runLiteralQueries(Class<?> repositoryType, Object repository, String statusName,
+								  Map<String, Long> ids, List<String> failures) {
+		int executed = 0;
+		for (Method method : repositoryType.getDeclaredMethods()) {
+			Query query = method.getAnnotation(Query.class);
+			if (query == null || !STRING_LITERAL.matcher(query.value()).find()) {
+				continue;
+			}
+			Object[] arguments = new Object[method.getParameterCount()];
+			for (int i = 0; i < arguments.length; i++) {
+				arguments[i] = argumentFor(method.getParameters()[i], statusName, ids);
+			}
+			try {
+				Object result = method.invoke(repository, arguments);
+				if (result instanceof Stream<?> stream) {
+					stream.close();
+				}
+				executed++;
+			} catch (InvocationTargetException e) {
+				failures.add(repositoryType.getSimpleName() + "." + method.getName() + ": " + e.getCause());
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+		return executed;
+	}
+
+	private static Object argumentFor(Parameter parameter, String statusName, Map<String, Long> ids) {
+		Param param = parameter.getAnnotation(Param.class);
+		String name = param != null ? param.value() : parameter.getName();
+		if (Collection.class.isAssignableFrom(parameter.getType())) {
+			Type element = ((ParameterizedType) parameter.getParameterizedType()).getActualTypeArguments()[0];
+			return List.of(sampleValue((Class<?>) element, name, statusName, ids));
+		}
+		return sampleValue(parameter.getType(), name, statusName, ids);
+	}
+
+	private static Object sampleValue(Class<?> type, String name, String statusName, Map<String, Long> ids) {
+		if (type == String.class) {
+			return name.toLowerCase().contains("status") ? statusName : "x";
+		}
+		if (type == Long.class || type == long.class) {
+			return ids.getOrDefault(name, 1L);
+		}
+		if (type == Integer.class || type == int.class) {
+			return 1;
+		}
+		if (type == Double.class || type == double.class) {
+			return 1.0;
+		}
+		if (type == Boolean.class || type == boolean.class) {
+			return true;
+		}
+		if (type == BigDecimal.class) {
+			return BigDecimal.ONE;
+		}
+		if (type == LocalDate.class) {
+			return LocalDate.now();
+		}
+		if (type == LocalDateTime.class) {
+			return LocalDateTime.now();
+		}
+		if (type == Pageable.class) {
+			return PageRequest.of(0, 10);
+		}
+		throw new IllegalStateException("Chưa có giá trị mẫu cho tham số kiểu " + type.getName());
+	}
+
+	private void persistPayment(Booking booking, String status, BigDecimal amount) {
+		Payment payment = new Payment();
+		payment.setBooking(booking);
+		payment.setAmount(amount);
+		payment.setPaymentMethod("Ví điện tử");
+		payment.setPaymentStatus(status);
+		entityManager.persist(payment);
+	}
+
+	private Booking persistBooking(String status) {
+		Location location = new Location();
+		location.setCityName("Huế");
+		location.setProvince("Thừa Thiên Huế");
+		location.setCountry("Việt Nam");
+		entityManager.persist(location);
+
+		Hotel hotel = new Hotel();
+		hotel.setHotelName("Khách sạn Sông Hương");
+		hotel.setAddress("1 Lê Lợi");
+		hotel.setStarRating(new BigDecimal("4.0"));
+		hotel.setLatitude(new BigDecimal("16.46"));
+		hotel.setLongitude(new BigDecimal("107.59"));
+		hotel.setLocation(location);
+		entityManager.persist(hotel);
+
+		RoomType roomType = new RoomType();
+		roomType.setHotel(hotel);
+		roomType.setTypeName("Standard");
+		roomType.setMaxOccupancy(2);
+		roomType.setBasePrice(new BigDecimal("600000"));
+		entityManager.persist(roomType);
+
+		User user = new User();
+		user.setUsername("user-" + status.hashCode());
+		user.setEmail(status.hashCode() + "@example.com");
+		user.setPasswordHash("x");
+		user.setFullName("Khách");
+		entityManager.persist(user);
+
+		Booking booking = new Booking();
+		booking.setUser(user);
+		booking.setRoomType(roomType);
+		booking.setCheckInDate(LocalDate.now().plusDays(5));
+		booking.setCheckOutDate(LocalDate.now().plusDays(6));
+		booking.setNumberOfGuests(2);
+		booking.setBookingDate(LocalDateTime.now());
+		booking.setTotalPrice(new BigDecimal("600000"));
+		booking.setStatus(status);
+		entityManager.persist(booking);
+		return booking;
+	}
+}
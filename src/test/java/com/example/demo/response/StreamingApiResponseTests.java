@@ -0,0 +1,81 @@
+package com.example.demo.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingApiResponseTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	// Ghi lại nội dung đã đẩy ra ở mỗi lần flush
+	private static final class RecordingOutputStream extends ByteArrayOutputStream {
+		private final List<String> flushes = new ArrayList<>();
+
+		@Override
+		public void flush() {
+			flushes.add(toString(StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	void writesAValidEnvelopeWithEveryItem() throws Exception {
+		RecordingOutputStream out = new RecordingOutputStream();
+		body("Thành công", 250).writeTo(out);
+
+		JsonNode json = objectMapper.readTree(out.toString(StandardCharsets.UTF_8));
+		assertEquals(200, json.get("code").asInt());
+		assertEquals("Thành công", json.get("message").asText());
+		assertEquals(250, json.get("result").size());
+		assertEquals(249, json.get("result").get(249).get("id").asInt());
+	}
+
+	@Test
+	void flushesAfterTheFirstItemAndThenInBatches() throws Exception {
+		RecordingOutputStream out = new RecordingOutputStream();
+		body(null, 250).writeTo(out);
+
+		// Lần flush đầu: đã có envelope và phần tử đầu tiên, chưa có phần tử thứ hai
+		String first = out.flushes.get(0);
+		assertTrue(first.startsWith("{\"code\":200,\"result\":[{\"id\":0"), first);
+		assertTrue(!first.contains("{\"id\":1}"), first);
+		// Chỉ sau phần tử 1, 100, 200 (phần còn lại được đẩy ra khi đóng generator), không flush từng phần tử
+		assertEquals(3, out.flushes.size(), String.valueOf(out.flushes.size()));
+		assertTrue(out.flushes.get(1).contains("{\"id\":99}") && !out.flushes.get(1).contains("{\"id\":100}"));
+	}
+
+	@Test
+	void producerFailureStopsTheStreamAfterItemsAlreadySent() throws Exception {
+		RecordingOutputStream out = new RecordingOutputStream();
+		StreamingResponseBody body = StreamingApiResponse.<Map<String, Integer>>ok(objectMapper, null, consumer -> {
+			consumer.accept(Map.of("id", 0));
+			throw new IllegalStateException("mất kết nối DB");
+		}).getBody();
+
+		assertThrows(IllegalStateException.class, () -> body.writeTo(out));
+		assertTrue(out.flushes.get(0).contains("{\"id\":0}"));
+		// Envelope không được đóng lại thành JSON hợp lệ với result bị cắt cụt
+		String written = out.toString(StandardCharsets.UTF_8);
+		assertThrows(JsonProcessingException.class, () -> objectMapper.readTree(written), written);
+	}
+
+	private StreamingResponseBody body(String message, int items) {
+		return StreamingApiResponse.<Map<String, Integer>>ok(objectMapper, message, consumer -> {
+			for (int i = 0; i < items; i++) {
+				consumer.accept(Map.of("id", i));
+			}
+		}).getBody();
+	}
+}
@@ -0,0 +1,40 @@
+package com.example.demo.service.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class AvailabilitySweepTests {
+
+	@Test
+	void countsRoomsHeldPerNightWithCheckOutDayFree() {
+		int[] available = AvailabilitySweep.availableRooms(3, 100, 6, List.of(
+				new long[]{101, 103},
+				new long[]{102, 105},
+				new long[]{103, 104}));
+
+		assertArrayEquals(new int[]{3, 2, 1, 1, 2, 3}, available);
+	}
+
+	@Test
+	void staysAreClippedToTheWindow() {
+		int[] available = AvailabilitySweep.availableRooms(2, 100, 4, List.of(
+				new long[]{90, 102},
+				new long[]{103, 130},
+				new long[]{80, 95}));
+
+		assertArrayEquals(new int[]{1, 1, 2, 1}, available);
+	}
+
+	@Test
+	void overbookingNeverGoesNegative() {
+		int[] available = AvailabilitySweep.availableRooms(1, 0, 3, List.of(
+				new long[]{0, 2},
+				new long[]{1, 3},
+				new long[]{1, 2}));
+
+		assertArrayEquals(new int[]{0, 0, 0}, available);
+	}
+}
@@ -0,0 +1,110 @@
+package com.example.demo.service.booking;
+
+import com.example.demo.dto.booking.BookingResponse;
+import com.example.demo.dto.booking.BookingStatus;
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.RoomType;
+import com.example.demo.entity.User;
+import com.example.demo.repository.ReviewRepository;
+import com.example.demo.utils.FieldSelection;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class BookingMappingServiceTests {
+
+	private final ReviewRepository reviewRepository = mock(ReviewRepository.class);
+	private final BookingMappingService mappingService = new BookingMappingService(reviewRepository);
+
+	@Test
+	void unselectedRelationsAreNotTouched() {
+		User user = mock(User.class);
+		Hotel hotel = mock(Hotel.class);
+		Booking booking = booking(user, hotel);
+
+		BookingResponse response = mappingService.mapToBookingResponseList(List.of(booking),
+				FieldSelection.parse("status,roomTypeName")).get(0);
+
+		assertEquals(BookingStatus.COMPLETED, response.getStatus());
+		assertEquals("Deluxe", response.getRoomTypeName());
+		assertNull(response.getUserName());
+		assertNull(response.getHotelName());
+		assertNull(response.getCanCancel());
+		assertNull(response.getCanReview());
+		verifyNoInteractions(user, hotel, reviewRepository);
+	}
+
+	@Test
+	void hotelImagesAndRatingsLoadOnlyWhenRequested() {
+		Hotel hotel = mock(Hotel.class);
+		when(hotel.getHotelName()).thenReturn("Sông Hàn");
+
+		BookingResponse response = mappingService.mapToBookingResponse(booking(new User(), hotel),
+				FieldSelection.parse("hotelName"));
+
+		assertEquals("Sông Hàn", response.getHotelName());
+		verify(hotel, never()).getImages();
+		verify(hotel, never()).getReviews();
+	}
+
+	@Test
+	void reviewFlagsAreLoadedOnceForTheWholeList() {
+		User user = new User();
+		user.setId(3L);
+		Hotel hotel = new Hotel();
+		hotel.setId(5L);
+		when(reviewRepository.findIdsByUserIdsAndHotelIds(anyCollection(), anyCollection()))
+				.thenReturn(List.<Object[]>of(new Object[]{3L, 5L, 42L}));
+
+		List<BookingResponse> responses = mappingService.mapToBookingResponseList(
+				List.of(booking(user, hotel), booking(user, hotel)), FieldSelection.parse("hasReviewed,existingReviewId"));
+
+		responses.forEach(response -> assertEquals(42L, response.getExistingReviewId()));
+		verify(reviewRepository).findIdsByUserIdsAndHotelIds(anyCollection(), anyCollection());
+		verify(reviewRepository, never()).existsByUserIdAndHotelId(3L, 5L);
+	}
+
+	@Test
+	void everythingIsMappedWithoutFields() {
+		User user = new User();
+		user.setFullName("Alice");
+		Hotel hotel = new Hotel();
+		hotel.setHotelName("Sông Hàn");
+
+		BookingResponse response = mappingService.mapToBookingResponse(booking(user, hotel), FieldSelection.all());
+
+		assertEquals("Alice", response.getUserName());
+		assertEquals("Sông Hàn", response.getHotelName());
+		assertNotNull(response.getCanCancel());
+		assertNotNull(response.getCanReview());
+	}
+
+	private static Booking booking(User user, Hotel hotel) {
+		RoomType roomType = new RoomType();
+		roomType.setTypeName("Deluxe");
+		roomType.setHotel(hotel);
+
+		Booking booking = new Booking();
+		booking.setId(1L);
+		booking.setUser(user);
+		booking.setRoomType(roomType);
+		booking.setStatus(BookingStatus.COMPLETED);
+		booking.setCheckInDate(LocalDate.now().minusDays(3));
+		booking.setCheckOutDate(LocalDate.now().minusDays(1));
+		booking.setTotalPrice(new BigDecimal("1800000"));
+		return booking;
+	}
+}
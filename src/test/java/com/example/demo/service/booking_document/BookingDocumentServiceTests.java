@@ -0,0 +1,121 @@
+package com.example.demo.service.booking_document;
+
+import com.example.demo.dto.booking.BookingResponse;
+import com.example.demo.dto.booking.BookingStatus;
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Location;
+import com.example.demo.entity.Room;
+import com.example.demo.entity.RoomType;
+import com.example.demo.entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:booking-document;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.show-sql=false"
+})
+class BookingDocumentServiceTests {
+
+	@Autowired
+	private BookingDocumentService documentService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void renamingTheAssignedRoomRefreshesTheDocument() throws Exception {
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		Long[] ids = template.execute(status -> persistBookingWithRoom());
+		documentService.rebuildAll();
+		assertEquals("101", roomNumberInDocument(ids[0]));
+
+		template.executeWithoutResult(status -> entityManager.find(Room.class, ids[1]).setRoomNumber("101A"));
+
+		assertEquals("101A", awaitRoomNumberInDocument(ids[0], "101A"));
+	}
+
+	// Document bị xóa sau commit rồi được chiếu lại ở nền khi đọc; chờ tới khi document mang số phòng mới
+	private String awaitRoomNumberInDocument(Long bookingId, String expected) throws InterruptedException {
+		String roomNumber = null;
+		for (int attempt = 0; attempt < 50; attempt++) {
+			roomNumber = roomNumberInDocument(bookingId);
+			if (expected.equals(roomNumber)) {
+				break;
+			}
+			Thread.sleep(100);
+		}
+		return roomNumber;
+	}
+
+	private String roomNumberInDocument(Long bookingId) {
+		Optional<BookingResponse> document = documentService.findDocument(bookingId);
+		return document.map(BookingResponse::getRoomNumber).orElse(null);
+	}
+
+	// [bookingId, roomId]
+	private Long[] persistBookingWithRoom() {
+		Location location = new Location();
+		location.setCityName("Vũng Tàu");
+		location.setProvince("Bà Rịa - Vũng Tàu");
+		location.setCountry("Việt Nam");
+		entityManager.persist(location);
+
+		Hotel hotel = new Hotel();
+		hotel.setHotelName("Khách sạn Bãi Sau");
+		hotel.setAddress("3 Thùy Vân");
+		hotel.setStarRating(new BigDecimal("4.0"));
+		hotel.setLocation(location);
+		entityManager.persist(hotel);
+
+		RoomType roomType = new RoomType();
+		roomType.setHotel(hotel);
+		roomType.setTypeName("Deluxe");
+		roomType.setMaxOccupancy(2);
+		roomType.setBasePrice(new BigDecimal("900000"));
+		entityManager.persist(roomType);
+
+		Room room = new Room();
+		room.setRoomType(roomType);
+		room.setRoomNumber("101");
+		entityManager.persist(room);
+
+		User user = new User();
+		user.setUsername("frank");
+		user.setEmail("frank@example.com");
+		user.setPasswordHash("x");
+		user.setFullName("Frank");
+		entityManager.persist(user);
+
+		Booking booking = new Booking();
+		booking.setUser(user);
+		booking.setRoomType(roomType);
+		booking.setAssignedRoom(room);
+		booking.setCheckInDate(LocalDate.now().plusDays(3));
+		booking.setCheckOutDate(LocalDate.now().plusDays(5));
+		booking.setNumberOfGuests(2);
+		booking.setTotalPrice(new BigDecimal("1800000"));
+		booking.setStatus(BookingStatus.CONFIRMED);
+		entityManager.persist(booking);
+		return new Long[]{booking.getId(), room.getId()};
+	}
+}
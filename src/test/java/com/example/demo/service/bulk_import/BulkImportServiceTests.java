@@ -0,0 +1,147 @@
+package com.example.demo.service.bulk_import;
+
+import com.example.demo.dto.bulk_import.BulkImportStatusResponse;
+import com.example.demo.entity.Amenity;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Location;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:bulk-import;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.show-sql=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BulkImportServiceTests {
+
+	@Autowired
+	private BulkImportService bulkImportService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeAll
+	void seed() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			Location location = new Location();
+			location.setCityName("Đà Nẵng");
+			location.setProvince("Đà Nẵng");
+			location.setCountry("Việt Nam");
+			entityManager.persist(location);
+
+			Amenity wifi = new Amenity();
+			wifi.setAmenityName("Wifi");
+			wifi.setAmenityType("Khách sạn");
+			entityManager.persist(wifi);
+
+			Hotel existing = new Hotel();
+			existing.setHotelName("Đã Có");
+			existing.setAddress("9 Trần Phú");
+			existing.setStarRating(new BigDecimal("3.0"));
+			existing.setLocation(location);
+			entityManager.persist(existing);
+		});
+	}
+
+	@Test
+	void csvImportSkipsInvalidHotelsAndKeepsTheRest() throws Exception {
+		String csv = String.join("\n",
+				"hotel_name,address,city_name,star_rating,hotel_amenities,room_type_name,max_occupancy,base_price,room_number",
+				"\"Sông Hàn, CSV\",1 Bạch Đằng,Đà Nẵng,4.5,Wifi,Deluxe,2,900000,101",
+				"\"Sông Hàn, CSV\",1 Bạch Đằng,Đà Nẵng,4.5,Wifi,Deluxe,2,900000,102",
+				"Không Địa Điểm,2 Lê Lợi,Hà Giang,4,,,,,",
+				"Sao Sai,3 Lê Lợi,Đà Nẵng,6,,,,,",
+				"Tiện Nghi Lạ,4 Lê Lợi,Đà Nẵng,4,Sân golf,,,,",
+				"Đã Có,9 Trần Phú,Đà Nẵng,3,,,,,",
+				"Phòng Trùng,5 Lê Lợi,Đà Nẵng,4,,Deluxe,2,900000,101",
+				"Phòng Trùng,5 Lê Lợi,Đà Nẵng,4,,Suite,2,900000,101");
+
+		BulkImportStatusResponse job = importFile("hotels.csv", csv);
+
+		assertEquals("COMPLETED", job.getStatus(), String.valueOf(job.getMessage()));
+		assertEquals(6L, job.getRecordsRead());
+		assertEquals(1L, job.getHotelsImported());
+		assertEquals(1L, job.getRoomTypesImported());
+		assertEquals(2L, job.getRoomsImported());
+		assertEquals(5L, job.getFailedRecords());
+		String errors = String.join("\n", job.getErrors());
+		assertTrue(errors.contains("Dòng 4: Không tìm thấy địa điểm: Hà Giang"), errors);
+		assertTrue(errors.contains("Dòng 5: Hạng sao phải trong khoảng 0-5"), errors);
+		assertTrue(errors.contains("Dòng 6: Không tìm thấy tiện nghi: Sân golf"), errors);
+		assertTrue(errors.contains("Dòng 7: Khách sạn đã tồn tại"), errors);
+		assertTrue(errors.contains("Dòng 8: Số phòng bị trùng: 101"), errors);
+		assertEquals(1L, countHotels("Sông Hàn, CSV"));
+	}
+
+	@Test
+	void failedChunkRollsBackAndItsHotelsCanStillBeImportedLater() throws Exception {
+		// Bản ghi đầu đủ CHUNK_ENTITIES (1 khách sạn + 1 loại phòng + 998 phòng) nên được ghi thành một lô riêng,
+		// và số điện thoại dài hơn cột phone_number (20) chỉ lỗi khi ghi DB
+		String rooms = IntStream.rangeClosed(1, 998)
+				.mapToObj(i -> "{\"roomNumber\":\"" + i + "\"}")
+				.collect(Collectors.joining(","));
+		String ndjson = String.join("\n",
+				"{\"hotelName\":\"Lô Lỗi\",\"address\":\"7 Hùng Vương\",\"cityName\":\"Đà Nẵng\",\"starRating\":4,"
+						+ "\"phoneNumber\":\"0123456789012345678901234\","
+						+ "\"roomTypes\":[{\"typeName\":\"Deluxe\",\"maxOccupancy\":2,\"basePrice\":900000,\"rooms\":[" + rooms + "]}]}",
+				"null",
+				"{\"hotelName\":\"Lô Lỗi\",\"address\":\"7 Hùng Vương\",\"cityName\":\"Đà Nẵng\",\"starRating\":4}");
+
+		BulkImportStatusResponse job = importFile("hotels.ndjson", ndjson);
+
+		assertEquals("COMPLETED", job.getStatus(), String.valueOf(job.getMessage()));
+		assertEquals(3L, job.getRecordsRead());
+		assertEquals(1L, job.getHotelsImported());
+		assertEquals(0L, job.getRoomsImported());
+		assertEquals(2L, job.getFailedRecords());
+		String errors = String.join("\n", job.getErrors());
+		assertTrue(errors.contains("Dòng 1-1: lỗi ghi DB, bỏ qua cả lô"), errors);
+		assertTrue(errors.contains("Dòng 2: Dòng không phải object JSON"), errors);
+		assertEquals(1L, countHotels("Lô Lỗi"));
+	}
+
+	private BulkImportStatusResponse importFile(String name, String content) throws InterruptedException {
+		MockMultipartFile file = new MockMultipartFile("file", name, "application/octet-stream",
+				content.getBytes(StandardCharsets.UTF_8));
+		String jobId = bulkImportService.startHotelImport(file, null).getJobId();
+		for (int i = 0; i < 300; i++) {
+			BulkImportStatusResponse job = bulkImportService.getStatus(jobId);
+			if (List.of("COMPLETED", "FAILED").contains(job.getStatus())) {
+				return job;
+			}
+			Thread.sleep(100);
+		}
+		throw new AssertionError("Import chưa xong sau 30s");
+	}
+
+	private long countHotels(String name) {
+		return entityManager.createQuery("SELECT COUNT(h) FROM Hotel h WHERE h.hotelName = :name", Long.class)
+				.setParameter("name", name)
+				.getSingleResult();
+	}
+}
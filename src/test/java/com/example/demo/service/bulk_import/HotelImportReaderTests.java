@@ -0,0 +1,133 @@
+package com.example.demo.service.bulk_import;
+
+import com.example.demo.dto.bulk_import.HotelImportRecord;
+import com.example.demo.dto.bulk_import.RoomImportRecord;
+import com.example.demo.dto.bulk_import.RoomTypeImportRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotelImportReaderTests {
+
+	private static final String CSV_HEADER = "hotel_ref,hotel_name,address,city_name,star_rating,hotel_amenities,"
+			+ "room_type_name,max_occupancy,base_price,room_number,floor";
+
+	@Test
+	void splitHandlesQuotedCommasAndEscapedQuotes() {
+		assertArrayEquals(new String[]{"a", "Khách sạn \"Sao\", Huế", "", "c"},
+				CsvHotelImportReader.split("a,\"Khách sạn \"\"Sao\"\", Huế\",,c"));
+		assertArrayEquals(new String[]{"", ""}, CsvHotelImportReader.split(","));
+	}
+
+	@Test
+	void csvRowsAreGroupedIntoHotelsAndRoomTypes() throws Exception {
+		List<HotelImportReader.Item> items = readCsv(CSV_HEADER,
+				"H1,\"Sông Hàn, Đà Nẵng\",1 Bạch Đằng,Đà Nẵng,4.5,Wifi|Hồ bơi,Deluxe,2,900000,101,1",
+				"H1,\"Sông Hàn, Đà Nẵng\",1 Bạch Đằng,Đà Nẵng,4.5,,Deluxe,2,900000,102,1",
+				"",
+				"H1,\"Sông Hàn, Đà Nẵng\",1 Bạch Đằng,Đà Nẵng,4.5,,Suite,4,2000000,,",
+				",Biển Xanh,2 Võ Nguyên Giáp,Đà Nẵng,3,,Standard,2,500000,201,2",
+				",Biển Xanh,2 Võ Nguyên Giáp,Đà Nẵng,3,,Standard,2,500000,202,2");
+
+		assertEquals(2, items.size());
+
+		HotelImportReader.Item first = items.get(0);
+		assertNull(first.error());
+		assertEquals(2, first.lineNumber());
+		HotelImportRecord hotel = first.record();
+		assertEquals("H1", hotel.getHotelRef());
+		assertEquals("Sông Hàn, Đà Nẵng", hotel.getHotelName());
+		assertEquals(new BigDecimal("4.5"), hotel.getStarRating());
+		assertEquals(List.of("Wifi", "Hồ bơi"), hotel.getAmenities());
+		assertEquals(List.of("Deluxe", "Suite"), hotel.getRoomTypes().stream().map(RoomTypeImportRecord::getTypeName).toList());
+		assertEquals(List.of("101", "102"),
+				hotel.getRoomTypes().get(0).getRooms().stream().map(RoomImportRecord::getRoomNumber).toList());
+		assertTrue(hotel.getRoomTypes().get(1).getRooms().isEmpty());
+
+		// Không có hotel_ref: gộp theo tên + địa chỉ
+		HotelImportReader.Item second = items.get(1);
+		assertEquals(6, second.lineNumber());
+		assertEquals("Biển Xanh", second.record().getHotelName());
+		assertEquals(2, second.record().getRoomTypes().get(0).getRooms().size());
+	}
+
+	@Test
+	void csvParseErrorInvalidatesTheWholeHotelWithItsLineNumber() throws Exception {
+		List<HotelImportReader.Item> items = readCsv(CSV_HEADER,
+				"H1,Sông Hàn,1 Bạch Đằng,Đà Nẵng,4.5,,Deluxe,2,900000,101,1",
+				"H1,Sông Hàn,1 Bạch Đằng,Đà Nẵng,4.5,,Suite,hai,2000000,201,2",
+				"H2,Biển Xanh,2 Võ Nguyên Giáp,Đà Nẵng,bốn,,,,,,");
+
+		assertEquals(2, items.size());
+		assertNull(items.get(0).record());
+		assertEquals(2, items.get(0).lineNumber());
+		assertTrue(items.get(0).error().startsWith("Dòng 3: "), items.get(0).error());
+		assertTrue(items.get(0).error().contains("max_occupancy"), items.get(0).error());
+		assertTrue(items.get(1).error().contains("star_rating"), items.get(1).error());
+	}
+
+	@Test
+	void csvWithoutRequiredColumnIsRejected() {
+		IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+				() -> readCsv("hotel_name,address", "Sông Hàn,1 Bạch Đằng"));
+		assertTrue(error.getMessage().contains("city_name"), error.getMessage());
+	}
+
+	@Test
+	void ndjsonReportsInvalidAndNullLinesAndSkipsBlankOnes() throws Exception {
+		List<HotelImportReader.Item> items = readNdjson(
+				"{\"hotelName\":\"Sông Hàn\",\"address\":\"1 Bạch Đằng\",\"cityName\":\"Đà Nẵng\","
+						+ "\"roomTypes\":[{\"typeName\":\"Deluxe\",\"rooms\":[{\"roomNumber\":\"101\"}]}]}",
+				"",
+				"{\"hotelName\":",
+				"null",
+				"[1,2]");
+
+		assertEquals(4, items.size());
+		assertEquals("Sông Hàn", items.get(0).record().getHotelName());
+		assertEquals("101", items.get(0).record().getRoomTypes().get(0).getRooms().get(0).getRoomNumber());
+
+		assertEquals(3, items.get(1).lineNumber());
+		assertTrue(items.get(1).error().startsWith("JSON không hợp lệ"), items.get(1).error());
+		assertEquals(4, items.get(2).lineNumber());
+		assertNull(items.get(2).record());
+		assertEquals("Dòng không phải object JSON", items.get(2).error());
+		assertNull(items.get(3).record());
+	}
+
+	private static List<HotelImportReader.Item> readCsv(String... lines) throws Exception {
+		try (HotelImportReader reader = new CsvHotelImportReader(reader(lines))) {
+			return readAll(reader);
+		}
+	}
+
+	private static List<HotelImportReader.Item> readNdjson(String... lines) throws Exception {
+		try (HotelImportReader reader = new NdjsonHotelImportReader(reader(lines), new ObjectMapper())) {
+			return readAll(reader);
+		}
+	}
+
+	private static BufferedReader reader(String... lines) {
+		return new BufferedReader(new StringReader(String.join("\n", lines)));
+	}
+
+	private static List<HotelImportReader.Item> readAll(HotelImportReader reader) throws Exception {
+		List<HotelImportReader.Item> items = new ArrayList<>();
+		HotelImportReader.Item item;
+		while ((item = reader.next()) != null) {
+			items.add(item);
+		}
+		return items;
+	}
+}
@@ -0,0 +1,161 @@
+package com.example.demo.service.catalog;
+
+import com.example.demo.dto.hotel.HotelResponse;
+import com.example.demo.dto.room_type.RoomTypeResponse;
+import com.example.demo.dto.sync.CatalogSyncResponse;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Location;
+import com.example.demo.entity.RoomType;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.service.hotel.HotelService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:catalog-sync;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.show-sql=false"
+})
+class CatalogSyncTests {
+
+	@Autowired
+	private CatalogSyncService catalogSyncService;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void deltaContainsOnlyChangedRowsAndTombstones() {
+		Long[] untouched = persistHotelWithRoomType("Không đổi");
+		Long[] imageChanged = persistHotelWithRoomType("Đổi ảnh");
+		Long[] deleted = persistHotelWithRoomType("Bị xóa");
+		backdateCatalog();
+		LocalDateTime since = LocalDateTime.now().minusMinutes(5);
+
+		// Đổi ảnh không sửa entity Hotel, chỉ phát CatalogChangedEvent
+		new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+				eventPublisher.publishEvent(new CatalogChangedEvent(this, CatalogChangedEvent.ResourceType.HOTEL,
+						imageChanged[0], CatalogChangedEvent.Action.UPDATED)));
+		hotelService.deleteHotel(deleted[0]);
+
+		CatalogSyncResponse delta = catalogSyncService.sync(since);
+
+		assertFalse(delta.getFullSync());
+		List<Long> hotelIds = delta.getHotels().stream().map(HotelResponse::getId).toList();
+		assertTrue(hotelIds.contains(imageChanged[0]), hotelIds.toString());
+		assertFalse(hotelIds.contains(untouched[0]), hotelIds.toString());
+		assertFalse(hotelIds.contains(deleted[0]), hotelIds.toString());
+		assertFalse(delta.getRoomTypes().stream().map(RoomTypeResponse::getId).toList().contains(untouched[1]));
+
+		assertTrue(delta.getDeletedHotelIds().contains(deleted[0]), delta.getDeletedHotelIds().toString());
+		// Loại phòng bị xóa theo cascade cũng có tombstone
+		assertTrue(delta.getDeletedRoomTypeIds().contains(deleted[1]), delta.getDeletedRoomTypeIds().toString());
+		assertFalse(delta.getDeletedHotelIds().contains(untouched[0]));
+	}
+
+	@Test
+	void nextSinceCursorExcludesTombstonesFromEarlierSyncs() {
+		Long[] deleted = persistHotelWithRoomType("Xóa trước");
+		hotelService.deleteHotel(deleted[0]);
+		backdateCatalog();
+
+		CatalogSyncResponse delta = catalogSyncService.sync(LocalDateTime.now().minusMinutes(5));
+
+		assertFalse(delta.getDeletedHotelIds().contains(deleted[0]), delta.getDeletedHotelIds().toString());
+		assertFalse(delta.getDeletedRoomTypeIds().contains(deleted[1]), delta.getDeletedRoomTypeIds().toString());
+	}
+
+	@Test
+	void fullSyncReturnsEveryLiveHotelAndNoTombstones() {
+		Long[] live = persistHotelWithRoomType("Còn hoạt động");
+		Long[] deleted = persistHotelWithRoomType("Đã xóa");
+		hotelService.deleteHotel(deleted[0]);
+		backdateCatalog();
+
+		CatalogSyncResponse full = catalogSyncService.sync(null);
+
+		assertTrue(full.getFullSync());
+		List<Long> hotelIds = full.getHotels().stream().map(HotelResponse::getId).toList();
+		assertTrue(hotelIds.contains(live[0]), hotelIds.toString());
+		assertFalse(hotelIds.contains(deleted[0]), hotelIds.toString());
+		assertTrue(full.getDeletedHotelIds().isEmpty());
+		assertTrue(full.getDeletedRoomTypeIds().isEmpty());
+		assertFalse(full.getNextSince().isAfter(LocalDateTime.now()));
+	}
+
+	@Test
+	void rejectsACursorInTheFuture() {
+		assertThrows(IllegalArgumentException.class,
+				() -> catalogSyncService.sync(LocalDateTime.now().plusHours(1)));
+	}
+
+	// [hotelId, roomTypeId]
+	private Long[] persistHotelWithRoomType(String name) {
+		return new TransactionTemplate(transactionManager).execute(status -> {
+			Location location = new Location();
+			location.setCityName("Huế");
+			location.setProvince("Thừa Thiên Huế");
+			location.setCountry("Việt Nam");
+			entityManager.persist(location);
+
+			Hotel hotel = new Hotel();
+			hotel.setHotelName(name);
+			hotel.setAddress("1 Lê Lợi");
+			hotel.setStarRating(new BigDecimal("4.0"));
+			hotel.setLocation(location);
+			entityManager.persist(hotel);
+
+			RoomType roomType = new RoomType();
+			roomType.setHotel(hotel);
+			roomType.setTypeName("Deluxe");
+			roomType.setMaxOccupancy(2);
+			roomType.setBasePrice(new BigDecimal("900000"));
+			entityManager.persist(roomType);
+			hotel.getRoomTypes().add(roomType);
+			return new Long[]{hotel.getId(), roomType.getId()};
+		});
+	}
+
+	// Đẩy mọi thay đổi hiện có về quá khứ, xa hơn khoảng lùi COMMIT_LAG_TOLERANCE
+	private void backdateCatalog() {
+		LocalDateTime past = LocalDateTime.now().minusDays(1);
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			for (String table : List.of("hotels", "room_types", "amenities", "locations")) {
+				entityManager.createNativeQuery("UPDATE " + table + " SET updated_at = :past")
+						.setParameter("past", past)
+						.executeUpdate();
+			}
+			entityManager.createNativeQuery("UPDATE catalog_tombstones SET deleted_at = :past")
+					.setParameter("past", past)
+					.executeUpdate();
+		});
+	}
+}
@@ -0,0 +1,99 @@
+package com.example.demo.service.catalog;
+
+import com.example.demo.dto.room_type.RoomTypeRequest;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Location;
+import com.example.demo.entity.RoomType;
+import com.example.demo.service.room_type.RoomTypeService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@SpringBootTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:catalog-version;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.show-sql=false"
+})
+class CatalogVersionTests {
+
+	@Autowired
+	private CatalogVersionService catalogVersionService;
+
+	@Autowired
+	private RoomTypeService roomTypeService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	@WithMockUser(roles = "ADMIN")
+	void movingARoomTypeChangesBothHotelsRoomTypeListTags() {
+		// [previousHotelId, targetHotelId, roomTypeId]
+		Long[] ids = new TransactionTemplate(transactionManager).execute(status -> {
+			Location location = new Location();
+			location.setCityName("Đà Lạt");
+			location.setProvince("Lâm Đồng");
+			location.setCountry("Việt Nam");
+			entityManager.persist(location);
+
+			Hotel previous = persistHotel("Đồi Thông", location);
+			Hotel target = persistHotel("Hồ Xuân Hương", location);
+
+			RoomType roomType = new RoomType();
+			roomType.setHotel(previous);
+			roomType.setTypeName("Deluxe");
+			roomType.setMaxOccupancy(2);
+			roomType.setBasePrice(new BigDecimal("900000"));
+			entityManager.persist(roomType);
+			return new Long[]{previous.getId(), target.getId(), roomType.getId()};
+		});
+		String previousList = catalogVersionService.hotelRoomTypesTag(ids[0]).etag();
+		String previousDetail = catalogVersionService.hotelTag(ids[0]).etag();
+		String targetList = catalogVersionService.hotelRoomTypesTag(ids[1]).etag();
+
+		RoomTypeRequest request = new RoomTypeRequest();
+		request.setHotelId(ids[1]);
+		request.setTypeName("Deluxe");
+		request.setMaxOccupancy(2);
+		request.setBasePrice(new BigDecimal("900000"));
+		roomTypeService.updateRoomType(ids[2], request);
+
+		// Danh sách loại phòng của khách sạn cũ không còn loại phòng vừa chuyển, GET có điều kiện không được trả 304
+		assertNotEquals(previousList, catalogVersionService.hotelRoomTypesTag(ids[0]).etag());
+		assertNotEquals(previousDetail, catalogVersionService.hotelTag(ids[0]).etag());
+		assertNotEquals(targetList, catalogVersionService.hotelRoomTypesTag(ids[1]).etag());
+
+		// Sửa loại phòng mà không chuyển khách sạn thì khách sạn cũ giữ nguyên
+		String previousListAfterMove = catalogVersionService.hotelRoomTypesTag(ids[0]).etag();
+		request.setDescription("Nhìn ra hồ");
+		roomTypeService.updateRoomType(ids[2], request);
+		assertEquals(previousListAfterMove, catalogVersionService.hotelRoomTypesTag(ids[0]).etag());
+	}
+
+	private Hotel persistHotel(String name, Location location) {
+		Hotel hotel = new Hotel();
+		hotel.setHotelName(name);
+		hotel.setAddress("2 Trần Hưng Đạo");
+		hotel.setStarRating(new BigDecimal("4.0"));
+		hotel.setLocation(location);
+		entityManager.persist(hotel);
+		return hotel;
+	}
+}
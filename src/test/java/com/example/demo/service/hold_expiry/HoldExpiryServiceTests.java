@@ -0,0 +1,152 @@
+package com.example.demo.service.hold_expiry;
+
+import com.example.demo.dto.booking.BookingStatus;
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Location;
+import com.example.demo.entity.Payment;
+import com.example.demo.entity.RoomType;
+import com.example.demo.entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:hold-expiry;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.show-sql=false"
+})
+class HoldExpiryServiceTests {
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void expiredHoldAndQrAreReleasedWithoutWaitingForTheSweep() throws Exception {
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		Long[] ids = template.execute(status -> {
+			Booking booking = persistBooking(BookingStatus.TEMPORARY, "carol");
+			Payment payment = new Payment();
+			payment.setBooking(booking);
+			payment.setAmount(new BigDecimal("800000"));
+			payment.setPaymentStatus("Chờ thanh toán");
+			payment.setOrderId("FULL_TEST");
+			payment.setQrExpiryTime(LocalDateTime.now().plusSeconds(1));
+			entityManager.persist(payment);
+			entityManager.flush();
+
+			// Lùi thời điểm đặt để hạn tạm giữ đã qua; lưu lại qua entity để listener đặt lại hạn trên bánh xe
+			booking.setBookingDate(LocalDateTime.now().minusMinutes(20));
+			booking.setSpecialRequests("tầng cao");
+			return new Long[]{booking.getId(), payment.getId()};
+		});
+
+		String bookingStatus = null;
+		String paymentStatus = null;
+		for (int attempt = 0; attempt < 50; attempt++) {
+			Thread.sleep(100);
+			bookingStatus = template.execute(status -> entityManager.find(Booking.class, ids[0]).getStatus());
+			paymentStatus = template.execute(status -> entityManager.find(Payment.class, ids[1]).getPaymentStatus());
+			if (BookingStatus.CANCELLED.equals(bookingStatus) && "Đã hết hạn".equals(paymentStatus)) {
+				break;
+			}
+		}
+		assertEquals(BookingStatus.CANCELLED, bookingStatus);
+		assertEquals("Đã hết hạn", paymentStatus);
+	}
+
+	@Test
+	void unpaidPendingBookingIsCancelledOnTheWheelAndPaidOneIsKept() throws Exception {
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		Long[] ids = template.execute(status -> {
+			Booking unpaid = persistBooking(BookingStatus.PENDING, "dave");
+			Booking paid = persistBooking(BookingStatus.PENDING, "erin");
+			Payment payment = new Payment();
+			payment.setBooking(paid);
+			payment.setAmount(new BigDecimal("800000"));
+			payment.setPaymentStatus("Đã thanh toán");
+			payment.setOrderId("PAID_PENDING_TEST");
+			entityManager.persist(payment);
+			paid.getPayments().add(payment);
+			entityManager.flush();
+
+			// Lùi thời điểm đặt quá hạn chờ xác nhận 30 phút; lưu lại qua entity để listener đặt hạn mới
+			LocalDateTime bookedAt = LocalDateTime.now().minusMinutes(40);
+			unpaid.setBookingDate(bookedAt);
+			paid.setBookingDate(bookedAt);
+			return new Long[]{unpaid.getId(), paid.getId()};
+		});
+
+		String unpaidStatus = null;
+		for (int attempt = 0; attempt < 50; attempt++) {
+			Thread.sleep(100);
+			unpaidStatus = template.execute(status -> entityManager.find(Booking.class, ids[0]).getStatus());
+			if (BookingStatus.CANCELLED.equals(unpaidStatus)) {
+				break;
+			}
+		}
+		assertEquals(BookingStatus.CANCELLED, unpaidStatus);
+		// Hai hạn bằng nhau nên rơi cùng tick, booking đã thanh toán cũng đã được xét
+		assertEquals(BookingStatus.PENDING,
+				template.execute(status -> entityManager.find(Booking.class, ids[1]).getStatus()));
+	}
+
+	private Booking persistBooking(String bookingStatus, String username) {
+		Location location = new Location();
+		location.setCityName("Hội An");
+		location.setProvince("Quảng Nam");
+		location.setCountry("Việt Nam");
+		entityManager.persist(location);
+
+		Hotel hotel = new Hotel();
+		hotel.setHotelName("Khách sạn Phố Cổ");
+		hotel.setAddress("5 Trần Phú");
+		hotel.setStarRating(new BigDecimal("4.0"));
+		hotel.setLatitude(new BigDecimal("15.88"));
+		hotel.setLongitude(new BigDecimal("108.33"));
+		hotel.setLocation(location);
+		entityManager.persist(hotel);
+
+		RoomType roomType = new RoomType();
+		roomType.setHotel(hotel);
+		roomType.setTypeName("Superior");
+		roomType.setMaxOccupancy(2);
+		roomType.setBasePrice(new BigDecimal("800000"));
+		entityManager.persist(roomType);
+
+		User user = new User();
+		user.setUsername(username);
+		user.setEmail(username + "@example.com");
+		user.setPasswordHash("x");
+		user.setFullName(username);
+		entityManager.persist(user);
+
+		Booking booking = new Booking();
+		booking.setUser(user);
+		booking.setRoomType(roomType);
+		booking.setCheckInDate(LocalDate.now().plusDays(3));
+		booking.setCheckOutDate(LocalDate.now().plusDays(4));
+		booking.setNumberOfGuests(2);
+		booking.setTotalPrice(new BigDecimal("800000"));
+		booking.setStatus(bookingStatus);
+		entityManager.persist(booking);
+		return booking;
+	}
+}
@@ -0,0 +1,60 @@
+package com.example.demo.service.hold_expiry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTests {
+
+	@Test
+	void firesAtDeadlineNotBefore() {
+		TimingWheel<String> wheel = new TimingWheel<>(1000, 8, 0);
+		wheel.schedule("a", 2500);
+
+		assertTrue(wheel.advance(2000).isEmpty());
+		assertTrue(wheel.advance(2999).isEmpty());
+		assertEquals(List.of("a"), wheel.advance(3000));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void deadlineBeyondOneRevolutionWaitsForItsRound() {
+		TimingWheel<String> wheel = new TimingWheel<>(1000, 8, 0);
+		wheel.schedule("far", 20_000);
+
+		for (long now = 1000; now < 20_000; now += 1000) {
+			assertTrue(wheel.advance(now).isEmpty(), "bắn sớm ở " + now);
+		}
+		assertEquals(List.of("far"), wheel.advance(20_000));
+	}
+
+	@Test
+	void rescheduleAndCancelReplaceEarlierDeadline() {
+		TimingWheel<String> wheel = new TimingWheel<>(1000, 8, 0);
+		wheel.schedule("a", 2000);
+		wheel.schedule("a", 5000);
+		wheel.schedule("b", 3000);
+		wheel.cancel("b");
+
+		assertTrue(wheel.advance(4000).isEmpty());
+		assertEquals(List.of("a"), wheel.advance(5000));
+	}
+
+	@Test
+	void pastDeadlinesAndLongPausesFireOnNextAdvance() {
+		TimingWheel<String> wheel = new TimingWheel<>(1000, 8, 10_000);
+		wheel.schedule("overdue", 1000);
+		wheel.schedule("soon", 12_000);
+		wheel.schedule("later", 40_000);
+
+		// Trễ hơn một vòng quay: vẫn bắt được mọi hạn đã qua, hạn chưa tới thì giữ lại
+		List<String> due = wheel.advance(30_000);
+		assertEquals(2, due.size());
+		assertTrue(due.containsAll(List.of("overdue", "soon")));
+		assertEquals(1, wheel.size());
+		assertEquals(List.of("later"), wheel.advance(40_000));
+	}
+}
@@ -0,0 +1,101 @@
+package com.example.demo.service.hotel;
+
+import com.example.demo.entity.Hotel;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.repository.HotelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HotelGeoIndexTests {
+
+	private final HotelRepository hotelRepository = mock(HotelRepository.class);
+	private final HotelGeoIndex index = new HotelGeoIndex(hotelRepository);
+	private final List<Hotel> hotels = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		// Đà Nẵng: trung tâm, Mỹ Khê (~2.5km), Hội An (~25km); Hà Nội ở xa
+		hotels.add(hotel(1L, 16.0678, 108.2208));
+		hotels.add(hotel(2L, 16.0544, 108.2450));
+		hotels.add(hotel(3L, 15.8801, 108.3380));
+		hotels.add(hotel(4L, 21.0285, 105.8542));
+		when(hotelRepository.findByIsActiveTrue()).thenReturn(hotels);
+		index.rebuild();
+	}
+
+	@Test
+	void findsHotelsWithinRadiusSortedByDistance() {
+		List<HotelGeoIndex.GeoHit> hits = index.findWithinRadius(16.0678, 108.2208, 30);
+
+		assertEquals(List.of(1L, 2L, 3L), hits.stream().map(HotelGeoIndex.GeoHit::hotelId).toList());
+		assertEquals(0.0, hits.get(0).distanceKm(), 1e-6);
+		for (HotelGeoIndex.GeoHit hit : hits) {
+			assertTrue(hit.distanceKm() <= 30);
+		}
+	}
+
+	@Test
+	void radiusSpanningCellBordersMatchesBruteForce() {
+		// Bán kính nhỏ cắt qua nhiều ô: kết quả phải trùng với duyệt toàn bộ bằng Haversine
+		for (double radius : new double[]{1, 3, 10, 26, 800}) {
+			List<Long> expected = hotels.stream()
+					.filter(h -> HotelGeoIndex.haversineKm(16.06, 108.23, h.getLatitude().doubleValue(),
+							h.getLongitude().doubleValue()) <= radius)
+					.map(Hotel::getId)
+					.sorted()
+					.toList();
+			List<Long> actual = index.findWithinRadius(16.06, 108.23, radius).stream()
+					.map(HotelGeoIndex.GeoHit::hotelId)
+					.sorted()
+					.toList();
+			assertEquals(expected, actual, "bán kính " + radius);
+		}
+	}
+
+	@Test
+	void catalogEventsMoveAndRemoveHotels() {
+		Hotel moved = hotel(3L, 16.0700, 108.2210);
+		index.onCatalogChanged(new CatalogChangedEvent(moved, CatalogChangedEvent.ResourceType.HOTEL, 3L,
+				CatalogChangedEvent.Action.UPDATED));
+		assertEquals(List.of(1L, 3L), ids(index.findWithinRadius(16.0678, 108.2208, 1)));
+
+		Hotel deactivated = hotel(1L, 16.0678, 108.2208);
+		deactivated.setIsActive(false);
+		index.onCatalogChanged(new CatalogChangedEvent(deactivated, CatalogChangedEvent.ResourceType.HOTEL, 1L,
+				CatalogChangedEvent.Action.UPDATED));
+		index.onCatalogChanged(new CatalogChangedEvent(moved, CatalogChangedEvent.ResourceType.HOTEL, 3L,
+				CatalogChangedEvent.Action.DELETED));
+		assertEquals(List.of(), ids(index.findWithinRadius(16.0678, 108.2208, 1)));
+	}
+
+	@Test
+	void queriesNearTheAntimeridianWrap() {
+		hotels.clear();
+		hotels.add(hotel(10L, -16.5, 179.98));
+		hotels.add(hotel(11L, -16.5, -179.98));
+		index.rebuild();
+
+		assertEquals(List.of(10L, 11L), ids(index.findWithinRadius(-16.5, 179.99, 10)));
+	}
+
+	private static List<Long> ids(List<HotelGeoIndex.GeoHit> hits) {
+		return hits.stream().map(HotelGeoIndex.GeoHit::hotelId).toList();
+	}
+
+	private static Hotel hotel(Long id, double latitude, double longitude) {
+		Hotel hotel = new Hotel();
+		hotel.setId(id);
+		hotel.setLatitude(BigDecimal.valueOf(latitude));
+		hotel.setLongitude(BigDecimal.valueOf(longitude));
+		return hotel;
+	}
+}
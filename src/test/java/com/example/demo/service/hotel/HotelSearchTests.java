@@ -0,0 +1,192 @@
+package com.example.demo.service.hotel;
+
+import com.example.demo.dto.booking.BookingStatus;
+import com.example.demo.dto.hotel.HotelResponse;
+import com.example.demo.dto.room.RoomStatus;
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Location;
+import com.example.demo.entity.Room;
+import com.example.demo.entity.RoomType;
+import com.example.demo.entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tìm kiếm khách sạn trên H2: phòng "Đã đặt" cho kỳ ở khác vẫn tính là còn trống,
+ * tìm theo vị trí lọc hết khách sạn trong bán kính trước khi cắt top-K.
+ */
+@SpringBootTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:hotel-search;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.show-sql=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HotelSearchTests {
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private HotelGeoIndex hotelGeoIndex;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final LocalDate today = LocalDate.now();
+
+	private Location location;
+	private User guest;
+
+	@BeforeAll
+	void seed() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			location = new Location();
+			location.setCityName("Nha Trang");
+			location.setProvince("Khánh Hòa");
+			location.setCountry("Việt Nam");
+			entityManager.persist(location);
+
+			guest = new User();
+			guest.setUsername("grace");
+			guest.setEmail("grace@example.com");
+			guest.setPasswordHash("x");
+			guest.setFullName("Grace");
+			entityManager.persist(guest);
+		});
+	}
+
+	@Test
+	void reservedRoomWithBookingOnOtherDatesKeepsTheHotelAvailable() {
+		Long hotelId = new TransactionTemplate(transactionManager).execute(status -> {
+			Hotel hotel = persistHotel("Khách sạn Trần Phú");
+			RoomType roomType = persistRoomType(hotel, 2);
+			// PaymentEventListener đánh dấu phòng "Đã đặt" ngay khi thanh toán, dù kỳ ở còn vài tuần nữa
+			Room room = persistRoom(roomType, "101", RoomStatus.RESERVED);
+			persistBooking(roomType, room, 20, 22);
+			return hotel.getId();
+		});
+
+		List<Long> free = hotelIds(hotelService.filterHotels("Nha Trang", null, null, null, null, null,
+				today.plusDays(3), today.plusDays(5)));
+		assertTrue(free.contains(hotelId), free.toString());
+
+		List<Long> overlapping = hotelIds(hotelService.filterHotels("Nha Trang", null, null, null, null, null,
+				today.plusDays(21), today.plusDays(23)));
+		assertFalse(overlapping.contains(hotelId), overlapping.toString());
+	}
+
+	@Test
+	void roomsUnderMaintenanceAreNotAvailable() {
+		Long hotelId = new TransactionTemplate(transactionManager).execute(status -> {
+			Hotel hotel = persistHotel("Khách sạn Hòn Chồng");
+			RoomType roomType = persistRoomType(hotel, 2);
+			persistRoom(roomType, "201", RoomStatus.MAINTENANCE);
+			return hotel.getId();
+		});
+
+		List<HotelResponse> hotels = hotelService.filterHotels("Nha Trang", null, null, null, null, null,
+				today.plusDays(3), today.plusDays(5));
+		assertFalse(hotelIds(hotels).contains(hotelId));
+	}
+
+	@Test
+	void nearbyFiltersEveryHotelInTheRadiusBeforeTakingTheTopK() {
+		List<Long> families = new TransactionTemplate(transactionManager).execute(status -> {
+			// Hơn một lô khách sạn gần nhất chỉ có phòng 2 khách, khách sạn phòng gia đình nằm xa hơn
+			for (int i = 0; i < 120; i++) {
+				persistRoomType(persistHotel("Gần " + i, "12.2000", "109.1900"), 2);
+			}
+			List<Long> ids = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				Hotel family = persistHotel("Gia đình " + i, "12.21" + i, "109.1900");
+				persistRoomType(family, 4);
+				ids.add(family.getId());
+			}
+			return ids;
+		});
+		hotelGeoIndex.rebuild();
+
+		List<HotelResponse> nearby = hotelService.findNearbyHotels(12.2, 109.19, 10, 2,
+				null, null, null, null, null, 4, null, null);
+
+		assertEquals(families.subList(0, 2), hotelIds(nearby));
+	}
+
+	private static List<Long> hotelIds(List<HotelResponse> hotels) {
+		return hotels.stream().map(HotelResponse::getId).toList();
+	}
+
+	private Hotel persistHotel(String name, String latitude, String longitude) {
+		Hotel hotel = persistHotel(name);
+		hotel.setLatitude(new BigDecimal(latitude));
+		hotel.setLongitude(new BigDecimal(longitude));
+		return hotel;
+	}
+
+	private Hotel persistHotel(String name) {
+		Hotel hotel = new Hotel();
+		hotel.setHotelName(name);
+		hotel.setAddress("1 Trần Phú");
+		hotel.setStarRating(new BigDecimal("4.0"));
+		hotel.setLocation(entityManager.getReference(Location.class, location.getId()));
+		entityManager.persist(hotel);
+		return hotel;
+	}
+
+	private RoomType persistRoomType(Hotel hotel, int maxOccupancy) {
+		RoomType roomType = new RoomType();
+		roomType.setHotel(hotel);
+		roomType.setTypeName("Deluxe");
+		roomType.setMaxOccupancy(maxOccupancy);
+		roomType.setBasePrice(new BigDecimal("900000"));
+		entityManager.persist(roomType);
+		hotel.getRoomTypes().add(roomType);
+		return roomType;
+	}
+
+	private Room persistRoom(RoomType roomType, String roomNumber, String status) {
+		Room room = new Room();
+		room.setRoomType(roomType);
+		room.setRoomNumber(roomNumber);
+		room.setStatus(status);
+		entityManager.persist(room);
+		return room;
+	}
+
+	private void persistBooking(RoomType roomType, Room assignedRoom, int checkInDays, int checkOutDays) {
+		Booking booking = new Booking();
+		booking.setUser(entityManager.getReference(User.class, guest.getId()));
+		booking.setRoomType(roomType);
+		booking.setAssignedRoom(assignedRoom);
+		booking.setCheckInDate(today.plusDays(checkInDays));
+		booking.setCheckOutDate(today.plusDays(checkOutDays));
+		booking.setNumberOfGuests(2);
+		booking.setTotalPrice(new BigDecimal("1800000"));
+		booking.setStatus(BookingStatus.CONFIRMED);
+		entityManager.persist(booking);
+	}
+}
@@ -0,0 +1,196 @@
+package com.example.demo.service.hotel;
+
+import com.example.demo.dto.hotel.HotelResponse;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.HotelImage;
+import com.example.demo.entity.Location;
+import com.example.demo.utils.FieldSelection;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Stream danh sách khách sạn trên H2 với vài nghìn entity.
+ * Thay cho đo heap/TTFB trên MySQL: số entity đang được quản lý trong persistence context đại diện cho bộ nhớ giữ lại,
+ * thời điểm nhận phần tử đầu tiên đại diện cho TTFB.
+ */
+@SpringBootTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:hotel-streaming;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HotelStreamingTests {
+
+	private static final int HOTELS = 1000;
+	private static final int IMAGES_PER_HOTEL = 2;
+
+	// Bằng HotelServiceImpl.STREAM_BATCH_SIZE
+	private static final int STREAM_BATCH_SIZE = 200;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeAll
+	void seed() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			Location location = new Location();
+			location.setCityName("Đà Nẵng");
+			location.setProvince("Đà Nẵng");
+			location.setCountry("Việt Nam");
+			entityManager.persist(location);
+
+			for (int h = 0; h < HOTELS; h++) {
+				Hotel hotel = new Hotel();
+				hotel.setHotelName("Khách sạn \"" + h + "\"");
+				hotel.setAddress(h + " Bạch Đằng");
+				hotel.setStarRating(new BigDecimal("4.0"));
+				hotel.setLocation(location);
+				entityManager.persist(hotel);
+
+				for (int i = 0; i < IMAGES_PER_HOTEL; i++) {
+					HotelImage image = new HotelImage();
+					image.setHotel(hotel);
+					image.setImageUrl("/uploads/hotel-" + h + "-" + i + ".jpg");
+					image.setIsPrimary(i == 0);
+					entityManager.persist(image);
+				}
+				if (h % 100 == 99) {
+					entityManager.flush();
+					entityManager.clear();
+				}
+			}
+		});
+	}
+
+	@Test
+	@WithMockUser(username = "alice")
+	void streamedEnvelopeMatchesTheBufferedList() throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/v1/hotel/getBasic?stream=true"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		started.getAsyncResult();
+		JsonNode streamed = objectMapper.readTree(started.getResponse().getContentAsString(StandardCharsets.UTF_8));
+
+		String buffered = mockMvc.perform(get("/api/v1/hotel/getBasic"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+		assertEquals(200, streamed.get("code").asInt());
+		assertEquals(HOTELS, streamed.get("result").size());
+		assertEquals(objectMapper.readTree(buffered).get("result"), streamed.get("result"));
+	}
+
+	@Test
+	@WithMockUser(username = "alice")
+	void fieldSelectionAppliesToStreamedItems() throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/v1/hotel/getBasic?stream=true&fields=id,hotelName"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		started.getAsyncResult();
+		JsonNode result = objectMapper.readTree(started.getResponse().getContentAsString(StandardCharsets.UTF_8))
+				.get("result");
+
+		assertEquals(HOTELS, result.size());
+		result.forEach(item -> assertEquals(List.of("id", "hotelName"), fieldNames(item)));
+	}
+
+	@Test
+	void streamingKeepsThePersistenceContextBounded() {
+		AtomicInteger streamedPeak = new AtomicInteger();
+		AtomicInteger streamed = new AtomicInteger();
+		hotelService.streamAllHotelsBasic(FieldSelection.all(), hotel -> {
+			streamed.incrementAndGet();
+			streamedPeak.accumulateAndGet(managedEntities(), Math::max);
+		});
+
+		int listed = new TransactionTemplate(transactionManager).execute(status -> {
+			List<HotelResponse> hotels = hotelService.getAllHotelsBasic(FieldSelection.all());
+			assertEquals(HOTELS, hotels.size());
+			return managedEntities();
+		});
+
+		assertEquals(HOTELS, streamed.get());
+		// Mỗi lô giữ tối đa STREAM_BATCH_SIZE khách sạn cùng ảnh và location của chúng
+		int bound = STREAM_BATCH_SIZE * (1 + IMAGES_PER_HOTEL) + 1;
+		assertTrue(streamedPeak.get() <= bound,
+				"stream giữ tối đa " + streamedPeak.get() + " entity, giới hạn " + bound);
+		assertTrue(listed >= HOTELS * (1 + IMAGES_PER_HOTEL),
+				"getAllHotelsBasic giữ " + listed + " entity");
+	}
+
+	@Test
+	void firstStreamedItemArrivesBeforeTheBufferedListIsBuilt() {
+		// Chạy một lượt để loại bỏ chi phí khởi động lần đầu
+		hotelService.getAllHotelsBasic(FieldSelection.all());
+
+		long start = System.nanoTime();
+		AtomicLong firstItemNanos = new AtomicLong(-1);
+		hotelService.streamAllHotelsBasic(FieldSelection.all(), hotel ->
+				firstItemNanos.compareAndSet(-1, System.nanoTime() - start));
+		long streamTotalNanos = System.nanoTime() - start;
+
+		long listStart = System.nanoTime();
+		hotelService.getAllHotelsBasic(FieldSelection.all());
+		long listNanos = System.nanoTime() - listStart;
+
+		assertTrue(firstItemNanos.get() >= 0);
+		assertTrue(firstItemNanos.get() < listNanos,
+				"phần tử đầu tiên sau " + firstItemNanos.get() / 1_000 + "µs, cả danh sách "
+						+ listNanos / 1_000 + "µs (stream xong sau " + streamTotalNanos / 1_000 + "µs)");
+	}
+
+	private int managedEntities() {
+		return entityManager.unwrap(SessionImplementor.class).getPersistenceContextInternal()
+				.getNumberOfManagedEntities();
+	}
+
+	private static List<String> fieldNames(JsonNode item) {
+		List<String> names = new ArrayList<>();
+		item.fieldNames().forEachRemaining(names::add);
+		return names;
+	}
+}
@@ -0,0 +1,95 @@
+package com.example.demo.service.hotel_image;
+
+import com.example.demo.dto.hotel_image.HotelImageRequest;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.HotelImage;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.repository.HotelImageRepository;
+import com.example.demo.repository.HotelRepository;
+import com.example.demo.utils.ImageUtils;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HotelImageServiceTests {
+
+	private final HotelRepository hotelRepository = mock(HotelRepository.class);
+	private final HotelImageRepository hotelImageRepository = mock(HotelImageRepository.class);
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+	private final HotelImageServiceImpl service = new HotelImageServiceImpl(hotelRepository, hotelImageRepository,
+			new ModelMapper(), eventPublisher);
+
+	@Test
+	void movingAnImageRefreshesBothHotels() {
+		Hotel from = hotel(1L);
+		Hotel to = hotel(2L);
+		HotelImage image = new HotelImage();
+		image.setHotel(from);
+		image.setImageUrl("/uploads/old.jpg");
+		when(hotelImageRepository.findById(10L)).thenReturn(Optional.of(image));
+		when(hotelRepository.findById(2L)).thenReturn(Optional.of(to));
+
+		HotelImageRequest request = new HotelImageRequest();
+		request.setHotelId(2L);
+		request.setImageUrl("data:image/jpeg;base64,AAAA");
+		request.setCaption("Sảnh");
+		request.setIsPrimary(true);
+
+		try (MockedStatic<ImageUtils> images = mockStatic(ImageUtils.class)) {
+			images.when(() -> ImageUtils.saveBase64Image(anyString())).thenReturn("/uploads/new.jpg");
+			service.updateHotelImage(10L, request);
+		}
+
+		assertSame(to, image.getHotel());
+		assertEquals(1L, from.getId());
+		assertEquals("Sảnh", image.getCaption());
+		assertEquals("/uploads/new.jpg", image.getImageUrl());
+
+		ArgumentCaptor<CatalogChangedEvent> events = ArgumentCaptor.forClass(CatalogChangedEvent.class);
+		verify(eventPublisher, times(2)).publishEvent(events.capture());
+		assertEquals(List.of(2L, 1L), events.getAllValues().stream().map(CatalogChangedEvent::getResourceId).toList());
+	}
+
+	@Test
+	void updatingWithinTheSameHotelRefreshesItOnce() {
+		Hotel hotel = hotel(1L);
+		HotelImage image = new HotelImage();
+		image.setHotel(hotel);
+		when(hotelImageRepository.findById(10L)).thenReturn(Optional.of(image));
+		when(hotelRepository.findById(1L)).thenReturn(Optional.of(hotel));
+
+		HotelImageRequest request = new HotelImageRequest();
+		request.setHotelId(1L);
+		request.setImageUrl("data:image/jpeg;base64,AAAA");
+
+		try (MockedStatic<ImageUtils> images = mockStatic(ImageUtils.class)) {
+			images.when(() -> ImageUtils.saveBase64Image(anyString())).thenReturn("/uploads/new.jpg");
+			service.updateHotelImage(10L, request);
+		}
+
+		ArgumentCaptor<CatalogChangedEvent> events = ArgumentCaptor.forClass(CatalogChangedEvent.class);
+		verify(eventPublisher).publishEvent(events.capture());
+		assertEquals(1L, events.getValue().getResourceId());
+	}
+
+	private static Hotel hotel(Long id) {
+		Hotel hotel = new Hotel();
+		hotel.setId(id);
+		return hotel;
+	}
+}
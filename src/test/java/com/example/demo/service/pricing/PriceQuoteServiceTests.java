@@ -0,0 +1,252 @@
+package com.example.demo.service.pricing;
+
+import com.example.demo.config.PricingProperties;
+import com.example.demo.dto.booking.BookingRequest;
+import com.example.demo.dto.booking.BookingResponse;
+import com.example.demo.dto.pricing.PriceQuoteRequest;
+import com.example.demo.dto.pricing.PriceQuoteResponse;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Location;
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.PromotionCode;
+import com.example.demo.entity.PromotionUsage;
+import com.example.demo.entity.Room;
+import com.example.demo.entity.RoomPricing;
+import com.example.demo.entity.RoomType;
+import com.example.demo.entity.User;
+import com.example.demo.repository.PromotionCodeRepository;
+import com.example.demo.service.booking.BookingService;
+import com.example.demo.service.promotion.PromotionRedemptionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:price-quote;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.show-sql=false"
+})
+class PriceQuoteServiceTests {
+
+	@Autowired
+	private PriceQuoteService priceQuoteService;
+
+	@Autowired
+	private RoomPriceCalendar priceCalendar;
+
+	@Autowired
+	private PromotionCodeRepository promotionCodeRepository;
+
+	@Autowired
+	private PromotionRedemptionService promotionRedemptionService;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private Long roomTypeId;
+
+	private final LocalDate checkIn = LocalDate.now().plusDays(10);
+
+	@BeforeEach
+	void setUp() {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken("dave", null, List.of()));
+		roomTypeId = new TransactionTemplate(transactionManager).execute(status -> seedRoomType());
+		priceCalendar.reload();
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void nightlyPricesUseCalendarAndFallBackToBasePrice() {
+		PriceQuoteResponse quote = priceQuoteService.createQuote(quoteRequest(null, 30.0));
+
+		assertEquals(3, quote.getNights().size());
+		assertEquals(0, new BigDecimal("1000000").compareTo(quote.getNights().get(0).getPrice()));
+		assertEquals(0, new BigDecimal("1500000").compareTo(quote.getNights().get(1).getPrice()));
+		assertEquals(0, new BigDecimal("3500000").compareTo(quote.getTotalPrice()));
+		assertEquals(0, new BigDecimal("1050000").compareTo(quote.getDepositAmount()));
+		assertEquals(0, new BigDecimal("2450000").compareTo(quote.getRemainingAmount()));
+	}
+
+	@Test
+	void percentagePromotionIsCappedByMaxDiscount() {
+		PriceQuoteResponse quote = priceQuoteService.createQuote(quoteRequest("summer" + roomTypeId, null));
+
+		assertEquals(0, new BigDecimal("200000").compareTo(quote.getDiscountAmount()));
+		assertEquals(0, new BigDecimal("3300000").compareTo(quote.getTotalPrice()));
+	}
+
+	@Test
+	void signedQuoteIsAcceptedOnlyWhenUntouchedAndMatching() {
+		PriceQuoteResponse quote = priceQuoteService.createQuote(quoteRequest(null, 30.0));
+		BookingRequest booking = bookingRequest(30.0);
+
+		PriceQuote verified = priceQuoteService.verifyQuote(quote.getQuoteToken(), booking);
+		assertEquals(0, quote.getTotalPrice().compareTo(verified.totalPrice()));
+
+		String token = quote.getQuoteToken();
+		String tampered = token.substring(0, 5) + (token.charAt(5) == 'A' ? 'B' : 'A') + token.substring(6);
+		assertThrows(IllegalArgumentException.class, () -> priceQuoteService.verifyQuote(tampered, booking));
+		assertThrows(IllegalArgumentException.class, () -> priceQuoteService.verifyQuote(token, bookingRequest(50.0)));
+
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken("mallory", null, List.of()));
+		assertThrows(IllegalArgumentException.class, () -> priceQuoteService.verifyQuote(token, booking));
+	}
+
+	@Test
+	void expiredQuoteIsRejected() {
+		PricingProperties properties = new PricingProperties();
+		properties.setQuoteSecret("test-secret");
+		properties.setQuoteTtl(Duration.ofSeconds(-5));
+		PriceQuoteService expiring = new PriceQuoteServiceImpl(priceCalendar, promotionCodeRepository,
+				promotionRedemptionService, objectMapper, properties);
+
+		PriceQuoteResponse quote = expiring.createQuote(quoteRequest(null, null));
+
+		assertThrows(IllegalArgumentException.class, () -> expiring.verifyQuote(quote.getQuoteToken(), bookingRequest(null)));
+	}
+
+	@Test
+	void changingDatesRepricesWithTheRedeemedPromotionAndDepositSplit() {
+		PriceQuoteResponse quote = priceQuoteService.createQuote(quoteRequest("SUMMER" + roomTypeId, 30.0));
+		BookingRequest request = bookingRequest(30.0);
+		request.setQuoteToken(quote.getQuoteToken());
+		BookingResponse created = bookingService.createBooking(request);
+		assertEquals(3300000.0, created.getTotalPrice());
+
+		// Bỏ đêm cuối tuần: 2 đêm giá gốc 2.000.000, vẫn giảm 10% (200.000) theo mã đã dùng, cọc 30%
+		BookingRequest changed = bookingRequest(30.0);
+		changed.setCheckInDate(checkIn.plusDays(2));
+		changed.setCheckOutDate(checkIn.plusDays(4));
+		bookingService.updateBooking(created.getId(), changed);
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			Booking booking = entityManager.find(Booking.class, created.getId());
+			assertEquals(0, new BigDecimal("1800000").compareTo(booking.getTotalPrice()));
+			assertEquals(0, new BigDecimal("540000").compareTo(booking.getDepositAmount()));
+			assertEquals(0, new BigDecimal("1260000").compareTo(booking.getRemainingAmount()));
+			PromotionUsage usage = entityManager.createQuery(
+							"SELECT u FROM PromotionUsage u WHERE u.booking.id = :bookingId", PromotionUsage.class)
+					.setParameter("bookingId", created.getId())
+					.getSingleResult();
+			assertEquals(0, new BigDecimal("200000").compareTo(usage.getDiscountAmount()));
+		});
+	}
+
+	private PriceQuoteRequest quoteRequest(String promotionCode, Double depositPercentage) {
+		PriceQuoteRequest request = new PriceQuoteRequest();
+		request.setRoomTypeId(roomTypeId);
+		request.setCheckInDate(checkIn);
+		request.setCheckOutDate(checkIn.plusDays(3));
+		request.setNumberOfGuests(2);
+		request.setPromotionCode(promotionCode);
+		request.setDepositPercentage(depositPercentage);
+		return request;
+	}
+
+	private BookingRequest bookingRequest(Double depositPercentage) {
+		BookingRequest request = new BookingRequest();
+		request.setRoomTypeId(roomTypeId);
+		request.setCheckInDate(checkIn);
+		request.setCheckOutDate(checkIn.plusDays(3));
+		request.setNumberOfGuests(2);
+		request.setIsDepositPayment(depositPercentage != null);
+		request.setDepositPercentage(depositPercentage);
+		return request;
+	}
+
+	private Long seedRoomType() {
+		Location location = new Location();
+		location.setCityName("Đà Lạt");
+		location.setProvince("Lâm Đồng");
+		location.setCountry("Việt Nam");
+		entityManager.persist(location);
+
+		Hotel hotel = new Hotel();
+		hotel.setHotelName("Khách sạn Đồi Thông");
+		hotel.setAddress("12 Trần Hưng Đạo");
+		hotel.setStarRating(new BigDecimal("4.0"));
+		hotel.setLatitude(new BigDecimal("11.94"));
+		hotel.setLongitude(new BigDecimal("108.44"));
+		hotel.setLocation(location);
+		entityManager.persist(hotel);
+
+		RoomType roomType = new RoomType();
+		roomType.setHotel(hotel);
+		roomType.setTypeName("Deluxe");
+		roomType.setMaxOccupancy(2);
+		roomType.setBasePrice(new BigDecimal("1000000"));
+		entityManager.persist(roomType);
+
+		Room room = new Room();
+		room.setRoomType(roomType);
+		room.setRoomNumber("101");
+		entityManager.persist(room);
+
+		if (entityManager.createQuery("SELECT COUNT(u) FROM User u WHERE u.username = 'dave'", Long.class)
+				.getSingleResult() == 0) {
+			User user = new User();
+			user.setUsername("dave");
+			user.setEmail("dave@example.com");
+			user.setPasswordHash("x");
+			user.setFullName("Dave");
+			entityManager.persist(user);
+		}
+
+		// Đêm thứ hai là cuối tuần, giá riêng; hai đêm còn lại lấy basePrice
+		RoomPricing weekend = new RoomPricing();
+		weekend.setRoomType(roomType);
+		weekend.setDate(checkIn.plusDays(1));
+		weekend.setPrice(new BigDecimal("1500000"));
+		weekend.setAvailableRooms(5);
+		entityManager.persist(weekend);
+
+		PromotionCode promotion = new PromotionCode();
+		promotion.setCode("SUMMER" + roomType.getId());
+		promotion.setDiscountType("Phần trăm");
+		promotion.setDiscountValue(new BigDecimal("10"));
+		promotion.setMaxDiscount(new BigDecimal("200000"));
+		promotion.setMinBookingValue(new BigDecimal("2000000"));
+		promotion.setStartDate(LocalDateTime.now().minusDays(1));
+		promotion.setEndDate(LocalDateTime.now().plusDays(30));
+		promotion.setUsageLimit(100);
+		entityManager.persist(promotion);
+		return roomType.getId();
+	}
+}
@@ -0,0 +1,236 @@
+package com.example.demo.service.promotion;
+
+import com.example.demo.dto.booking.BookingStatus;
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Location;
+import com.example.demo.entity.PromotionCode;
+import com.example.demo.entity.RoomType;
+import com.example.demo.entity.User;
+import com.example.demo.repository.PromotionCodeRepository;
+import com.example.demo.service.pricing.PriceQuote;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:promotion-redemption;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.show-sql=false",
+		"app.promotion.lease-block-size=50",
+		"app.promotion.idle-release=0s"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PromotionRedemptionTests {
+
+	// Mỗi luồng giữ một kết nối cho transaction booking và luồng đi giữ khối cần thêm một kết nối (REQUIRES_NEW),
+	// nên số luồng phải nhỏ hơn pool Hikari mặc định (10)
+	private static final int THREADS = 8;
+	private static final int ATTEMPTS_PER_THREAD = 200;
+
+	@Autowired
+	private PromotionRedemptionServiceImpl redemptionService;
+
+	@Autowired
+	private PromotionCodeRepository promotionCodeRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private Booking booking;
+
+	@BeforeAll
+	void seedBooking() {
+		booking = new TransactionTemplate(transactionManager).execute(status -> persistBooking());
+	}
+
+	@Test
+	void concurrentRedemptionsNeverExceedUsageLimit() throws Exception {
+		PromotionCode promotion = persistPromotion("FLASH", 1234);
+
+		int redeemed = hammer("flash");
+
+		assertEquals(1234, redeemed);
+		assertEquals(1234, usageCount(promotion.getId()));
+		assertEquals(1234, usageRows(promotion.getId()));
+		assertFalse(tryRedeem("FLASH"));
+	}
+
+	@Test
+	void unusedLeasedUsesAreReturnedOnReconcile() throws Exception {
+		PromotionCode promotion = persistPromotion("WEEKEND", 100_000);
+
+		int redeemed = hammer("WEEKEND");
+		redemptionService.reconcile();
+
+		assertEquals(THREADS * ATTEMPTS_PER_THREAD, redeemed);
+		assertEquals(redeemed, usageCount(promotion.getId()));
+	}
+
+	@Test
+	void rolledBackRedemptionGivesTheUseBack() {
+		PromotionCode promotion = persistPromotion("LASTONE", 1);
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+
+		template.executeWithoutResult(status -> {
+			redemptionService.redeem(quote("LASTONE"), booking);
+			status.setRollbackOnly();
+		});
+
+		assertTrue(tryRedeem("LASTONE"));
+		assertFalse(tryRedeem("LASTONE"));
+		assertEquals(1, usageCount(promotion.getId()));
+		assertEquals(1, usageRows(promotion.getId()));
+	}
+
+	@Test
+	void deactivatedCodeIsRejectedWithoutWaitingForReconcile() {
+		PromotionCode promotion = persistPromotion("AUTUMN", 100);
+		assertTrue(tryRedeem("AUTUMN"));
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+				entityManager.find(PromotionCode.class, promotion.getId()).setIsActive(false));
+
+		IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+				() -> redemptionService.redeem(quote("AUTUMN"), booking));
+		assertTrue(error.getMessage().contains("không còn hiệu lực"), error.getMessage());
+		assertEquals(1, usageRows(promotion.getId()));
+	}
+
+	// Giống createBooking: mỗi lượt dùng mã nằm trong transaction của booking, hết lượt thì rollback
+	private boolean tryRedeem(String code) {
+		try {
+			new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+					redemptionService.redeem(quote(code), booking));
+			return true;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	private static PriceQuote quote(String code) {
+		BigDecimal subtotal = new BigDecimal("1000000");
+		BigDecimal discount = new BigDecimal("50000");
+		return new PriceQuote("dave", null, null, null, 2, code, subtotal, discount, subtotal.subtract(discount),
+				null, null, null, 0);
+	}
+
+	private int hammer(String code) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger redeemed = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+					if (tryRedeem(code)) {
+						redeemed.incrementAndGet();
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+		return redeemed.get();
+	}
+
+	private PromotionCode persistPromotion(String code, int usageLimit) {
+		return new TransactionTemplate(transactionManager).execute(status -> {
+			PromotionCode promotion = new PromotionCode();
+			promotion.setCode(code);
+			promotion.setDiscountType("Số tiền cố định");
+			promotion.setDiscountValue(new BigDecimal("50000"));
+			promotion.setStartDate(LocalDateTime.now().minusDays(1));
+			promotion.setEndDate(LocalDateTime.now().plusDays(1));
+			promotion.setUsageLimit(usageLimit);
+			entityManager.persist(promotion);
+			return promotion;
+		});
+	}
+
+	private int usageCount(Long promotionId) {
+		return promotionCodeRepository.findById(promotionId).orElseThrow().getUsageCount();
+	}
+
+	private long usageRows(Long promotionId) {
+		return entityManager.createQuery(
+						"SELECT COUNT(u) FROM PromotionUsage u WHERE u.promotionCode.id = :id", Long.class)
+				.setParameter("id", promotionId)
+				.getSingleResult();
+	}
+
+	private Booking persistBooking() {
+		Location location = new Location();
+		location.setCityName("Nha Trang");
+		location.setProvince("Khánh Hòa");
+		location.setCountry("Việt Nam");
+		entityManager.persist(location);
+
+		Hotel hotel = new Hotel();
+		hotel.setHotelName("Khách sạn Biển Xanh");
+		hotel.setAddress("20 Trần Phú");
+		hotel.setStarRating(new BigDecimal("4.0"));
+		hotel.setLocation(location);
+		entityManager.persist(hotel);
+
+		RoomType roomType = new RoomType();
+		roomType.setHotel(hotel);
+		roomType.setTypeName("Deluxe");
+		roomType.setMaxOccupancy(2);
+		roomType.setBasePrice(new BigDecimal("1000000"));
+		entityManager.persist(roomType);
+
+		User user = new User();
+		user.setUsername("dave");
+		user.setEmail("dave@example.com");
+		user.setPasswordHash("x");
+		user.setFullName("Dave");
+		entityManager.persist(user);
+
+		Booking booking = new Booking();
+		booking.setUser(user);
+		booking.setRoomType(roomType);
+		booking.setCheckInDate(LocalDate.now().plusDays(5));
+		booking.setCheckOutDate(LocalDate.now().plusDays(6));
+		booking.setNumberOfGuests(2);
+		booking.setTotalPrice(new BigDecimal("950000"));
+		booking.setStatus(BookingStatus.CONFIRMED);
+		entityManager.persist(booking);
+		return booking;
+	}
+}
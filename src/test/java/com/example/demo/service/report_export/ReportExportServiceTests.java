@@ -0,0 +1,184 @@
+package com.example.demo.service.report_export;
+
+import com.example.demo.dto.report.ReportExportResponse;
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Location;
+import com.example.demo.entity.RoomType;
+import com.example.demo.entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:report-export;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.show-sql=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReportExportServiceTests {
+
+	private static final LocalDate CHECK_IN = LocalDate.of(2026, 11, 2);
+
+	@Autowired
+	private ReportExportService reportExportService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final List<Long> bookingIds = new ArrayList<>();
+
+	@BeforeAll
+	void seed() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			Location location = new Location();
+			location.setCityName("Đà Nẵng");
+			location.setProvince("Đà Nẵng");
+			location.setCountry("Việt Nam");
+			entityManager.persist(location);
+
+			User user = new User();
+			user.setUsername("mallory");
+			user.setEmail("mallory@example.com");
+			user.setPasswordHash("x");
+			// Tên người dùng tự nhập: chứa công thức, dấu phẩy và ngoặc kép
+			user.setFullName("=HYPERLINK(\"http://evil\",\"Nhấn\"), Jr.");
+			entityManager.persist(user);
+
+			Hotel hotel = new Hotel();
+			hotel.setHotelName("Sông Hàn & <Biển>");
+			hotel.setAddress("1 Bạch Đằng");
+			hotel.setStarRating(new BigDecimal("4.0"));
+			hotel.setLocation(location);
+			entityManager.persist(hotel);
+
+			RoomType roomType = new RoomType();
+			roomType.setHotel(hotel);
+			roomType.setTypeName("Deluxe");
+			roomType.setMaxOccupancy(2);
+			roomType.setBasePrice(new BigDecimal("900000"));
+			entityManager.persist(roomType);
+
+			for (int i = 0; i < 3; i++) {
+				Booking booking = new Booking();
+				booking.setUser(user);
+				booking.setRoomType(roomType);
+				booking.setCheckInDate(CHECK_IN.plusDays(i));
+				booking.setCheckOutDate(CHECK_IN.plusDays(i + 2));
+				booking.setNumberOfGuests(2);
+				booking.setTotalPrice(new BigDecimal("1800000.00"));
+				entityManager.persist(booking);
+				bookingIds.add(booking.getId());
+			}
+		});
+	}
+
+	@Test
+	void csvExportIsGzippedEscapedAndFormulaSafe() throws Exception {
+		ReportExportResponse export = runExport("CSV", CHECK_IN, CHECK_IN.plusDays(1));
+		assertEquals(2L, export.getRowsWritten());
+
+		ReportDownload gzipped = reportExportService.openDownload(export.getToken(), true);
+		assertTrue(gzipped.gzipEncoded());
+		byte[] raw;
+		try (InputStream input = gzipped.resource().getInputStream()) {
+			raw = input.readAllBytes();
+		}
+		assertEquals(0x1f, raw[0] & 0xFF);
+		assertEquals(0x8b, raw[1] & 0xFF);
+
+		ReportDownload plain = reportExportService.openDownload(export.getToken(), false);
+		assertFalse(plain.gzipEncoded());
+		String csv;
+		try (InputStream input = plain.resource().getInputStream()) {
+			csv = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		try (InputStream input = new GZIPInputStream(gzipped.resource().getInputStream())) {
+			assertEquals(csv, new String(input.readAllBytes(), StandardCharsets.UTF_8));
+		}
+
+		String[] lines = csv.split("\r\n");
+		assertEquals(3, lines.length, csv);
+		assertTrue(lines[0].startsWith("\uFEFFMã booking,Ngày đặt,Nhận phòng"), lines[0]);
+		// Ngày đặt do @PrePersist gán nên không so sánh
+		assertEquals(bookingIds.get(0) + ",*,2026-11-02,2026-11-04,Chờ xác nhận,2,1800000.00,,,"
+						+ "mallory,\"'=HYPERLINK(\"\"http://evil\"\",\"\"Nhấn\"\"), Jr.\",mallory@example.com,"
+						+ "Sông Hàn & <Biển>,Deluxe,",
+				lines[1].replaceFirst(",[^,]*,", ",*,"));
+		assertTrue(lines[2].startsWith(bookingIds.get(1) + ","), lines[2]);
+	}
+
+	@Test
+	void xlsxExportContainsEveryRowAsInlineCells() throws Exception {
+		ReportExportResponse export = runExport("XLSX", CHECK_IN, CHECK_IN.plusDays(10));
+		assertEquals(3L, export.getRowsWritten());
+
+		ReportDownload download = reportExportService.openDownload(export.getToken(), true);
+		assertFalse(download.gzipEncoded());
+		String sheet = null;
+		try (ZipInputStream zip = new ZipInputStream(download.resource().getInputStream(), StandardCharsets.UTF_8)) {
+			ZipEntry entry;
+			while ((entry = zip.getNextEntry()) != null) {
+				if (entry.getName().equals("xl/worksheets/sheet1.xml")) {
+					sheet = new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+				}
+			}
+		}
+
+		assertTrue(sheet != null && sheet.endsWith("</sheetData></worksheet>"), sheet);
+		assertEquals(4, sheet.split("<row ", -1).length - 1);
+		assertTrue(sheet.contains("<c r=\"A2\"><v>" + bookingIds.get(0) + "</v></c>"), sheet);
+		assertTrue(sheet.contains("<c r=\"G2\"><v>1800000.00</v></c>"), sheet);
+		assertTrue(sheet.contains("<t xml:space=\"preserve\">Sông Hàn &amp; &lt;Biển&gt;</t>"), sheet);
+		assertTrue(sheet.contains("<t xml:space=\"preserve\">=HYPERLINK(&quot;http://evil&quot;"), sheet);
+	}
+
+	@Test
+	void invalidFormatOrDateRangeIsRejected() {
+		assertThrows(IllegalArgumentException.class,
+				() -> reportExportService.startExport("BOOKINGS", "PDF", CHECK_IN, CHECK_IN, null));
+		assertThrows(IllegalArgumentException.class,
+				() -> reportExportService.startExport("BOOKINGS", "CSV", CHECK_IN.plusDays(1), CHECK_IN, null));
+	}
+
+	private ReportExportResponse runExport(String format, LocalDate from, LocalDate to) throws InterruptedException {
+		String token = reportExportService.startExport("BOOKINGS", format, from, to, null).getToken();
+		for (int i = 0; i < 300; i++) {
+			ReportExportResponse export = reportExportService.getExport(token);
+			if (List.of("READY", "FAILED").contains(export.getStatus())) {
+				assertEquals("READY", export.getStatus(), export.getMessage());
+				return export;
+			}
+			Thread.sleep(100);
+		}
+		throw new AssertionError("Báo cáo chưa xong sau 30s");
+	}
+}
@@ -0,0 +1,127 @@
+package com.example.demo.service.report_export;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportWriterTests {
+
+	@Test
+	void csvStartsWithBomAndEscapesSpecialCharacters() throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (CsvReportWriter writer = new CsvReportWriter(output)) {
+			writer.writeRow(List.of("Mã", "Họ tên", "Ghi chú"));
+			writer.writeRow(Arrays.asList(1L, "Nguyễn, Văn \"A\"", "dòng 1\ndòng 2"));
+			writer.writeRow(Arrays.asList(new BigDecimal("1E+6"), null, LocalDate.of(2026, 10, 19)));
+		}
+
+		byte[] bytes = output.toByteArray();
+		assertEquals(0xEF, bytes[0] & 0xFF);
+		assertEquals(0xBB, bytes[1] & 0xFF);
+		assertEquals(0xBF, bytes[2] & 0xFF);
+		assertEquals("\uFEFFMã,Họ tên,Ghi chú\r\n"
+						+ "1,\"Nguyễn, Văn \"\"A\"\"\",\"dòng 1\ndòng 2\"\r\n"
+						+ "1000000,,2026-10-19\r\n",
+				new String(bytes, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void csvNeutralizesFormulaCellsButNotNumbers() throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (CsvReportWriter writer = new CsvReportWriter(output)) {
+			writer.writeRow(Arrays.asList("=HYPERLINK(\"http://x\",\"y\")", "+1", "-2", "@SUM(A1)", -5L,
+					new BigDecimal("-12.50"), "a=b"));
+		}
+
+		assertEquals("\uFEFF\"'=HYPERLINK(\"\"http://x\"\",\"\"y\"\")\",'+1,'-2,'@SUM(A1),-5,-12.50,a=b\r\n",
+				output.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void xlsxIsAValidPackageWithTypedInlineCells() throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		List<Object> wide = new ArrayList<>();
+		for (int i = 0; i < 28; i++) {
+			wide.add(i);
+		}
+		try (XlsxReportWriter writer = new XlsxReportWriter(output, "BOOKINGS & <co>")) {
+			writer.writeRow(List.of("Mã", "Khách sạn"));
+			writer.writeRow(Arrays.asList(new BigDecimal("1500000.00"), "A & B <\"C\">\u0001", null, "=1+1"));
+			writer.writeRow(wide);
+		}
+
+		Map<String, byte[]> entries = unzip(output.toByteArray());
+		assertEquals(List.of("[Content_Types].xml", "_rels/.rels", "xl/_rels/workbook.xml.rels", "xl/workbook.xml",
+				"xl/worksheets/sheet1.xml"), List.copyOf(entries.keySet()));
+		for (byte[] content : entries.values()) {
+			parse(content);
+		}
+
+		Element sheet = (Element) parse(entries.get("xl/workbook.xml")).getElementsByTagName("sheet").item(0);
+		assertEquals("BOOKINGS & <co>", sheet.getAttribute("name"));
+
+		Document worksheet = parse(entries.get("xl/worksheets/sheet1.xml"));
+		assertEquals(3, worksheet.getElementsByTagName("row").getLength());
+		Map<String, Element> cells = cells(worksheet);
+
+		assertEquals("inlineStr", cells.get("A1").getAttribute("t"));
+		assertEquals("Khách sạn", cells.get("B1").getTextContent());
+		// Số ghi kiểu số (không có t), chuỗi công thức vẫn là chuỗi nên Excel không tính
+		assertEquals("", cells.get("A2").getAttribute("t"));
+		assertEquals("1500000.00", cells.get("A2").getTextContent());
+		assertEquals("A & B <\"C\">", cells.get("B2").getTextContent());
+		assertNull(cells.get("C2"));
+		assertEquals("inlineStr", cells.get("D2").getAttribute("t"));
+		assertEquals("=1+1", cells.get("D2").getTextContent());
+		assertEquals("25", cells.get("Z3").getTextContent());
+		assertEquals("27", cells.get("AB3").getTextContent());
+	}
+
+	private static Map<String, byte[]> unzip(byte[] bytes) throws Exception {
+		Map<String, byte[]> entries = new LinkedHashMap<>();
+		try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8)) {
+			ZipEntry entry;
+			while ((entry = zip.getNextEntry()) != null) {
+				entries.put(entry.getName(), zip.readAllBytes());
+			}
+		}
+		return entries;
+	}
+
+	private static Document parse(byte[] xml) throws Exception {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		return factory.newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+	}
+
+	private static Map<String, Element> cells(Document worksheet) {
+		Map<String, Element> cells = new HashMap<>();
+		NodeList nodes = worksheet.getElementsByTagName("c");
+		for (int i = 0; i < nodes.getLength(); i++) {
+			Element cell = (Element) nodes.item(i);
+			cells.put(cell.getAttribute("r"), cell);
+		}
+		assertTrue(cells.size() > 0);
+		return cells;
+	}
+}
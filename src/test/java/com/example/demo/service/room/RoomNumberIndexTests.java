@@ -0,0 +1,85 @@
+package com.example.demo.service.room;
+
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Room;
+import com.example.demo.entity.RoomType;
+import com.example.demo.repository.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoomNumberIndexTests {
+
+	private final RoomRepository roomRepository = mock(RoomRepository.class);
+	private final RoomNumberIndex index = new RoomNumberIndex(roomRepository);
+
+	@BeforeEach
+	void setUp() {
+		when(roomRepository.findRoomNumbersByHotelId(1L)).thenReturn(List.of(
+				new Object[]{11L, "101"},
+				new Object[]{12L, "102"},
+				new Object[]{13L, "1012"},
+				new Object[]{14L, "A101-B010"},
+				new Object[]{15L, "Villa-1"}));
+		when(roomRepository.findRoomNumbersByHotelId(2L)).thenReturn(List.<Object[]>of(
+				new Object[]{21L, "101"}));
+	}
+
+	@Test
+	void shortQueriesReadPostingListsSortedByRoomNumber() {
+		assertEquals(List.of(11L, 13L, 12L, 14L, 15L), index.search(1L, "1", 10));
+		assertEquals(List.of(11L, 13L, 14L), index.search(1L, "101", 10));
+		assertEquals(List.of(11L, 13L), index.search(1L, "101", 2));
+		verify(roomRepository, times(1)).findRoomNumbersByHotelId(1L);
+	}
+
+	@Test
+	void longQueriesDropTrigramFalsePositives() {
+		// "A101-B010" có đủ trigram "101" và "010" nhưng không chứa "1010"
+		assertEquals(List.of(), index.search(1L, "1010", 10));
+		assertEquals(List.of(13L), index.search(1L, "1012", 10));
+		assertEquals(List.of(15L), index.search(1L, " VILLA-1 ", 10));
+		assertEquals(List.of(), index.search(1L, "  ", 10));
+	}
+
+	@Test
+	void hotelsAreIndexedSeparately() {
+		assertEquals(List.of(21L), index.search(2L, "101", 10));
+		assertEquals(List.of(11L, 13L, 14L), index.search(1L, "101", 10));
+	}
+
+	@Test
+	void putAndRemoveKeepTheIndexInSync() {
+		index.search(1L, "1", 10);
+		index.search(2L, "1", 10);
+
+		// Đổi số phòng và chuyển phòng 12 sang khách sạn 2
+		index.put(room(12L, "2201", 2L));
+		index.put(room(16L, "305", 1L));
+		index.remove(13L);
+
+		assertEquals(List.of(11L, 14L), index.search(1L, "101", 10));
+		assertEquals(List.of(16L), index.search(1L, "305", 10));
+		assertEquals(List.of(12L), index.search(2L, "220", 10));
+		assertEquals(List.of(), index.search(1L, "102", 10));
+	}
+
+	private static Room room(Long id, String roomNumber, Long hotelId) {
+		Hotel hotel = new Hotel();
+		hotel.setId(hotelId);
+		RoomType roomType = new RoomType();
+		roomType.setHotel(hotel);
+		Room room = new Room();
+		room.setId(id);
+		room.setRoomNumber(roomNumber);
+		room.setRoomType(roomType);
+		return room;
+	}
+}
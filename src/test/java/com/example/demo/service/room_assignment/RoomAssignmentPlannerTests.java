@@ -0,0 +1,109 @@
+package com.example.demo.service.room_assignment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomAssignmentPlannerTests {
+
+	@Test
+	void intervalTreeRejectsOverlapButAllowsBackToBackStays() {
+		RoomIntervalTree tree = new RoomIntervalTree();
+
+		assertTrue(tree.add(10, 13));
+		assertFalse(tree.add(12, 14));
+		assertFalse(tree.add(8, 11));
+		assertTrue(tree.add(13, 15));
+		assertTrue(tree.add(7, 10));
+		assertEquals(15L, tree.previousEnd(16));
+		assertEquals(7L, tree.nextStart(6));
+	}
+
+	@Test
+	void bestFitAvoidsLeavingAnOrphanNight() {
+		RoomAssignmentPlanner planner = new RoomAssignmentPlanner(0, 365, 2);
+		planner.addRoom(101L);
+		planner.addRoom(102L);
+		planner.addRoom(103L);
+		planner.occupy(101L, 0, 4);
+		planner.occupy(102L, 0, 5);
+		RoomAssignmentPlanner greedy = planner.copy();
+
+		assertEquals(101L, greedy.assignFirstFit(5, 8));
+		assertEquals(1, greedy.strandedNights());
+
+		assertEquals(102L, planner.assignBestFit(5, 8));
+		assertEquals(0, planner.strandedNights());
+	}
+
+	@Test
+	void bestFitKeepsEmptyRoomsForLaterAndReturnsNullWhenFull() {
+		RoomAssignmentPlanner planner = new RoomAssignmentPlanner(0, 365, 2);
+		planner.addRoom(101L);
+		planner.addRoom(102L);
+		planner.occupy(102L, 20, 25);
+
+		assertEquals(102L, planner.assignBestFit(25, 27));
+		assertEquals(102L, planner.assignBestFit(17, 20));
+		assertEquals(101L, planner.assignBestFit(18, 30));
+		assertNull(planner.assignBestFit(19, 21));
+	}
+
+	/**
+	 * Benchmark: 300 phòng, horizon một năm, nhu cầu ~80% công suất với khoảng ở 1-7 đêm.
+	 * Best-fit phải xếp ít nhất bằng cách gán cũ và để lại ít đêm lẻ hơn. Chạy riêng mất vài trăm ms;
+	 * giới hạn thời gian để rộng vì chỉ nhằm chặn suy biến (ví dụ quét bậc hai),
+	 * khi chạy cả bộ test thì GC và thread nền của các context khác làm chậm vài lần.
+	 */
+	@Test
+	void bestFitRecoversStrandedNightsForHundredsOfRoomsOverAYear() {
+		int roomCount = 300;
+		int horizon = 365;
+		RoomAssignmentPlanner planner = new RoomAssignmentPlanner(0, horizon, 2);
+		for (long roomId = 1; roomId <= roomCount; roomId++) {
+			planner.addRoom(roomId);
+		}
+		RoomAssignmentPlanner greedy = planner.copy();
+
+		Random random = new Random(42);
+		List<long[]> stays = new ArrayList<>();
+		for (int i = 0; i < roomCount * horizon * 8 / 10 / 4; i++) {
+			long start = random.nextInt(horizon - 7);
+			stays.add(new long[]{start, start + 1 + random.nextInt(7)});
+		}
+		stays.sort(Comparator.<long[]>comparingLong(stay -> stay[0]).thenComparing(stay -> -stay[1]));
+
+		int greedyPlaced = 0;
+		for (long[] stay : stays) {
+			if (greedy.assignFirstFit(stay[0], stay[1]) != null) {
+				greedyPlaced++;
+			}
+		}
+
+		long started = System.nanoTime();
+		int placed = 0;
+		for (long[] stay : stays) {
+			if (planner.assignBestFit(stay[0], stay[1]) != null) {
+				placed++;
+			}
+		}
+		long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+		long greedyStranded = greedy.strandedNights();
+		long stranded = planner.strandedNights();
+		String report = "stays=" + stays.size() + " placed=" + placed + " (greedy " + greedyPlaced + ")"
+				+ " strandedNights=" + stranded + " (greedy " + greedyStranded + ") elapsedMs=" + elapsedMillis;
+
+		assertTrue(placed >= greedyPlaced, report);
+		assertTrue(stranded < greedyStranded, report);
+		assertTrue(elapsedMillis < 15_000, report);
+	}
+}
@@ -0,0 +1,168 @@
+package com.example.demo.service.room_assignment;
+
+import com.example.demo.dto.booking.BookingStatus;
+import com.example.demo.dto.room.RoomStatus;
+import com.example.demo.dto.room_assignment.RoomAssignmentReport;
+import com.example.demo.entity.Booking;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Location;
+import com.example.demo.entity.Room;
+import com.example.demo.entity.RoomType;
+import com.example.demo.entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Gán phòng trên dữ liệu thật: phòng đã gán cho một khoảng ở tương lai bị PaymentEventListener đánh dấu "Đã đặt"
+ * nhưng vẫn phải nhận được booking ở ngày khác; chỉ trùng ngày hoặc phòng bảo trì/hỏng mới loại phòng.
+ */
+@SpringBootTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:room-assignment;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.show-sql=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RoomAssignmentServiceTests {
+
+	@Autowired
+	private RoomAssignmentService roomAssignmentService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final LocalDate today = LocalDate.now();
+
+	private Hotel hotel;
+	private User guest;
+
+	@BeforeAll
+	void seed() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			Location location = new Location();
+			location.setCityName("Quy Nhơn");
+			location.setProvince("Bình Định");
+			location.setCountry("Việt Nam");
+			entityManager.persist(location);
+
+			hotel = new Hotel();
+			hotel.setHotelName("Khách sạn Hải Âu");
+			hotel.setAddress("8 An Dương Vương");
+			hotel.setStarRating(new BigDecimal("4.0"));
+			hotel.setLocation(location);
+			entityManager.persist(hotel);
+
+			guest = new User();
+			guest.setUsername("erin");
+			guest.setEmail("erin@example.com");
+			guest.setPasswordHash("x");
+			guest.setFullName("Erin");
+			entityManager.persist(guest);
+		});
+	}
+
+	@Test
+	void reservedRoomIsChosenForDatesOutsideItsStay() {
+		Long[] ids = new TransactionTemplate(transactionManager).execute(status -> {
+			RoomType roomType = persistRoomType("Deluxe");
+			Room reserved = persistRoom(roomType, "101", RoomStatus.RESERVED);
+			Room empty = persistRoom(roomType, "102", RoomStatus.AVAILABLE);
+			persistBooking(roomType, reserved, 3, 5);
+			return new Long[]{roomType.getId(), reserved.getId(), empty.getId()};
+		});
+
+		// Nối liền sau khoảng ở của 101 nên khít hơn phòng 102 trống hoàn toàn
+		Room adjacent = roomAssignmentService.findBestRoom(ids[0], today.plusDays(5), today.plusDays(7));
+		assertNotNull(adjacent);
+		assertEquals(ids[1], adjacent.getId());
+
+		// Trùng ngày với khoảng ở của 101
+		Room overlapping = roomAssignmentService.findBestRoom(ids[0], today.plusDays(4), today.plusDays(6));
+		assertNotNull(overlapping);
+		assertEquals(ids[2], overlapping.getId());
+	}
+
+	@Test
+	void roomsUnderMaintenanceOrOutOfOrderAreNeverChosen() {
+		Long roomTypeId = new TransactionTemplate(transactionManager).execute(status -> {
+			RoomType roomType = persistRoomType("Suite");
+			persistRoom(roomType, "201", RoomStatus.MAINTENANCE);
+			persistRoom(roomType, "202", RoomStatus.OUT_OF_ORDER);
+			return roomType.getId();
+		});
+
+		assertNull(roomAssignmentService.findBestRoom(roomTypeId, today.plusDays(3), today.plusDays(4)));
+	}
+
+	@Test
+	void repackPlacesUnassignedBookingsIntoReservedRoomsByDate() {
+		Long[] ids = new TransactionTemplate(transactionManager).execute(status -> {
+			RoomType roomType = persistRoomType("Family");
+			Room reserved = persistRoom(roomType, "301", RoomStatus.RESERVED);
+			persistRoom(roomType, "302", RoomStatus.AVAILABLE);
+			persistBooking(roomType, reserved, 3, 5);
+			Booking unassigned = persistBooking(roomType, null, 5, 7);
+			return new Long[]{reserved.getId(), unassigned.getId()};
+		});
+
+		RoomAssignmentReport report = roomAssignmentService.repackUnassigned();
+
+		assertEquals(0, report.getUnplaced(), report.toString());
+		Long assignedRoomId = new TransactionTemplate(transactionManager).execute(status ->
+				entityManager.find(Booking.class, ids[1]).getAssignedRoom().getId());
+		assertEquals(ids[0], assignedRoomId);
+	}
+
+	private RoomType persistRoomType(String name) {
+		RoomType roomType = new RoomType();
+		roomType.setHotel(entityManager.getReference(Hotel.class, hotel.getId()));
+		roomType.setTypeName(name);
+		roomType.setMaxOccupancy(2);
+		roomType.setBasePrice(new BigDecimal("900000"));
+		entityManager.persist(roomType);
+		return roomType;
+	}
+
+	private Room persistRoom(RoomType roomType, String roomNumber, String status) {
+		Room room = new Room();
+		room.setRoomType(roomType);
+		room.setRoomNumber(roomNumber);
+		room.setStatus(status);
+		entityManager.persist(room);
+		return room;
+	}
+
+	private Booking persistBooking(RoomType roomType, Room assignedRoom, int checkInDays, int checkOutDays) {
+		Booking booking = new Booking();
+		booking.setUser(entityManager.getReference(User.class, guest.getId()));
+		booking.setRoomType(roomType);
+		booking.setAssignedRoom(assignedRoom);
+		booking.setCheckInDate(today.plusDays(checkInDays));
+		booking.setCheckOutDate(today.plusDays(checkOutDays));
+		booking.setNumberOfGuests(2);
+		booking.setTotalPrice(new BigDecimal("1800000"));
+		booking.setStatus(BookingStatus.CONFIRMED);
+		entityManager.persist(booking);
+		return booking;
+	}
+}
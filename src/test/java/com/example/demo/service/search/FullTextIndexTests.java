@@ -0,0 +1,139 @@
+package com.example.demo.service.search;
+
+import com.example.demo.dto.search.TextSearchResponse;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Review;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.repository.HotelRepository;
+import com.example.demo.repository.ReviewRepository;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FullTextIndexTests {
+
+	@TempDir
+	Path indexDir;
+
+	private final HotelRepository hotelRepository = mock(HotelRepository.class);
+	private final ReviewRepository reviewRepository = mock(ReviewRepository.class);
+
+	@Test
+	void incrementalChangesAreCommittedToDisk() throws Exception {
+		when(hotelRepository.findByIsActiveTrue()).thenReturn(List.of(hotel(1L, "Sông Hàn Boutique")));
+		when(reviewRepository.findByIsApprovedTrue()).thenReturn(List.of());
+
+		FullTextIndex index = open();
+		index.warmUp();
+		index.onCatalogChanged(new CatalogChangedEvent(hotel(2L, "Biển Xanh Resort"),
+				CatalogChangedEvent.ResourceType.HOTEL, 2L, CatalogChangedEvent.Action.CREATED));
+		index.onCatalogChanged(new CatalogChangedEvent(hotel(3L, "Phố Cổ Inn"),
+				CatalogChangedEvent.ResourceType.HOTEL, 3L, CatalogChangedEvent.Action.CREATED));
+		index.onCatalogChanged(new CatalogChangedEvent(hotel(1L, "Sông Hàn Boutique"),
+				CatalogChangedEvent.ResourceType.HOTEL, 1L, CatalogChangedEvent.Action.DELETED));
+
+		// Reader độc lập chỉ thấy dữ liệu đã commit, writer vẫn đang mở như khi tiến trình bị kill
+		try (FSDirectory directory = FSDirectory.open(indexDir);
+			 DirectoryReader reader = DirectoryReader.open(directory)) {
+			assertEquals(2, reader.numDocs());
+		}
+		index.close();
+	}
+
+	@Test
+	void reopenedIndexServesIncrementalChangesWithoutRebuild() throws Exception {
+		when(hotelRepository.findByIsActiveTrue()).thenReturn(List.of(hotel(1L, "Sông Hàn Boutique")));
+		when(reviewRepository.findByIsApprovedTrue()).thenReturn(List.of());
+
+		FullTextIndex first = open();
+		first.warmUp();
+		first.onCatalogChanged(new CatalogChangedEvent(hotel(2L, "Biển Xanh Resort"),
+				CatalogChangedEvent.ResourceType.HOTEL, 2L, CatalogChangedEvent.Action.CREATED));
+		first.close();
+
+		HotelRepository restartedRepository = mock(HotelRepository.class);
+		FullTextIndex reopened = new FullTextIndex(restartedRepository, reviewRepository);
+		ReflectionTestUtils.setField(reopened, "indexDir", indexDir.toString());
+		reopened.open();
+		reopened.warmUp();
+
+		verify(restartedRepository, never()).findByIsActiveTrue();
+		List<TextSearchResponse> results = reopened.search("bien xanh", 10);
+		assertEquals(List.of(2L), results.stream().map(TextSearchResponse::getHotelId).toList());
+		assertEquals(1, reopened.search("song han", 10).size());
+		reopened.close();
+	}
+
+	@Test
+	void deactivatingAHotelRemovesItsReviewsAndReactivatingRestoresThem() throws Exception {
+		Hotel hotel = hotel(1L, "Sông Hàn Boutique");
+		Review review = review(10L, hotel, "Bữa sáng phở bò rất ngon");
+		when(hotelRepository.findByIsActiveTrue()).thenReturn(List.of(hotel));
+		when(reviewRepository.findByIsApprovedTrue()).thenReturn(List.of(review));
+		when(reviewRepository.findByHotelIdAndIsApprovedTrue(1L)).thenReturn(List.of(review));
+
+		FullTextIndex index = open();
+		index.warmUp();
+		assertEquals(List.of(1L), hotelIds(index.search("pho bo", 10)));
+
+		hotel.setIsActive(false);
+		index.onCatalogChanged(new CatalogChangedEvent(hotel, CatalogChangedEvent.ResourceType.HOTEL, 1L,
+				CatalogChangedEvent.Action.UPDATED));
+		assertTrue(index.search("pho bo", 10).isEmpty());
+		assertTrue(index.search("song han", 10).isEmpty());
+
+		// Đánh giá được duyệt khi khách sạn đang ẩn cũng không được index, giống rebuild
+		Review approvedWhileInactive = review(11L, hotel, "Hồ bơi vô cực view biển");
+		index.onCatalogChanged(new CatalogChangedEvent(approvedWhileInactive, CatalogChangedEvent.ResourceType.REVIEW, 11L,
+				CatalogChangedEvent.Action.UPDATED));
+		assertTrue(index.search("vo cuc", 10).isEmpty());
+
+		hotel.setIsActive(true);
+		when(reviewRepository.findByHotelIdAndIsApprovedTrue(1L)).thenReturn(List.of(review, approvedWhileInactive));
+		index.onCatalogChanged(new CatalogChangedEvent(hotel, CatalogChangedEvent.ResourceType.HOTEL, 1L,
+				CatalogChangedEvent.Action.UPDATED));
+		assertEquals(List.of(1L), hotelIds(index.search("pho bo", 10)));
+		assertEquals(List.of(1L), hotelIds(index.search("vo cuc", 10)));
+		index.close();
+	}
+
+	private FullTextIndex open() throws Exception {
+		FullTextIndex index = new FullTextIndex(hotelRepository, reviewRepository);
+		ReflectionTestUtils.setField(index, "indexDir", indexDir.toString());
+		index.open();
+		return index;
+	}
+
+	private static List<Long> hotelIds(List<TextSearchResponse> results) {
+		return results.stream().map(TextSearchResponse::getHotelId).toList();
+	}
+
+	private static Review review(Long id, Hotel hotel, String comment) {
+		Review review = new Review();
+		review.setId(id);
+		review.setHotel(hotel);
+		review.setComment(comment);
+		review.setIsApproved(true);
+		return review;
+	}
+
+	private static Hotel hotel(Long id, String name) {
+		Hotel hotel = new Hotel();
+		hotel.setId(id);
+		hotel.setHotelName(name);
+		hotel.setDescription("Gần biển, có hồ bơi");
+		return hotel;
+	}
+}
@@ -0,0 +1,104 @@
+package com.example.demo.service.suggest;
+
+import com.example.demo.dto.suggest.SuggestionResponse;
+import com.example.demo.entity.Hotel;
+import com.example.demo.entity.Location;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.repository.BookingRepository;
+import com.example.demo.repository.HotelRepository;
+import com.example.demo.repository.LocationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SuggestionIndexTests {
+
+	private final LocationRepository locationRepository = mock(LocationRepository.class);
+	private final HotelRepository hotelRepository = mock(HotelRepository.class);
+	private final BookingRepository bookingRepository = mock(BookingRepository.class);
+	private final SuggestionIndex index = new SuggestionIndex(locationRepository, hotelRepository, bookingRepository);
+
+	private final Location daNang = location(1L, "Đà Nẵng", "Đà Nẵng");
+	private final Location hoiAn = location(2L, "Hội An", "Quảng Nam");
+
+	@BeforeEach
+	void setUp() {
+		Hotel inactive = hotel(12L, "Đà Lạt Palace", daNang);
+		inactive.setIsActive(false);
+		when(locationRepository.findAll()).thenReturn(List.of(daNang, hoiAn));
+		when(hotelRepository.findByIsActiveTrue()).thenReturn(List.of(
+				hotel(10L, "Mường Thanh Đà Nẵng", daNang),
+				hotel(11L, "Danang Marriott", daNang),
+				inactive,
+				hotel(13L, "Hội An Riverside", hoiAn)));
+		when(bookingRepository.countBookingsGroupByHotel()).thenReturn(List.of(
+				new Object[]{10L, 5L},
+				new Object[]{11L, 20L}));
+		index.rebuild();
+	}
+
+	@Test
+	void matchesWithoutDiacriticsAndRanksByPopularity() {
+		List<SuggestionResponse> suggestions = index.suggest("da n", 10);
+
+		// Thành phố: (1 + 5) + (1 + 20) = 27, tỉnh cùng tên cộng dồn các thành phố, rồi tới khách sạn theo số booking
+		assertEquals(List.of("CITY:Đà Nẵng", "PROVINCE:Đà Nẵng", "HOTEL:Mường Thanh Đà Nẵng"), labels(suggestions));
+		assertEquals(27L, suggestions.get(0).getPopularity());
+	}
+
+	@Test
+	void matchesFromTheStartOfEachWord() {
+		assertEquals(List.of("CITY:Đà Nẵng", "PROVINCE:Đà Nẵng", "HOTEL:Mường Thanh Đà Nẵng"),
+				labels(index.suggest("nang", 10)));
+		assertEquals(List.of("HOTEL:Danang Marriott"), labels(index.suggest("danang", 10)));
+		assertEquals(List.of("CITY:Hội An", "HOTEL:Hội An Riverside"), labels(index.suggest("HOI AN", 10)));
+	}
+
+	@Test
+	void skipsInactiveHotelsAndRespectsLimit() {
+		assertTrue(labels(index.suggest("da lat", 10)).isEmpty());
+		assertEquals(1, index.suggest("da", 1).size());
+		assertTrue(index.suggest("   ", 10).isEmpty());
+	}
+
+	@Test
+	void catalogChangesAreBatchedIntoTheNextTrieRefresh() {
+		Hotel added = hotel(14L, "Hội An Ancient House", hoiAn);
+		index.onCatalogChanged(new CatalogChangedEvent(added, CatalogChangedEvent.ResourceType.HOTEL, 14L,
+				CatalogChangedEvent.Action.CREATED));
+		index.onCatalogChanged(new CatalogChangedEvent(hotel(13L, "Hội An Riverside", hoiAn),
+				CatalogChangedEvent.ResourceType.HOTEL, 13L, CatalogChangedEvent.Action.DELETED));
+
+		// Trie chưa dựng lại: vẫn phục vụ bản cũ
+		assertEquals(List.of("CITY:Hội An", "HOTEL:Hội An Riverside"), labels(index.suggest("hoi an", 10)));
+
+		index.refreshTrie();
+		assertEquals(List.of("CITY:Hội An", "HOTEL:Hội An Ancient House"), labels(index.suggest("hoi an", 10)));
+	}
+
+	private static List<String> labels(List<SuggestionResponse> suggestions) {
+		return suggestions.stream().map(s -> s.getType() + ":" + s.getText()).toList();
+	}
+
+	private static Location location(Long id, String city, String province) {
+		Location location = new Location();
+		location.setId(id);
+		location.setCityName(city);
+		location.setProvince(province);
+		return location;
+	}
+
+	private static Hotel hotel(Long id, String name, Location location) {
+		Hotel hotel = new Hotel();
+		hotel.setId(id);
+		hotel.setHotelName(name);
+		hotel.setLocation(location);
+		return hotel;
+	}
+}
@@ -0,0 +1,86 @@
+package com.example.demo.utils;
+
+import com.example.demo.dto.hotel.HotelResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FieldSelectionTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void missingBlankOrStarSelectsEverything() {
+		for (String fields : new String[]{null, "", "  ", "*", " * ", ",, ,"}) {
+			FieldSelection selection = FieldSelection.parse(fields);
+			assertTrue(selection.isAll(), "fields=" + fields);
+			assertTrue(selection.includes("images"));
+			assertTrue(selection.includesAny("averageRating"));
+		}
+	}
+
+	@Test
+	void parsedFieldsAreTrimmedAndAlwaysIncludeId() {
+		FieldSelection selection = FieldSelection.parse(" hotelName , starRating,,");
+
+		assertFalse(selection.isAll());
+		assertTrue(selection.includes("id"));
+		assertTrue(selection.includes("hotelName"));
+		assertTrue(selection.includes("starRating"));
+		assertFalse(selection.includes("images"));
+		assertTrue(selection.includesAny("images", "starRating"));
+		assertFalse(selection.includesAny("images", "averageRating", "reviewCount"));
+	}
+
+	@Test
+	void projectionKeepsOnlySelectedFieldsOfAnObject() {
+		JsonNode node = (JsonNode) FieldSelection.parse("hotelName,unknownField")
+				.project(objectMapper, hotel(7L, "Sông Hàn"));
+
+		assertEquals(List.of("id", "hotelName"), fieldNames(node));
+		assertEquals(7L, node.get("id").asLong());
+		assertEquals("Sông Hàn", node.get("hotelName").asText());
+	}
+
+	@Test
+	void projectionAppliesToEveryElementOfAList() {
+		JsonNode node = (JsonNode) FieldSelection.parse("starRating")
+				.project(objectMapper, List.of(hotel(1L, "A"), hotel(2L, "B")));
+
+		assertEquals(2, node.size());
+		node.forEach(element -> assertEquals(List.of("id", "starRating"), fieldNames(element)));
+		assertEquals(2L, node.get(1).get("id").asLong());
+	}
+
+	@Test
+	void selectingEverythingReturnsTheValueUntouched() {
+		HotelResponse hotel = hotel(1L, "A");
+
+		assertSame(hotel, FieldSelection.all().project(objectMapper, hotel));
+		assertSame(null, FieldSelection.parse("id").project(objectMapper, null));
+	}
+
+	private static HotelResponse hotel(Long id, String name) {
+		HotelResponse hotel = new HotelResponse();
+		hotel.setId(id);
+		hotel.setHotelName(name);
+		hotel.setAddress("1 Bạch Đằng");
+		hotel.setStarRating(new BigDecimal("4.5"));
+		return hotel;
+	}
+
+	private static List<String> fieldNames(JsonNode node) {
+		List<String> names = new ArrayList<>();
+		node.fieldNames().forEachRemaining(names::add);
+		return names;
+	}
+}